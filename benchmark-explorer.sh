@@ -0,0 +1,161 @@
+#!/bin/bash
+
+# Mini Banking Explorer Benchmark
+# Compares the list endpoints (whole result in memory) with the keyset
+# streaming endpoints (JDBC cursor -> JSON) on a 1M row data set.
+#
+# Usage:
+#   TOKEN=<jwt> ./benchmark-explorer.sh [seed|run|all]
+#
+# Requires the dev database (./start-dev.sh) with the database-setup.sql schema
+# and a running application on $BASE_URL.
+
+set -e
+
+BASE_URL=${BASE_URL:-http://localhost:8080}
+ROWS=${ROWS:-1000000}
+PAGE_SIZE=${PAGE_SIZE:-10000}
+DB_CONTAINER=${DB_CONTAINER:-mini-banking-postgres-dev}
+
+# Fixed IDs so the run step can find the seeded data
+CUSTOMER_ID=00000000-0000-0000-0000-00000000be01
+ACCOUNT_A=00000000-0000-0000-0000-00000000be0a
+ACCOUNT_B=00000000-0000-0000-0000-00000000be0b
+
+# Colors for output
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+print_status() {
+    echo -e "${BLUE}[INFO]${NC} $1"
+}
+
+print_success() {
+    echo -e "${GREEN}[SUCCESS]${NC} $1"
+}
+
+print_error() {
+    echo -e "${RED}[ERROR]${NC} $1"
+}
+
+psql_exec() {
+    docker exec -i "$DB_CONTAINER" psql -U postgres -d mini_banking -v ON_ERROR_STOP=1 "$@"
+}
+
+# Seed $ROWS blocks and $ROWS transactions between two accounts
+seed_data() {
+    print_status "Seeding $ROWS blocks and $ROWS transactions..."
+
+    psql_exec <<SQL
+DELETE FROM transactions WHERE from_account_id IN ('$ACCOUNT_A', '$ACCOUNT_B') OR to_account_id IN ('$ACCOUNT_A', '$ACCOUNT_B');
+DELETE FROM blocks WHERE block_hash LIKE 'bench%';
+DELETE FROM accounts WHERE account_id IN ('$ACCOUNT_A', '$ACCOUNT_B');
+DELETE FROM customers WHERE customer_id = '$CUSTOMER_ID';
+
+INSERT INTO customers (customer_id, customer_code, first_name, last_name, email)
+VALUES ('$CUSTOMER_ID', 'BENCH001', 'Bench', 'Mark', 'bench@minibanking.local');
+
+INSERT INTO accounts (account_id, account_number, customer_id, account_type)
+VALUES ('$ACCOUNT_A', 'BENCH-A', '$CUSTOMER_ID', 'SAVINGS'),
+       ('$ACCOUNT_B', 'BENCH-B', '$CUSTOMER_ID', 'SAVINGS');
+
+INSERT INTO blocks (block_number, previous_hash, merkle_root, block_hash, timestamp, status)
+SELECT n, md5((n - 1)::text), md5(n::text), 'bench' || n, now() - (n || ' seconds')::interval, 'MINED'
+FROM generate_series(1000000000, 1000000000 + $ROWS - 1) AS n;
+
+INSERT INTO transactions (transaction_code, from_account_id, to_account_id, amount, transaction_type, status, created_at)
+SELECT 'BENCH' || n,
+       CASE WHEN n % 2 = 0 THEN '$ACCOUNT_A'::uuid ELSE '$ACCOUNT_B'::uuid END,
+       CASE WHEN n % 2 = 0 THEN '$ACCOUNT_B'::uuid ELSE '$ACCOUNT_A'::uuid END,
+       (n % 1000) + 1, 'TRANSFER', 'COMPLETED',
+       now() - (n || ' milliseconds')::interval
+FROM generate_series(1, $ROWS) AS n;
+
+ANALYZE blocks;
+ANALYZE transactions;
+SQL
+
+    print_success "Seed data ready"
+}
+
+# Time one request: prints "seconds bytes status"
+time_request() {
+    curl -s -o /dev/null -H "Authorization: Bearer $TOKEN" \
+        -w "%{time_total} %{size_download} %{http_code}" "$1"
+}
+
+# Walk every page of a stream endpoint, following nextAfter
+time_stream() {
+    local url=$1
+    local after=$2
+    local pages=0
+    local bytes=0
+    local start=$(date +%s.%N)
+
+    while true; do
+        local body
+        if [ -n "$after" ]; then
+            body=$(curl -s -G -H "Authorization: Bearer $TOKEN" --data-urlencode "after=$after" \
+                --data-urlencode "limit=$PAGE_SIZE" "$url")
+        else
+            body=$(curl -s -G -H "Authorization: Bearer $TOKEN" --data-urlencode "limit=$PAGE_SIZE" "$url")
+        fi
+        pages=$((pages + 1))
+        bytes=$((bytes + ${#body}))
+        after=$(echo "$body" | tail -c 200 | grep -o '"nextAfter":"[^"]*"' | cut -d'"' -f4)
+        [ -z "$after" ] && break
+    done
+
+    local end=$(date +%s.%N)
+    echo "$(echo "$end - $start" | bc) $bytes $pages"
+}
+
+run_benchmark() {
+    if [ -z "$TOKEN" ]; then
+        print_error "TOKEN is not set (obtain one from /api/auth/login)"
+        exit 1
+    fi
+
+    print_status "Blocks: list endpoint (findBlocksInRange, single response)"
+    read -r secs bytes code <<< "$(time_request "$BASE_URL/api/blockchain/blocks?startBlock=1000000000&endBlock=$((1000000000 + ROWS - 1))")"
+    echo "  ${secs}s, ${bytes} bytes, HTTP ${code}"
+
+    print_status "Blocks: keyset stream, $PAGE_SIZE per page"
+    read -r secs bytes pages <<< "$(time_stream "$BASE_URL/api/blockchain/blocks/stream" 999999999)"
+    echo "  ${secs}s, ${bytes} bytes, ${pages} pages"
+
+    print_status "Transactions: list endpoint (findByAccountId, single response)"
+    read -r secs bytes code <<< "$(time_request "$BASE_URL/api/transactions/account/$ACCOUNT_A")"
+    echo "  ${secs}s, ${bytes} bytes, HTTP ${code}"
+
+    print_status "Transactions: keyset stream, $PAGE_SIZE per page"
+    read -r secs bytes pages <<< "$(time_stream "$BASE_URL/api/transactions/account/$ACCOUNT_A/stream" "")"
+    echo "  ${secs}s, ${bytes} bytes, ${pages} pages"
+
+    print_status "Deep page latency (last page) vs first page"
+    read -r secs bytes code <<< "$(time_request "$BASE_URL/api/blockchain/blocks/stream?after=999999999&limit=100")"
+    echo "  first page: ${secs}s"
+    read -r secs bytes code <<< "$(time_request "$BASE_URL/api/blockchain/blocks/stream?after=$((1000000000 + ROWS - 101))&limit=100")"
+    echo "  last page:  ${secs}s"
+
+    print_success "Benchmark finished (watch heap with: curl $BASE_URL/actuator/metrics/jvm.memory.used)"
+}
+
+case "${1:-all}" in
+    seed)
+        seed_data
+        ;;
+    run)
+        run_benchmark
+        ;;
+    all)
+        seed_data
+        run_benchmark
+        ;;
+    *)
+        echo "Usage: $0 [seed|run|all]"
+        exit 1
+        ;;
+esac
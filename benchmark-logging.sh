@@ -0,0 +1,117 @@
+#!/bin/bash
+
+# Mini Banking Logging Overhead Load Test
+# Measures transfer throughput and p99 latency with the default (DEBUG, SQL
+# logging, synchronous console) configuration and with the "prod" profile
+# (INFO, async appender, sampled request logging), using hey
+# (https://github.com/rakyll/hey).
+#
+# Usage:
+#   TOKEN=<jwt> FROM_ACCOUNT_ID=<uuid> TO_ACCOUNT_ID=<uuid> ./benchmark-logging.sh run <label>
+#   ./benchmark-logging.sh compare
+#
+# Typical session (the from account needs enough balance for the run; each
+# transfer moves 0.01):
+#   java -jar target/mini-banking-*.jar > /tmp/app.log                              # default logging
+#   TOKEN=... FROM_ACCOUNT_ID=... TO_ACCOUNT_ID=... ./benchmark-logging.sh run default
+#   java -jar target/mini-banking-*.jar --spring.profiles.active=prod > /tmp/app.log
+#   TOKEN=... FROM_ACCOUNT_ID=... TO_ACCOUNT_ID=... ./benchmark-logging.sh run prod
+#   ./benchmark-logging.sh compare
+#
+# Redirect the application's output to a file as above: a terminal is a much
+# slower sink than the disk a production log collector reads from.
+
+set -e
+
+BASE_URL=${BASE_URL:-http://localhost:8080}
+DURATION=${DURATION:-30s}
+CONCURRENCY_LEVELS=${CONCURRENCY_LEVELS:-"10 50 200"}
+RESULTS_DIR=${RESULTS_DIR:-./benchmark-results/logging}
+
+# Colors for output
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+print_status() {
+    echo -e "${BLUE}[INFO]${NC} $1"
+}
+
+print_success() {
+    echo -e "${GREEN}[SUCCESS]${NC} $1"
+}
+
+print_error() {
+    echo -e "${RED}[ERROR]${NC} $1"
+}
+
+# Run hey and print "requests/sec p99-seconds non-2xx"
+load() {
+    local url=$1
+    local concurrency=$2
+    local output
+    output=$(hey -z "$DURATION" -c "$concurrency" -m POST -H "Authorization: Bearer $TOKEN" "$url")
+
+    local rps=$(echo "$output" | awk '/Requests\/sec/ {print $2}')
+    local p99=$(echo "$output" | awk '/99% in/ {print $3}')
+    local errors=$(echo "$output" | awk '/\[[0-9]+\]/ && $1 !~ /\[2[0-9][0-9]\]/ {sum += $2} END {print sum + 0}')
+    echo "$rps ${p99:-n/a} $errors"
+}
+
+run_benchmark() {
+    local label=$1
+    if [ -z "$label" ]; then
+        print_error "Usage: $0 run <label>"
+        exit 1
+    fi
+    if [ -z "$TOKEN" ] || [ -z "$FROM_ACCOUNT_ID" ] || [ -z "$TO_ACCOUNT_ID" ]; then
+        print_error "TOKEN, FROM_ACCOUNT_ID and TO_ACCOUNT_ID must be set"
+        exit 1
+    fi
+    if ! command -v hey > /dev/null; then
+        print_error "hey is not installed (go install github.com/rakyll/hey@latest)"
+        exit 1
+    fi
+
+    mkdir -p "$RESULTS_DIR"
+    local file="$RESULTS_DIR/$label.txt"
+    : > "$file"
+
+    local url="$BASE_URL/api/transfers?fromAccountId=$FROM_ACCOUNT_ID&toAccountId=$TO_ACCOUNT_ID&amount=0.01&description=benchmark"
+    for concurrency in $CONCURRENCY_LEVELS; do
+        print_status "[$label] transfers, $concurrency concurrent, $DURATION"
+        read -r rps p99 errors <<< "$(load "$url" "$concurrency")"
+        echo "  ${rps} req/s, p99 ${p99}s, ${errors} non-2xx"
+        echo "$concurrency $rps $p99 $errors" >> "$file"
+    done
+
+    print_success "Results written to $file"
+}
+
+compare() {
+    if [ ! -f "$RESULTS_DIR/default.txt" ] || [ ! -f "$RESULTS_DIR/prod.txt" ]; then
+        print_error "Run with labels 'default' and 'prod' first"
+        exit 1
+    fi
+
+    printf "%6s | %12s %10s | %12s %10s | %8s\n" conc "default r/s" "p99 (s)" "prod r/s" "p99 (s)" gain
+    join -j1 <(sort "$RESULTS_DIR/default.txt") <(sort "$RESULTS_DIR/prod.txt") |
+    while read -r conc drps dp99 derr prps pp99 perr; do
+        local gain=$(awk -v d="$drps" -v p="$prps" 'BEGIN { if (d > 0) printf "%+.1f%%", (p - d) * 100 / d; else print "n/a" }')
+        printf "%6s | %12s %10s | %12s %10s | %8s\n" "$conc" "$drps" "$dp99" "$prps" "$pp99" "$gain"
+    done
+}
+
+case "${1:-}" in
+    run)
+        run_benchmark "$2"
+        ;;
+    compare)
+        compare
+        ;;
+    *)
+        echo "Usage: $0 run <label> | compare"
+        exit 1
+        ;;
+esac
@@ -0,0 +1,121 @@
+#!/bin/bash
+
+# Mini Banking UUID Key Benchmark
+# Inserts $ROWS rows into two tables shaped like transactions, one keyed by
+# random v4 UUIDs (gen_random_uuid) and one by time-ordered v7 UUIDs
+# (uuid_generate_v7, V7 migration), and compares insert throughput per batch,
+# primary key index size, index blocks read from disk and WAL volume.
+#
+# Usage:
+#   ./benchmark-uuid-keys.sh [run|clean]
+#
+# Requires the dev database (./start-dev.sh) with the Flyway schema applied.
+# Run with ROWS well beyond shared_buffers worth of index (the default 10M rows
+# gives a ~300MB primary key index per table) to see the locality effect.
+
+set -e
+
+ROWS=${ROWS:-10000000}
+BATCH=${BATCH:-500000}
+DB_CONTAINER=${DB_CONTAINER:-mini-banking-postgres-dev}
+
+# Colors for output
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+print_status() {
+    echo -e "${BLUE}[INFO]${NC} $1"
+}
+
+print_success() {
+    echo -e "${GREEN}[SUCCESS]${NC} $1"
+}
+
+print_error() {
+    echo -e "${RED}[ERROR]${NC} $1"
+}
+
+psql_exec() {
+    docker exec -i "$DB_CONTAINER" psql -U postgres -d mini_banking -v ON_ERROR_STOP=1 "$@"
+}
+
+psql_value() {
+    psql_exec -At -c "$1"
+}
+
+clean_tables() {
+    psql_exec -q -c "DROP TABLE IF EXISTS bench_keys_v4, bench_keys_v7;"
+}
+
+# Insert $ROWS rows into one table in batches; prints rows/s per batch, then totals
+bench_table() {
+    local table=$1
+    local key_default=$2
+
+    psql_exec -q <<SQL
+DROP TABLE IF EXISTS $table;
+CREATE TABLE $table (
+    id UUID PRIMARY KEY DEFAULT $key_default,
+    transaction_code VARCHAR(30) NOT NULL,
+    amount DECIMAL(18,2) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+SELECT pg_stat_reset();
+SQL
+
+    print_status "$table: $ROWS rows, key DEFAULT $key_default, $BATCH rows per INSERT"
+    local wal_start=$(psql_value "SELECT pg_current_wal_lsn()")
+    local total_start=$(date +%s.%N)
+    local inserted=0
+
+    while [ "$inserted" -lt "$ROWS" ]; do
+        local start=$(date +%s.%N)
+        psql_exec -q -c "INSERT INTO $table (transaction_code, amount)
+                         SELECT 'BENCH' || n, (n % 1000) + 1 FROM generate_series($inserted + 1, $inserted + $BATCH) AS n;"
+        local end=$(date +%s.%N)
+        inserted=$((inserted + BATCH))
+        printf "  %10d rows  %10.0f rows/s\n" "$inserted" "$(echo "$BATCH / ($end - $start)" | bc -l)"
+    done
+
+    local total_end=$(date +%s.%N)
+    local wal_bytes=$(psql_value "SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), '$wal_start')")
+    psql_exec -q -c "ANALYZE $table;"
+
+    echo "  total:       $(echo "$total_end - $total_start" | bc) s"
+    echo "  pk index:    $(psql_value "SELECT pg_size_pretty(pg_relation_size('${table}_pkey'))")"
+    echo "  index reads: $(psql_value "SELECT idx_blks_read FROM pg_statio_user_indexes WHERE indexrelname = '${table}_pkey'") blocks from disk/OS cache, $(psql_value "SELECT idx_blks_hit FROM pg_statio_user_indexes WHERE indexrelname = '${table}_pkey'") from shared buffers"
+    echo "  WAL:         $(psql_value "SELECT pg_size_pretty($wal_bytes::bigint)")"
+}
+
+run_benchmark() {
+    if [ $((ROWS % BATCH)) -ne 0 ]; then
+        print_error "ROWS must be a multiple of BATCH"
+        exit 1
+    fi
+    if [ -z "$(psql_value "SELECT 1 FROM pg_proc WHERE proname = 'uuid_generate_v7'")" ]; then
+        print_error "uuid_generate_v7() not found; start the application once so Flyway applies V7"
+        exit 1
+    fi
+
+    print_status "shared_buffers = $(psql_value "SHOW shared_buffers")"
+    bench_table bench_keys_v4 "gen_random_uuid()"
+    bench_table bench_keys_v7 "uuid_generate_v7()"
+
+    print_success "Benchmark finished (drop the tables with: $0 clean)"
+}
+
+case "${1:-run}" in
+    run)
+        run_benchmark
+        ;;
+    clean)
+        clean_tables
+        print_success "Benchmark tables dropped"
+        ;;
+    *)
+        echo "Usage: $0 [run|clean]"
+        exit 1
+        ;;
+esac
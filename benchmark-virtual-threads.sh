@@ -0,0 +1,121 @@
+#!/bin/bash
+
+# Mini Banking Virtual Thread Load Test
+# Measures throughput and p99 latency of I/O-bound endpoints with the default
+# platform-thread pool and with virtual threads, using hey
+# (https://github.com/rakyll/hey).
+#
+# Usage:
+#   TOKEN=<jwt> ACCOUNT_ID=<uuid> ./benchmark-virtual-threads.sh run <label>
+#   ./benchmark-virtual-threads.sh compare
+#
+# Typical session:
+#   java -jar target/mini-banking-*.jar                                      # platform threads
+#   TOKEN=... ACCOUNT_ID=... ./benchmark-virtual-threads.sh run platform
+#   java -jar target/mini-banking-*.jar --spring.threads.virtual.enabled=true  # Java 21+
+#   TOKEN=... ACCOUNT_ID=... ./benchmark-virtual-threads.sh run virtual
+#   ./benchmark-virtual-threads.sh compare
+
+set -e
+
+BASE_URL=${BASE_URL:-http://localhost:8080}
+DURATION=${DURATION:-30s}
+CONCURRENCY_LEVELS=${CONCURRENCY_LEVELS:-"50 200 1000"}
+RESULTS_DIR=${RESULTS_DIR:-./benchmark-results}
+
+# Colors for output
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+print_status() {
+    echo -e "${BLUE}[INFO]${NC} $1"
+}
+
+print_success() {
+    echo -e "${GREEN}[SUCCESS]${NC} $1"
+}
+
+print_error() {
+    echo -e "${RED}[ERROR]${NC} $1"
+}
+
+# Run hey and print "requests/sec p99-seconds non-2xx"
+load() {
+    local url=$1
+    local concurrency=$2
+    local output
+    output=$(hey -z "$DURATION" -c "$concurrency" -H "Authorization: Bearer $TOKEN" "$url")
+
+    local rps=$(echo "$output" | awk '/Requests\/sec/ {print $2}')
+    local p99=$(echo "$output" | awk '/99% in/ {print $3}')
+    local errors=$(echo "$output" | awk '/\[[0-9]+\]/ && $1 !~ /\[2[0-9][0-9]\]/ {sum += $2} END {print sum + 0}')
+    echo "$rps ${p99:-n/a} $errors"
+}
+
+run_benchmark() {
+    local label=$1
+    if [ -z "$label" ]; then
+        print_error "Usage: $0 run <label>"
+        exit 1
+    fi
+    if [ -z "$TOKEN" ] || [ -z "$ACCOUNT_ID" ]; then
+        print_error "TOKEN and ACCOUNT_ID must be set"
+        exit 1
+    fi
+    if ! command -v hey > /dev/null; then
+        print_error "hey is not installed (go install github.com/rakyll/hey@latest)"
+        exit 1
+    fi
+
+    mkdir -p "$RESULTS_DIR"
+    local file="$RESULTS_DIR/$label.txt"
+    : > "$file"
+
+    local endpoints=(
+        "transactions $BASE_URL/api/transactions/account/$ACCOUNT_ID/stream?limit=100"
+        "ledger $BASE_URL/api/accounts/$ACCOUNT_ID/ledger"
+        "account $BASE_URL/api/accounts/$ACCOUNT_ID"
+    )
+
+    for entry in "${endpoints[@]}"; do
+        read -r name url <<< "$entry"
+        for concurrency in $CONCURRENCY_LEVELS; do
+            print_status "[$label] $name, $concurrency concurrent, $DURATION"
+            read -r rps p99 errors <<< "$(load "$url" "$concurrency")"
+            echo "  ${rps} req/s, p99 ${p99}s, ${errors} non-2xx"
+            echo "$name $concurrency $rps $p99 $errors" >> "$file"
+        done
+    done
+
+    print_success "Results written to $file"
+}
+
+compare() {
+    if [ ! -f "$RESULTS_DIR/platform.txt" ] || [ ! -f "$RESULTS_DIR/virtual.txt" ]; then
+        print_error "Run with labels 'platform' and 'virtual' first"
+        exit 1
+    fi
+
+    printf "%-14s %6s | %12s %10s | %12s %10s\n" endpoint conc "platform r/s" "p99 (s)" "virtual r/s" "p99 (s)"
+    join -j1 \
+        <(awk '{print $1"@"$2, $3, $4}' "$RESULTS_DIR/platform.txt" | sort) \
+        <(awk '{print $1"@"$2, $3, $4}' "$RESULTS_DIR/virtual.txt" | sort) |
+    while read -r key prps pp99 vrps vp99; do
+        printf "%-14s %6s | %12s %10s | %12s %10s\n" "${key%@*}" "${key#*@}" "$prps" "$pp99" "$vrps" "$vp99"
+    done
+}
+
+case "${1:-}" in
+    run)
+        run_benchmark "$2"
+        ;;
+    compare)
+        compare
+        ;;
+    *)
+        echo "Usage: $0 run <label> | compare"
+        exit 1
+        ;;
+esac
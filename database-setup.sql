@@ -1,5 +1,7 @@
 -- Mini Banking Database Setup
 -- PostgreSQL Database
+-- Application schema is managed by Flyway (src/main/resources/db/migration);
+-- this script is kept for manual setups and sample data.
 
 -- Create database
 CREATE DATABASE mini_banking;
@@ -10,6 +12,23 @@ CREATE DATABASE mini_banking;
 -- Create extensions
 CREATE EXTENSION IF NOT EXISTS "uuid-ossp";
 
+-- Time-ordered UUIDv7 for high-insert primary keys (PostgreSQL 15 has no built-in one):
+-- a random v4 with the first 48 bits replaced by Unix millis and version nibble 7
+CREATE OR REPLACE FUNCTION uuid_generate_v7()
+RETURNS UUID AS $$
+BEGIN
+    RETURN encode(
+        set_bit(
+            set_bit(
+                overlay(uuid_send(gen_random_uuid())
+                        PLACING substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::BIGINT) FROM 3)
+                        FROM 1 FOR 6),
+                52, 1),
+            53, 1),
+        'hex')::UUID;
+END;
+$$ LANGUAGE plpgsql VOLATILE;
+
 -- Create tables
 CREATE TABLE customers (
     customer_id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
@@ -27,6 +46,8 @@ CREATE TABLE customers (
     kyc_status VARCHAR(20) DEFAULT 'PENDING',
     risk_level VARCHAR(20) DEFAULT 'LOW',
     status VARCHAR(20) DEFAULT 'ACTIVE',
+    password_hash VARCHAR(100),
+    pin_hash VARCHAR(100),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
@@ -45,12 +66,30 @@ CREATE TABLE accounts (
     opened_date DATE DEFAULT CURRENT_DATE,
     closed_date DATE,
     last_transaction_date TIMESTAMP,
+    ledger_sequence BIGINT DEFAULT 0,
+    version BIGINT NOT NULL DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Blockchain tables
+CREATE TABLE blocks (
+    block_id UUID PRIMARY KEY DEFAULT uuid_generate_v7(),
+    block_number BIGINT UNIQUE NOT NULL,
+    previous_hash VARCHAR(64),
+    merkle_root VARCHAR(64) NOT NULL,
+    block_hash VARCHAR(64) UNIQUE NOT NULL,
+    nonce BIGINT DEFAULT 0,
+    difficulty INTEGER DEFAULT 4,
+    transaction_count INTEGER DEFAULT 0,
+    timestamp TIMESTAMP NOT NULL,
+    size_bytes BIGINT DEFAULT 0,
+    status VARCHAR(20) DEFAULT 'PENDING',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
 CREATE TABLE transactions (
-    transaction_id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    transaction_id UUID PRIMARY KEY DEFAULT uuid_generate_v7(),
     transaction_code VARCHAR(30) UNIQUE NOT NULL,
     from_account_id UUID REFERENCES accounts(account_id),
     to_account_id UUID REFERENCES accounts(account_id),
@@ -72,24 +111,42 @@ CREATE TABLE transactions (
     confirmation_count INTEGER DEFAULT 0
 );
 
--- Blockchain tables
-CREATE TABLE blocks (
-    block_id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
-    block_number BIGINT UNIQUE NOT NULL,
-    previous_hash VARCHAR(64),
-    merkle_root VARCHAR(64) NOT NULL,
-    block_hash VARCHAR(64) UNIQUE NOT NULL,
-    nonce BIGINT DEFAULT 0,
-    difficulty INTEGER DEFAULT 4,
-    transaction_count INTEGER DEFAULT 0,
-    timestamp TIMESTAMP NOT NULL,
-    size_bytes BIGINT DEFAULT 0,
-    status VARCHAR(20) DEFAULT 'PENDING',
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+-- Account ledger: one row per account per posting, with running balance
+CREATE TABLE account_ledger_entries (
+    entry_id UUID PRIMARY KEY DEFAULT uuid_generate_v7(),
+    account_id UUID NOT NULL REFERENCES accounts(account_id),
+    entry_sequence BIGINT NOT NULL,
+    transaction_id UUID REFERENCES transactions(transaction_id),
+    transaction_code VARCHAR(30),
+    counterparty_account_id UUID,
+    entry_type VARCHAR(10) NOT NULL,
+    amount DECIMAL(18,2) NOT NULL,
+    balance_after DECIMAL(18,2) NOT NULL,
+    description TEXT,
+    posted_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_ledger_account_sequence UNIQUE (account_id, entry_sequence)
+);
+
+-- Projection checkpoint for the in-memory ledger engine (banking.service.type=engine)
+CREATE TABLE ledger_engine_checkpoint (
+    engine_id VARCHAR(50) PRIMARY KEY,
+    last_sequence BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- HSM-wrapped per-tenant data keys for envelope encryption (EnvelopeEncryptionService)
+CREATE TABLE tenant_data_keys (
+    data_key_id UUID PRIMARY KEY DEFAULT uuid_generate_v7(),
+    tenant_id VARCHAR(64) NOT NULL,
+    kek_version INTEGER NOT NULL,
+    wrapped_key BYTEA NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    rewrapped_at TIMESTAMP
 );
 
 -- Create indexes
 CREATE INDEX idx_customers_email ON customers(email);
+CREATE INDEX idx_tenant_data_keys_tenant_kek ON tenant_data_keys(tenant_id, kek_version);
 CREATE INDEX idx_customers_phone ON customers(phone);
 CREATE INDEX idx_customers_id_number ON customers(id_number);
 CREATE INDEX idx_customers_status ON customers(status);
@@ -120,6 +177,13 @@ CREATE INDEX idx_blocks_timestamp ON blocks(timestamp);
 CREATE INDEX idx_transactions_account_date ON transactions(from_account_id, created_at);
 CREATE INDEX idx_transactions_status_date ON transactions(status, created_at);
 
+-- Ledger: history pages use uk_ledger_account_sequence, statements and balance-as-of use this
+CREATE INDEX idx_ledger_account_posted ON account_ledger_entries(account_id, posted_at, entry_sequence);
+
+-- Keyset pagination indexes for the explorer stream endpoints
+CREATE INDEX idx_transactions_from_keyset ON transactions(from_account_id, created_at DESC, transaction_id DESC);
+CREATE INDEX idx_transactions_to_keyset ON transactions(to_account_id, created_at DESC, transaction_id DESC);
+
 -- Create triggers for updated_at
 CREATE OR REPLACE FUNCTION update_updated_at_column()
 RETURNS TRIGGER AS $$
@@ -202,7 +266,7 @@ CREATE TABLE devices (
 );
 
 CREATE TABLE sessions (
-    session_id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    session_id UUID PRIMARY KEY DEFAULT uuid_generate_v7(),
     user_id UUID NOT NULL,
     device_fingerprint VARCHAR(255),
     token_hash VARCHAR(255) NOT NULL,
@@ -230,6 +294,8 @@ CREATE INDEX idx_sessions_refresh_token ON sessions(refresh_token_hash);
 CREATE INDEX idx_sessions_device ON sessions(user_id, device_fingerprint);
 CREATE INDEX idx_sessions_expires ON sessions(expires_at);
 CREATE INDEX idx_sessions_active ON sessions(is_active, expires_at);
+CREATE INDEX idx_sessions_inactive_activity ON sessions(last_activity) WHERE is_active = false;
+CREATE INDEX idx_devices_inactive_last_login ON devices(last_login) WHERE is_active = false;
 
 -- Views for authentication
 CREATE VIEW device_summary AS
@@ -303,5 +369,3 @@ INSERT INTO validators (validator_name, public_key, is_authorized, priority, nod
 ('Bank-Validator-2', 'MIIBIjANBgkqhkiG9w0BAQEFAAOCAQ8AMIIBCgKCAQEB...', TRUE, 90, 'http://localhost:8081'),
 ('Bank-Validator-3', 'MIIBIjANBgkqhkiG9w0BAQEFAAOCAQ8AMIIBCgKCAQEC...', TRUE, 80, 'http://localhost:8082');
 
-
-
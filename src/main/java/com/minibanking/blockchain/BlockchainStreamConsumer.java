@@ -204,7 +204,7 @@ public class BlockchainStreamConsumer implements StreamListener<String, MapRecor
             event.setToAccountNumber(messageValue.get("toAccountNumber"));
             
             if (messageValue.get("amount") != null) {
-                event.setAmount(new java.math.BigDecimal(messageValue.get("amount")));
+                event.setMoneyAmount(com.minibanking.entity.Money.parse(messageValue.get("amount")));
             }
             event.setCurrency(messageValue.get("currency"));
             event.setDescription(messageValue.get("description"));
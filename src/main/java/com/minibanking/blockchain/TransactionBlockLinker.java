@@ -1,6 +1,7 @@
 package com.minibanking.blockchain;
 
 import com.minibanking.entity.Transaction;
+import com.minibanking.repository.BlockRepository;
 import com.minibanking.repository.TransactionRepository;
 import com.minibanking.crypto.HashUtils;
 import com.minibanking.crypto.IMerkleService;
@@ -23,6 +24,9 @@ public class TransactionBlockLinker {
     @Autowired
     private TransactionRepository transactionRepository;
     
+    @Autowired
+    private BlockRepository blockRepository;
+    
     @Autowired
     private IMerkleService merkleService;
     
@@ -35,7 +39,7 @@ public class TransactionBlockLinker {
             
             for (TransactionEvent event : transactionEvents) {
                 // Find transaction by code
-                Transaction transaction = transactionRepository.findByTransactionCode(event.getTransactionCode())
+                Transaction transaction = transactionRepository.findByTransactionCodeWithinPartition(event.getTransactionCode())
                     .orElse(null);
                 
                 if (transaction != null) {
@@ -92,15 +96,16 @@ public class TransactionBlockLinker {
      */
     public boolean verifyTransactionInBlock(String transactionCode, Long blockNumber) {
         try {
-            Transaction transaction = transactionRepository.findByTransactionCode(transactionCode)
+            Transaction transaction = transactionRepository.findByTransactionCodeWithinPartition(transactionCode)
                 .orElse(null);
             
             if (transaction == null || transaction.getBlockId() == null) {
                 return false;
             }
             
-            // Get block info via JOIN query
-            List<Transaction> transactionsInBlock = transactionRepository.findByBlockNumber(blockNumber);
+            // Get block info via JOIN query, pruned to the partitions around the transaction
+            List<Transaction> transactionsInBlock = transactionRepository.findByBlockNumber(blockNumber,
+                transaction.getCreatedAt().minusHours(1), transaction.getCreatedAt().plusHours(1));
             if (!transactionsInBlock.contains(transaction)) {
                 return false;
             }
@@ -124,14 +129,16 @@ public class TransactionBlockLinker {
      * Get transactions in a block
      */
     public List<Transaction> getTransactionsInBlock(Long blockNumber) {
-        return transactionRepository.findByBlockNumber(blockNumber);
+        return blockRepository.findByBlockNumber(blockNumber)
+            .map(block -> transactionRepository.findByBlockNumberAround(blockNumber, block.getTimestamp()))
+            .orElse(List.of());
     }
     
     /**
      * Get transaction confirmation count
      */
     public int getTransactionConfirmationCount(String transactionCode) {
-        Transaction transaction = transactionRepository.findByTransactionCode(transactionCode)
+        Transaction transaction = transactionRepository.findByTransactionCodeWithinPartition(transactionCode)
             .orElse(null);
         
         return transaction != null ? transaction.getConfirmationCount() : 0;
@@ -141,7 +148,7 @@ public class TransactionBlockLinker {
      * Update transaction confirmation
      */
     public void updateTransactionConfirmation(String transactionCode) {
-        Transaction transaction = transactionRepository.findByTransactionCode(transactionCode)
+        Transaction transaction = transactionRepository.findByTransactionCodeWithinPartition(transactionCode)
             .orElse(null);
         
         if (transaction != null) {
@@ -1,6 +1,8 @@
 package com.minibanking.blockchain;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.minibanking.entity.Money;
 import com.minibanking.entity.Transaction;
 
 import java.math.BigDecimal;
@@ -18,7 +20,7 @@ public class TransactionEvent {
     private String fromAccountNumber;
     private UUID toAccountId;
     private String toAccountNumber;
-    private BigDecimal amount;
+    private Money amount; // BigDecimal only in the JSON accessors
     private String currency;
     private String description;
     private String transactionType;
@@ -40,7 +42,7 @@ public class TransactionEvent {
         this.fromAccountNumber = transaction.getFromAccount() != null ? transaction.getFromAccount().getAccountNumber() : null;
         this.toAccountId = transaction.getToAccount() != null ? transaction.getToAccount().getAccountId() : null;
         this.toAccountNumber = transaction.getToAccount() != null ? transaction.getToAccount().getAccountNumber() : null;
-        this.amount = transaction.getAmount();
+        this.amount = transaction.getAmount() != null ? Money.of(transaction.getAmount()) : null;
         this.currency = transaction.getCurrency();
         this.description = transaction.getDescription();
         this.transactionType = transaction.getTransactionType().name();
@@ -67,8 +69,12 @@ public class TransactionEvent {
     public String getToAccountNumber() { return toAccountNumber; }
     public void setToAccountNumber(String toAccountNumber) { this.toAccountNumber = toAccountNumber; }
     
-    public BigDecimal getAmount() { return amount; }
-    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public BigDecimal getAmount() { return amount != null ? amount.toBigDecimal() : null; }
+    public void setAmount(BigDecimal amount) { this.amount = amount != null ? Money.of(amount) : null; }
+    
+    // Stream codec accessors (TransactionStreamProducer / BlockchainStreamConsumer)
+    @JsonIgnore Money getMoneyAmount() { return amount; }
+    @JsonIgnore void setMoneyAmount(Money amount) { this.amount = amount; }
     
     public String getCurrency() { return currency; }
     public void setCurrency(String currency) { this.currency = currency; }
@@ -20,7 +20,7 @@ public class TransactionStreamProducer {
     
     private static final Logger logger = LoggerFactory.getLogger(TransactionStreamProducer.class);
     
-    private static final String STREAM_NAME = "transaction-events";
+    public static final String STREAM_NAME = "transaction-events";
     private static final String BLOCKCHAIN_STREAM_NAME = "blockchain-events";
     
     @Autowired
@@ -34,34 +34,42 @@ public class TransactionStreamProducer {
      */
     public void sendTransactionEvent(TransactionEvent transactionEvent) {
         try {
-            logger.info("Sending transaction event to stream: {}", transactionEvent.getTransactionId());
+            logger.debug("Sending transaction event to stream: {}", transactionEvent.getTransactionId());
             
-            Map<String, Object> fields = new HashMap<>();
-            fields.put("transactionId", transactionEvent.getTransactionId().toString());
-            fields.put("transactionCode", transactionEvent.getTransactionCode());
-            fields.put("fromAccountId", transactionEvent.getFromAccountId() != null ? transactionEvent.getFromAccountId().toString() : "");
-            fields.put("fromAccountNumber", transactionEvent.getFromAccountNumber() != null ? transactionEvent.getFromAccountNumber() : "");
-            fields.put("toAccountId", transactionEvent.getToAccountId() != null ? transactionEvent.getToAccountId().toString() : "");
-            fields.put("toAccountNumber", transactionEvent.getToAccountNumber() != null ? transactionEvent.getToAccountNumber() : "");
-            fields.put("amount", transactionEvent.getAmount().toString());
-            fields.put("currency", transactionEvent.getCurrency());
-            fields.put("description", transactionEvent.getDescription() != null ? transactionEvent.getDescription() : "");
-            fields.put("transactionType", transactionEvent.getTransactionType());
-            fields.put("status", transactionEvent.getStatus());
-            fields.put("timestamp", transactionEvent.getTimestamp().toString());
-            fields.put("signature", transactionEvent.getSignature() != null ? transactionEvent.getSignature() : "");
-            fields.put("merkleProof", transactionEvent.getMerkleProof() != null ? transactionEvent.getMerkleProof() : "");
+            Map<String, Object> fields = toStreamFields(transactionEvent);
             
             // Add to Redis Stream
             String messageId = redisTemplate.opsForStream().add(STREAM_NAME, fields);
             
-            logger.info("Transaction event sent successfully with message ID: {}", messageId);
+            logger.debug("Transaction event sent successfully with message ID: {}", messageId);
             
         } catch (Exception e) {
             logger.error("Error sending transaction event to stream", e);
             throw new RuntimeException("Failed to send transaction event", e);
         }
     }
+
+    /**
+     * Stream entry fields for a transaction event
+     */
+    public static Map<String, Object> toStreamFields(TransactionEvent event) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("transactionId", event.getTransactionId().toString());
+        fields.put("transactionCode", event.getTransactionCode());
+        fields.put("fromAccountId", event.getFromAccountId() != null ? event.getFromAccountId().toString() : "");
+        fields.put("fromAccountNumber", event.getFromAccountNumber() != null ? event.getFromAccountNumber() : "");
+        fields.put("toAccountId", event.getToAccountId() != null ? event.getToAccountId().toString() : "");
+        fields.put("toAccountNumber", event.getToAccountNumber() != null ? event.getToAccountNumber() : "");
+        fields.put("amount", event.getMoneyAmount().toString());
+        fields.put("currency", event.getCurrency());
+        fields.put("description", event.getDescription() != null ? event.getDescription() : "");
+        fields.put("transactionType", event.getTransactionType());
+        fields.put("status", event.getStatus());
+        fields.put("timestamp", event.getTimestamp().toString());
+        fields.put("signature", event.getSignature() != null ? event.getSignature() : "");
+        fields.put("merkleProof", event.getMerkleProof() != null ? event.getMerkleProof() : "");
+        return fields;
+    }
     
     /**
      * Send blockchain event to Redis Stream
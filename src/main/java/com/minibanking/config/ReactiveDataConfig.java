@@ -0,0 +1,116 @@
+package com.minibanking.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import java.time.Duration;
+
+/**
+ * Reactive data access for banking.service.type=reactive
+ *
+ * Builds an R2DBC pool against the same PostgreSQL database as the JDBC DataSource
+ * and a reactive Redis template with the same serializers as RedisConfig. The
+ * R2DBC transaction manager is used only through the TransactionalOperator and is
+ * not registered as a bean, so @Transactional keeps resolving to JPA.
+ */
+@Configuration
+@ConditionalOnProperty(name = "banking.service.type", havingValue = "reactive")
+public class ReactiveDataConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveDataConfig.class);
+
+    @Value("${spring.datasource.url}")
+    private String jdbcUrl;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    @Value("${banking.reactive.pool.initial-size:5}")
+    private int initialSize;
+
+    @Value("${banking.reactive.pool.max-size:20}")
+    private int maxSize;
+
+    @Value("${banking.reactive.pool.max-acquire-time-ms:5000}")
+    private long maxAcquireTimeMs;
+
+    @Value("${banking.reactive.pool.max-idle-time-ms:600000}")
+    private long maxIdleTimeMs;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool reactiveConnectionFactory() {
+        String r2dbcUrl = toR2dbcUrl(jdbcUrl);
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(r2dbcUrl).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+
+        ConnectionPoolConfiguration configuration = ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get(options))
+                .name("reactive-banking")
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxAcquireTime(Duration.ofMillis(maxAcquireTimeMs))
+                .maxIdleTime(Duration.ofMillis(maxIdleTimeMs))
+                .build();
+
+        logger.info("Reactive connection pool for {} (max {} connections)", r2dbcUrl, maxSize);
+        return new ConnectionPool(configuration);
+    }
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(ConnectionFactory reactiveConnectionFactory) {
+        return DatabaseClient.create(reactiveConnectionFactory);
+    }
+
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator(ConnectionFactory reactiveConnectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(reactiveConnectionFactory));
+    }
+
+    /**
+     * Reactive template with the same key/hash serializers as the blocking RedisTemplate,
+     * so stream entries written by either path read back the same
+     */
+    @Bean
+    public ReactiveRedisTemplate<String, Object> reactiveRedisTemplate(ReactiveRedisConnectionFactory connectionFactory) {
+        GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer();
+        RedisSerializationContext<String, Object> context = RedisSerializationContext
+                .<String, Object>newSerializationContext(new StringRedisSerializer())
+                .value(jsonSerializer)
+                .hashKey(new StringRedisSerializer())
+                .hashValue(jsonSerializer)
+                .build();
+        return new ReactiveRedisTemplate<>(connectionFactory, context);
+    }
+
+    /**
+     * jdbc:postgresql://host:port/db?params -> r2dbc:postgresql://host:port/db?params
+     */
+    static String toR2dbcUrl(String jdbcUrl) {
+        if (jdbcUrl == null || !jdbcUrl.startsWith("jdbc:")) {
+            throw new IllegalArgumentException("Unsupported datasource URL: " + jdbcUrl);
+        }
+        return "r2dbc:" + jdbcUrl.substring("jdbc:".length());
+    }
+}
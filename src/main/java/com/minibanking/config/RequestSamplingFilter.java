@@ -0,0 +1,61 @@
+package com.minibanking.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sampled per-request logging
+ *
+ * A fraction of requests (banking.logging.sample-rate) is marked with the MDC key
+ * "sampled" while it runs on the request thread; SampledRequestTurboFilter then lets
+ * the application's DEBUG lines for that request through even when the configured
+ * level is INFO, and a summary line (method, path, status, time) is logged when it
+ * completes. Unsampled requests only pay for one random draw.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestSamplingFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestSamplingFilter.class);
+
+    public static final String MDC_KEY = "sampled";
+
+    @Value("${banking.logging.sample-rate:0.01}") // 0 disables sampling, 1 samples every request
+    private double sampleRate = 0.01;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!isSampled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        MDC.put(MDC_KEY, "true");
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            logger.info("Sampled request {} {} -> {} in {} ms", request.getMethod(), request.getRequestURI(),
+                    response.getStatus(), (System.nanoTime() - start) / 1_000_000);
+            MDC.remove(MDC_KEY);
+        }
+    }
+
+    boolean isSampled() {
+        return sampleRate > 0 && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+}
@@ -0,0 +1,151 @@
+package com.minibanking.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.SQLTransientConnectionException;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bounds concurrent use of pooled connections with semaphores
+ *
+ * With virtual threads the number of concurrent requests is no longer capped by the
+ * Tomcat pool, so thousands of requests can queue inside Hikari or the Lettuce pool.
+ * The DataSource and RedisConnectionFactory beans are wrapped so that borrowing a
+ * connection takes a permit (waiting at most acquire-timeout-ms) and closing it
+ * returns the permit, which turns pool exhaustion into a fast, explicit failure.
+ *
+ * A Redis connection that enters pub/sub mode (the listener containers) returns
+ * its permit on subscribe, since it is held for the application's lifetime and
+ * would otherwise shrink the bulkhead for request traffic. Reactive Redis
+ * connections share the Redis permits but never wait for one: they are taken on
+ * event-loop threads, so an exhausted bulkhead fails the call immediately.
+ * Permits are meant to be sized below the pool sizes, so excess load is shed here
+ * instead of queueing for the pool's connection timeout.
+ */
+public class ResourceBulkheadPostProcessor implements BeanPostProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceBulkheadPostProcessor.class);
+
+    private static final Set<String> REDIS_CONNECTION_METHODS =
+            Set.of("getConnection", "getClusterConnection", "getSentinelConnection");
+    private static final Set<String> REACTIVE_CONNECTION_METHODS =
+            Set.of("getReactiveConnection", "getReactiveClusterConnection");
+    
+    private static final Set<String> CLOSE = Set.of("close");
+    private static final Set<String> CLOSE_OR_SUBSCRIBE = Set.of("close", "subscribe", "pSubscribe");
+    private static final Set<String> CLOSE_OR_CLOSE_LATER = Set.of("close", "closeLater");
+
+    private final Semaphore jdbcPermits;
+    private final Semaphore redisPermits;
+    private final long acquireTimeoutMs;
+
+    public ResourceBulkheadPostProcessor(int jdbcPermits, int redisPermits, long acquireTimeoutMs) {
+        this.jdbcPermits = new Semaphore(jdbcPermits, true);
+        this.redisPermits = new Semaphore(redisPermits, true);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (bean instanceof DataSource) {
+            logger.info("Bounding DataSource '{}' to {} concurrent connections", beanName, jdbcPermits.availablePermits());
+            return wrap(bean, (proxy, method, args) -> {
+                if (!"getConnection".equals(method.getName())) {
+                    return invoke(bean, method, args);
+                }
+                if (!acquire(jdbcPermits)) {
+                    throw new SQLTransientConnectionException(
+                            "No database connection available within " + acquireTimeoutMs + " ms");
+                }
+                return releasingOn(CLOSE, invokeOrRelease(bean, method, args, jdbcPermits), jdbcPermits);
+            });
+        }
+        if (bean instanceof RedisConnectionFactory) {
+            logger.info("Bounding RedisConnectionFactory '{}' to {} concurrent connections", beanName, redisPermits.availablePermits());
+            return wrap(bean, (proxy, method, args) -> {
+                if (REACTIVE_CONNECTION_METHODS.contains(method.getName())) {
+                    if (!redisPermits.tryAcquire()) {
+                        throw new RedisConnectionFailureException("No Redis connection available");
+                    }
+                    return releasingOn(CLOSE_OR_CLOSE_LATER, invokeOrRelease(bean, method, args, redisPermits), redisPermits);
+                }
+                if (!REDIS_CONNECTION_METHODS.contains(method.getName())) {
+                    return invoke(bean, method, args);
+                }
+                if (!acquire(redisPermits)) {
+                    throw new RedisConnectionFailureException(
+                            "No Redis connection available within " + acquireTimeoutMs + " ms");
+                }
+                return releasingOn(CLOSE_OR_SUBSCRIBE, invokeOrRelease(bean, method, args, redisPermits), redisPermits);
+            });
+        }
+        return bean;
+    }
+
+    public int getAvailableJdbcPermits() {
+        return jdbcPermits.availablePermits();
+    }
+
+    public int getAvailableRedisPermits() {
+        return redisPermits.availablePermits();
+    }
+
+    private boolean acquire(Semaphore permits) throws InterruptedException {
+        return permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Proxy a borrowed connection so that the first call to one of the given methods returns the permit
+     */
+    private Object releasingOn(Set<String> releaseMethods, Object connection, Semaphore permits) {
+        AtomicBoolean released = new AtomicBoolean();
+        return wrap(connection, (proxy, method, args) -> {
+            if (releaseMethods.contains(method.getName())) {
+                try {
+                    return invoke(connection, method, args);
+                } finally {
+                    if (released.compareAndSet(false, true)) {
+                        permits.release();
+                    }
+                }
+            }
+            return invoke(connection, method, args);
+        });
+    }
+
+    private static Object invokeOrRelease(Object target, Method method, Object[] args, Semaphore permits) throws Throwable {
+        try {
+            return invoke(target, method, args);
+        } catch (Throwable e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Object wrap(Object target, InvocationHandler handler) {
+        Class<?>[] interfaces = ClassUtils.getAllInterfacesForClass(target.getClass());
+        return Proxy.newProxyInstance(target.getClass().getClassLoader(), interfaces, handler);
+    }
+}
@@ -0,0 +1,37 @@
+package com.minibanking.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Logback turbo filter enabling DEBUG for sampled requests
+ *
+ * Accepts DEBUG and above from loggers under loggerPrefix (com.minibanking by
+ * default) on threads marked by RequestSamplingFilter, whatever their configured
+ * level; everything else is left to the normal level checks. Turbo filters run on
+ * every log call, so TRACE calls and unsampled threads return after a level compare
+ * and one MDC lookup.
+ */
+public class SampledRequestTurboFilter extends TurboFilter {
+
+    private String loggerPrefix = "com.minibanking";
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!isStarted() || level == null || level.levelInt < Level.DEBUG_INT) {
+            return FilterReply.NEUTRAL;
+        }
+        if (MDC.get(RequestSamplingFilter.MDC_KEY) == null || !logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        return FilterReply.ACCEPT;
+    }
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+}
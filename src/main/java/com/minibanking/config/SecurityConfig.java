@@ -1,8 +1,10 @@
 package com.minibanking.config;
 
+import com.minibanking.security.auth.PasswordHashCalibrator;
 import com.minibanking.security.jwt.JwtAuthenticationFilter;
 import com.minibanking.security.jwt.JwtService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -26,6 +28,18 @@ public class SecurityConfig {
     @Autowired
     private JwtService jwtService;
 
+    @Value("${auth.credentials.bcrypt-strength:0}") // 0 = calibrate at startup
+    private int bcryptStrength;
+
+    @Value("${auth.credentials.target-hash-ms:250}")
+    private long targetHashMillis;
+
+    @Value("${auth.credentials.min-strength:10}")
+    private int minStrength;
+
+    @Value("${auth.credentials.max-strength:16}")
+    private int maxStrength;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -70,8 +84,14 @@ public class SecurityConfig {
         return http.build();
     }
     
+    /**
+     * BCrypt encoder; the cost is calibrated to target-hash-ms unless fixed by bcrypt-strength
+     */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int strength = bcryptStrength > 0
+            ? bcryptStrength
+            : PasswordHashCalibrator.calibrate(targetHashMillis, minStrength, maxStrength);
+        return new BCryptPasswordEncoder(strength);
     }
 }
@@ -3,7 +3,12 @@ package com.minibanking.config;
 import com.minibanking.crypto.BankingMerkleService;
 import com.minibanking.interfaces.IMerkleService;
 import com.minibanking.service.BankingService;
+import com.minibanking.service.LedgerEngineBankingService;
+import com.minibanking.service.ReactiveBankingService;
 import com.minibanking.interfaces.IBankingService;
+import com.minibanking.security.otp.InMemoryOTPStore;
+import com.minibanking.security.otp.OTPStore;
+import com.minibanking.security.otp.RedisOTPStore;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -53,6 +58,35 @@ public class ServiceConfig {
         return new BankingService(); // Fallback to standard for now
     }
     
+    /**
+     * Reactive Banking Service
+     * Used when banking.service.type=reactive: transfers and balance reads also run
+     * non-blocking on R2DBC (see ReactiveDataConfig); other operations stay on the standard service
+     */
+    @Bean
+    @ConditionalOnProperty(name = "banking.service.type", havingValue = "reactive")
+    public IBankingService reactiveModeBankingService() {
+        return new BankingService();
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = "banking.service.type", havingValue = "reactive")
+    public ReactiveBankingService reactiveBankingService() {
+        return new ReactiveBankingService();
+    }
+    
+    /**
+     * Ledger Engine Banking Service
+     * Used when banking.service.type=engine: postings run on the in-memory
+     * single-writer ledger engine and PostgreSQL is updated as a projection
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "banking.service.type", havingValue = "engine")
+    public IBankingService ledgerEngineBankingService() {
+        return new LedgerEngineBankingService();
+    }
+    
     // ==================== MERKLE SERVICE CONFIGURATION ====================
     
     /**
@@ -89,4 +123,26 @@ public class ServiceConfig {
         // return new MemoryEfficientMerkleService();
         return new BankingMerkleService(); // Fallback to standard for now
     }
+    
+    // ==================== OTP STORE CONFIGURATION ====================
+    
+    /**
+     * Redis OTP Store
+     * Shared by all nodes; used when otp.store.type=redis (default)
+     */
+    @Bean
+    @ConditionalOnProperty(name = "otp.store.type", havingValue = "redis", matchIfMissing = true)
+    public OTPStore redisOTPStore() {
+        return new RedisOTPStore();
+    }
+    
+    /**
+     * In-Memory OTP Store
+     * Single node only; used when otp.store.type=memory
+     */
+    @Bean
+    @ConditionalOnProperty(name = "otp.store.type", havingValue = "memory")
+    public OTPStore inMemoryOTPStore() {
+        return new InMemoryOTPStore();
+    }
 }
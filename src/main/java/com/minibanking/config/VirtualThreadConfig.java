@@ -0,0 +1,32 @@
+package com.minibanking.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Virtual Thread Configuration
+ *
+ * Opt-in via spring.threads.virtual.enabled=true on a Java 21+ runtime (the build
+ * still targets Java 17). Spring Boot then serves Tomcat requests and the
+ * application task executor on virtual threads; this configuration additionally
+ * runs the @Async blockchain consumer on that executor and bounds the JDBC and
+ * Redis connection pools with semaphores. With the default platform-thread mode
+ * none of this is active.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@EnableAsync
+public class VirtualThreadConfig {
+
+    @Bean
+    public static ResourceBulkheadPostProcessor resourceBulkheadPostProcessor(
+            @Value("${banking.threads.bulkhead.jdbc-permits:40}") int jdbcPermits,
+            @Value("${banking.threads.bulkhead.redis-permits:6}") int redisPermits,
+            @Value("${banking.threads.bulkhead.acquire-timeout-ms:1000}") long acquireTimeoutMs) {
+        return new ResourceBulkheadPostProcessor(jdbcPermits, redisPermits, acquireTimeoutMs);
+    }
+}
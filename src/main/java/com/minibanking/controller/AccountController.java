@@ -2,8 +2,10 @@ package com.minibanking.controller;
 
 import com.minibanking.dto.CreateAccountRequest;
 import com.minibanking.entity.Account;
+import com.minibanking.entity.AccountLedgerEntry;
 import com.minibanking.entity.Customer;
 import com.minibanking.interfaces.IBankingService;
+import com.minibanking.service.AccountLedgerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,11 +14,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -29,6 +33,9 @@ public class AccountController {
     @Autowired
     private IBankingService bankingService;
     
+    @Autowired
+    private AccountLedgerService ledgerService;
+    
     @Operation(summary = "Create a new account", description = "Creates a new bank account for a customer with minimal required information")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Account created successfully",
@@ -98,7 +105,7 @@ public class AccountController {
         return ResponseEntity.ok(accounts);
     }
     
-    @Operation(summary = "Get account balance", description = "Retrieves the current balance of an account")
+    @Operation(summary = "Get account balance", description = "Retrieves the current balance of an account. Served from the balance cache unless consistent=true: usually within a second of the last posting, but up to banking.balance-cache.redis-ttl-seconds (60s by default) behind if a cache update was lost")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Balance retrieved successfully",
                 content = @Content(mediaType = "application/json", schema = @Schema(type = "string", example = "1000.00"))),
@@ -107,12 +114,61 @@ public class AccountController {
     @GetMapping("/{accountId}/balance")
     public ResponseEntity<BigDecimal> getAccountBalance(
             @Parameter(description = "Account ID", required = true)
-            @PathVariable UUID accountId) {
+            @PathVariable UUID accountId,
+            @Parameter(description = "Bypass the balance cache and read the committed balance")
+            @RequestParam(defaultValue = "false") boolean consistent) {
         try {
-            BigDecimal balance = bankingService.getAccountBalance(accountId);
+            BigDecimal balance = bankingService.getAccountBalance(accountId, consistent);
             return ResponseEntity.ok(balance);
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
     }
+    
+    @Operation(summary = "Get account ledger", description = "Ledger entries with running balance, newest first. Pass the last entrySequence as beforeSequence to fetch the next page")
+    @ApiResponse(responseCode = "200", description = "Page of ledger entries",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = AccountLedgerEntry.class)))
+    @GetMapping("/{accountId}/ledger")
+    public ResponseEntity<List<AccountLedgerEntry>> getLedger(
+            @Parameter(description = "Account ID", required = true)
+            @PathVariable UUID accountId,
+            @Parameter(description = "Only return entries older than this sequence")
+            @RequestParam(required = false) Long beforeSequence,
+            @Parameter(description = "Page size")
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(ledgerService.getHistory(accountId, beforeSequence, limit));
+    }
+    
+    @Operation(summary = "Get account statement", description = "Opening balance, entries and closing balance for a period [from, to)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Statement generated",
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = AccountLedgerService.AccountStatement.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid period")
+    })
+    @GetMapping("/{accountId}/statement")
+    public ResponseEntity<AccountLedgerService.AccountStatement> getStatement(
+            @Parameter(description = "Account ID", required = true)
+            @PathVariable UUID accountId,
+            @Parameter(description = "Period start (inclusive), ISO date-time", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Period end (exclusive), ISO date-time", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            return ResponseEntity.ok(ledgerService.getStatement(accountId, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+    
+    @Operation(summary = "Get balance as of time", description = "Retrieves the account balance at a point in time from the ledger")
+    @ApiResponse(responseCode = "200", description = "Balance retrieved successfully",
+            content = @Content(mediaType = "application/json", schema = @Schema(type = "string", example = "1000.00")))
+    @GetMapping("/{accountId}/balance/as-of")
+    public ResponseEntity<BigDecimal> getBalanceAsOf(
+            @Parameter(description = "Account ID", required = true)
+            @PathVariable UUID accountId,
+            @Parameter(description = "Point in time, ISO date-time", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return ResponseEntity.ok(ledgerService.getBalanceAsOf(accountId, at));
+    }
 }
@@ -48,7 +48,9 @@ public class AuthenticationController {
         @ApiResponse(responseCode = "200", description = "Login successful",
                 content = @Content(mediaType = "application/json", schema = @Schema(implementation = LoginResponse.class))),
         @ApiResponse(responseCode = "401", description = "Authentication failed"),
-        @ApiResponse(responseCode = "423", description = "Device locked")
+        @ApiResponse(responseCode = "423", description = "Device locked"),
+        @ApiResponse(responseCode = "429", description = "Too many login attempts"),
+        @ApiResponse(responseCode = "503", description = "Credential verification overloaded")
     })
     public ResponseEntity<LoginResponse> login(
             @Parameter(description = "Login credentials", required = true)
@@ -63,7 +65,7 @@ public class AuthenticationController {
                        request.getUsername(), request.getDeviceFingerprint());
             
             // Authenticate user
-            LoginResponse response = authenticationService.authenticate(request);
+            LoginResponse response = authenticationService.authenticate(request, getClientIpAddress(httpRequest));
             
             if (response.isSuccess()) {
                 logger.info("Login successful for user: {}", request.getUsername());
@@ -71,6 +73,11 @@ public class AuthenticationController {
             } else if (response.requires2FA()) {
                 logger.info("2FA required for user: {}", request.getUsername());
                 return ResponseEntity.ok(response);
+            } else if (response.isRateLimited()) {
+                logger.warn("Login rate limited for user: {}", request.getUsername());
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(response);
+            } else if (response.isOverloaded()) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
             } else {
                 logger.warn("Login failed for user: {} - {}", request.getUsername(), response.getMessage());
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
@@ -2,6 +2,7 @@ package com.minibanking.controller;
 
 import com.minibanking.entity.Block;
 import com.minibanking.service.BlockchainService;
+import com.minibanking.service.ExplorerStreamService;
 import com.minibanking.blockchain.BlockchainStreamConsumer;
 import com.minibanking.blockchain.TransactionStreamProducer;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,8 +11,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -37,6 +40,9 @@ public class BlockchainController {
     @Autowired
     private BlockchainStreamConsumer streamConsumer;
 
+    @Autowired
+    private ExplorerStreamService explorerStreamService;
+
     /**
      * Get blockchain information
      */
@@ -124,6 +130,29 @@ public class BlockchainController {
         }
     }
 
+    /**
+     * Stream blocks page by page (keyset pagination)
+     */
+    @GetMapping("/blocks/stream")
+    @Operation(summary = "Stream blocks", description = "Keyset-paginated blocks after a block number, streamed as JSON. Pass the returned nextAfter to fetch the next page")
+    public ResponseEntity<StreamingResponseBody> streamBlocks(
+            @Parameter(description = "Return blocks with a block number greater than this") @RequestParam(defaultValue = "-1") Long after,
+            @Parameter(description = "Page size") @RequestParam(required = false) Integer limit) {
+        try {
+            int pageSize = explorerStreamService.resolveLimit(limit);
+            StreamingResponseBody body = out -> explorerStreamService.streamBlocks(after, pageSize, out);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(body);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid block stream request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error streaming blocks after: {}", after, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     /**
      * Verify block integrity
      */
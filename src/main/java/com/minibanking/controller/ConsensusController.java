@@ -3,6 +3,7 @@ package com.minibanking.controller;
 import com.minibanking.entity.Block;
 import com.minibanking.entity.Validator;
 import com.minibanking.service.ProofOfAuthorityService;
+import com.minibanking.service.ValidatorFailoverService;
 import com.minibanking.service.ValidatorManagementService;
 import com.minibanking.blockchain.TransactionEvent;
 import io.swagger.v3.oas.annotations.Operation;
@@ -20,6 +21,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -40,6 +42,9 @@ public class ConsensusController {
     @Autowired
     private ValidatorManagementService validatorService;
 
+    @Autowired
+    private ValidatorFailoverService failoverService;
+
     /**
      * Create block using PoA consensus
      */
@@ -127,6 +132,20 @@ public class ConsensusController {
         }
     }
 
+    /**
+     * Get validator suspicion levels
+     */
+    @GetMapping("/validators/suspicion")
+    @Operation(summary = "Get validator suspicion levels", description = "Get phi-accrual suspicion level per monitored validator")
+    public ResponseEntity<Map<String, Double>> getSuspicionLevels() {
+        try {
+            return ResponseEntity.ok(failoverService.getSuspicionLevels());
+        } catch (Exception e) {
+            logger.error("Failed to get suspicion levels: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * Get validator by ID
      */
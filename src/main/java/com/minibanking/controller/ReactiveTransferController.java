@@ -0,0 +1,101 @@
+package com.minibanking.controller;
+
+import com.minibanking.entity.Transaction;
+import com.minibanking.exception.AccountNotFoundException;
+import com.minibanking.exception.InsufficientFundsException;
+import com.minibanking.service.ReactiveBankingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Non-blocking transfer and balance endpoints, registered when banking.service.type=reactive
+ *
+ * Same parameters and status codes as TransferController and AccountController; the
+ * request thread is released while the database and Redis calls are in flight.
+ */
+@RestController
+@RequestMapping("/api/reactive")
+@CrossOrigin(origins = "*")
+@ConditionalOnProperty(name = "banking.service.type", havingValue = "reactive")
+@Tag(name = "Reactive Transfer Operations", description = "Non-blocking money transfer and balance reads")
+public class ReactiveTransferController {
+
+    @Autowired
+    private ReactiveBankingService reactiveBankingService;
+
+    @Operation(summary = "Transfer money between accounts", description = "Transfers money from one account to another without blocking a request thread")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Transfer successful",
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = Transaction.class))),
+        @ApiResponse(responseCode = "404", description = "Account not found"),
+        @ApiResponse(responseCode = "422", description = "Insufficient funds")
+    })
+    @PostMapping("/transfers")
+    public Mono<ResponseEntity<Transaction>> transferMoney(
+            @Parameter(description = "Source account ID", required = true)
+            @RequestParam UUID fromAccountId,
+            @Parameter(description = "Destination account ID", required = true)
+            @RequestParam UUID toAccountId,
+            @Parameter(description = "Transfer amount", required = true)
+            @RequestParam BigDecimal amount,
+            @Parameter(description = "Transfer description", required = false)
+            @RequestParam(required = false) String description) {
+        return reactiveBankingService.transferMoney(fromAccountId, toAccountId, amount, description)
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(statusFor(e)).build()));
+    }
+
+    @Operation(summary = "Get account balance", description = "Retrieves the current balance of an account")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Balance retrieved successfully",
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = BigDecimal.class))),
+        @ApiResponse(responseCode = "404", description = "Account not found")
+    })
+    @GetMapping("/accounts/{accountId}/balance")
+    public Mono<ResponseEntity<BigDecimal>> getAccountBalance(
+            @Parameter(description = "Account ID", required = true)
+            @PathVariable UUID accountId) {
+        return reactiveBankingService.getAccountBalance(accountId)
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(statusFor(e)).build()));
+    }
+
+    @Operation(summary = "Get available balance", description = "Retrieves the available balance of an account")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Balance retrieved successfully",
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = BigDecimal.class))),
+        @ApiResponse(responseCode = "404", description = "Account not found")
+    })
+    @GetMapping("/accounts/{accountId}/available-balance")
+    public Mono<ResponseEntity<BigDecimal>> getAvailableBalance(
+            @Parameter(description = "Account ID", required = true)
+            @PathVariable UUID accountId) {
+        return reactiveBankingService.getAvailableBalance(accountId)
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(statusFor(e)).build()));
+    }
+
+    private static HttpStatus statusFor(Throwable e) {
+        if (e instanceof AccountNotFoundException) {
+            return HttpStatus.NOT_FOUND;
+        }
+        if (e instanceof InsufficientFundsException) {
+            return HttpStatus.UNPROCESSABLE_ENTITY;
+        }
+        return HttpStatus.BAD_REQUEST;
+    }
+}
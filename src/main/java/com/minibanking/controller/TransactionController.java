@@ -4,6 +4,7 @@ import com.minibanking.entity.Transaction;
 import com.minibanking.exception.AccountNotFoundException;
 import com.minibanking.exception.InsufficientFundsException;
 import com.minibanking.interfaces.IBankingService;
+import com.minibanking.service.ExplorerStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,8 +14,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -29,6 +32,9 @@ public class TransactionController {
     @Autowired
     private IBankingService bankingService;
     
+    @Autowired
+    private ExplorerStreamService explorerStreamService;
+    
     @Operation(summary = "Get transaction by ID", description = "Retrieves a transaction by its unique identifier")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Transaction found",
@@ -52,7 +58,8 @@ public class TransactionController {
         return ResponseEntity.ok(List.of());
     }
     
-    @Operation(summary = "Get transactions by account", description = "Retrieves all transactions for a specific account")
+    @Operation(summary = "Get transactions by account",
+            description = "Retrieves the latest transactions for a specific account, newest first (banking.ledger.history-limit); use /account/{accountId}/stream for older pages")
     @ApiResponse(responseCode = "200", description = "List of account transactions",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = Transaction.class)))
     @GetMapping("/account/{accountId}")
@@ -62,4 +69,32 @@ public class TransactionController {
         List<Transaction> transactions = bankingService.getTransactionHistory(accountId);
         return ResponseEntity.ok(transactions);
     }
+    
+    @Operation(summary = "Stream transactions by account",
+            description = "Keyset-paginated account history, newest first, streamed as JSON. Pass the returned nextAfter ('createdAt,transactionId') to fetch the next page")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Page of account transactions"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
+    })
+    @GetMapping("/account/{accountId}/stream")
+    public ResponseEntity<StreamingResponseBody> streamTransactionsByAccount(
+            @Parameter(description = "Account ID", required = true)
+            @PathVariable UUID accountId,
+            @Parameter(description = "Cursor returned by the previous page: createdAt,transactionId")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Page size")
+            @RequestParam(required = false) Integer limit) {
+        try {
+            ExplorerStreamService.TransactionCursor cursor =
+                    after != null ? ExplorerStreamService.TransactionCursor.parse(after) : null;
+            int pageSize = explorerStreamService.resolveLimit(limit);
+            StreamingResponseBody body = out ->
+                    explorerStreamService.streamAccountTransactions(accountId, cursor, pageSize, out);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
 }
@@ -55,6 +55,20 @@ public class LoginResponse {
         return response;
     }
     
+    public static LoginResponse rateLimited() {
+        LoginResponse response = new LoginResponse();
+        response.status = "RATE_LIMITED";
+        response.message = "Too many login attempts, please try again later";
+        return response;
+    }
+    
+    public static LoginResponse overloaded() {
+        LoginResponse response = new LoginResponse();
+        response.status = "OVERLOADED";
+        response.message = "Login is temporarily unavailable, please try again";
+        return response;
+    }
+    
     public static LoginResponse failed(String message) {
         LoginResponse response = new LoginResponse();
         response.status = "FAILED";
@@ -102,6 +116,14 @@ public class LoginResponse {
         return "REQUIRES_2FA".equals(status);
     }
     
+    public boolean isRateLimited() {
+        return "RATE_LIMITED".equals(status);
+    }
+    
+    public boolean isOverloaded() {
+        return "OVERLOADED".equals(status);
+    }
+    
     public boolean isFailed() {
         return "FAILED".equals(status);
     }
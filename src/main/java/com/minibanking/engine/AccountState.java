@@ -0,0 +1,60 @@
+package com.minibanking.engine;
+
+import com.minibanking.entity.Account;
+
+import java.util.UUID;
+
+/**
+ * In-memory state of one account in the ledger engine
+ *
+ * Balances are minor units and are written only by the account's owning
+ * partition thread; other threads may read them (volatile) for balance queries.
+ */
+public final class AccountState {
+
+    private final UUID accountId;
+    private final String accountNumber;
+    private final String currency;
+    private volatile Account.AccountStatus status;
+    private volatile long balance;
+    private volatile long availableBalance;
+
+    public AccountState(UUID accountId, String accountNumber, String currency, Account.AccountStatus status,
+                        long balance, long availableBalance) {
+        this.accountId = accountId;
+        this.accountNumber = accountNumber;
+        this.currency = currency;
+        this.status = status;
+        this.balance = balance;
+        this.availableBalance = availableBalance;
+    }
+
+    boolean isActive() {
+        return status == Account.AccountStatus.ACTIVE;
+    }
+
+    boolean canDebit(long amount) {
+        return availableBalance >= amount;
+    }
+
+    void debit(long amount) {
+        balance -= amount;
+        availableBalance -= amount;
+    }
+
+    void credit(long amount) {
+        balance += amount;
+        availableBalance += amount;
+    }
+
+    void setStatus(Account.AccountStatus status) {
+        this.status = status;
+    }
+
+    public UUID getAccountId() { return accountId; }
+    public String getAccountNumber() { return accountNumber; }
+    public String getCurrency() { return currency; }
+    public Account.AccountStatus getStatus() { return status; }
+    public long getBalance() { return balance; }
+    public long getAvailableBalance() { return availableBalance; }
+}
@@ -0,0 +1,82 @@
+package com.minibanking.engine;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * One accepted posting in the ledger journal
+ *
+ * Records describe outcomes, not requests: a record is only written after the
+ * engine validated and applied the command, so replay applies it unconditionally.
+ * Amounts are in minor units (scale 2). Descriptions are cut to 1024 UTF-8 bytes
+ * when the record is created, so the journal, the live projection and a replay all
+ * see the same text.
+ */
+public final class JournalRecord {
+
+    public enum Type {
+        TRANSFER,
+        DEPOSIT,
+        WITHDRAWAL
+    }
+
+    static final int MAX_DESCRIPTION_BYTES = 1024;
+
+    private final long sequence;
+    private final Type type;
+    private final UUID transactionId;
+    private final String transactionCode;
+    private final UUID fromAccountId; // null for deposits
+    private final UUID toAccountId;   // null for withdrawals
+    private final long amountMinor;
+    private final long timestampMillis;
+    private final String description;
+
+    public JournalRecord(long sequence, Type type, UUID transactionId, String transactionCode,
+                         UUID fromAccountId, UUID toAccountId, long amountMinor, long timestampMillis,
+                         String description) {
+        this.sequence = sequence;
+        this.type = type;
+        this.transactionId = transactionId;
+        this.transactionCode = transactionCode;
+        this.fromAccountId = fromAccountId;
+        this.toAccountId = toAccountId;
+        this.amountMinor = amountMinor;
+        this.timestampMillis = timestampMillis;
+        this.description = truncate(description);
+    }
+
+    /**
+     * Same record at its journal position
+     */
+    public JournalRecord withSequence(long sequence) {
+        return new JournalRecord(sequence, type, transactionId, transactionCode, fromAccountId, toAccountId,
+                amountMinor, timestampMillis, description);
+    }
+
+    public long getSequence() { return sequence; }
+    public Type getType() { return type; }
+    public UUID getTransactionId() { return transactionId; }
+    public String getTransactionCode() { return transactionCode; }
+    public UUID getFromAccountId() { return fromAccountId; }
+    public UUID getToAccountId() { return toAccountId; }
+    public long getAmountMinor() { return amountMinor; }
+    public long getTimestampMillis() { return timestampMillis; }
+    public String getDescription() { return description; }
+
+    private static String truncate(String description) {
+        if (description == null || description.length() * 3 <= MAX_DESCRIPTION_BYTES) {
+            return description; // at most 3 UTF-8 bytes per char
+        }
+        byte[] bytes = description.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= MAX_DESCRIPTION_BYTES) {
+            return description;
+        }
+        // Cut on a character boundary
+        String cut = new String(bytes, 0, MAX_DESCRIPTION_BYTES, StandardCharsets.UTF_8);
+        while (cut.getBytes(StandardCharsets.UTF_8).length > MAX_DESCRIPTION_BYTES) {
+            cut = cut.substring(0, cut.length() - 1);
+        }
+        return cut;
+    }
+}
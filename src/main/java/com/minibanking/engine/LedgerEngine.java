@@ -0,0 +1,559 @@
+package com.minibanking.engine;
+
+import com.minibanking.entity.Account;
+import com.minibanking.entity.Money;
+import com.minibanking.entity.UuidV7Generator;
+import com.minibanking.exception.AccountNotFoundException;
+import com.minibanking.exception.InsufficientFundsException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-writer in-memory ledger engine
+ *
+ * Accounts are split into partitions by account id; each partition has one thread
+ * that owns its accounts' balances (minor units), so postings need no locks. A
+ * command is validated and applied by the partition of the account being debited
+ * (or credited, for deposits), then handed to the journal writer, which sequences
+ * records, appends them in batches with one fsync per batch, and only then
+ * completes the callers' futures. A transfer into another partition is credited
+ * there once its record is durable, so funds never become spendable before the
+ * posting that created them.
+ *
+ * PostgreSQL is an asynchronous projection (see LedgerProjection). On startup the
+ * engine loads accounts lazily from the projection and replays the journal records
+ * above the projection checkpoint, which yields the same balances deterministically.
+ * The engine must be the only writer of the balances of the accounts it serves.
+ *
+ * Backpressure: a posting holds one of banking.engine.max-unprojected permits from
+ * admission until it is projected (or rejected), so the journal and projection
+ * queues stay bounded. When the projection falls behind, or keeps failing, new
+ * postings are rejected instead of piling up in memory.
+ */
+@Component
+@ConditionalOnProperty(name = "banking.service.type", havingValue = "engine")
+public class LedgerEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerEngine.class);
+
+    private static final JournalRecord PROJECTION_STOP = new JournalRecord(-1, JournalRecord.Type.DEPOSIT,
+            new UUID(0, 0), "", null, null, 0, 0, null);
+
+    @Autowired
+    private LedgerProjection projection;
+
+    @Value("${banking.engine.partitions:0}") // 0 = one per core
+    private int partitionCount = 0;
+
+    @Value("${banking.engine.partition-capacity:65536}") // commands waiting per partition
+    private int partitionCapacity = 65536;
+
+    @Value("${banking.engine.journal-path:data/ledger.journal}")
+    private String journalPath = "data/ledger.journal";
+
+    @Value("${banking.engine.fsync:true}")
+    private boolean fsync = true;
+
+    @Value("${banking.engine.journal-batch-size:8192}")
+    private int journalBatchSize = 8192;
+
+    @Value("${banking.engine.projection-batch-size:1000}")
+    private int projectionBatchSize = 1000;
+
+    @Value("${banking.engine.projection-retry-ms:1000}")
+    private long projectionRetryMs = 1000;
+
+    @Value("${banking.engine.max-unprojected:262144}") // postings admitted but not yet projected
+    private int maxUnprojected = 262144;
+
+    private final Map<UUID, AccountState> accounts = new ConcurrentHashMap<>();
+    private final BlockingQueue<Pending> journalQueue = new LinkedBlockingQueue<>();
+    private final BlockingQueue<JournalRecord> projectionQueue = new LinkedBlockingQueue<>();
+
+    private Partition[] partitions;
+    private Semaphore unprojected;
+    private LedgerJournal journal;
+    private Thread journalThread;
+    private Thread projectionThread;
+
+    private volatile boolean accepting;
+    private volatile Throwable failure;
+    private volatile long journaledSequence;
+    private volatile long projectedSequence;
+    private long recoveredSequence; // records up to here were replayed at startup and hold no permit
+    private long nextSequence; // journal thread only
+
+    private final AtomicLong committed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    @PostConstruct
+    public void start() throws IOException {
+        int count = partitionCount > 0 ? partitionCount : Runtime.getRuntime().availableProcessors();
+
+        // Recover: projection state at its checkpoint + journal records above it
+        long checkpoint = projection.lastProjectedSequence();
+        journal = new LedgerJournal(Paths.get(journalPath), fsync);
+        partitions = new Partition[count];
+        long lastSequence = journal.replay(record -> {
+            if (record.getSequence() > checkpoint) {
+                replay(record);
+                projectionQueue.add(record);
+            }
+        });
+        nextSequence = Math.max(lastSequence, checkpoint) + 1;
+        journaledSequence = nextSequence - 1;
+        projectedSequence = checkpoint;
+        recoveredSequence = journaledSequence;
+        unprojected = new Semaphore(maxUnprojected);
+
+        for (int i = 0; i < count; i++) {
+            partitions[i] = new Partition(i);
+            partitions[i].thread.start();
+        }
+        journalThread = daemon(this::runJournal, "ledger-journal");
+        projectionThread = daemon(this::runProjection, "ledger-projection");
+        journalThread.start();
+        projectionThread.start();
+        accepting = true;
+
+        logger.info("Ledger engine started: {} partitions, journal {} (next sequence {}, {} records to project)",
+                count, journal.getPath(), nextSequence, projectionQueue.size());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        accepting = false;
+        for (Partition partition : partitions) {
+            partition.queue.add(Command.STOP);
+        }
+        for (Partition partition : partitions) {
+            partition.thread.join(10_000);
+        }
+        journalQueue.add(Pending.STOP);
+        journalThread.join(10_000);
+        projectionQueue.add(PROJECTION_STOP);
+        projectionThread.join(10_000);
+        journal.close();
+        logger.info("Ledger engine stopped at sequence {} (projected {})", journaledSequence, projectedSequence);
+    }
+
+    public CompletableFuture<JournalRecord> transfer(UUID fromAccountId, UUID toAccountId, long amountMinor,
+                                                     String transactionCode, String description) {
+        return submit(fromAccountId, new JournalRecord(0, JournalRecord.Type.TRANSFER, UuidV7Generator.next(),
+                transactionCode, fromAccountId, toAccountId, amountMinor, System.currentTimeMillis(), description));
+    }
+
+    public CompletableFuture<JournalRecord> deposit(UUID accountId, long amountMinor, String transactionCode,
+                                                    String description) {
+        return submit(accountId, new JournalRecord(0, JournalRecord.Type.DEPOSIT, UuidV7Generator.next(),
+                transactionCode, null, accountId, amountMinor, System.currentTimeMillis(), description));
+    }
+
+    public CompletableFuture<JournalRecord> withdraw(UUID accountId, long amountMinor, String transactionCode,
+                                                     String description) {
+        return submit(accountId, new JournalRecord(0, JournalRecord.Type.WITHDRAWAL, UuidV7Generator.next(),
+                transactionCode, accountId, null, amountMinor, System.currentTimeMillis(), description));
+    }
+
+    /**
+     * Current in-memory state of an account (includes postings not yet projected)
+     * @throws AccountNotFoundException if the account doesn't exist
+     */
+    public AccountState getAccount(UUID accountId) {
+        AccountState account = account(accountId);
+        if (account == null) {
+            throw new AccountNotFoundException("Account not found");
+        }
+        return account;
+    }
+
+    /**
+     * Apply an account status change made through JPA to the in-memory state
+     */
+    public void updateStatus(UUID accountId, Account.AccountStatus status) {
+        if (accounts.containsKey(accountId)) {
+            partitionOf(accountId).queue.add(Command.status(accountId, status));
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        return Map.of(
+                "partitions", partitions.length,
+                "accounts", accounts.size(),
+                "committed", committed.get(),
+                "rejected", rejected.get(),
+                "journaledSequence", journaledSequence,
+                "projectedSequence", projectedSequence,
+                "projectionLag", journaledSequence - projectedSequence,
+                "unprojectedPermits", unprojected.availablePermits(),
+                "failed", failure != null);
+    }
+
+    public static long toMinorUnits(BigDecimal amount) {
+        return Money.of(amount).getMinorUnits();
+    }
+
+    public static BigDecimal fromMinorUnits(long amountMinor) {
+        return Money.ofMinorUnits(amountMinor).toBigDecimal();
+    }
+
+    private CompletableFuture<JournalRecord> submit(UUID routingAccountId, JournalRecord record) {
+        if (record.getAmountMinor() <= 0) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Amount must be positive"));
+        }
+        if (failure != null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Ledger engine has failed", failure));
+        }
+        if (!accepting) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Ledger engine is not running"));
+        }
+        if (!unprojected.tryAcquire()) {
+            rejected.incrementAndGet();
+            return CompletableFuture.failedFuture(new IllegalStateException("Ledger projection is behind"));
+        }
+        Partition partition = partitionOf(routingAccountId);
+        if (!partition.admission.tryAcquire()) {
+            unprojected.release();
+            rejected.incrementAndGet();
+            return CompletableFuture.failedFuture(new IllegalStateException("Ledger engine partition is full"));
+        }
+        CompletableFuture<JournalRecord> future = new CompletableFuture<>();
+        partition.queue.add(Command.posting(record, future));
+        return future;
+    }
+
+    private Partition partitionOf(UUID accountId) {
+        return partitions[Math.floorMod(accountId.hashCode(), partitions.length)];
+    }
+
+    private AccountState account(UUID accountId) {
+        AccountState account = accounts.get(accountId);
+        if (account != null) {
+            return account;
+        }
+        // Not touched since startup, so the projected row is current
+        AccountState loaded = projection.loadAccount(accountId);
+        if (loaded == null) {
+            return null;
+        }
+        AccountState existing = accounts.putIfAbsent(accountId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private void replay(JournalRecord record) {
+        if (record.getFromAccountId() != null) {
+            replayAccount(record.getFromAccountId(), record).debit(record.getAmountMinor());
+        }
+        if (record.getToAccountId() != null) {
+            replayAccount(record.getToAccountId(), record).credit(record.getAmountMinor());
+        }
+    }
+
+    private AccountState replayAccount(UUID accountId, JournalRecord record) {
+        AccountState account = account(accountId);
+        if (account == null) {
+            throw new IllegalStateException("Journal record " + record.getSequence() + " references unknown account " + accountId);
+        }
+        return account;
+    }
+
+    // ==================== PARTITIONS ====================
+
+    private final class Partition implements Runnable {
+        private final int index;
+        private final BlockingQueue<Command> queue = new LinkedBlockingQueue<>();
+        private final Semaphore admission = new Semaphore(partitionCapacity);
+        private final Thread thread;
+
+        private Partition(int index) {
+            this.index = index;
+            this.thread = daemon(this, "ledger-partition-" + index);
+        }
+
+        @Override
+        public void run() {
+            List<Command> batch = new ArrayList<>(1024);
+            try {
+                while (true) {
+                    batch.add(queue.take());
+                    queue.drainTo(batch, 1023);
+                    for (Command command : batch) {
+                        if (command == Command.STOP) {
+                            return;
+                        }
+                        process(command);
+                    }
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void process(Command command) {
+            switch (command.kind) {
+                case POSTING -> {
+                    admission.release();
+                    try {
+                        post(command.record, command.future);
+                    } catch (RuntimeException e) {
+                        unprojected.release();
+                        command.future.completeExceptionally(e);
+                    }
+                }
+                case CREDIT -> accounts.get(command.accountId).credit(command.amountMinor);
+                case STATUS -> accounts.get(command.accountId).setStatus(command.status);
+                default -> throw new IllegalStateException("Unexpected command " + command.kind);
+            }
+        }
+
+        private void post(JournalRecord record, CompletableFuture<JournalRecord> future) {
+            if (failure != null) {
+                throw new IllegalStateException("Ledger engine has failed", failure);
+            }
+            long amount = record.getAmountMinor();
+            switch (record.getType()) {
+                case TRANSFER -> {
+                    AccountState from = account(record.getFromAccountId());
+                    if (from == null) {
+                        throw new AccountNotFoundException("From account not found");
+                    }
+                    AccountState to = account(record.getToAccountId());
+                    if (to == null) {
+                        throw new AccountNotFoundException("To account not found");
+                    }
+                    if (!from.isActive()) {
+                        throw new IllegalStateException("From account is not active");
+                    }
+                    if (!to.isActive()) {
+                        throw new IllegalStateException("To account is not active");
+                    }
+                    if (!from.canDebit(amount)) {
+                        throw new InsufficientFundsException("Insufficient balance in from account");
+                    }
+                    from.debit(amount);
+                    if (partitionOf(to.getAccountId()) == this) {
+                        to.credit(amount);
+                        journalQueue.add(new Pending(record, future, null));
+                    } else {
+                        journalQueue.add(new Pending(record, future, to.getAccountId()));
+                    }
+                }
+                case DEPOSIT -> {
+                    AccountState to = account(record.getToAccountId());
+                    if (to == null) {
+                        throw new AccountNotFoundException("Account not found");
+                    }
+                    if (!to.isActive()) {
+                        throw new IllegalStateException("Account is not active");
+                    }
+                    to.credit(amount);
+                    journalQueue.add(new Pending(record, future, null));
+                }
+                case WITHDRAWAL -> {
+                    AccountState from = account(record.getFromAccountId());
+                    if (from == null) {
+                        throw new AccountNotFoundException("Account not found");
+                    }
+                    if (!from.isActive()) {
+                        throw new IllegalStateException("Account is not active");
+                    }
+                    if (!from.canDebit(amount)) {
+                        throw new InsufficientFundsException("Insufficient balance");
+                    }
+                    from.debit(amount);
+                    journalQueue.add(new Pending(record, future, null));
+                }
+            }
+        }
+    }
+
+    // ==================== JOURNAL ====================
+
+    private void runJournal() {
+        List<Pending> batch = new ArrayList<>(journalBatchSize);
+        List<JournalRecord> records = new ArrayList<>(journalBatchSize);
+        try {
+            while (true) {
+                batch.add(journalQueue.take());
+                journalQueue.drainTo(batch, journalBatchSize - 1);
+                boolean stop = batch.remove(Pending.STOP);
+                write(batch, records);
+                batch.clear();
+                records.clear();
+                if (stop) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(List<Pending> batch, List<JournalRecord> records) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (failure != null) {
+            unprojected.release(batch.size());
+            batch.forEach(pending -> pending.future.completeExceptionally(
+                    new IllegalStateException("Ledger engine has failed", failure)));
+            return;
+        }
+        for (Pending pending : batch) {
+            records.add(pending.record.withSequence(nextSequence++));
+        }
+        try {
+            journal.append(records);
+        } catch (IOException | RuntimeException e) {
+            // Memory is now ahead of the journal: stop accepting work, restart replays the durable prefix
+            failure = e;
+            accepting = false;
+            logger.error("Ledger journal write failed, engine stopped: {}", e.getMessage());
+            unprojected.release(batch.size());
+            batch.forEach(pending -> pending.future.completeExceptionally(
+                    new IllegalStateException("Ledger journal write failed", e)));
+            return;
+        }
+
+        journaledSequence = records.get(records.size() - 1).getSequence();
+        for (int i = 0; i < batch.size(); i++) {
+            Pending pending = batch.get(i);
+            if (pending.creditAccountId != null) {
+                partitionOf(pending.creditAccountId).queue.add(
+                        Command.credit(pending.creditAccountId, pending.record.getAmountMinor()));
+            }
+            pending.future.complete(records.get(i));
+        }
+        committed.addAndGet(batch.size());
+        projectionQueue.addAll(records);
+    }
+
+    // ==================== PROJECTION ====================
+
+    private void runProjection() {
+        List<JournalRecord> batch = new ArrayList<>(projectionBatchSize);
+        try {
+            while (true) {
+                batch.add(projectionQueue.take());
+                projectionQueue.drainTo(batch, projectionBatchSize - 1);
+                boolean stop = batch.remove(PROJECTION_STOP);
+                projectWithRetry(batch, stop);
+                batch.clear();
+                if (stop) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void projectWithRetry(List<JournalRecord> batch, boolean stopping) throws InterruptedException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        while (true) {
+            try {
+                projection.project(batch);
+                projectedSequence = batch.get(batch.size() - 1).getSequence();
+                releaseProjected(batch);
+                return;
+            } catch (RuntimeException e) {
+                if (stopping) {
+                    logger.warn("Ledger projection incomplete at shutdown, resumes from sequence {} on restart: {}",
+                            projectedSequence, e.getMessage());
+                    return;
+                }
+                logger.error("Ledger projection failed, retrying in {} ms: {}", projectionRetryMs, e.getMessage());
+                TimeUnit.MILLISECONDS.sleep(projectionRetryMs);
+            }
+        }
+    }
+
+    private void releaseProjected(List<JournalRecord> batch) {
+        int permits = 0;
+        for (JournalRecord record : batch) {
+            if (record.getSequence() > recoveredSequence) {
+                permits++;
+            }
+        }
+        unprojected.release(permits);
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private enum Kind { POSTING, CREDIT, STATUS, STOP }
+
+    private static final class Command {
+        private static final Command STOP = new Command(Kind.STOP, null, null, null, 0, null);
+
+        private final Kind kind;
+        private final JournalRecord record;
+        private final CompletableFuture<JournalRecord> future;
+        private final UUID accountId;
+        private final long amountMinor;
+        private final Account.AccountStatus status;
+
+        private Command(Kind kind, JournalRecord record, CompletableFuture<JournalRecord> future,
+                        UUID accountId, long amountMinor, Account.AccountStatus status) {
+            this.kind = kind;
+            this.record = record;
+            this.future = future;
+            this.accountId = accountId;
+            this.amountMinor = amountMinor;
+            this.status = status;
+        }
+
+        private static Command posting(JournalRecord record, CompletableFuture<JournalRecord> future) {
+            return new Command(Kind.POSTING, record, future, null, 0, null);
+        }
+
+        private static Command credit(UUID accountId, long amountMinor) {
+            return new Command(Kind.CREDIT, null, null, accountId, amountMinor, null);
+        }
+
+        private static Command status(UUID accountId, Account.AccountStatus status) {
+            return new Command(Kind.STATUS, null, null, accountId, 0, status);
+        }
+    }
+
+    private static final class Pending {
+        private static final Pending STOP = new Pending(null, null, null);
+
+        private final JournalRecord record;
+        private final CompletableFuture<JournalRecord> future;
+        private final UUID creditAccountId; // credited in its own partition once durable
+
+        private Pending(JournalRecord record, CompletableFuture<JournalRecord> future, UUID creditAccountId) {
+            this.record = record;
+            this.future = future;
+            this.creditAccountId = creditAccountId;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.minibanking.engine;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary journal of ledger records
+ *
+ * Layout: an 8-byte header (magic, format version) followed by records framed as
+ * [int payload length][payload][int CRC32 of payload]. A batch of records is
+ * written with one write and made durable with one fsync (group commit). On open,
+ * {@link #replay} verifies every frame and truncates a torn tail left by a crash.
+ *
+ * Not thread-safe: the engine's journal writer thread is the only user.
+ */
+public class LedgerJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerJournal.class);
+
+    private static final int MAGIC = 0x4C4A4E4C; // "LJNL"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int MAX_PAYLOAD = 64 * 1024;
+
+    private final Path path;
+    private final boolean fsync;
+    private final FileChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+
+    public LedgerJournal(Path path, boolean fsync) throws IOException {
+        this.path = path;
+        this.fsync = fsync;
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, channel.size());
+            }
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Read every intact record in order, truncate anything after the last one and
+     * position the journal for appending
+     * @return Sequence of the last record (0 if the journal is empty)
+     */
+    public long replay(Consumer<JournalRecord> consumer) throws IOException {
+        channel.position(0);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a ledger journal: " + path);
+        }
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported ledger journal version " + version + ": " + path);
+        }
+
+        long validEnd = HEADER_SIZE;
+        long lastSequence = 0;
+        long records = 0;
+        CRC32 crc = new CRC32();
+        byte[] payload = new byte[256];
+        while (true) {
+            try {
+                int length = in.readInt();
+                if (length <= 0 || length > MAX_PAYLOAD) {
+                    break;
+                }
+                if (payload.length < length) {
+                    payload = new byte[length];
+                }
+                in.readFully(payload, 0, length);
+                int storedCrc = in.readInt();
+                crc.reset();
+                crc.update(payload, 0, length);
+                if ((int) crc.getValue() != storedCrc) {
+                    break;
+                }
+                JournalRecord record = decode(ByteBuffer.wrap(payload, 0, length));
+                if (record.getSequence() <= lastSequence) {
+                    throw new IOException("Ledger journal sequence went backwards at " + record.getSequence());
+                }
+                consumer.accept(record);
+                lastSequence = record.getSequence();
+                validEnd += 4 + length + 4;
+                records++;
+            } catch (EOFException e) {
+                break;
+            }
+        }
+
+        long size = channel.size();
+        if (size > validEnd) {
+            logger.warn("Truncating {} bytes after the last intact record of {}", size - validEnd, path);
+            channel.truncate(validEnd);
+            channel.force(true);
+        }
+        channel.position(validEnd);
+        logger.info("Replayed {} ledger journal records from {} (last sequence {})", records, path, lastSequence);
+        return lastSequence;
+    }
+
+    /**
+     * Append records (already sequenced) and fsync once for the whole batch
+     */
+    public void append(List<JournalRecord> records) throws IOException {
+        buffer.clear();
+        for (JournalRecord record : records) {
+            encodeFrame(record);
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    public long size() throws IOException {
+        return channel.size();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void encodeFrame(JournalRecord record) {
+        byte[] code = record.getTransactionCode().getBytes(StandardCharsets.US_ASCII);
+        // JournalRecord keeps descriptions within MAX_DESCRIPTION_BYTES
+        byte[] description = record.getDescription() != null ? record.getDescription().getBytes(StandardCharsets.UTF_8) : null;
+        int length = 8 + 1 + 16 + 2 + code.length + 1 + 16 + 16 + 8 + 8 + 2 + (description != null ? description.length : 0);
+        ensureCapacity(4 + length + 4);
+
+        buffer.putInt(length);
+        int start = buffer.position();
+        buffer.putLong(record.getSequence());
+        buffer.put((byte) record.getType().ordinal());
+        putUuid(record.getTransactionId());
+        buffer.putShort((short) code.length).put(code);
+        buffer.put((byte) ((record.getFromAccountId() != null ? 1 : 0) | (record.getToAccountId() != null ? 2 : 0)));
+        putUuid(record.getFromAccountId());
+        putUuid(record.getToAccountId());
+        buffer.putLong(record.getAmountMinor());
+        buffer.putLong(record.getTimestampMillis());
+        if (description != null) {
+            buffer.putShort((short) description.length).put(description);
+        } else {
+            buffer.putShort((short) -1);
+        }
+
+        CRC32 crc = new CRC32();
+        ByteBuffer written = buffer.duplicate();
+        written.position(start).limit(start + length);
+        crc.update(written);
+        buffer.putInt((int) crc.getValue());
+    }
+
+    static JournalRecord decode(ByteBuffer in) {
+        long sequence = in.getLong();
+        JournalRecord.Type type = JournalRecord.Type.values()[in.get()];
+        UUID transactionId = getUuid(in);
+        byte[] code = new byte[in.getShort()];
+        in.get(code);
+        byte flags = in.get();
+        UUID from = getUuid(in);
+        UUID to = getUuid(in);
+        long amount = in.getLong();
+        long timestamp = in.getLong();
+        short descriptionLength = in.getShort();
+        String description = null;
+        if (descriptionLength >= 0) {
+            byte[] bytes = new byte[descriptionLength];
+            in.get(bytes);
+            description = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new JournalRecord(sequence, type, transactionId, new String(code, StandardCharsets.US_ASCII),
+                (flags & 1) != 0 ? from : null, (flags & 2) != 0 ? to : null, amount, timestamp, description);
+    }
+
+    private void putUuid(UUID uuid) {
+        buffer.putLong(uuid != null ? uuid.getMostSignificantBits() : 0L);
+        buffer.putLong(uuid != null ? uuid.getLeastSignificantBits() : 0L);
+    }
+
+    private static UUID getUuid(ByteBuffer in) {
+        return new UUID(in.getLong(), in.getLong());
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        ByteBuffer larger = ByteBuffer.allocateDirect(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+        buffer.flip();
+        larger.put(buffer);
+        buffer = larger;
+    }
+}
@@ -0,0 +1,166 @@
+package com.minibanking.engine;
+
+import com.minibanking.entity.Account;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * PostgreSQL projection of the ledger engine
+ *
+ * Applies journal records to accounts, transactions and account_ledger_entries in
+ * batches. Each batch updates every touched account once (net delta), inserts its
+ * transaction and ledger rows, and advances ledger_engine_checkpoint in the same
+ * database transaction, so after a restart exactly the records above the
+ * checkpoint are projected again.
+ */
+@Component
+@ConditionalOnProperty(name = "banking.service.type", havingValue = "engine")
+public class LedgerProjection {
+
+    private static final String LOAD_ACCOUNT_SQL =
+            "SELECT account_number, currency, status, balance, available_balance FROM accounts WHERE account_id = ?";
+
+    private static final String UPDATE_ACCOUNT_SQL =
+            "UPDATE accounts SET balance = balance + ?, available_balance = available_balance + ?, " +
+            "ledger_sequence = ledger_sequence + ?, last_transaction_date = ?, updated_at = ?, version = version + 1 " +
+            "WHERE account_id = ? RETURNING balance, ledger_sequence";
+
+    private static final String INSERT_TRANSACTION_SQL =
+            "INSERT INTO transactions (transaction_id, transaction_code, from_account_id, to_account_id, amount, " +
+            "transaction_type, description, status, processed_at, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, 'COMPLETED', ?, ?, ?)";
+
+    private static final String INSERT_LEDGER_ENTRY_SQL =
+            "INSERT INTO account_ledger_entries (account_id, entry_sequence, transaction_id, transaction_code, " +
+            "counterparty_account_id, entry_type, amount, balance_after, description, posted_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String READ_CHECKPOINT_SQL =
+            "SELECT last_sequence FROM ledger_engine_checkpoint WHERE engine_id = ?";
+
+    private static final String WRITE_CHECKPOINT_SQL =
+            "INSERT INTO ledger_engine_checkpoint (engine_id, last_sequence, updated_at) VALUES (?, ?, ?) " +
+            "ON CONFLICT (engine_id) DO UPDATE SET last_sequence = EXCLUDED.last_sequence, updated_at = EXCLUDED.updated_at";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${banking.engine.id:ledger-engine}")
+    private String engineId;
+
+    /**
+     * Sequence of the last record applied to the database (0 if none)
+     */
+    public long lastProjectedSequence() {
+        List<Long> rows = jdbcTemplate.queryForList(READ_CHECKPOINT_SQL, Long.class, engineId);
+        return rows.isEmpty() ? 0L : rows.get(0);
+    }
+
+    /**
+     * Account as last projected, or null if it doesn't exist
+     */
+    public AccountState loadAccount(UUID accountId) {
+        List<AccountState> rows = jdbcTemplate.query(LOAD_ACCOUNT_SQL, (rs, rowNum) -> new AccountState(
+                accountId,
+                rs.getString("account_number"),
+                rs.getString("currency"),
+                Account.AccountStatus.valueOf(rs.getString("status")),
+                LedgerEngine.toMinorUnits(rs.getBigDecimal("balance")),
+                LedgerEngine.toMinorUnits(rs.getBigDecimal("available_balance"))), accountId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Apply records (in journal order) and advance the checkpoint, atomically
+     */
+    public void project(List<JournalRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> projectBatch(records));
+    }
+
+    private void projectBatch(List<JournalRecord> records) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        // Net delta and entry count per account: {delta, entries}
+        Map<UUID, long[]> totals = new LinkedHashMap<>();
+        for (JournalRecord record : records) {
+            if (record.getFromAccountId() != null) {
+                long[] total = totals.computeIfAbsent(record.getFromAccountId(), id -> new long[2]);
+                total[0] -= record.getAmountMinor();
+                total[1]++;
+            }
+            if (record.getToAccountId() != null) {
+                long[] total = totals.computeIfAbsent(record.getToAccountId(), id -> new long[2]);
+                total[0] += record.getAmountMinor();
+                total[1]++;
+            }
+        }
+
+        // One UPDATE per account; back out the totals to get the state before this batch
+        Map<UUID, long[]> running = new LinkedHashMap<>(); // {balance, ledgerSequence}
+        for (Map.Entry<UUID, long[]> entry : totals.entrySet()) {
+            long[] total = entry.getValue();
+            BigDecimal delta = LedgerEngine.fromMinorUnits(total[0]);
+            long[] after = jdbcTemplate.queryForObject(UPDATE_ACCOUNT_SQL,
+                    (rs, rowNum) -> new long[] {
+                            LedgerEngine.toMinorUnits(rs.getBigDecimal("balance")), rs.getLong("ledger_sequence") },
+                    delta, delta, total[1], now, now, entry.getKey());
+            running.put(entry.getKey(), new long[] { after[0] - total[0], after[1] - total[1] });
+        }
+
+        List<Object[]> transactions = new ArrayList<>(records.size());
+        List<Object[]> entries = new ArrayList<>(records.size() * 2);
+        for (JournalRecord record : records) {
+            Timestamp postedAt = Timestamp.valueOf(
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(record.getTimestampMillis()), ZoneId.systemDefault()));
+            BigDecimal amount = LedgerEngine.fromMinorUnits(record.getAmountMinor());
+            transactions.add(new Object[] {
+                    record.getTransactionId(), record.getTransactionCode(), record.getFromAccountId(),
+                    record.getToAccountId(), amount, record.getType().name(), record.getDescription(),
+                    postedAt, postedAt, postedAt });
+            if (record.getFromAccountId() != null) {
+                entries.add(ledgerEntry(running.get(record.getFromAccountId()), -record.getAmountMinor(), "DEBIT",
+                        record.getFromAccountId(), record.getToAccountId(), record, amount, postedAt));
+            }
+            if (record.getToAccountId() != null) {
+                entries.add(ledgerEntry(running.get(record.getToAccountId()), record.getAmountMinor(), "CREDIT",
+                        record.getToAccountId(), record.getFromAccountId(), record, amount, postedAt));
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION_SQL, transactions);
+        jdbcTemplate.batchUpdate(INSERT_LEDGER_ENTRY_SQL, entries);
+
+        jdbcTemplate.update(WRITE_CHECKPOINT_SQL, engineId, records.get(records.size() - 1).getSequence(), now);
+    }
+
+    private static Object[] ledgerEntry(long[] running, long delta, String entryType, UUID accountId,
+                                        UUID counterpartyId, JournalRecord record, BigDecimal amount, Timestamp postedAt) {
+        running[0] += delta;
+        running[1]++;
+        return new Object[] {
+                accountId, running[1], record.getTransactionId(), record.getTransactionCode(), counterpartyId,
+                entryType, amount, LedgerEngine.fromMinorUnits(running[0]), record.getDescription(), postedAt };
+    }
+}
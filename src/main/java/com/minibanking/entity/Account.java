@@ -1,6 +1,7 @@
 package com.minibanking.entity;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -39,13 +40,14 @@ public class Account {
     @Column(name = "currency", length = 3)
     private String currency = "VND";
     
+    // Money (fixed-point long) in the posting path; BigDecimal at the getters/setters
     @Column(name = "balance", precision = 18, scale = 2)
-    @DecimalMin(value = "0.0", message = "Balance cannot be negative")
-    private BigDecimal balance = BigDecimal.ZERO;
+    @Convert(converter = MoneyConverter.class)
+    private Money balance = Money.ZERO;
     
     @Column(name = "available_balance", precision = 18, scale = 2)
-    @DecimalMin(value = "0.0", message = "Available balance cannot be negative")
-    private BigDecimal availableBalance = BigDecimal.ZERO;
+    @Convert(converter = MoneyConverter.class)
+    private Money availableBalance = Money.ZERO;
     
     @Column(name = "credit_limit", precision = 18, scale = 2)
     @DecimalMin(value = "0.0", message = "Credit limit cannot be negative")
@@ -67,6 +69,15 @@ public class Account {
     @Column(name = "last_transaction_date")
     private LocalDateTime lastTransactionDate;
     
+    // Last ledger entry sequence; only advanced while the account row is locked
+    // or (optimistic transfers) by an update guarded by the version check
+    @Column(name = "ledger_sequence")
+    private Long ledgerSequence = 0L;
+    
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version; // null until persisted, so Spring Data treats new accounts as new
+    
     @CreationTimestamp
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -91,25 +102,42 @@ public class Account {
     }
     
     // Business Methods
+    public boolean hasSufficientBalance(Money amount) {
+        return availableBalance.isGreaterThanOrEqual(amount);
+    }
+    
     public boolean hasSufficientBalance(BigDecimal amount) {
-        return availableBalance.compareTo(amount) >= 0;
+        return hasSufficientBalance(Money.of(amount));
     }
     
-    public void debit(BigDecimal amount) {
+    public void debit(Money amount) {
         if (!hasSufficientBalance(amount)) {
             throw new InsufficientFundsException("Insufficient balance");
         }
-        this.balance = balance.subtract(amount);
-        this.availableBalance = availableBalance.subtract(amount);
+        this.balance = balance.minus(amount);
+        this.availableBalance = availableBalance.minus(amount);
         this.lastTransactionDate = LocalDateTime.now();
     }
     
-    public void credit(BigDecimal amount) {
-        this.balance = balance.add(amount);
-        this.availableBalance = availableBalance.add(amount);
+    public void debit(BigDecimal amount) {
+        debit(Money.of(amount));
+    }
+    
+    public void credit(Money amount) {
+        this.balance = balance.plus(amount);
+        this.availableBalance = availableBalance.plus(amount);
         this.lastTransactionDate = LocalDateTime.now();
     }
     
+    public void credit(BigDecimal amount) {
+        credit(Money.of(amount));
+    }
+    
+    public long nextLedgerSequence() {
+        this.ledgerSequence = (ledgerSequence == null ? 0L : ledgerSequence) + 1;
+        return ledgerSequence;
+    }
+    
     // Getters and Setters
     public UUID getAccountId() { return accountId; }
     public void setAccountId(UUID accountId) { this.accountId = accountId; }
@@ -126,11 +154,11 @@ public class Account {
     public String getCurrency() { return currency; }
     public void setCurrency(String currency) { this.currency = currency; }
     
-    public BigDecimal getBalance() { return balance; }
-    public void setBalance(BigDecimal balance) { this.balance = balance; }
+    public BigDecimal getBalance() { return balance != null ? balance.toBigDecimal() : null; }
+    public void setBalance(BigDecimal balance) { this.balance = balance != null ? Money.of(balance) : null; }
     
-    public BigDecimal getAvailableBalance() { return availableBalance; }
-    public void setAvailableBalance(BigDecimal availableBalance) { this.availableBalance = availableBalance; }
+    public BigDecimal getAvailableBalance() { return availableBalance != null ? availableBalance.toBigDecimal() : null; }
+    public void setAvailableBalance(BigDecimal availableBalance) { this.availableBalance = availableBalance != null ? Money.of(availableBalance) : null; }
     
     public BigDecimal getCreditLimit() { return creditLimit; }
     public void setCreditLimit(BigDecimal creditLimit) { this.creditLimit = creditLimit; }
@@ -150,6 +178,12 @@ public class Account {
     public LocalDateTime getLastTransactionDate() { return lastTransactionDate; }
     public void setLastTransactionDate(LocalDateTime lastTransactionDate) { this.lastTransactionDate = lastTransactionDate; }
     
+    public Long getLedgerSequence() { return ledgerSequence; }
+    public void setLedgerSequence(Long ledgerSequence) { this.ledgerSequence = ledgerSequence; }
+    
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     
@@ -162,6 +196,17 @@ public class Account {
     public List<Transaction> getIncomingTransactions() { return incomingTransactions; }
     public void setIncomingTransactions(List<Transaction> incomingTransactions) { this.incomingTransactions = incomingTransactions; }
     
+    // Validation (replaces @DecimalMin, which only applies to BigDecimal)
+    @AssertTrue(message = "Balance cannot be negative")
+    private boolean isBalanceNonNegative() {
+        return balance == null || !balance.isNegative();
+    }
+    
+    @AssertTrue(message = "Available balance cannot be negative")
+    private boolean isAvailableBalanceNonNegative() {
+        return availableBalance == null || !availableBalance.isNegative();
+    }
+    
     // Enums
     public enum AccountType {
         SAVINGS, CHECKING, LOAN, INVESTMENT
@@ -0,0 +1,126 @@
+package com.minibanking.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One row per account per posting, carrying the balance after the posting.
+ * Entries of an account are numbered by entry_sequence, which is assigned under
+ * the account row lock, so (account_id, entry_sequence) and (account_id, posted_at)
+ * are both in posting order.
+ */
+@Entity
+@Table(name = "account_ledger_entries",
+    uniqueConstraints = @UniqueConstraint(name = "uk_ledger_account_sequence", columnNames = {"account_id", "entry_sequence"}),
+    indexes = @Index(name = "idx_ledger_account_posted", columnList = "account_id, posted_at, entry_sequence"))
+public class AccountLedgerEntry {
+
+    @Id
+    @UuidV7
+    @Column(name = "entry_id")
+    private UUID entryId;
+
+    @Column(name = "account_id", nullable = false)
+    @NotNull(message = "Account is required")
+    private UUID accountId;
+
+    @Column(name = "entry_sequence", nullable = false)
+    private Long entrySequence;
+
+    @Column(name = "transaction_id")
+    private UUID transactionId;
+
+    @Column(name = "transaction_code", length = 30)
+    private String transactionCode;
+
+    @Column(name = "counterparty_account_id")
+    private UUID counterpartyAccountId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", nullable = false, length = 10)
+    private EntryType entryType;
+
+    @Column(name = "amount", precision = 18, scale = 2, nullable = false)
+    private BigDecimal amount;
+
+    @Column(name = "balance_after", precision = 18, scale = 2, nullable = false)
+    private BigDecimal balanceAfter;
+
+    @Column(name = "description")
+    private String description;
+
+    @Column(name = "posted_at", nullable = false)
+    private LocalDateTime postedAt;
+
+    // Constructors
+    public AccountLedgerEntry() {}
+
+    public AccountLedgerEntry(Account account, EntryType entryType, BigDecimal amount, Transaction transaction) {
+        this.accountId = account.getAccountId();
+        this.entrySequence = account.nextLedgerSequence();
+        this.entryType = entryType;
+        this.amount = amount;
+        this.balanceAfter = account.getBalance();
+        this.postedAt = account.getLastTransactionDate() != null ? account.getLastTransactionDate() : LocalDateTime.now();
+        if (transaction != null) {
+            this.transactionId = transaction.getTransactionId();
+            this.transactionCode = transaction.getTransactionCode();
+            this.description = transaction.getDescription();
+        }
+    }
+
+    // Getters and Setters
+    public UUID getEntryId() { return entryId; }
+    public void setEntryId(UUID entryId) { this.entryId = entryId; }
+
+    public UUID getAccountId() { return accountId; }
+    public void setAccountId(UUID accountId) { this.accountId = accountId; }
+
+    public Long getEntrySequence() { return entrySequence; }
+    public void setEntrySequence(Long entrySequence) { this.entrySequence = entrySequence; }
+
+    public UUID getTransactionId() { return transactionId; }
+    public void setTransactionId(UUID transactionId) { this.transactionId = transactionId; }
+
+    public String getTransactionCode() { return transactionCode; }
+    public void setTransactionCode(String transactionCode) { this.transactionCode = transactionCode; }
+
+    public UUID getCounterpartyAccountId() { return counterpartyAccountId; }
+    public void setCounterpartyAccountId(UUID counterpartyAccountId) { this.counterpartyAccountId = counterpartyAccountId; }
+
+    public EntryType getEntryType() { return entryType; }
+    public void setEntryType(EntryType entryType) { this.entryType = entryType; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public BigDecimal getBalanceAfter() { return balanceAfter; }
+    public void setBalanceAfter(BigDecimal balanceAfter) { this.balanceAfter = balanceAfter; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public LocalDateTime getPostedAt() { return postedAt; }
+    public void setPostedAt(LocalDateTime postedAt) { this.postedAt = postedAt; }
+
+    // Enums
+    public enum EntryType {
+        DEBIT, CREDIT
+    }
+
+    @Override
+    public String toString() {
+        return "AccountLedgerEntry{" +
+                "accountId=" + accountId +
+                ", entrySequence=" + entrySequence +
+                ", entryType=" + entryType +
+                ", amount=" + amount +
+                ", balanceAfter=" + balanceAfter +
+                ", postedAt=" + postedAt +
+                '}';
+    }
+}
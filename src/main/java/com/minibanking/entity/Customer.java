@@ -1,5 +1,7 @@
 package com.minibanking.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.minibanking.security.encryption.EncryptedStringConverter;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
@@ -50,6 +52,7 @@ public class Customer {
     private LocalDate dateOfBirth;
     
     @Column(name = "address")
+    @Convert(converter = EncryptedStringConverter.class) // encrypted at rest
     private String address;
     
     @Column(name = "city", length = 100)
@@ -76,6 +79,14 @@ public class Customer {
     @Column(name = "status", length = 20)
     private CustomerStatus status = CustomerStatus.ACTIVE;
     
+    @JsonIgnore
+    @Column(name = "password_hash", length = 100)
+    private String passwordHash;
+    
+    @JsonIgnore
+    @Column(name = "pin_hash", length = 100)
+    private String pinHash;
+    
     @CreationTimestamp
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -149,6 +160,12 @@ public class Customer {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     
+    public String getPasswordHash() { return passwordHash; }
+    public void setPasswordHash(String passwordHash) { this.passwordHash = passwordHash; }
+    
+    public String getPinHash() { return pinHash; }
+    public void setPinHash(String pinHash) { this.pinHash = pinHash; }
+    
     public List<Account> getAccounts() { return accounts; }
     public void setAccounts(List<Account> accounts) { this.accounts = accounts; }
     
@@ -0,0 +1,160 @@
+package com.minibanking.entity;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point monetary amount
+ *
+ * Held as a long count of minor units (hundredths, the scale of every money
+ * column in the schema), so posting arithmetic and comparisons are plain long
+ * operations instead of BigDecimal ones. Arithmetic is overflow-checked.
+ * BigDecimal is only used at the JPA and JSON edges (see MoneyConverter).
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+
+    public static final Money ZERO = new Money(0);
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    public static Money ofMinorUnits(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the amount has more than 2 decimal places or doesn't fit
+     */
+    public static Money of(BigDecimal amount) {
+        try {
+            return ofMinorUnits(amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid monetary amount: " + amount);
+        }
+    }
+
+    /**
+     * Parse a plain decimal such as "-12.5" or "100.00"; other forms go through BigDecimal
+     * @throws IllegalArgumentException if the text isn't a valid amount
+     */
+    public static Money parse(CharSequence text) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            i++;
+        }
+        long units = 0;
+        int digits = 0;
+        int fractionDigits = -1; // -1 until the decimal point
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+                continue;
+            }
+            if (c < '0' || c > '9' || fractionDigits == SCALE || digits == 18) {
+                return of(parseBigDecimal(text));
+            }
+            units = units * 10 + (c - '0');
+            digits++;
+            if (fractionDigits >= 0) {
+                fractionDigits++;
+            }
+        }
+        int padding = SCALE - Math.max(fractionDigits, 0);
+        if (digits == 0 || digits + padding > 18) {
+            return of(parseBigDecimal(text));
+        }
+        for (int f = 0; f < padding; f++) {
+            units *= 10;
+        }
+        return ofMinorUnits(negative ? -units : units);
+    }
+
+    private static BigDecimal parseBigDecimal(CharSequence text) {
+        try {
+            return new BigDecimal(text.toString());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid monetary amount: " + text);
+        }
+    }
+
+    public Money plus(Money other) {
+        try {
+            return ofMinorUnits(Math.addExact(minorUnits, other.minorUnits));
+        } catch (ArithmeticException e) {
+            throw new ArithmeticException("Monetary amount overflow: " + this + " + " + other);
+        }
+    }
+
+    public Money minus(Money other) {
+        try {
+            return ofMinorUnits(Math.subtractExact(minorUnits, other.minorUnits));
+        } catch (ArithmeticException e) {
+            throw new ArithmeticException("Monetary amount overflow: " + this + " - " + other);
+        }
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public boolean isGreaterThanOrEqual(Money other) {
+        return minorUnits >= other.minorUnits;
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Money money && money.minorUnits == minorUnits);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    /**
+     * Plain decimal with 2 places, e.g. "-0.05"; same text as toBigDecimal().toPlainString()
+     */
+    @Override
+    public String toString() {
+        long units = Math.abs(minorUnits); // Long.MIN_VALUE stays negative, handled below
+        if (units < 0) {
+            return toBigDecimal().toPlainString();
+        }
+        long fraction = units % 100;
+        StringBuilder text = new StringBuilder(24);
+        if (minorUnits < 0) {
+            text.append('-');
+        }
+        text.append(units / 100).append('.');
+        if (fraction < 10) {
+            text.append('0');
+        }
+        return text.append(fraction).toString();
+    }
+}
@@ -14,7 +14,7 @@ import java.util.UUID;
 public class Session {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     @Column(name = "session_id")
     private UUID sessionId;
     
@@ -12,11 +12,14 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+    @Index(name = "idx_transactions_from_keyset", columnList = "from_account_id, created_at DESC, transaction_id DESC"),
+    @Index(name = "idx_transactions_to_keyset", columnList = "to_account_id, created_at DESC, transaction_id DESC")
+})
 public class Transaction {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     @Column(name = "transaction_id")
     private UUID transactionId;
     
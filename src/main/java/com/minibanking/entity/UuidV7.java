@@ -0,0 +1,20 @@
+package com.minibanking.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generate the identifier as a time-ordered UUIDv7 (see UuidV7Generator)
+ *
+ * Use instead of @GeneratedValue(strategy = GenerationType.UUID) on high-insert
+ * tables, so new keys land at the right edge of the primary key index.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Target({ ElementType.FIELD, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface UuidV7 {
+}
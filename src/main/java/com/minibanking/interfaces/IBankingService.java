@@ -121,9 +121,9 @@ public interface IBankingService {
     // ==================== TRANSACTION HISTORY ====================
     
     /**
-     * Get transaction history for account
+     * Get the latest transactions of an account, newest first
      * @param accountId Account ID
-     * @return List of transactions
+     * @return Up to banking.ledger.history-limit transactions
      */
     List<Transaction> getTransactionHistory(UUID accountId);
     
@@ -135,7 +135,7 @@ public interface IBankingService {
     Optional<Transaction> getTransactionByCode(String transactionCode);
     
     /**
-     * Get transactions by status
+     * Get recent transactions by status (within banking.partitions.query-lookback-months)
      * @param status Transaction status
      * @return List of transactions with status
      */
@@ -150,6 +150,14 @@ public interface IBankingService {
      */
     BigDecimal getAccountBalance(UUID accountId);
     
+    /**
+     * Get account balance
+     * @param accountId Account ID
+     * @param consistentRead Read the committed row instead of the balance cache
+     * @return Account balance
+     */
+    BigDecimal getAccountBalance(UUID accountId, boolean consistentRead);
+    
     /**
      * Get available balance (considering holds)
      * @param accountId Account ID
@@ -157,6 +165,14 @@ public interface IBankingService {
      */
     BigDecimal getAvailableBalance(UUID accountId);
     
+    /**
+     * Get available balance (considering holds)
+     * @param accountId Account ID
+     * @param consistentRead Read the committed row instead of the balance cache
+     * @return Available balance
+     */
+    BigDecimal getAvailableBalance(UUID accountId, boolean consistentRead);
+    
     /**
      * Get account for read operations
      * @param accountId Account ID
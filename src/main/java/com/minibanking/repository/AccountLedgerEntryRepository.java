@@ -0,0 +1,59 @@
+package com.minibanking.repository;
+
+import com.minibanking.entity.AccountLedgerEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository for AccountLedgerEntry entities
+ *
+ * Every query is bounded to one account and ordered along an index, so each one
+ * is a single range scan on (account_id, entry_sequence) or (account_id, posted_at, entry_sequence).
+ */
+@Repository
+public interface AccountLedgerEntryRepository extends JpaRepository<AccountLedgerEntry, UUID> {
+
+    /**
+     * Latest entries of an account, newest first
+     */
+    @Query("SELECT e FROM AccountLedgerEntry e WHERE e.accountId = :accountId ORDER BY e.entrySequence DESC")
+    List<AccountLedgerEntry> findLatestEntries(@Param("accountId") UUID accountId, Pageable pageable);
+
+    /**
+     * Entries older than the given sequence, newest first (keyset pagination)
+     */
+    @Query("SELECT e FROM AccountLedgerEntry e WHERE e.accountId = :accountId AND e.entrySequence < :beforeSequence " +
+           "ORDER BY e.entrySequence DESC")
+    List<AccountLedgerEntry> findEntriesBefore(@Param("accountId") UUID accountId,
+                                               @Param("beforeSequence") Long beforeSequence,
+                                               Pageable pageable);
+
+    /**
+     * Entries posted in [from, to), in posting order
+     */
+    @Query("SELECT e FROM AccountLedgerEntry e WHERE e.accountId = :accountId " +
+           "AND e.postedAt >= :from AND e.postedAt < :to ORDER BY e.postedAt, e.entrySequence")
+    List<AccountLedgerEntry> findEntriesInPeriod(@Param("accountId") UUID accountId,
+                                                 @Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to);
+
+    /**
+     * Last entry posted at or before the given time
+     */
+    Optional<AccountLedgerEntry> findFirstByAccountIdAndPostedAtLessThanEqualOrderByPostedAtDescEntrySequenceDesc(
+            UUID accountId, LocalDateTime postedAt);
+
+    /**
+     * Last entry posted strictly before the given time
+     */
+    Optional<AccountLedgerEntry> findFirstByAccountIdAndPostedAtLessThanOrderByPostedAtDescEntrySequenceDesc(
+            UUID accountId, LocalDateTime postedAt);
+}
@@ -2,9 +2,11 @@ package com.minibanking.repository;
 
 import com.minibanking.entity.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -34,5 +36,15 @@ public interface CustomerRepository extends JpaRepository<Customer, UUID> {
     
     @Query("SELECT c FROM Customer c LEFT JOIN FETCH c.accounts WHERE c.customerId = :customerId")
     Optional<Customer> findByIdWithAccounts(@Param("customerId") UUID customerId);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Customer c SET c.passwordHash = :hash WHERE c.customerId = :customerId")
+    int updatePasswordHash(@Param("customerId") UUID customerId, @Param("hash") String hash);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Customer c SET c.pinHash = :hash WHERE c.customerId = :customerId")
+    int updatePinHash(@Param("customerId") UUID customerId, @Param("hash") String hash);
 }
 
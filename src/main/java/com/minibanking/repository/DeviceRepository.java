@@ -2,9 +2,11 @@ package com.minibanking.repository;
 
 import com.minibanking.entity.Device;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -94,6 +96,28 @@ public interface DeviceRepository extends JpaRepository<Device, UUID> {
     /**
      * Delete inactive devices
      */
+    @Modifying
+    @Transactional
     @Query("DELETE FROM Device d WHERE d.lastLogin < :cutoffDate AND d.isActive = false")
     int deleteInactiveDevices(@Param("cutoffDate") LocalDateTime cutoffDate);
+    
+    /**
+     * Deactivate up to batchSize devices not logged in since cutoffDate
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE devices SET is_active = false, is_trusted = false WHERE device_id IN (" +
+                   "SELECT device_id FROM devices WHERE is_active = true AND last_login < :cutoffDate " +
+                   "LIMIT :batchSize FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int deactivateInactiveDevicesBatch(@Param("cutoffDate") LocalDateTime cutoffDate, @Param("batchSize") int batchSize);
+    
+    /**
+     * Delete up to batchSize deactivated devices not logged in since cutoffDate
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM devices WHERE device_id IN (" +
+                   "SELECT device_id FROM devices WHERE is_active = false AND last_login < :cutoffDate " +
+                   "LIMIT :batchSize FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int deleteInactiveDevicesBatch(@Param("cutoffDate") LocalDateTime cutoffDate, @Param("batchSize") int batchSize);
 }
@@ -2,9 +2,11 @@ package com.minibanking.repository;
 
 import com.minibanking.entity.Session;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -83,24 +85,52 @@ public interface SessionRepository extends JpaRepository<Session, UUID> {
     /**
      * Invalidate sessions by user ID
      */
+    @Modifying
+    @Transactional
     @Query("UPDATE Session s SET s.isActive = false WHERE s.userId = :userId")
     int invalidateSessionsByUserId(@Param("userId") UUID userId);
     
     /**
      * Invalidate sessions by user ID and device fingerprint
      */
+    @Modifying
+    @Transactional
     @Query("UPDATE Session s SET s.isActive = false WHERE s.userId = :userId AND s.deviceFingerprint = :deviceFingerprint")
     int invalidateSessionsByUserIdAndDevice(@Param("userId") UUID userId, @Param("deviceFingerprint") String deviceFingerprint);
     
     /**
      * Delete expired sessions
      */
+    @Modifying
+    @Transactional
     @Query("DELETE FROM Session s WHERE s.expiresAt < :now")
     int deleteExpiredSessions(@Param("now") LocalDateTime now);
     
     /**
      * Delete inactive sessions
      */
+    @Modifying
+    @Transactional
     @Query("DELETE FROM Session s WHERE s.lastActivity < :cutoffTime AND s.isActive = false")
     int deleteInactiveSessions(@Param("cutoffTime") LocalDateTime cutoffTime);
+    
+    /**
+     * Delete up to batchSize expired sessions (rows locked by others are skipped)
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM sessions WHERE session_id IN (" +
+                   "SELECT session_id FROM sessions WHERE expires_at < :now " +
+                   "LIMIT :batchSize FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int deleteExpiredSessionsBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+    
+    /**
+     * Delete up to batchSize inactive sessions (rows locked by others are skipped)
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM sessions WHERE session_id IN (" +
+                   "SELECT session_id FROM sessions WHERE is_active = false AND last_activity < :cutoffTime " +
+                   "LIMIT :batchSize FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int deleteInactiveSessionsBatch(@Param("cutoffTime") LocalDateTime cutoffTime, @Param("batchSize") int batchSize);
 }
@@ -9,7 +9,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,16 +21,50 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
     
     Optional<Transaction> findByTransactionCode(String transactionCode);
     
+    // Partition-pruned queries: transactions is range-partitioned by created_at (monthly),
+    // so a created_at bound lets PostgreSQL skip every partition outside the range
+    
+    @Query("SELECT t FROM Transaction t WHERE t.transactionCode = :transactionCode AND t.createdAt >= :from AND t.createdAt < :to")
+    Optional<Transaction> findByTransactionCodeAndCreatedAtRange(@Param("transactionCode") String transactionCode,
+                                                                 @Param("from") LocalDateTime from,
+                                                                 @Param("to") LocalDateTime to);
+    
+    @Query("SELECT t FROM Transaction t WHERE t.status = :status AND t.createdAt >= :since ORDER BY t.createdAt")
+    List<Transaction> findByStatusSince(@Param("status") Transaction.TransactionStatus status,
+                                        @Param("since") LocalDateTime since);
+    
+    /**
+     * Lookup by code restricted to the partition of the time embedded in the code
+     * ("TXN" + 13-digit epoch millis + suffix, see TransactionCodeGenerator); codes in
+     * any other format search all partitions
+     */
+    default Optional<Transaction> findByTransactionCodeWithinPartition(String transactionCode) {
+        if (transactionCode != null && transactionCode.length() > 16 && transactionCode.startsWith("TXN")) {
+            try {
+                long issuedAtMillis = Long.parseLong(transactionCode.substring(3, 16));
+                LocalDateTime issuedAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(issuedAtMillis), ZoneId.systemDefault());
+                // created_at is stamped on insert, within the posting's 30s transaction timeout
+                return findByTransactionCodeAndCreatedAtRange(transactionCode, issuedAt.minusHours(1), issuedAt.plusHours(1));
+            } catch (NumberFormatException e) {
+                // Not a timestamped code
+            }
+        }
+        return findByTransactionCode(transactionCode);
+    }
+    
     List<Transaction> findByFromAccount(Account fromAccount);
     
     List<Transaction> findByToAccount(Account toAccount);
     
-    List<Transaction> findByStatus(Transaction.TransactionStatus status);
-    
     List<Transaction> findByTransactionType(Transaction.TransactionType transactionType);
     
-    @Query("SELECT t FROM Transaction t WHERE t.fromAccount.accountId = :accountId OR t.toAccount.accountId = :accountId")
-    List<Transaction> findByAccountId(@Param("accountId") UUID accountId);
+    /**
+     * Transactions by id, pruned to the partitions covering [from, to]
+     */
+    @Query("SELECT t FROM Transaction t WHERE t.transactionId IN :transactionIds AND t.createdAt BETWEEN :from AND :to")
+    List<Transaction> findByTransactionIdsWithin(@Param("transactionIds") List<UUID> transactionIds,
+                                                 @Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to);
     
     @Query("SELECT t FROM Transaction t WHERE (t.fromAccount.accountId = :accountId OR t.toAccount.accountId = :accountId) AND t.status = :status")
     List<Transaction> findByAccountIdAndStatus(@Param("accountId") UUID accountId, @Param("status") Transaction.TransactionStatus status);
@@ -61,26 +97,48 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
     @Query("SELECT t FROM Transaction t LEFT JOIN FETCH t.fromAccount LEFT JOIN FETCH t.toAccount WHERE t.transactionId = :transactionId")
     Optional<Transaction> findByIdWithAccounts(@Param("transactionId") UUID transactionId);
     
-    // Blockchain queries
-    List<Transaction> findByBlockId(UUID blockId);
-    
-    List<Transaction> findByIsConfirmedTrue();
-    
-    List<Transaction> findByIsConfirmedFalse();
-    
-    @Query("SELECT t FROM Transaction t WHERE t.blockId = :blockId AND t.isConfirmed = true")
-    List<Transaction> findConfirmedTransactionsInBlock(@Param("blockId") UUID blockId);
-    
-    @Query("SELECT COUNT(t) FROM Transaction t WHERE t.blockId = :blockId")
-    long countTransactionsInBlock(@Param("blockId") UUID blockId);
-    
-    @Query("SELECT t FROM Transaction t WHERE t.transactionHash = :transactionHash")
-    Optional<Transaction> findByTransactionHash(@Param("transactionHash") String transactionHash);
-    
-    @Query("SELECT t FROM Transaction t JOIN Block b ON t.blockId = b.blockId WHERE b.blockNumber BETWEEN :startBlock AND :endBlock")
-    List<Transaction> findByBlockNumberRange(@Param("startBlock") Long startBlock, @Param("endBlock") Long endBlock);
-    
-    @Query("SELECT t FROM Transaction t JOIN Block b ON t.blockId = b.blockId WHERE b.blockNumber = :blockNumber")
-    List<Transaction> findByBlockNumber(@Param("blockNumber") Long blockNumber);
+    // Blockchain queries, pruned like the ones above: a block holds transactions created
+    // shortly before it, so callers bound created_at around the block or transaction time
+    
+    @Query("SELECT t FROM Transaction t WHERE t.blockId = :blockId AND t.createdAt BETWEEN :from AND :to")
+    List<Transaction> findByBlockIdWithin(@Param("blockId") UUID blockId,
+                                          @Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to);
+    
+    @Query("SELECT t FROM Transaction t WHERE t.isConfirmed = false AND t.createdAt >= :since ORDER BY t.createdAt")
+    List<Transaction> findUnconfirmedSince(@Param("since") LocalDateTime since);
+    
+    @Query("SELECT t FROM Transaction t WHERE t.blockId = :blockId AND t.isConfirmed = true AND t.createdAt BETWEEN :from AND :to")
+    List<Transaction> findConfirmedTransactionsInBlock(@Param("blockId") UUID blockId,
+                                                       @Param("from") LocalDateTime from,
+                                                       @Param("to") LocalDateTime to);
+    
+    @Query("SELECT COUNT(t) FROM Transaction t WHERE t.blockId = :blockId AND t.createdAt BETWEEN :from AND :to")
+    long countTransactionsInBlock(@Param("blockId") UUID blockId,
+                                  @Param("from") LocalDateTime from,
+                                  @Param("to") LocalDateTime to);
+    
+    @Query("SELECT t FROM Transaction t WHERE t.transactionHash = :transactionHash AND t.createdAt >= :since")
+    Optional<Transaction> findByTransactionHashSince(@Param("transactionHash") String transactionHash,
+                                                     @Param("since") LocalDateTime since);
+    
+    @Query("SELECT t FROM Transaction t JOIN Block b ON t.blockId = b.blockId " +
+           "WHERE b.blockNumber BETWEEN :startBlock AND :endBlock AND t.createdAt BETWEEN :from AND :to")
+    List<Transaction> findByBlockNumberRange(@Param("startBlock") Long startBlock, @Param("endBlock") Long endBlock,
+                                             @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    @Query("SELECT t FROM Transaction t JOIN Block b ON t.blockId = b.blockId " +
+           "WHERE b.blockNumber = :blockNumber AND t.createdAt BETWEEN :from AND :to")
+    List<Transaction> findByBlockNumber(@Param("blockNumber") Long blockNumber,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to);
+    
+    /**
+     * Transactions of a block created at blockTime: the block's join value (b.timestamp) can't
+     * prune at plan time, so the window is passed as parameters - up to a day of block lag
+     */
+    default List<Transaction> findByBlockNumberAround(Long blockNumber, LocalDateTime blockTime) {
+        return findByBlockNumber(blockNumber, blockTime.minusDays(1), blockTime.plusHours(1));
+    }
 }
 
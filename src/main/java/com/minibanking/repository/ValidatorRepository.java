@@ -2,9 +2,11 @@ package com.minibanking.repository;
 
 import com.minibanking.entity.Validator;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -71,6 +73,43 @@ public interface ValidatorRepository extends JpaRepository<Validator, UUID> {
     @Query("SELECT v FROM Validator v ORDER BY v.blocksCreated DESC")
     List<Validator> findValidatorsByBlocksCreated();
 
+    /**
+     * Find the top validators by blocks created (LIMIT 5)
+     */
+    List<Validator> findTop5ByOrderByBlocksCreatedDesc();
+
+    /**
+     * Count active validators
+     */
+    long countByIsActiveTrue();
+
+    /**
+     * Count online validators
+     */
+    @Query("SELECT COUNT(v) FROM Validator v WHERE v.lastHeartbeat > :threshold")
+    long countOnlineValidators(@Param("threshold") LocalDateTime threshold);
+
+    /**
+     * Record a heartbeat without loading the validator
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Validator v SET v.lastHeartbeat = :heartbeat WHERE v.validatorId = :validatorId")
+    int updateLastHeartbeat(@Param("validatorId") UUID validatorId, @Param("heartbeat") LocalDateTime heartbeat);
+
+    /**
+     * Count validators that can create blocks
+     */
+    @Query("SELECT COUNT(v) FROM Validator v WHERE v.isAuthorized = true AND v.isActive = true " +
+            "AND (v.lockedUntil IS NULL OR v.lockedUntil < :now)")
+    long countValidatorsCanCreateBlock(@Param("now") LocalDateTime now);
+
+    /**
+     * Count validators with failed attempts
+     */
+    @Query("SELECT COUNT(v) FROM Validator v WHERE v.failedAttempts > 0")
+    long countValidatorsWithFailedAttempts();
+
     /**
      * Find validators that haven't created blocks recently
      */
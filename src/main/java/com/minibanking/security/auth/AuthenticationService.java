@@ -4,10 +4,12 @@ import com.minibanking.entity.Customer;
 import com.minibanking.entity.Device;
 import com.minibanking.entity.Session;
 import com.minibanking.interfaces.IBankingService;
+import com.minibanking.repository.CustomerRepository;
 import com.minibanking.repository.SessionRepository;
 import com.minibanking.security.device.DeviceService;
 import com.minibanking.security.jwt.JwtService;
 import com.minibanking.security.otp.OTPService;
+import com.minibanking.security.session.SessionStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -41,6 +43,21 @@ public class AuthenticationService {
     @Autowired
     private SessionRepository sessionRepository;
     
+    @Autowired
+    private SessionStore sessionStore;
+    
+    @Autowired
+    private LoginBookkeeper loginBookkeeper;
+    
+    @Autowired
+    private LoginRateLimiter rateLimiter;
+    
+    @Autowired
+    private CredentialVerifier credentialVerifier;
+    
+    @Autowired
+    private CustomerRepository customerRepository;
+    
     @Autowired
     private PasswordEncoder passwordEncoder;
     
@@ -48,7 +65,19 @@ public class AuthenticationService {
      * Authenticate user login
      */
     public LoginResponse authenticate(LoginRequest request) {
+        return authenticate(request, request.getIpAddress());
+    }
+    
+    /**
+     * Authenticate user login, rate limited by client IP and username
+     */
+    public LoginResponse authenticate(LoginRequest request, String clientIp) {
         try {
+            // 0. Rate limits are checked before any lookup or hashing
+            if (!rateLimiter.tryAcquire(clientIp, request.getUsername())) {
+                return LoginResponse.rateLimited();
+            }
+            
             // 1. Get user by username
             Optional<Customer> customerOpt = bankingService.getCustomerByCode(request.getUsername());
             if (customerOpt.isEmpty()) {
@@ -87,7 +116,11 @@ public class AuthenticationService {
      */
     private LoginResponse authenticateWithPin(Customer customer, LoginRequest request) {
         // 1. Verify PIN
-        if (!verifyPin(customer, request.getPin())) {
+        CredentialVerifier.VerificationResult pinCheck = verifyPin(customer, request.getPin());
+        if (pinCheck == CredentialVerifier.VerificationResult.OVERLOADED) {
+            return LoginResponse.overloaded();
+        }
+        if (pinCheck == CredentialVerifier.VerificationResult.MISMATCH) {
             deviceService.recordFailedLogin(customer.getCustomerId(), request.getDeviceFingerprint());
             return LoginResponse.failed("Invalid PIN");
         }
@@ -108,8 +141,11 @@ public class AuthenticationService {
         // 3. Create session
         createSession(customer.getCustomerId(), request.getDeviceFingerprint(), accessToken, refreshToken);
         
-        // 4. Record successful login
-        deviceService.recordSuccessfulLogin(customer.getCustomerId(), request.getDeviceFingerprint());
+        // 4. Record successful login (write-behind)
+        UUID userId = customer.getCustomerId();
+        String deviceFingerprint = request.getDeviceFingerprint();
+        loginBookkeeper.submit("successful login", 
+            () -> deviceService.recordSuccessfulLogin(userId, deviceFingerprint));
         
         logger.info("User {} authenticated with PIN on trusted device", customer.getCustomerCode());
         
@@ -121,7 +157,11 @@ public class AuthenticationService {
      */
     private LoginResponse authenticateWithPassword(Customer customer, LoginRequest request) {
         // 1. Verify password
-        if (!verifyPassword(customer, request.getPassword())) {
+        CredentialVerifier.VerificationResult passwordCheck = verifyPassword(customer, request.getPassword());
+        if (passwordCheck == CredentialVerifier.VerificationResult.OVERLOADED) {
+            return LoginResponse.overloaded();
+        }
+        if (passwordCheck == CredentialVerifier.VerificationResult.MISMATCH) {
             deviceService.recordFailedLogin(customer.getCustomerId(), request.getDeviceFingerprint());
             return LoginResponse.failed("Invalid username or password");
         }
@@ -195,8 +235,10 @@ public class AuthenticationService {
             // 5. Create session
             createSession(customer.getCustomerId(), deviceFingerprint, accessToken, refreshToken);
             
-            // 6. Record successful login
-            deviceService.recordSuccessfulLogin(customer.getCustomerId(), deviceFingerprint);
+            // 6. Record successful login (write-behind)
+            UUID userId = customer.getCustomerId();
+            loginBookkeeper.submit("successful login", 
+                () -> deviceService.recordSuccessfulLogin(userId, deviceFingerprint));
             
             logger.info("User {} completed 2FA authentication", customer.getCustomerCode());
             
@@ -240,6 +282,7 @@ public class AuthenticationService {
             session.setTokenHash(jwtService.getTokenHash(newAccessToken));
             session.refreshActivity();
             sessionRepository.save(session);
+            sessionStore.registerSession(jwtService.verify(newAccessToken));
             
             return LoginResponse.success(newAccessToken, refreshToken, null, false);
             
@@ -256,6 +299,8 @@ public class AuthenticationService {
         try {
             // Invalidate sessions for this user and device
             sessionRepository.invalidateSessionsByUserIdAndDevice(userId, deviceFingerprint);
+            sessionStore.revokeSessions(userId, deviceFingerprint);
+            jwtService.invalidateSessions(userId, deviceFingerprint);
             logger.info("User {} logged out from device {}", userId, deviceFingerprint);
         } catch (Exception e) {
             logger.error("Logout error", e);
@@ -265,27 +310,52 @@ public class AuthenticationService {
     /**
      * Verify PIN
      */
-    private boolean verifyPin(Customer customer, String pin) {
-        // In a real system, PIN would be hashed and stored
-        // For demo purposes, we'll use a simple check
-        return pin != null && pin.length() >= 4;
+    private CredentialVerifier.VerificationResult verifyPin(Customer customer, String pin) {
+        if (customer.getPinHash() == null) {
+            // No stored PIN hash: legacy demo check
+            return pin != null && pin.length() >= 4
+                ? CredentialVerifier.VerificationResult.MATCH
+                : CredentialVerifier.VerificationResult.MISMATCH;
+        }
+        
+        CredentialVerifier.VerificationResult result = credentialVerifier.verify(pin, customer.getPinHash());
+        if (result == CredentialVerifier.VerificationResult.MATCH && credentialVerifier.needsRehash(customer.getPinHash())) {
+            UUID customerId = customer.getCustomerId();
+            loginBookkeeper.submit("PIN rehash", 
+                () -> customerRepository.updatePinHash(customerId, credentialVerifier.hash(pin)));
+        }
+        return result;
     }
     
     /**
      * Verify password
      */
-    private boolean verifyPassword(Customer customer, String password) {
-        // In a real system, password would be hashed and compared
-        // For demo purposes, we'll use a simple check
-        return password != null && password.length() >= 6;
+    private CredentialVerifier.VerificationResult verifyPassword(Customer customer, String password) {
+        if (customer.getPasswordHash() == null) {
+            // No stored password hash: legacy demo check
+            return password != null && password.length() >= 6
+                ? CredentialVerifier.VerificationResult.MATCH
+                : CredentialVerifier.VerificationResult.MISMATCH;
+        }
+        
+        CredentialVerifier.VerificationResult result = credentialVerifier.verify(password, customer.getPasswordHash());
+        if (result == CredentialVerifier.VerificationResult.MATCH && credentialVerifier.needsRehash(customer.getPasswordHash())) {
+            UUID customerId = customer.getCustomerId();
+            loginBookkeeper.submit("password rehash", 
+                () -> customerRepository.updatePasswordHash(customerId, credentialVerifier.hash(password)));
+        }
+        return result;
     }
     
     /**
      * Create session
+     * Token revocation is enforced by the session store. The database row is written
+     * before the tokens are returned, because refreshToken looks it up.
      */
     private void createSession(UUID userId, String deviceFingerprint, String accessToken, String refreshToken) {
         // Invalidate old sessions for this device
-        sessionRepository.invalidateSessionsByUserIdAndDevice(userId, deviceFingerprint);
+        sessionStore.revokeSessions(userId, deviceFingerprint);
+        jwtService.invalidateSessions(userId, deviceFingerprint);
         
         // Create new session
         Session session = new Session();
@@ -297,11 +367,18 @@ public class AuthenticationService {
         session.setIsActive(true);
         session.setIsTemporary(false);
         
+        sessionRepository.invalidateSessionsByUserIdAndDevice(userId, deviceFingerprint);
         sessionRepository.save(session);
+        
+        // Register in the distributed session store so any node can revoke them
+        sessionStore.registerSession(jwtService.verify(accessToken));
+        sessionStore.registerSession(jwtService.verify(refreshToken));
     }
     
     /**
      * Create temporary session for 2FA
+     * Written synchronously too: a late write would leave a second active row that
+     * createSession's invalidation missed.
      */
     private void createTemporarySession(UUID userId, String deviceFingerprint, String tempToken) {
         Session session = new Session();
@@ -313,12 +390,6 @@ public class AuthenticationService {
         session.setIsTemporary(true);
         
         sessionRepository.save(session);
-    }
-    
-    /**
-     * Get token hash (simplified)
-     */
-    private String getTokenHash(String token) {
-        return String.valueOf(token.hashCode());
+        sessionStore.registerSession(jwtService.verify(tempToken));
     }
 }
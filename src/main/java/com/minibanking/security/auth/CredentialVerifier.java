@@ -0,0 +1,136 @@
+package com.minibanking.security.auth;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Credential verification worker pool
+ *
+ * Password/PIN hash checks run on a small dedicated pool instead of request
+ * threads, so at most pool-size cores are ever spent on hashing. When the bounded
+ * queue is full the check is shed (OVERLOADED) rather than queued behind a burst.
+ */
+@Service
+public class CredentialVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(CredentialVerifier.class);
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${auth.credentials.pool-size:0}") // 0 = half the available cores
+    private int poolSize;
+
+    @Value("${auth.credentials.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${auth.credentials.timeout-ms:2000}")
+    private long timeoutMs;
+
+    private ThreadPoolExecutor executor;
+
+    private final AtomicLong verified = new AtomicLong();
+    private final AtomicLong shed = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        int threads = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "credential-verify-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        logger.info("Credential verifier started with {} threads, queue capacity {}", threads, queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Check a raw credential against its stored hash on the worker pool
+     */
+    public VerificationResult verify(String rawCredential, String encodedCredential) {
+        if (rawCredential == null || encodedCredential == null) {
+            return VerificationResult.MISMATCH;
+        }
+
+        Future<Boolean> future;
+        try {
+            future = executor.submit(() -> passwordEncoder.matches(rawCredential, encodedCredential));
+        } catch (RejectedExecutionException e) {
+            shed.incrementAndGet();
+            return VerificationResult.OVERLOADED;
+        }
+
+        try {
+            boolean matches = future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            verified.incrementAndGet();
+            return matches ? VerificationResult.MATCH : VerificationResult.MISMATCH;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.incrementAndGet();
+            return VerificationResult.OVERLOADED;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            return VerificationResult.OVERLOADED;
+        } catch (ExecutionException e) {
+            logger.error("Credential verification failed: {}", e.getCause().getMessage());
+            return VerificationResult.MISMATCH;
+        }
+    }
+
+    /**
+     * Whether a stored hash was created at a lower cost than the current one
+     */
+    public boolean needsRehash(String encodedCredential) {
+        return encodedCredential != null && passwordEncoder.upgradeEncoding(encodedCredential);
+    }
+
+    /**
+     * Hash a credential at the current cost
+     */
+    public String hash(String rawCredential) {
+        return passwordEncoder.encode(rawCredential);
+    }
+
+    public Map<String, Object> getStatistics() {
+        return Map.of(
+                "poolSize", executor.getMaximumPoolSize(),
+                "active", executor.getActiveCount(),
+                "queueDepth", executor.getQueue().size(),
+                "verified", verified.get(),
+                "shed", shed.get(),
+                "timedOut", timedOut.get());
+    }
+
+    public enum VerificationResult {
+        MATCH,
+        MISMATCH,
+        OVERLOADED  // Shed or timed out; the credential was not checked
+    }
+}
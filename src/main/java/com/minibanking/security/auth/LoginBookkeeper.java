@@ -0,0 +1,151 @@
+package com.minibanking.security.auth;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind queue for login bookkeeping
+ *
+ * Writes that a login response doesn't depend on (last-login and device stats,
+ * credential rehashes) are queued here and applied by a single writer thread, so
+ * they run in submission order but off the request thread. When the queue is full
+ * the write runs on the caller instead of being dropped.
+ */
+@Component
+public class LoginBookkeeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginBookkeeper.class);
+
+    @Value("${auth.login-bookkeeping.async:true}")
+    private boolean async = true;
+
+    @Value("${auth.login-bookkeeping.queue-capacity:10000}")
+    private int queueCapacity = 10000;
+
+    @Value("${auth.login-bookkeeping.batch-size:100}")
+    private int batchSize = 100;
+
+    @Value("${auth.login-bookkeeping.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs = 10000;
+
+    private BlockingQueue<Task> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong ranInline = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        if (!async) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drain, "login-bookkeeping");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queue a bookkeeping write
+     */
+    public void submit(String description, Runnable write) {
+        submitted.incrementAndGet();
+        Task task = new Task(description, write);
+        if (!running || !queue.offer(task)) {
+            ranInline.incrementAndGet();
+            execute(task);
+        }
+    }
+
+    /**
+     * Stop accepting writes and flush what is queued
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Anything still queued (or submitted during shutdown) is applied here
+        Task task;
+        while ((task = queue.poll()) != null) {
+            execute(task);
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue != null ? queue.size() : 0;
+    }
+
+    public Map<String, Object> getStatistics() {
+        return Map.of(
+                "async", async,
+                "queueDepth", getQueueDepth(),
+                "submitted", submitted.get(),
+                "completed", completed.get(),
+                "failed", failed.get(),
+                "ranInline", ranInline.get());
+    }
+
+    private void drain() {
+        List<Task> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Task first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                for (Task task : batch) {
+                    execute(task);
+                }
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void execute(Task task) {
+        try {
+            task.write.run();
+            completed.incrementAndGet();
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            logger.error("Login bookkeeping write failed ({}): {}", task.description, e.getMessage());
+        }
+    }
+
+    private static final class Task {
+        private final String description;
+        private final Runnable write;
+
+        private Task(String description, Runnable write) {
+            this.description = description;
+            this.write = write;
+        }
+    }
+}
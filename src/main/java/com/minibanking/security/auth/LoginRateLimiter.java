@@ -0,0 +1,129 @@
+package com.minibanking.security.auth;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket rate limits for login attempts, per client IP and per username
+ *
+ * Checked before any credential hashing, so a credential-stuffing burst is
+ * rejected without spending CPU on BCrypt. Idle buckets are purged periodically.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginRateLimiter.class);
+
+    @Value("${auth.rate-limit.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${auth.rate-limit.ip.capacity:20}")
+    private int ipCapacity = 20;
+
+    @Value("${auth.rate-limit.ip.refill-per-second:1.0}")
+    private double ipRefillPerSecond = 1.0;
+
+    @Value("${auth.rate-limit.user.capacity:5}")
+    private int userCapacity = 5;
+
+    @Value("${auth.rate-limit.user.refill-per-second:0.1}")
+    private double userRefillPerSecond = 0.1;
+
+    @Value("${auth.rate-limit.max-buckets:100000}")
+    private int maxBuckets = 100000;
+
+    @Value("${auth.rate-limit.idle-seconds:600}")
+    private long idleSeconds = 600;
+
+    private final Map<String, TokenBucket> ipBuckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> userBuckets = new ConcurrentHashMap<>();
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * Take one token from the IP bucket and the username bucket
+     * @return false if either limit is exhausted
+     */
+    public boolean tryAcquire(String clientIp, String username) {
+        return tryAcquire(clientIp, username, System.nanoTime());
+    }
+
+    boolean tryAcquire(String clientIp, String username, long nowNanos) {
+        if (!enabled) {
+            return true;
+        }
+        boolean allowed = acquire(ipBuckets, clientIp, ipCapacity, ipRefillPerSecond, nowNanos)
+                && acquire(userBuckets, username != null ? username.toLowerCase() : null,
+                        userCapacity, userRefillPerSecond, nowNanos);
+        if (!allowed) {
+            rejected.incrementAndGet();
+        }
+        return allowed;
+    }
+
+    @Scheduled(fixedDelayString = "${auth.rate-limit.purge-interval-ms:60000}")
+    public void purgeIdle() {
+        long cutoff = System.nanoTime() - TimeUnit.SECONDS.toNanos(idleSeconds);
+        ipBuckets.values().removeIf(bucket -> bucket.lastUsedNanos < cutoff);
+        userBuckets.values().removeIf(bucket -> bucket.lastUsedNanos < cutoff);
+    }
+
+    public Map<String, Object> getStatistics() {
+        return Map.of(
+                "enabled", enabled,
+                "ipBuckets", ipBuckets.size(),
+                "userBuckets", userBuckets.size(),
+                "rejected", rejected.get());
+    }
+
+    private boolean acquire(Map<String, TokenBucket> buckets, String key, int capacity,
+                            double refillPerSecond, long nowNanos) {
+        if (key == null) {
+            return true;
+        }
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxBuckets) {
+                purgeIdle();
+                if (buckets.size() >= maxBuckets) {
+                    // Don't let a flood of distinct keys exhaust memory; the other limit still applies
+                    logger.warn("Login rate limiter is tracking {} keys, not tracking {}", buckets.size(), key);
+                    return true;
+                }
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, nowNanos));
+        }
+        return bucket.tryAcquire(capacity, refillPerSecond, nowNanos);
+    }
+
+    private static final class TokenBucket {
+        private double tokens;
+        private long lastRefillNanos;
+        private volatile long lastUsedNanos;
+
+        private TokenBucket(int capacity, long nowNanos) {
+            this.tokens = capacity;
+            this.lastRefillNanos = nowNanos;
+            this.lastUsedNanos = nowNanos;
+        }
+
+        private synchronized boolean tryAcquire(int capacity, double refillPerSecond, long nowNanos) {
+            double elapsedSeconds = Math.max(0, nowNanos - lastRefillNanos) / 1_000_000_000.0;
+            tokens = Math.min(capacity, tokens + elapsedSeconds * refillPerSecond);
+            lastRefillNanos = nowNanos;
+            lastUsedNanos = nowNanos;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+    }
+}
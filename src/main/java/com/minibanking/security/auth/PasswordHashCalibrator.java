@@ -0,0 +1,50 @@
+package com.minibanking.security.auth;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Picks the BCrypt cost for this host
+ *
+ * Each BCrypt cost step doubles the hashing time, so the calibrator measures
+ * successive costs and keeps the highest one that still hashes within the target
+ * latency. Hashes created at a lower cost are upgraded on the next login.
+ */
+public final class PasswordHashCalibrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashCalibrator.class);
+
+    private static final String SAMPLE = "calibration-sample-password";
+
+    private PasswordHashCalibrator() {
+    }
+
+    /**
+     * @param targetMillis Target time for one hash
+     * @param minStrength  Lowest acceptable cost (used even if it exceeds the target)
+     * @param maxStrength  Highest cost to consider
+     */
+    public static int calibrate(long targetMillis, int minStrength, int maxStrength) {
+        // Warm up so JIT compilation isn't measured
+        new BCryptPasswordEncoder(4).encode(SAMPLE);
+
+        int strength = minStrength;
+        long elapsed = measure(strength);
+        while (strength < maxStrength && elapsed * 2 <= targetMillis) {
+            strength++;
+            elapsed = measure(strength);
+        }
+
+        logger.info("Password hash cost calibrated to {} ({} ms per hash, target {} ms)",
+                strength, elapsed, targetMillis);
+        return strength;
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long start = System.nanoTime();
+        encoder.encode(SAMPLE);
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -20,26 +21,44 @@ public class DeviceService {
     
     private static final Logger logger = LoggerFactory.getLogger(DeviceService.class);
     
+    private static final int CLEANUP_BATCH_SIZE = 1000;
+    
     @Autowired
     private DeviceRepository deviceRepository;
     
+    @Autowired
+    private DeviceTrustCache trustCache;
+    
     /**
      * Check if device is trusted
      */
     public boolean isTrustedDevice(UUID userId, String deviceFingerprint) {
-        Optional<Device> device = deviceRepository.findByUserIdAndDeviceFingerprint(userId, deviceFingerprint);
-        return device.isPresent() && 
-               device.get().getIsTrusted() && 
-               device.get().getIsActive() && 
-               !device.get().isLocked();
+        return getDeviceTrustLevel(userId, deviceFingerprint) == DeviceTrustLevel.TRUSTED;
     }
     
     /**
-     * Get device trust level
+     * Get device trust level (served from DeviceTrustCache when possible)
      */
     public DeviceTrustLevel getDeviceTrustLevel(UUID userId, String deviceFingerprint) {
+        DeviceTrustLevel cached = trustCache.get(userId, deviceFingerprint, System.currentTimeMillis());
+        if (cached != null) {
+            return cached;
+        }
+        
+        long generation = trustCache.generation();
         Optional<Device> device = deviceRepository.findByUserIdAndDeviceFingerprint(userId, deviceFingerprint);
+        DeviceTrustLevel trustLevel = resolveTrustLevel(device);
         
+        // A lock ends on its own, so a LOCKED level is only cached until then
+        long validUntil = trustLevel == DeviceTrustLevel.LOCKED
+            ? device.get().getLockedUntil().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+            : Long.MAX_VALUE;
+        trustCache.put(userId, deviceFingerprint, trustLevel, validUntil, generation);
+        
+        return trustLevel;
+    }
+    
+    private DeviceTrustLevel resolveTrustLevel(Optional<Device> device) {
         if (device.isEmpty()) {
             return DeviceTrustLevel.UNKNOWN;
         }
@@ -75,7 +94,9 @@ public class DeviceService {
             Device device = existingDevice.get();
             device.setIsActive(true);
             device.setLastActivity(LocalDateTime.now());
-            return deviceRepository.save(device);
+            Device savedDevice = deviceRepository.save(device);
+            trustCache.invalidate(userId, deviceFingerprint);
+            return savedDevice;
         }
         
         // Create new device
@@ -94,6 +115,7 @@ public class DeviceService {
         device.setIsActive(true);
         
         Device savedDevice = deviceRepository.save(device);
+        trustCache.invalidate(userId, deviceFingerprint);
         logger.info("New device registered for user: {} with fingerprint: {}", userId, deviceFingerprint);
         
         return savedDevice;
@@ -113,6 +135,7 @@ public class DeviceService {
         device.recordSuccessfulLogin();
         
         Device savedDevice = deviceRepository.save(device);
+        trustCache.invalidate(userId, deviceFingerprint);
         logger.info("Device trusted for user: {} with fingerprint: {}", userId, deviceFingerprint);
         
         return savedDevice;
@@ -131,13 +154,14 @@ public class DeviceService {
         device.markAsUntrusted();
         
         Device savedDevice = deviceRepository.save(device);
+        trustCache.invalidate(userId, deviceFingerprint);
         logger.info("Device untrusted for user: {} with fingerprint: {}", userId, deviceFingerprint);
         
         return savedDevice;
     }
     
     /**
-     * Record successful login
+     * Record successful login (doesn't change the trust level, so the cache is kept)
      */
     public void recordSuccessfulLogin(UUID userId, String deviceFingerprint) {
         Optional<Device> deviceOpt = deviceRepository.findByUserIdAndDeviceFingerprint(userId, deviceFingerprint);
@@ -157,6 +181,9 @@ public class DeviceService {
             Device device = deviceOpt.get();
             device.recordFailedLogin();
             deviceRepository.save(device);
+            if (device.isLocked()) {
+                trustCache.invalidate(userId, deviceFingerprint);
+            }
         }
     }
     
@@ -190,6 +217,7 @@ public class DeviceService {
             Device device = deviceOpt.get();
             device.deactivate();
             deviceRepository.save(device);
+            trustCache.invalidate(userId, deviceFingerprint);
             logger.info("Device deactivated for user: {} with fingerprint: {}", userId, deviceFingerprint);
         }
     }
@@ -203,6 +231,7 @@ public class DeviceService {
             Device device = deviceOpt.get();
             device.unlock();
             deviceRepository.save(device);
+            trustCache.invalidate(userId, deviceFingerprint);
             logger.info("Device unlocked for user: {} with fingerprint: {}", userId, deviceFingerprint);
         }
     }
@@ -215,18 +244,23 @@ public class DeviceService {
     }
     
     /**
-     * Cleanup inactive devices
+     * Cleanup inactive devices (set-based, in bounded batches; scheduled by HousekeepingService)
      */
-    public void cleanupInactiveDevices(int daysInactive) {
+    public int cleanupInactiveDevices(int daysInactive) {
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(daysInactive);
-        List<Device> inactiveDevices = deviceRepository.findInactiveDevices(cutoffDate);
+        int total = 0;
+        int updated;
+        do {
+            updated = deviceRepository.deactivateInactiveDevicesBatch(cutoffDate, CLEANUP_BATCH_SIZE);
+            total += updated;
+        } while (updated == CLEANUP_BATCH_SIZE);
         
-        for (Device device : inactiveDevices) {
-            device.deactivate();
-            deviceRepository.save(device);
+        if (total > 0) {
+            trustCache.invalidateAll();
         }
         
-        logger.info("Cleaned up {} inactive devices", inactiveDevices.size());
+        logger.info("Cleaned up {} inactive devices", total);
+        return total;
     }
     
     /**
@@ -0,0 +1,168 @@
+package com.minibanking.security.device;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local cache of device trust levels keyed by (userId, deviceFingerprint)
+ *
+ * DeviceService evicts an entry whenever it changes the device, and the eviction is
+ * broadcast to the other nodes over Redis pub/sub. Entries also expire after a TTL
+ * (or when a device lock ends), which bounds staleness if a broadcast is missed.
+ */
+@Component
+public class DeviceTrustCache implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeviceTrustCache.class);
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Value("${auth.device-trust-cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${auth.device-trust-cache.ttl-seconds:300}")
+    private long ttlSeconds = 300;
+
+    @Value("${auth.device-trust-cache.max-size:100000}")
+    private int maxSize = 100000;
+
+    @Value("${auth.device-trust-cache.channel:auth:device-trust}")
+    private String channel = "auth:device-trust";
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    // Bumped on every eviction; a load that raced with an eviction is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+    }
+
+    /**
+     * Cached trust level, or null if absent or expired
+     */
+    public DeviceService.DeviceTrustLevel get(UUID userId, String deviceFingerprint, long nowMillis) {
+        if (!enabled) {
+            return null;
+        }
+        String key = key(userId, deviceFingerprint);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.validUntilMillis <= nowMillis) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.level;
+    }
+
+    /**
+     * Generation to pass to {@link #put} for a value about to be loaded
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Cache a loaded trust level unless the device was modified since loadGeneration
+     */
+    public void put(UUID userId, String deviceFingerprint, DeviceService.DeviceTrustLevel level,
+                    long validUntilMillis, long loadGeneration) {
+        if (!enabled || entries.size() >= maxSize) {
+            return;
+        }
+        long expiresAt = Math.min(validUntilMillis, System.currentTimeMillis() + ttlSeconds * 1000);
+        String key = key(userId, deviceFingerprint);
+        entries.put(key, new Entry(level, expiresAt));
+        if (generation.get() != loadGeneration) {
+            entries.remove(key); // Modified while loading
+        }
+    }
+
+    /**
+     * Evict a device on this node and broadcast the eviction to the others
+     */
+    public void invalidate(UUID userId, String deviceFingerprint) {
+        evict(key(userId, deviceFingerprint));
+        try {
+            redisTemplate.convertAndSend(channel, key(userId, deviceFingerprint));
+        } catch (Exception e) {
+            logger.warn("Failed to broadcast device trust eviction: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Evict every cached device (bulk device updates)
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+        try {
+            redisTemplate.convertAndSend(channel, "*");
+        } catch (Exception e) {
+            logger.warn("Failed to broadcast device trust eviction: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String key = new String(message.getBody(), StandardCharsets.UTF_8);
+        if ("*".equals(key)) {
+            generation.incrementAndGet();
+            entries.clear();
+        } else {
+            evict(key);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.device-trust-cache.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.validUntilMillis <= now);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    void evict(String key) {
+        generation.incrementAndGet();
+        entries.remove(key);
+    }
+
+    static String key(UUID userId, String deviceFingerprint) {
+        return userId + ":" + deviceFingerprint;
+    }
+
+    private static final class Entry {
+        private final DeviceService.DeviceTrustLevel level;
+        private final long validUntilMillis;
+
+        private Entry(DeviceService.DeviceTrustLevel level, long validUntilMillis) {
+            this.level = level;
+            this.validUntilMillis = validUntilMillis;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.minibanking.security.encryption;
 
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,32 +11,102 @@ import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
 import java.security.SecureRandom;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Data Encryption Service for sensitive banking data
+ *
+ * AES-GCM field encryption. Keys are loaded once into a cache keyed by key version
+ * (encryption.keys); new values are written with encryption.key-version and every
+ * cached version stays readable, so keys can be rotated without re-encrypting.
+ * Each thread reuses one Cipher and one DRBG. IVs are random 96-bit values
+ * (NIST SP 800-38D 8.2.2), so no coordination between instances or restarts is
+ * needed; the DRBG output is drawn 1 KB at a time and each byte is used once. A process refuses to encrypt more than encryption.max-invocations-per-key
+ * (2^32, the 8.2.2 limit) values with one key; rotate the key version well before
+ * all instances together get there.
+ *
+ * Ciphertexts are "ENC1:" + Base64([key version: 2 bytes][IV][ciphertext + tag]).
  */
 @Service
 public class DataEncryptionService {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(DataEncryptionService.class);
-    
+
+    static final String PREFIX = "ENC1:";
+    private static final int VERSION_BYTES = 2;
+    private static final int MIN_IV_LENGTH = 12;
+
     @Value("${encryption.algorithm:AES}")
-    private String algorithm;
-    
+    private String algorithm = "AES";
+
     @Value("${encryption.key-size:256}")
-    private int keySize;
-    
+    private int keySize = 256;
+
     @Value("${encryption.iv-length:12}")
-    private int ivLength;
-    
+    private int ivLength = 12;
+
     @Value("${encryption.tag-length:128}")
-    private int tagLength;
-    
+    private int tagLength = 128;
+
+    @Value("${encryption.key-version:1}")
+    private int keyVersion = 1;
+
+    @Value("${encryption.keys:}") // "version:base64 key" pairs, comma separated; empty = development key
+    private String keys = "";
+
+    @Value("${encryption.max-invocations-per-key:4294967296}")
+    private long maxInvocationsPerKey = 1L << 32;
+
     private static final String TRANSFORMATION = "AES/GCM/NoPadding";
-    
+
+    private static final ThreadLocal<Cipher> CIPHER = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance(TRANSFORMATION);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES/GCM is not available", e);
+        }
+    });
+
+    private static final ThreadLocal<RandomBytes> RANDOM = ThreadLocal.withInitial(RandomBytes::new);
+
+    private final Map<Integer, KeyState> keyCache = new ConcurrentHashMap<>();
+    private volatile KeyState activeKey;
+
+    @PostConstruct
+    public void init() {
+        if (ivLength < MIN_IV_LENGTH) {
+            throw new IllegalArgumentException("encryption.iv-length must be at least " + MIN_IV_LENGTH + ": " + ivLength);
+        }
+        if (keys == null || keys.isBlank()) {
+            logger.warn("encryption.keys not set, using the built-in development key as version {}", keyVersion);
+            cacheKey(keyVersion, developmentKey());
+        } else {
+            for (String entry : keys.split(",")) {
+                int colon = entry.indexOf(':');
+                if (colon <= 0) {
+                    throw new IllegalArgumentException("encryption.keys entries must be version:base64-key");
+                }
+                cacheKey(Integer.parseInt(entry.substring(0, colon).trim()),
+                        Base64.getDecoder().decode(entry.substring(colon + 1).trim()));
+            }
+        }
+        activeKey = keyCache.get(keyVersion);
+        if (activeKey == null) {
+            throw new IllegalArgumentException("encryption.key-version " + keyVersion + " is not in encryption.keys");
+        }
+        logger.info("Data encryption ready: key version {} active, {} version(s) cached", keyVersion, keyCache.size());
+    }
+
     /**
      * Encrypt sensitive data
      */
@@ -43,37 +114,16 @@ public class DataEncryptionService {
         if (plainText == null || plainText.isEmpty()) {
             return plainText;
         }
-        
+        KeyState key = activeKey;
         try {
-            // Generate random IV
-            byte[] iv = new byte[ivLength];
-            new SecureRandom().nextBytes(iv);
-            
-            // Generate secret key (in production, use proper key management)
-            SecretKey secretKey = generateSecretKey();
-            
-            // Initialize cipher
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-            GCMParameterSpec parameterSpec = new GCMParameterSpec(tagLength, iv);
-            cipher.init(Cipher.ENCRYPT_MODE, secretKey, parameterSpec);
-            
-            // Encrypt data
-            byte[] encryptedData = cipher.doFinal(plainText.getBytes(StandardCharsets.UTF_8));
-            
-            // Combine IV and encrypted data
-            byte[] encryptedWithIv = new byte[ivLength + encryptedData.length];
-            System.arraycopy(iv, 0, encryptedWithIv, 0, ivLength);
-            System.arraycopy(encryptedData, 0, encryptedWithIv, ivLength, encryptedData.length);
-            
-            // Return base64 encoded result
-            return Base64.getEncoder().encodeToString(encryptedWithIv);
-            
+            key.reserve(1);
+            return encrypt(CIPHER.get(), RANDOM.get(), key, plainText);
         } catch (Exception e) {
             logger.error("Error encrypting data", e);
             throw new RuntimeException("Encryption failed", e);
         }
     }
-    
+
     /**
      * Decrypt sensitive data
      */
@@ -81,36 +131,53 @@ public class DataEncryptionService {
         if (encryptedText == null || encryptedText.isEmpty()) {
             return encryptedText;
         }
-        
         try {
-            // Decode base64
-            byte[] encryptedWithIv = Base64.getDecoder().decode(encryptedText);
-            
-            // Extract IV and encrypted data
-            byte[] iv = new byte[ivLength];
-            byte[] encryptedData = new byte[encryptedWithIv.length - ivLength];
-            System.arraycopy(encryptedWithIv, 0, iv, 0, ivLength);
-            System.arraycopy(encryptedWithIv, ivLength, encryptedData, 0, encryptedData.length);
-            
-            // Generate secret key (in production, use proper key management)
-            SecretKey secretKey = generateSecretKey();
-            
-            // Initialize cipher
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-            GCMParameterSpec parameterSpec = new GCMParameterSpec(tagLength, iv);
-            cipher.init(Cipher.DECRYPT_MODE, secretKey, parameterSpec);
-            
-            // Decrypt data
-            byte[] decryptedData = cipher.doFinal(encryptedData);
-            
-            return new String(decryptedData, StandardCharsets.UTF_8);
-            
+            return decrypt(CIPHER.get(), encryptedText);
         } catch (Exception e) {
             logger.error("Error decrypting data", e);
             throw new RuntimeException("Decryption failed", e);
         }
     }
-    
+
+    /**
+     * Encrypt many values (e.g. a PII column of a batch), reusing the thread's cipher
+     * @return Ciphertexts in input order; null and empty values are passed through
+     */
+    public List<String> encryptAll(List<String> plainTexts) {
+        List<String> encrypted = new ArrayList<>(plainTexts.size());
+        KeyState key = activeKey;
+        Cipher cipher = CIPHER.get();
+        RandomBytes random = RANDOM.get();
+        key.reserve(plainTexts.size());
+        try {
+            for (String plainText : plainTexts) {
+                encrypted.add(plainText == null || plainText.isEmpty() ? plainText : encrypt(cipher, random, key, plainText));
+            }
+        } catch (Exception e) {
+            logger.error("Error encrypting {} values", plainTexts.size(), e);
+            throw new RuntimeException("Encryption failed", e);
+        }
+        return encrypted;
+    }
+
+    /**
+     * Decrypt many values, reusing the thread's cipher
+     * @return Plain texts in input order; null and empty values are passed through
+     */
+    public List<String> decryptAll(List<String> encryptedTexts) {
+        List<String> decrypted = new ArrayList<>(encryptedTexts.size());
+        Cipher cipher = CIPHER.get();
+        try {
+            for (String encryptedText : encryptedTexts) {
+                decrypted.add(encryptedText == null || encryptedText.isEmpty() ? encryptedText : decrypt(cipher, encryptedText));
+            }
+        } catch (Exception e) {
+            logger.error("Error decrypting {} values", encryptedTexts.size(), e);
+            throw new RuntimeException("Decryption failed", e);
+        }
+        return decrypted;
+    }
+
     /**
      * Encrypt BigDecimal (for financial data)
      */
@@ -120,7 +187,7 @@ public class DataEncryptionService {
         }
         return encrypt(value.toPlainString());
     }
-    
+
     /**
      * Decrypt BigDecimal (for financial data)
      */
@@ -131,40 +198,22 @@ public class DataEncryptionService {
         String decryptedValue = decrypt(encryptedValue);
         return new BigDecimal(decryptedValue);
     }
-    
+
     /**
-     * Check if data is encrypted
+     * Check if data is encrypted (carries the ciphertext prefix and is long enough)
      */
     public boolean isEncrypted(String data) {
-        if (data == null || data.isEmpty()) {
-            return false;
-        }
-        
-        try {
-            // Try to decode as base64
-            byte[] decoded = Base64.getDecoder().decode(data);
-            // Check if it has minimum length for IV + encrypted data
-            return decoded.length >= ivLength + 16; // Minimum encrypted data length
-        } catch (Exception e) {
-            return false;
-        }
+        return data != null && data.startsWith(PREFIX)
+                && data.length() >= PREFIX.length() + (VERSION_BYTES + ivLength + tagLength / 8) * 4 / 3;
     }
-    
+
     /**
-     * Generate secret key (in production, use HSM or proper key management)
+     * Key version written into new ciphertexts
      */
-    private SecretKey generateSecretKey() {
-        try {
-            // In production, this should be retrieved from HSM or secure key store
-            String keyString = "MySecretKey123456789012345678901234567890"; // 32 bytes for AES-256
-            byte[] keyBytes = keyString.getBytes(StandardCharsets.UTF_8);
-            return new SecretKeySpec(keyBytes, "AES");
-        } catch (Exception e) {
-            logger.error("Error generating secret key", e);
-            throw new RuntimeException("Key generation failed", e);
-        }
+    public int getActiveKeyVersion() {
+        return activeKey.version;
     }
-    
+
     /**
      * Generate random secret key (for testing)
      */
@@ -178,12 +227,118 @@ public class DataEncryptionService {
             throw new RuntimeException("Random key generation failed", e);
         }
     }
-    
+
     /**
      * Get encryption info
      */
     public String getEncryptionInfo() {
-        return String.format("Algorithm: %s, Key Size: %d bits, IV Length: %d bytes, Tag Length: %d bits",
-                algorithm, keySize, ivLength, tagLength);
+        return String.format("Algorithm: %s, Key Size: %d bits, IV Length: %d bytes, Tag Length: %d bits, Key Version: %d",
+                algorithm, keySize, ivLength, tagLength, keyVersion);
+    }
+
+    private String encrypt(Cipher cipher, RandomBytes random, KeyState key, String plainText) throws GeneralSecurityException {
+        byte[] input = plainText.getBytes(StandardCharsets.UTF_8);
+        byte[] output = new byte[VERSION_BYTES + ivLength + input.length + tagLength / 8];
+        output[0] = (byte) (key.version >>> 8);
+        output[1] = (byte) key.version;
+        random.next(output, VERSION_BYTES, ivLength);
+
+        cipher.init(Cipher.ENCRYPT_MODE, key.secretKey, new GCMParameterSpec(tagLength, output, VERSION_BYTES, ivLength));
+        cipher.doFinal(input, 0, input.length, output, VERSION_BYTES + ivLength);
+        return PREFIX + Base64.getEncoder().encodeToString(output);
+    }
+
+    private String decrypt(Cipher cipher, String encryptedText) throws GeneralSecurityException {
+        if (!encryptedText.startsWith(PREFIX)) {
+            throw new IllegalArgumentException("Not an encrypted value");
+        }
+        byte[] input = Base64.getDecoder().decode(encryptedText.substring(PREFIX.length()));
+        int headerLength = VERSION_BYTES + ivLength;
+        if (input.length < headerLength + tagLength / 8) {
+            throw new IllegalArgumentException("Encrypted value is truncated");
+        }
+        int version = ((input[0] & 0xFF) << 8) | (input[1] & 0xFF);
+        KeyState key = keyCache.get(version);
+        if (key == null) {
+            throw new IllegalArgumentException("Unknown encryption key version " + version);
+        }
+
+        cipher.init(Cipher.DECRYPT_MODE, key.secretKey, new GCMParameterSpec(tagLength, input, VERSION_BYTES, ivLength));
+        byte[] decrypted = cipher.doFinal(input, headerLength, input.length - headerLength);
+        return new String(decrypted, StandardCharsets.UTF_8);
+    }
+
+    private void cacheKey(int version, byte[] keyBytes) {
+        if (version < 0 || version > 0xFFFF) {
+            throw new IllegalArgumentException("Encryption key version must be between 0 and 65535: " + version);
+        }
+        if (keyBytes.length != 16 && keyBytes.length != 24 && keyBytes.length != 32) {
+            throw new IllegalArgumentException("Encryption key " + version + " must be 128, 192 or 256 bits");
+        }
+        keyCache.put(version, new KeyState(version, new SecretKeySpec(keyBytes, "AES"), maxInvocationsPerKey));
+    }
+
+    /**
+     * Development key (in production, set encryption.keys from a secret store or HSM)
+     */
+    private static byte[] developmentKey() {
+        try {
+            String keyString = "MySecretKey123456789012345678901234567890";
+            return MessageDigest.getInstance("SHA-256").digest(keyString.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * A cached key with the number of values this process has encrypted with it
+     */
+    private static final class KeyState {
+        private final int version;
+        private final SecretKey secretKey;
+        private final long maxInvocations;
+        private final AtomicLong invocations = new AtomicLong();
+
+        private KeyState(int version, SecretKey secretKey, long maxInvocations) {
+            this.version = version;
+            this.secretKey = secretKey;
+            this.maxInvocations = maxInvocations;
+        }
+
+        /**
+         * Count count encryptions against the key's random-IV limit
+         */
+        private void reserve(int count) {
+            if (invocations.addAndGet(count) > maxInvocations) {
+                throw new IllegalStateException("Encryption key " + version + " reached its limit of "
+                        + maxInvocations + " values, rotate encryption.key-version");
+            }
+        }
+    }
+
+    /**
+     * Per-thread DRBG output, drawn in blocks (one DRBG call per block instead of per IV)
+     */
+    private static final class RandomBytes {
+        private final SecureRandom random;
+        private final byte[] block = new byte[1024];
+        private int position = block.length;
+
+        private RandomBytes() {
+            try {
+                random = SecureRandom.getInstance("DRBG");
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("DRBG is not available", e);
+            }
+        }
+
+        private void next(byte[] out, int offset, int length) {
+            if (block.length - position < length) {
+                random.nextBytes(block);
+                position = 0;
+            }
+            System.arraycopy(block, position, out, offset, length);
+            position += length;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,94 @@
+package com.minibanking.security.encryption;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Wrapped data keys of EnvelopeEncryptionService (tenant_data_keys)
+ *
+ * Only the HSM-wrapped form of a data key is stored, with the version of the
+ * tenant key-encryption key that wrapped it.
+ */
+@Repository
+public class DataKeyRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO tenant_data_keys (data_key_id, tenant_id, kek_version, wrapped_key, created_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String FIND_SQL =
+            "SELECT data_key_id, tenant_id, kek_version, wrapped_key FROM tenant_data_keys WHERE data_key_id = ?";
+    private static final String FIND_WRAPPED_BELOW_SQL =
+            "SELECT data_key_id, tenant_id, kek_version, wrapped_key FROM tenant_data_keys "
+                    + "WHERE tenant_id = ? AND kek_version < ? ORDER BY data_key_id LIMIT ?";
+    private static final String REWRAP_SQL =
+            "UPDATE tenant_data_keys SET kek_version = ?, wrapped_key = ?, rewrapped_at = ? "
+                    + "WHERE data_key_id = ? AND kek_version = ?";
+    private static final String DELETE_SQL =
+            "DELETE FROM tenant_data_keys WHERE data_key_id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void insert(DataKeyRecord record) {
+        jdbcTemplate.update(INSERT_SQL, record.getDataKeyId(), record.getTenantId(), record.getKekVersion(),
+                record.getWrappedKey(), new Timestamp(System.currentTimeMillis()));
+    }
+
+    /**
+     * @return The record, or null if there is none
+     */
+    public DataKeyRecord find(UUID dataKeyId) {
+        List<DataKeyRecord> records = jdbcTemplate.query(FIND_SQL, (rs, rowNum) -> new DataKeyRecord(
+                rs.getObject("data_key_id", UUID.class), rs.getString("tenant_id"),
+                rs.getInt("kek_version"), rs.getBytes("wrapped_key")), dataKeyId);
+        return records.isEmpty() ? null : records.get(0);
+    }
+
+    /**
+     * Up to limit data keys of a tenant wrapped with a key-encryption key older than kekVersion
+     */
+    public List<DataKeyRecord> findWrappedBelow(String tenantId, int kekVersion, int limit) {
+        return jdbcTemplate.query(FIND_WRAPPED_BELOW_SQL, (rs, rowNum) -> new DataKeyRecord(
+                rs.getObject("data_key_id", UUID.class), rs.getString("tenant_id"),
+                rs.getInt("kek_version"), rs.getBytes("wrapped_key")), tenantId, kekVersion, limit);
+    }
+
+    /**
+     * Replace the wrapped key if it is still wrapped with fromVersion
+     * @return false if another node re-wrapped it first
+     */
+    public boolean rewrap(UUID dataKeyId, int fromVersion, int toVersion, byte[] wrappedKey) {
+        return jdbcTemplate.update(REWRAP_SQL, toVersion, wrappedKey, new Timestamp(System.currentTimeMillis()),
+                dataKeyId, fromVersion) == 1;
+    }
+
+    /**
+     * Delete a data key that never encrypted anything
+     */
+    public void delete(UUID dataKeyId) {
+        jdbcTemplate.update(DELETE_SQL, dataKeyId);
+    }
+
+    public static class DataKeyRecord {
+        private final UUID dataKeyId;
+        private final String tenantId;
+        private final int kekVersion;
+        private final byte[] wrappedKey;
+
+        public DataKeyRecord(UUID dataKeyId, String tenantId, int kekVersion, byte[] wrappedKey) {
+            this.dataKeyId = dataKeyId;
+            this.tenantId = tenantId;
+            this.kekVersion = kekVersion;
+            this.wrappedKey = wrappedKey;
+        }
+
+        public UUID getDataKeyId() { return dataKeyId; }
+        public String getTenantId() { return tenantId; }
+        public int getKekVersion() { return kekVersion; }
+        public byte[] getWrappedKey() { return wrappedKey; }
+    }
+}
@@ -0,0 +1,33 @@
+package com.minibanking.security.encryption;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Encrypts String columns at rest with DataEncryptionService
+ *
+ * Apply with @Convert(converter = EncryptedStringConverter.class) to PII columns
+ * that are never searched by value (ciphertexts differ for equal values). Rows
+ * written before the column was encrypted are read back as is and encrypted on
+ * their next update. A Spring bean: Hibernate resolves converters through the
+ * Spring bean container.
+ */
+@Component
+@Converter
+public class EncryptedStringConverter implements AttributeConverter<String, String> {
+
+    @Autowired
+    private DataEncryptionService dataEncryptionService;
+
+    @Override
+    public String convertToDatabaseColumn(String value) {
+        return dataEncryptionService.encrypt(value);
+    }
+
+    @Override
+    public String convertToEntityAttribute(String column) {
+        return dataEncryptionService.isEncrypted(column) ? dataEncryptionService.decrypt(column) : column;
+    }
+}
@@ -0,0 +1,393 @@
+package com.minibanking.security.encryption;
+
+import com.minibanking.entity.UuidV7Generator;
+import com.minibanking.security.hsm.HSMService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Envelope encryption with per-tenant data keys wrapped by the HSM
+ *
+ * Fields are encrypted locally with AES-GCM under a tenant's current data key; the
+ * data key is generated here, wrapped once by the tenant's key-encryption key in
+ * HSMService and stored wrapped (DataKeyRepository), so the HSM is called once per
+ * data key rather than once per field. A data key is used for encryption until it
+ * reaches banking.hsm.data-key.max-uses values or max-age-seconds, then replaced.
+ * Unwrapped keys are kept in a bounded cache (cache-size entries, cache-ttl-seconds)
+ * for decryption.
+ *
+ * Ciphertexts are "ENV1:" + Base64([data key id: 16 bytes][IV: 12 bytes][ciphertext
+ * + tag]), with the tenant id as associated data. A data key only encrypts in the
+ * process that generated it, so its 64-bit use counter makes the IV unique.
+ * Rotating a tenant's key-encryption key re-wraps the stored data keys; encrypted
+ * values are not touched.
+ */
+@Service
+public class EnvelopeEncryptionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EnvelopeEncryptionService.class);
+
+    static final String PREFIX = "ENV1:";
+    private static final int ID_BYTES = 16;
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+    private static final int REWRAP_BATCH_SIZE = 500;
+
+    private static final ThreadLocal<Cipher> CIPHER = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance("AES/GCM/NoPadding");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES/GCM is not available", e);
+        }
+    });
+
+    @Autowired
+    private HSMService hsmService;
+
+    @Autowired
+    private DataKeyRepository dataKeyRepository;
+
+    @Value("${banking.hsm.data-key.max-uses:1000000}") // values encrypted per data key
+    private long maxUses = 1_000_000;
+
+    @Value("${banking.hsm.data-key.max-age-seconds:3600}") // encryption lifetime of a data key
+    private long maxAgeSeconds = 3600;
+
+    @Value("${banking.hsm.data-key.cache-size:10000}") // unwrapped keys kept for decryption
+    private int cacheSize = 10000;
+
+    @Value("${banking.hsm.data-key.cache-ttl-seconds:900}")
+    private long cacheTtlSeconds = 900;
+
+    private final Map<String, ActiveKey> activeKeys = new ConcurrentHashMap<>();
+    private final Map<UUID, CachedKey> cache = new ConcurrentHashMap<>();
+
+    private final AtomicLong dataKeysCreated = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+
+    /**
+     * Encrypt a value for a tenant
+     */
+    public String encrypt(String tenantId, String plainText) {
+        if (plainText == null || plainText.isEmpty()) {
+            return plainText;
+        }
+        ActiveKey key = activeKey(tenantId);
+        long counter;
+        while ((counter = key.tryReserve(1, maxUses, notBeforeMillis())) < 0) {
+            key = replaceActiveKey(tenantId, key);
+        }
+        try {
+            return encrypt(CIPHER.get(), tenantId, key, counter, plainText);
+        } catch (GeneralSecurityException e) {
+            logger.error("Error encrypting data for tenant {}", tenantId, e);
+            throw new RuntimeException("Encryption failed", e);
+        }
+    }
+
+    /**
+     * Decrypt a value encrypted for the same tenant
+     */
+    public String decrypt(String tenantId, String encryptedText) {
+        if (encryptedText == null || encryptedText.isEmpty()) {
+            return encryptedText;
+        }
+        try {
+            return decrypt(CIPHER.get(), tenantId, encryptedText);
+        } catch (GeneralSecurityException e) {
+            logger.error("Error decrypting data for tenant {}", tenantId, e);
+            throw new RuntimeException("Decryption failed", e);
+        }
+    }
+
+    /**
+     * Encrypt many values for a tenant under one data key
+     * @return Ciphertexts in input order; null and empty values are passed through
+     */
+    public List<String> encryptAll(String tenantId, List<String> plainTexts) {
+        List<String> encrypted = new ArrayList<>(plainTexts.size());
+        if (plainTexts.isEmpty()) {
+            return encrypted;
+        }
+        ActiveKey key = activeKey(tenantId);
+        long counter;
+        while ((counter = key.tryReserve(plainTexts.size(), maxUses, notBeforeMillis())) < 0) {
+            key = replaceActiveKey(tenantId, key);
+        }
+        Cipher cipher = CIPHER.get();
+        try {
+            for (String plainText : plainTexts) {
+                encrypted.add(plainText == null || plainText.isEmpty()
+                        ? plainText : encrypt(cipher, tenantId, key, counter++, plainText));
+            }
+        } catch (GeneralSecurityException e) {
+            logger.error("Error encrypting {} values for tenant {}", plainTexts.size(), tenantId, e);
+            throw new RuntimeException("Encryption failed", e);
+        }
+        return encrypted;
+    }
+
+    /**
+     * Decrypt many values of a tenant
+     * @return Plain texts in input order; null and empty values are passed through
+     */
+    public List<String> decryptAll(String tenantId, List<String> encryptedTexts) {
+        List<String> decrypted = new ArrayList<>(encryptedTexts.size());
+        Cipher cipher = CIPHER.get();
+        try {
+            for (String encryptedText : encryptedTexts) {
+                decrypted.add(encryptedText == null || encryptedText.isEmpty()
+                        ? encryptedText : decrypt(cipher, tenantId, encryptedText));
+            }
+        } catch (GeneralSecurityException e) {
+            logger.error("Error decrypting {} values for tenant {}", encryptedTexts.size(), tenantId, e);
+            throw new RuntimeException("Decryption failed", e);
+        }
+        return decrypted;
+    }
+
+    /**
+     * Rotate a tenant's key-encryption key and re-wrap its stored data keys under it
+     * @return Number of data keys re-wrapped
+     */
+    public int rotateTenantKey(String tenantId) {
+        int newVersion = hsmService.rotateKeyEncryptionKey(tenantId);
+        int rewrapped = 0;
+        List<DataKeyRepository.DataKeyRecord> batch;
+        do {
+            batch = dataKeyRepository.findWrappedBelow(tenantId, newVersion, REWRAP_BATCH_SIZE);
+            for (DataKeyRepository.DataKeyRecord record : batch) {
+                byte[] wrapped = hsmService.rewrapKey(tenantId, record.getKekVersion(), record.getWrappedKey(), newVersion);
+                if (dataKeyRepository.rewrap(record.getDataKeyId(), record.getKekVersion(), newVersion, wrapped)) {
+                    rewrapped++;
+                }
+            }
+        } while (batch.size() == REWRAP_BATCH_SIZE);
+        logger.info("Rotated key-encryption key of tenant {} to version {}, re-wrapped {} data keys",
+                tenantId, newVersion, rewrapped);
+        return rewrapped;
+    }
+
+    public Map<String, Object> getStatistics() {
+        return Map.of(
+                "activeDataKeys", activeKeys.size(),
+                "cachedDataKeys", cache.size(),
+                "dataKeysCreated", dataKeysCreated.get(),
+                "cacheHits", cacheHits.get(),
+                "cacheMisses", cacheMisses.get(),
+                "hsmCalls", hsmService.getWrapCallCount());
+    }
+
+    private String encrypt(Cipher cipher, String tenantId, ActiveKey key, long counter, String plainText)
+            throws GeneralSecurityException {
+        byte[] input = plainText.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer output = ByteBuffer.allocate(ID_BYTES + IV_BYTES + input.length + TAG_BITS / 8);
+        output.putLong(key.id.getMostSignificantBits()).putLong(key.id.getLeastSignificantBits());
+        output.putInt(0).putLong(counter);
+
+        cipher.init(Cipher.ENCRYPT_MODE, key.secretKey, new GCMParameterSpec(TAG_BITS, output.array(), ID_BYTES, IV_BYTES));
+        cipher.updateAAD(tenantId.getBytes(StandardCharsets.UTF_8));
+        cipher.doFinal(input, 0, input.length, output.array(), ID_BYTES + IV_BYTES);
+        return PREFIX + Base64.getEncoder().encodeToString(output.array());
+    }
+
+    private String decrypt(Cipher cipher, String tenantId, String encryptedText) throws GeneralSecurityException {
+        if (!encryptedText.startsWith(PREFIX)) {
+            throw new IllegalArgumentException("Not an envelope-encrypted value");
+        }
+        byte[] input = Base64.getDecoder().decode(encryptedText.substring(PREFIX.length()));
+        int headerLength = ID_BYTES + IV_BYTES;
+        if (input.length < headerLength + TAG_BITS / 8) {
+            throw new IllegalArgumentException("Encrypted value is truncated");
+        }
+        ByteBuffer header = ByteBuffer.wrap(input);
+        SecretKey key = dataKey(tenantId, new UUID(header.getLong(), header.getLong()));
+
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, input, ID_BYTES, IV_BYTES));
+        cipher.updateAAD(tenantId.getBytes(StandardCharsets.UTF_8));
+        byte[] decrypted = cipher.doFinal(input, headerLength, input.length - headerLength);
+        return new String(decrypted, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Current data key of a tenant, creating the first one if needed. The key is created
+     * (HSM wrap, database insert) outside the map, so other tenants are never blocked on it
+     */
+    private ActiveKey activeKey(String tenantId) {
+        ActiveKey key = activeKeys.get(tenantId);
+        if (key != null) {
+            return key;
+        }
+        ActiveKey fresh = newDataKey(tenantId);
+        ActiveKey existing = activeKeys.putIfAbsent(tenantId, fresh);
+        if (existing != null) {
+            discard(tenantId, fresh);
+            return existing;
+        }
+        return fresh;
+    }
+
+    /**
+     * Replace a used-up or expired data key, unless another thread already did
+     */
+    private ActiveKey replaceActiveKey(String tenantId, ActiveKey expired) {
+        ActiveKey current = activeKeys.get(tenantId);
+        if (current != null && current != expired) {
+            return current;
+        }
+        ActiveKey fresh = newDataKey(tenantId);
+        boolean installed = current == null
+                ? activeKeys.putIfAbsent(tenantId, fresh) == null
+                : activeKeys.replace(tenantId, expired, fresh);
+        if (!installed) {
+            discard(tenantId, fresh);
+            return activeKey(tenantId);
+        }
+        return fresh;
+    }
+
+    /**
+     * Drop a data key that lost the race to become active; it never encrypted anything
+     */
+    private void discard(String tenantId, ActiveKey key) {
+        cache.remove(key.id);
+        try {
+            dataKeyRepository.delete(key.id);
+        } catch (Exception e) {
+            logger.warn("Failed to delete unused data key {} of tenant {}: {}", key.id, tenantId, e.getMessage());
+        }
+        logger.debug("Discarded data key {} of tenant {}, another thread installed one first", key.id, tenantId);
+    }
+
+    private long notBeforeMillis() {
+        return System.currentTimeMillis() - maxAgeSeconds * 1000;
+    }
+
+    private ActiveKey newDataKey(String tenantId) {
+        try {
+            KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+            keyGenerator.init(256);
+            SecretKey secretKey = keyGenerator.generateKey();
+
+            int kekVersion = hsmService.getKeyEncryptionKeyVersion(tenantId);
+            byte[] wrapped = hsmService.wrapKey(tenantId, kekVersion, secretKey);
+            UUID id = UuidV7Generator.next();
+            dataKeyRepository.insert(new DataKeyRepository.DataKeyRecord(id, tenantId, kekVersion, wrapped));
+
+            dataKeysCreated.incrementAndGet();
+            cachePut(id, new CachedKey(tenantId, secretKey, System.currentTimeMillis() + cacheTtlSeconds * 1000));
+            logger.debug("Created data key {} for tenant {} (key-encryption key {})", id, tenantId, kekVersion);
+            return new ActiveKey(id, secretKey, System.currentTimeMillis());
+        } catch (GeneralSecurityException e) {
+            logger.error("Error creating data key for tenant {}", tenantId, e);
+            throw new RuntimeException("Failed to create data key", e);
+        }
+    }
+
+    /**
+     * Unwrapped data key from the cache, or from the repository and the HSM
+     */
+    private SecretKey dataKey(String tenantId, UUID dataKeyId) {
+        long now = System.currentTimeMillis();
+        CachedKey cached = cache.get(dataKeyId);
+        if (cached != null && cached.expiresAtMillis > now) {
+            if (!cached.tenantId.equals(tenantId)) {
+                throw new IllegalArgumentException("Data key " + dataKeyId + " does not belong to tenant " + tenantId);
+            }
+            cacheHits.incrementAndGet();
+            return cached.secretKey;
+        }
+        cacheMisses.incrementAndGet();
+
+        DataKeyRepository.DataKeyRecord record = dataKeyRepository.find(dataKeyId);
+        if (record == null || !record.getTenantId().equals(tenantId)) {
+            throw new IllegalArgumentException("Data key " + dataKeyId + " not found for tenant " + tenantId);
+        }
+        SecretKey secretKey = hsmService.unwrapKey(tenantId, record.getKekVersion(), record.getWrappedKey());
+        cachePut(dataKeyId, new CachedKey(tenantId, secretKey, now + cacheTtlSeconds * 1000));
+        return secretKey;
+    }
+
+    /**
+     * Cache an unwrapped key, dropping expired entries (then arbitrary ones) when full
+     */
+    private void cachePut(UUID dataKeyId, CachedKey key) {
+        if (cache.size() >= cacheSize) {
+            long now = System.currentTimeMillis();
+            cache.values().removeIf(entry -> entry.expiresAtMillis <= now);
+            Iterator<UUID> ids = cache.keySet().iterator();
+            while (cache.size() >= cacheSize && ids.hasNext()) {
+                ids.next();
+                ids.remove();
+            }
+        }
+        cache.put(dataKeyId, key);
+    }
+
+    /**
+     * A tenant's data key currently used for encryption
+     */
+    private static final class ActiveKey {
+        private final UUID id;
+        private final SecretKey secretKey;
+        private final long createdAtMillis;
+        private final AtomicLong uses = new AtomicLong();
+
+        private ActiveKey(UUID id, SecretKey secretKey, long createdAtMillis) {
+            this.id = id;
+            this.secretKey = secretKey;
+            this.createdAtMillis = createdAtMillis;
+        }
+
+        /**
+         * Reserve count consecutive uses (IV counter values)
+         * @return The first one, or -1 if that exceeds maxUses or the key was created before notBeforeMillis
+         */
+        private long tryReserve(int count, long maxUses, long notBeforeMillis) {
+            if (createdAtMillis < notBeforeMillis) {
+                return -1;
+            }
+            while (true) {
+                long used = uses.get();
+                if (used + count > maxUses && used > 0) {
+                    return -1; // a batch larger than maxUses still gets a fresh key to itself
+                }
+                if (uses.compareAndSet(used, used + count)) {
+                    return used;
+                }
+            }
+        }
+    }
+
+    private static final class CachedKey {
+        private final String tenantId;
+        private final SecretKey secretKey;
+        private final long expiresAtMillis;
+
+        private CachedKey(String tenantId, SecretKey secretKey, long expiresAtMillis) {
+            this.tenantId = tenantId;
+            this.secretKey = secretKey;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
@@ -1,40 +1,141 @@
 package com.minibanking.security.hsm;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.security.*;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
 
 /**
  * HSM Service Implementation
  * Simulates Hardware Security Module for banking system
+ *
+ * Besides the RSA signing keys, the HSM holds versioned AES key-encryption keys
+ * (KEKs), one series per tenant, persisted in a PKCS12 keystore file that stands
+ * in for the device. KEKs never leave the HSM: callers wrap and unwrap their data
+ * keys with wrapKey/unwrapKey (AES key wrap, RFC 3394) and rotate with rewrapKey.
+ * banking.hsm.simulated-latency-ms adds a per-call delay to wrap operations to
+ * mimic a network HSM.
+ *
+ * Like sessions on a real HSM, each key pair has pools of up to
+ * banking.hsm.sessions-per-key initialised signing and verifying Signature
+ * instances; an operation borrows one, so concurrent callers never share a
+ * Signature and only the first callers pay for setting one up. The system keys
+ * are warmed at startup, other keys (one per customer) fill their pools on use.
+ * signAll/verifyAll split a batch into chunks run on the batch workers and the
+ * calling thread. Operation counts and rates are published as hsm.operations and
+ * hsm.operations.rate, tagged with the key id for system keys and "other" for the
+ * rest so the number of series stays fixed.
  */
 @Service
 public class HSMService {
     
     private static final Logger logger = LoggerFactory.getLogger(HSMService.class);
     
+    private static final String KEK_ALIAS_PREFIX = "kek-";
+    private static final String KEK_VERSION_SEPARATOR = "-v";
+    private static final Pattern TENANT_ID = Pattern.compile("[a-z0-9_]{1,64}");
+    
+    @Value("${banking.hsm.keystore-path:data/hsm/keystore.p12}")
+    private String keystorePath = "data/hsm/keystore.p12";
+    
+    @Value("${banking.hsm.keystore-password:changeit}")
+    private String keystorePassword = "changeit";
+    
+    @Value("${banking.hsm.simulated-latency-ms:0}")
+    private long simulatedLatencyMs = 0;
+    
+    @Value("${banking.hsm.sessions-per-key:0}") // pooled signing and verifying sessions per key; 0 = one per core
+    private int sessionsPerKey = 0;
+    
+    @Value("${banking.hsm.batch-threads:0}") // signAll/verifyAll workers; 0 = one per core
+    private int batchThreads = 0;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private static final int MIN_BATCH_CHUNK = 16;
+    
+    // Keys created at startup; only these get their own metric series
+    private static final Set<String> SYSTEM_KEYS = Set.of(
+            "HSM_MASTER_KEY", "BANK_SIGNING_KEY", "BANK_ENCRYPTION_KEY", "CUSTOMER_KEY_PREFIX");
+    private static final String OTHER_KEYS = "other";
+    
     // Simulated HSM key store
-    private Map<String, KeyPair> keyStore;
-    private Map<String, String> keyMetadata;
+    private final Map<String, HsmKey> keyStore = new ConcurrentHashMap<>();
+    private final Map<String, String> keyMetadata = new ConcurrentHashMap<>();
     
-    public HSMService() {
-        this.keyStore = new HashMap<>();
-        this.keyMetadata = new HashMap<>();
-        initializeHSM();
-    }
+    // Key-encryption keys by alias, loaded from / persisted to the keystore file
+    private final Map<String, SecretKey> keyEncryptionKeys = new ConcurrentHashMap<>();
+    private final Map<String, Integer> currentKekVersions = new ConcurrentHashMap<>();
+    private KeyStore kekStore;
+    
+    private final AtomicLong wrapCalls = new AtomicLong();
+    
+    // Metrics per metric tag (system key id or OTHER_KEYS), kept across key replacement
+    private final Map<String, KeyMetrics> taggedMetrics = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor batchExecutor;
     
     /**
      * Initialize HSM
      */
-    private void initializeHSM() {
+    @PostConstruct
+    public void init() {
         try {
             logger.info("Initializing HSM Service...");
             
+            int cores = Runtime.getRuntime().availableProcessors();
+            sessionsPerKey = sessionsPerKey > 0 ? sessionsPerKey : cores;
+            int threads = batchThreads > 0 ? batchThreads : cores;
+            AtomicInteger counter = new AtomicInteger();
+            batchExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(1024),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "hsm-batch-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+            
             // Generate master key for HSM
             generateKey("HSM_MASTER_KEY", "RSA", 2048);
             
@@ -43,8 +144,11 @@ public class HSMService {
             generateKey("BANK_ENCRYPTION_KEY", "RSA", 2048);
             generateKey("CUSTOMER_KEY_PREFIX", "RSA", 2048);
             
+            loadKeyEncryptionKeys();
+            
             logger.info("HSM Service initialized successfully");
-            logger.info("Generated keys: {}", keyStore.size());
+            logger.info("Generated keys: {}, key-encryption keys: {}, sessions per key: {}, batch threads: {}",
+                    keyStore.size(), keyEncryptionKeys.size(), sessionsPerKey, threads);
             
         } catch (Exception e) {
             logger.error("Error initializing HSM Service", e);
@@ -52,6 +156,13 @@ public class HSMService {
         }
     }
     
+    @PreDestroy
+    public void shutdown() {
+        if (batchExecutor != null) {
+            batchExecutor.shutdownNow();
+        }
+    }
+    
     /**
      * Generate key pair
      * @param keyId Key identifier
@@ -67,8 +178,10 @@ public class HSMService {
             keyGen.initialize(keySize);
             KeyPair keyPair = keyGen.generateKeyPair();
             
-            // Store key in HSM
-            keyStore.put(keyId, keyPair);
+            // Store key in HSM; system keys get their sessions up front, others on first use
+            boolean systemKey = SYSTEM_KEYS.contains(keyId);
+            KeyMetrics metrics = systemKey ? metrics(keyId) : new KeyMetrics(metrics(OTHER_KEYS));
+            keyStore.put(keyId, new HsmKey(keyPair, sessionsPerKey, systemKey, metrics));
             keyMetadata.put(keyId, algorithm + "_" + keySize);
             
             logger.info("Key generated successfully: {}", keyId);
@@ -87,7 +200,7 @@ public class HSMService {
      */
     public String getPublicKey(String keyId) {
         try {
-            KeyPair keyPair = keyStore.get(keyId);
+            KeyPair keyPair = keyPair(keyId);
             if (keyPair == null) {
                 throw new RuntimeException("Key not found: " + keyId);
             }
@@ -110,16 +223,12 @@ public class HSMService {
         try {
             logger.debug("Signing data with key: {}", keyId);
             
-            KeyPair keyPair = keyStore.get(keyId);
-            if (keyPair == null) {
+            HsmKey key = keyStore.get(keyId);
+            if (key == null) {
                 throw new RuntimeException("Key not found: " + keyId);
             }
             
-            Signature signature = Signature.getInstance("SHA256withRSA");
-            signature.initSign(keyPair.getPrivate());
-            signature.update(data);
-            
-            byte[] signatureBytes = signature.sign();
+            byte[] signatureBytes = key.sign(data);
             
             logger.debug("Data signed successfully with key: {}", keyId);
             return signatureBytes;
@@ -141,17 +250,13 @@ public class HSMService {
         try {
             logger.debug("Verifying signature with key: {}", keyId);
             
-            KeyPair keyPair = keyStore.get(keyId);
-            if (keyPair == null) {
+            HsmKey key = keyStore.get(keyId);
+            if (key == null) {
                 logger.warn("Key not found: {}", keyId);
                 return false;
             }
             
-            Signature sig = Signature.getInstance("SHA256withRSA");
-            sig.initVerify(keyPair.getPublic());
-            sig.update(data);
-            
-            boolean isValid = sig.verify(signature);
+            boolean isValid = key.verify(data, signature);
             
             logger.debug("Signature verification result: {} for key: {}", isValid, keyId);
             return isValid;
@@ -163,7 +268,53 @@ public class HSMService {
     }
     
     /**
-     * Encrypt data with HSM key
+     * Sign many messages with one key, spread over the batch workers
+     * @param keyId Key identifier
+     * @param data Messages to sign
+     * @return Signatures in input order
+     */
+    public List<byte[]> signAll(String keyId, List<byte[]> data) {
+        HsmKey key = keyStore.get(keyId);
+        if (key == null) {
+            throw new RuntimeException("Key not found: " + keyId);
+        }
+        byte[][] signatures = new byte[data.size()][];
+        runChunked(data.size(), (from, to) -> {
+            for (int i = from; i < to; i++) {
+                signatures[i] = key.sign(data.get(i));
+            }
+        });
+        return Arrays.asList(signatures);
+    }
+    
+    /**
+     * Verify many signatures made with one key, spread over the batch workers
+     * @param keyId Key identifier
+     * @param data Original messages
+     * @param signatures Signatures, in the same order as data
+     * @return Verification result per message; all false if the key doesn't exist
+     */
+    public boolean[] verifyAll(String keyId, List<byte[]> data, List<byte[]> signatures) {
+        if (data.size() != signatures.size()) {
+            throw new IllegalArgumentException("Got " + data.size() + " messages but " + signatures.size() + " signatures");
+        }
+        boolean[] results = new boolean[data.size()];
+        HsmKey key = keyStore.get(keyId);
+        if (key == null) {
+            logger.warn("Key not found: {}", keyId);
+            return results;
+        }
+        runChunked(data.size(), (from, to) -> {
+            for (int i = from; i < to; i++) {
+                results[i] = key.verify(data.get(i), signatures.get(i));
+            }
+        });
+        return results;
+    }
+    
+    /**
+     * Encrypt data with HSM key (RSA-OAEP, so at most a few hundred bytes such as a key;
+     * use envelope encryption for anything larger)
      * @param keyId Key identifier
      * @param data Data to encrypt
      * @return Encrypted data
@@ -172,15 +323,14 @@ public class HSMService {
         try {
             logger.debug("Encrypting data with key: {}", keyId);
             
-            KeyPair keyPair = keyStore.get(keyId);
+            KeyPair keyPair = keyPair(keyId);
             if (keyPair == null) {
                 throw new RuntimeException("Key not found: " + keyId);
             }
             
-            // Simplified encryption - in production, use proper encryption
-            // For demo purposes, we'll just return the data as-is
-            logger.warn("Using mock encryption - implement proper encryption");
-            return data;
+            Cipher cipher = Cipher.getInstance("RSA/ECB/OAEPWithSHA-256AndMGF1Padding");
+            cipher.init(Cipher.ENCRYPT_MODE, keyPair.getPublic());
+            return cipher.doFinal(data);
             
         } catch (Exception e) {
             logger.error("Error encrypting data with key: {}", keyId, e);
@@ -198,15 +348,14 @@ public class HSMService {
         try {
             logger.debug("Decrypting data with key: {}", keyId);
             
-            KeyPair keyPair = keyStore.get(keyId);
+            KeyPair keyPair = keyPair(keyId);
             if (keyPair == null) {
                 throw new RuntimeException("Key not found: " + keyId);
             }
             
-            // Simplified decryption - in production, use proper decryption
-            // For demo purposes, we'll just return the data as-is
-            logger.warn("Using mock decryption - implement proper decryption");
-            return encryptedData;
+            Cipher cipher = Cipher.getInstance("RSA/ECB/OAEPWithSHA-256AndMGF1Padding");
+            cipher.init(Cipher.DECRYPT_MODE, keyPair.getPrivate());
+            return cipher.doFinal(encryptedData);
             
         } catch (Exception e) {
             logger.error("Error decrypting data with key: {}", keyId, e);
@@ -214,6 +363,81 @@ public class HSMService {
         }
     }
     
+    /**
+     * Current key-encryption key version of a tenant, creating version 1 on first use
+     * @param tenantId Tenant identifier (lower case letters, digits and '_')
+     */
+    public int getKeyEncryptionKeyVersion(String tenantId) {
+        Integer version = currentKekVersions.get(checkTenant(tenantId));
+        return version != null ? version : createKeyEncryptionKey(tenantId, 1);
+    }
+    
+    /**
+     * Create the next key-encryption key version of a tenant and make it current
+     * @return The new version
+     */
+    public int rotateKeyEncryptionKey(String tenantId) {
+        synchronized (this) {
+            return createKeyEncryptionKey(tenantId, currentKekVersions.getOrDefault(checkTenant(tenantId), 0) + 1);
+        }
+    }
+    
+    /**
+     * Wrap a data key under a tenant's key-encryption key
+     * @return Wrapped key (AES key wrap)
+     */
+    public byte[] wrapKey(String tenantId, int kekVersion, SecretKey dataKey) {
+        SecretKey kek = keyEncryptionKey(tenantId, kekVersion);
+        simulateLatency();
+        try {
+            Cipher cipher = Cipher.getInstance("AESWrap");
+            cipher.init(Cipher.WRAP_MODE, kek);
+            return cipher.wrap(dataKey);
+        } catch (GeneralSecurityException e) {
+            logger.error("Error wrapping data key for tenant {}", tenantId, e);
+            throw new RuntimeException("Failed to wrap data key", e);
+        }
+    }
+    
+    /**
+     * Unwrap a data key wrapped by {@link #wrapKey}
+     */
+    public SecretKey unwrapKey(String tenantId, int kekVersion, byte[] wrappedKey) {
+        SecretKey kek = keyEncryptionKey(tenantId, kekVersion);
+        simulateLatency();
+        try {
+            return unwrap(kek, wrappedKey);
+        } catch (GeneralSecurityException e) {
+            logger.error("Error unwrapping data key for tenant {}", tenantId, e);
+            throw new RuntimeException("Failed to unwrap data key", e);
+        }
+    }
+    
+    /**
+     * Re-wrap a data key under another key-encryption key version without the data
+     * key leaving the HSM
+     */
+    public byte[] rewrapKey(String tenantId, int fromVersion, byte[] wrappedKey, int toVersion) {
+        SecretKey from = keyEncryptionKey(tenantId, fromVersion);
+        SecretKey to = keyEncryptionKey(tenantId, toVersion);
+        simulateLatency();
+        try {
+            Cipher cipher = Cipher.getInstance("AESWrap");
+            cipher.init(Cipher.WRAP_MODE, to);
+            return cipher.wrap(unwrap(from, wrappedKey));
+        } catch (GeneralSecurityException e) {
+            logger.error("Error re-wrapping data key for tenant {}", tenantId, e);
+            throw new RuntimeException("Failed to re-wrap data key", e);
+        }
+    }
+    
+    /**
+     * Wrap, unwrap and re-wrap calls served since startup
+     */
+    public long getWrapCallCount() {
+        return wrapCalls.get();
+    }
+    
     /**
      * Delete key from HSM
      * @param keyId Key identifier
@@ -223,9 +447,12 @@ public class HSMService {
         try {
             logger.info("Deleting key: {}", keyId);
             
-            if (keyStore.containsKey(keyId)) {
-                keyStore.remove(keyId);
+            if (keyStore.remove(keyId) != null) {
                 keyMetadata.remove(keyId);
+                KeyMetrics metrics = taggedMetrics.remove(keyId);
+                if (metrics != null && meterRegistry != null) {
+                    metrics.meters.forEach(meterRegistry::remove);
+                }
                 logger.info("Key deleted successfully: {}", keyId);
                 return "Key deleted successfully: " + keyId;
             } else {
@@ -245,7 +472,11 @@ public class HSMService {
      */
     public Map<String, String> listKeys() {
         logger.debug("Listing all keys in HSM");
-        return new HashMap<>(keyMetadata);
+        Map<String, String> keys = new HashMap<>(keyMetadata);
+        for (String alias : keyEncryptionKeys.keySet()) {
+            keys.put(alias, "AES_256_KEK");
+        }
+        return keys;
     }
     
     /**
@@ -271,7 +502,338 @@ public class HSMService {
      * @return HSM status
      */
     public String getHSMStatus() {
-        return String.format("HSM Status: %d keys stored, %d metadata entries", 
-            keyStore.size(), keyMetadata.size());
+        return String.format("HSM Status: %d keys stored, %d metadata entries, %d key-encryption keys for %d tenants",
+            keyStore.size(), keyMetadata.size(), keyEncryptionKeys.size(), currentKekVersions.size());
+    }
+    
+    /**
+     * Per-key operation counts, rates (ops/sec over the last sampling interval) and idle sessions
+     */
+    public Map<String, Map<String, Object>> getKeyStatistics() {
+        Map<String, Map<String, Object>> statistics = new LinkedHashMap<>();
+        keyStore.forEach((keyId, key) -> {
+            KeyMetrics metrics = key.metrics;
+            statistics.put(keyId, Map.of(
+                    "signs", metrics.signs.sum(),
+                    "verifies", metrics.verifies.sum(),
+                    "signsPerSecond", metrics.signRate,
+                    "verifiesPerSecond", metrics.verifyRate,
+                    "idleSigningSessions", key.signers.size(),
+                    "idleVerifyingSessions", key.verifiers.size()));
+        });
+        return statistics;
+    }
+    
+    /**
+     * Update the per-key ops/sec rates
+     */
+    @Scheduled(fixedRateString = "${banking.hsm.metrics-interval-ms:1000}")
+    public void sampleRates() {
+        long now = System.nanoTime();
+        for (HsmKey key : keyStore.values()) {
+            key.metrics.sample(now);
+        }
+        KeyMetrics other = taggedMetrics.get(OTHER_KEYS);
+        if (other != null) {
+            other.sample(now);
+        }
+    }
+    
+    private KeyPair keyPair(String keyId) {
+        HsmKey key = keyStore.get(keyId);
+        return key != null ? key.keyPair : null;
+    }
+    
+    /**
+     * Metrics of a metric tag, registered with Micrometer on first use
+     */
+    private KeyMetrics metrics(String tag) {
+        return taggedMetrics.computeIfAbsent(tag, id -> {
+            KeyMetrics metrics = new KeyMetrics(null);
+            if (meterRegistry != null) {
+                metrics.meters.add(FunctionCounter.builder("hsm.operations", metrics.signs, LongAdder::sum)
+                        .description("HSM signing key operations").tag("key", id).tag("operation", "sign")
+                        .register(meterRegistry));
+                metrics.meters.add(FunctionCounter.builder("hsm.operations", metrics.verifies, LongAdder::sum)
+                        .description("HSM signing key operations").tag("key", id).tag("operation", "verify")
+                        .register(meterRegistry));
+                metrics.meters.add(Gauge.builder("hsm.operations.rate", metrics, m -> m.signRate)
+                        .description("HSM operations per second").tag("key", id).tag("operation", "sign")
+                        .register(meterRegistry));
+                metrics.meters.add(Gauge.builder("hsm.operations.rate", metrics, m -> m.verifyRate)
+                        .description("HSM operations per second").tag("key", id).tag("operation", "verify")
+                        .register(meterRegistry));
+            }
+            return metrics;
+        });
+    }
+    
+    /**
+     * Run task over [0, size) in chunks, the first on the calling thread and the rest on the batch workers
+     */
+    private void runChunked(int size, ChunkTask task) {
+        int chunks = Math.min(batchExecutor.getMaximumPoolSize() + 1, (size + MIN_BATCH_CHUNK - 1) / MIN_BATCH_CHUNK);
+        try {
+            if (chunks <= 1) {
+                task.run(0, size);
+                return;
+            }
+            int chunkSize = (size + chunks - 1) / chunks;
+            List<Future<?>> futures = new ArrayList<>(chunks - 1);
+            for (int from = chunkSize; from < size; from += chunkSize) {
+                int start = from;
+                int end = Math.min(size, from + chunkSize);
+                futures.add(batchExecutor.submit(() -> {
+                    task.run(start, end);
+                    return null;
+                }));
+            }
+            task.run(0, chunkSize);
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("HSM batch operation failed", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("HSM batch operation failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("HSM batch operation interrupted", e);
+        }
+    }
+    
+    private void loadKeyEncryptionKeys() throws GeneralSecurityException, IOException {
+        kekStore = KeyStore.getInstance("PKCS12");
+        Path path = Paths.get(keystorePath);
+        if (!Files.exists(path)) {
+            kekStore.load(null, null);
+            logger.info("HSM keystore {} does not exist yet, created on first key-encryption key", path);
+            return;
+        }
+        try (InputStream in = Files.newInputStream(path)) {
+            kekStore.load(in, keystorePassword.toCharArray());
+        }
+        KeyStore.ProtectionParameter protection = new KeyStore.PasswordProtection(keystorePassword.toCharArray());
+        for (String alias : Collections.list(kekStore.aliases())) {
+            int separator = alias.lastIndexOf(KEK_VERSION_SEPARATOR);
+            if (!alias.startsWith(KEK_ALIAS_PREFIX) || separator < KEK_ALIAS_PREFIX.length()) {
+                continue;
+            }
+            KeyStore.SecretKeyEntry entry = (KeyStore.SecretKeyEntry) kekStore.getEntry(alias, protection);
+            keyEncryptionKeys.put(alias, entry.getSecretKey());
+            String tenantId = alias.substring(KEK_ALIAS_PREFIX.length(), separator);
+            int version = Integer.parseInt(alias.substring(separator + KEK_VERSION_SEPARATOR.length()));
+            currentKekVersions.merge(tenantId, version, Math::max);
+        }
+        logger.info("Loaded {} key-encryption keys from {}", keyEncryptionKeys.size(), path);
+    }
+    
+    /**
+     * Generate, persist and publish a key-encryption key; no-op if the version exists
+     */
+    private synchronized int createKeyEncryptionKey(String tenantId, int version) {
+        String alias = kekAlias(tenantId, version);
+        if (keyEncryptionKeys.containsKey(alias)) {
+            return version;
+        }
+        try {
+            KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+            keyGenerator.init(256);
+            SecretKey kek = keyGenerator.generateKey();
+            
+            kekStore.setEntry(alias, new KeyStore.SecretKeyEntry(kek),
+                    new KeyStore.PasswordProtection(keystorePassword.toCharArray()));
+            saveKeystore();
+            
+            keyEncryptionKeys.put(alias, kek);
+            currentKekVersions.merge(tenantId, version, Math::max);
+            logger.info("Created key-encryption key {} for tenant {}", version, tenantId);
+            return version;
+        } catch (GeneralSecurityException | IOException e) {
+            logger.error("Error creating key-encryption key for tenant {}", tenantId, e);
+            throw new RuntimeException("Failed to create key-encryption key", e);
+        }
+    }
+    
+    /**
+     * Write the keystore to a temporary file and move it over the old one
+     */
+    private void saveKeystore() throws GeneralSecurityException, IOException {
+        Path path = Paths.get(keystorePath).toAbsolutePath();
+        Files.createDirectories(path.getParent());
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            kekStore.store(out, keystorePassword.toCharArray());
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    private SecretKey keyEncryptionKey(String tenantId, int version) {
+        SecretKey kek = keyEncryptionKeys.get(kekAlias(checkTenant(tenantId), version));
+        if (kek == null) {
+            throw new IllegalArgumentException("Key-encryption key " + version + " not found for tenant " + tenantId);
+        }
+        return kek;
+    }
+    
+    private static SecretKey unwrap(SecretKey kek, byte[] wrappedKey) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance("AESWrap");
+        cipher.init(Cipher.UNWRAP_MODE, kek);
+        return (SecretKey) cipher.unwrap(wrappedKey, "AES", Cipher.SECRET_KEY);
+    }
+    
+    private void simulateLatency() {
+        wrapCalls.incrementAndGet();
+        if (simulatedLatencyMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(simulatedLatencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static String kekAlias(String tenantId, int version) {
+        return KEK_ALIAS_PREFIX + tenantId + KEK_VERSION_SEPARATOR + version;
+    }
+    
+    private static String checkTenant(String tenantId) {
+        if (tenantId == null || !TENANT_ID.matcher(tenantId).matches()) {
+            throw new IllegalArgumentException("Invalid tenant id: " + tenantId);
+        }
+        return tenantId;
+    }
+    
+    @FunctionalInterface
+    private interface ChunkTask {
+        void run(int from, int to) throws GeneralSecurityException;
+    }
+    
+    /**
+     * A key pair with its pools of initialised signing and verifying sessions (filled on use unless warmed)
+     */
+    private static final class HsmKey {
+        private final KeyPair keyPair;
+        private final String signatureAlgorithm; // null if the key type can't sign
+        private final BlockingQueue<Signature> signers;
+        private final BlockingQueue<Signature> verifiers;
+        private final KeyMetrics metrics;
+        
+        private HsmKey(KeyPair keyPair, int sessions, boolean warm, KeyMetrics metrics) throws GeneralSecurityException {
+            this.keyPair = keyPair;
+            this.signatureAlgorithm = switch (keyPair.getPrivate().getAlgorithm()) {
+                case "RSA" -> "SHA256withRSA";
+                case "EC" -> "SHA256withECDSA";
+                default -> null;
+            };
+            this.signers = new ArrayBlockingQueue<>(sessions);
+            this.verifiers = new ArrayBlockingQueue<>(sessions);
+            this.metrics = metrics;
+            if (warm && signatureAlgorithm != null) {
+                for (int i = 0; i < sessions; i++) {
+                    signers.offer(newSigner());
+                    verifiers.offer(newVerifier());
+                }
+            }
+        }
+        
+        /**
+         * Sign with a pooled session (a new one if all are busy); a session that failed is dropped
+         */
+        private byte[] sign(byte[] data) throws GeneralSecurityException {
+            Signature session = signers.poll();
+            if (session == null) {
+                session = newSigner();
+            }
+            session.update(data);
+            byte[] signature = session.sign(); // also resets the session for the next message
+            signers.offer(session);
+            metrics.recordSign();
+            return signature;
+        }
+        
+        private boolean verify(byte[] data, byte[] signature) throws GeneralSecurityException {
+            Signature session = verifiers.poll();
+            if (session == null) {
+                session = newVerifier();
+            }
+            metrics.recordVerify();
+            boolean valid;
+            try {
+                session.update(data);
+                valid = session.verify(signature);
+            } catch (SignatureException e) {
+                return false; // malformed signature
+            }
+            verifiers.offer(session);
+            return valid;
+        }
+        
+        private Signature newSigner() throws GeneralSecurityException {
+            Signature signature = Signature.getInstance(requireSignatureAlgorithm());
+            signature.initSign(keyPair.getPrivate());
+            return signature;
+        }
+        
+        private Signature newVerifier() throws GeneralSecurityException {
+            Signature signature = Signature.getInstance(requireSignatureAlgorithm());
+            signature.initVerify(keyPair.getPublic());
+            return signature;
+        }
+        
+        private String requireSignatureAlgorithm() throws InvalidKeyException {
+            if (signatureAlgorithm == null) {
+                throw new InvalidKeyException(keyPair.getPrivate().getAlgorithm() + " keys cannot sign");
+            }
+            return signatureAlgorithm;
+        }
+    }
+    
+    /**
+     * Operation counters of a key or metric tag, and their rates over the last sampling interval
+     */
+    private static final class KeyMetrics {
+        private final KeyMetrics tag; // shared "other" metrics this key also counts into, if any
+        private final List<Meter> meters = new ArrayList<>();
+        private final LongAdder signs = new LongAdder();
+        private final LongAdder verifies = new LongAdder();
+        private volatile double signRate;
+        private volatile double verifyRate;
+        private long lastSigns;
+        private long lastVerifies;
+        private long lastSampleNanos = System.nanoTime();
+        
+        private KeyMetrics(KeyMetrics tag) {
+            this.tag = tag;
+        }
+        
+        private void recordSign() {
+            signs.increment();
+            if (tag != null) {
+                tag.signs.increment();
+            }
+        }
+        
+        private void recordVerify() {
+            verifies.increment();
+            if (tag != null) {
+                tag.verifies.increment();
+            }
+        }
+        
+        private synchronized void sample(long nowNanos) {
+            double seconds = (nowNanos - lastSampleNanos) / 1e9;
+            if (seconds <= 0) {
+                return;
+            }
+            long currentSigns = signs.sum();
+            long currentVerifies = verifies.sum();
+            signRate = (currentSigns - lastSigns) / seconds;
+            verifyRate = (currentVerifies - lastVerifies) / seconds;
+            lastSigns = currentSigns;
+            lastVerifies = currentVerifies;
+            lastSampleNanos = nowNanos;
+        }
     }
 }
@@ -37,10 +37,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String token = extractTokenFromRequest(request);
             
-            if (token != null && jwtService.validateToken(token)) {
+            // Single parse (or cache hit) resolves every claim we need; revoked sessions resolve to null
+            VerifiedToken verified = token != null ? jwtService.verify(token) : null;
+            
+            if (verified != null) {
                 // Extract user information from token
-                String username = jwtService.getUsernameFromToken(token);
-                String deviceFingerprint = jwtService.getDeviceFingerprintFromToken(token);
+                String username = verified.getUsername();
+                String deviceFingerprint = verified.getDeviceFingerprint();
                 
                 if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                     // Create authentication object
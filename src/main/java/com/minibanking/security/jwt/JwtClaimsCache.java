@@ -0,0 +1,164 @@
+package com.minibanking.security.jwt;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of verified tokens, keyed by the SHA-256 digest of the token
+ *
+ * Entries live until the token expires or is invalidated (logout, session
+ * replacement). The raw token is never stored. Digests are also indexed by user,
+ * so invalidating a user's tokens only touches that user's entries; index and
+ * entries of a user are updated together under the index's per-key lock. Expired
+ * entries are dropped on read and by the scheduled purge; when the cache is full
+ * the token is simply not cached until the purge frees room.
+ */
+@Component
+public class JwtClaimsCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtClaimsCache.class);
+
+    @Value("${jwt.cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${jwt.cache.max-size:100000}")
+    private int maxSize = 100000;
+
+    private final Map<String, VerifiedToken> entries = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<String>> digestsByUser = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Cached claims for a token digest, or null if absent or expired
+     */
+    public VerifiedToken get(String tokenDigest, long nowMillis) {
+        if (!enabled) {
+            return null;
+        }
+        VerifiedToken token = entries.get(tokenDigest);
+        if (token == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (token.isExpired(nowMillis)) {
+            remove(tokenDigest, token);
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return token;
+    }
+
+    public void put(String tokenDigest, VerifiedToken token) {
+        if (!enabled) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            return;
+        }
+        UUID userId = token.getUserId();
+        if (userId == null) {
+            entries.put(tokenDigest, token);
+            return;
+        }
+        digestsByUser.compute(userId, (id, digests) -> {
+            Set<String> indexed = digests != null ? digests : ConcurrentHashMap.newKeySet();
+            indexed.add(tokenDigest);
+            entries.put(tokenDigest, token);
+            return indexed;
+        });
+    }
+
+    /**
+     * Drop a single token
+     */
+    public void invalidate(String tokenDigest) {
+        VerifiedToken token = entries.get(tokenDigest);
+        if (token != null) {
+            remove(tokenDigest, token);
+        }
+    }
+
+    /**
+     * Drop every cached token of a user on a device (null device = all devices)
+     */
+    public int invalidate(UUID userId, String deviceFingerprint) {
+        int[] removed = new int[1];
+        digestsByUser.computeIfPresent(userId, (id, digests) -> {
+            digests.removeIf(digest -> {
+                VerifiedToken token = entries.get(digest);
+                if (token == null) {
+                    return true;
+                }
+                if (deviceFingerprint != null && !deviceFingerprint.equals(token.getDeviceFingerprint())) {
+                    return false;
+                }
+                if (entries.remove(digest, token)) {
+                    removed[0]++;
+                }
+                return true;
+            });
+            return digests.isEmpty() ? null : digests;
+        });
+        return removed[0];
+    }
+
+    /**
+     * Periodically drop expired tokens so they don't hold capacity
+     */
+    @Scheduled(fixedDelayString = "${jwt.cache.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        int purged = 0;
+        for (Map.Entry<String, VerifiedToken> entry : entries.entrySet()) {
+            if (entry.getValue().isExpired(now) && remove(entry.getKey(), entry.getValue())) {
+                purged++;
+            }
+        }
+        if (purged > 0) {
+            logger.debug("Purged {} expired tokens from claims cache", purged);
+        }
+    }
+
+    /**
+     * Remove an entry and its index slot, if the digest still maps to this token
+     */
+    private boolean remove(String tokenDigest, VerifiedToken token) {
+        UUID userId = token.getUserId();
+        if (userId == null) {
+            return entries.remove(tokenDigest, token);
+        }
+        boolean[] removed = new boolean[1];
+        digestsByUser.computeIfPresent(userId, (id, digests) -> {
+            removed[0] = entries.remove(tokenDigest, token);
+            if (removed[0]) {
+                digests.remove(tokenDigest);
+            }
+            return digests.isEmpty() ? null : digests;
+        });
+        return removed[0];
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public Map<String, Object> getStatistics() {
+        return Map.of(
+                "enabled", enabled,
+                "size", entries.size(),
+                "maxSize", maxSize,
+                "hits", hits.get(),
+                "misses", misses.get());
+    }
+}
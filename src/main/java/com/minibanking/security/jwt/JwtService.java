@@ -1,9 +1,13 @@
 package com.minibanking.security.jwt;
 
+import com.minibanking.crypto.HashUtils;
+import com.minibanking.security.session.SessionStore;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -17,6 +21,11 @@ import java.util.function.Function;
 
 /**
  * JWT Service for token generation and validation
+ *
+ * Tokens are parsed and signature-checked at most once: the verified claims are
+ * kept in JwtClaimsCache (keyed by token digest) until the token expires or the
+ * session is invalidated, so per-request lookups don't re-run HMAC verification.
+ * Revocation (logout) is enforced from the SessionStore near-cache.
  */
 @Service
 public class JwtService {
@@ -32,6 +41,80 @@ public class JwtService {
     @Value("${jwt.refresh-expiration:604800}") // 7 days in seconds
     private Long refreshExpiration;
     
+    @Autowired
+    private JwtClaimsCache claimsCache;
+    
+    @Autowired
+    private SessionStore sessionStore;
+    
+    // Built once; both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser parser;
+    
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+    
+    /**
+     * Verify a token and resolve its claims in a single parse
+     * @return Verified claims, or null if the token is invalid, expired or revoked
+     */
+    public VerifiedToken verify(String token) {
+        try {
+            VerifiedToken verified = resolve(token);
+            if (sessionStore.isRevoked(verified.getTokenId())) {
+                logger.debug("Rejected revoked token {}", verified.getTokenId());
+                return null;
+            }
+            return verified;
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Token verification failed: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * SHA-256 digest of a token, used as cache key and stored as session token hash
+     */
+    public String getTokenHash(String token) {
+        return HashUtils.sha256(token);
+    }
+    
+    /**
+     * Drop a token from the claims cache
+     */
+    public void invalidateToken(String token) {
+        claimsCache.invalidate(getTokenHash(token));
+    }
+    
+    /**
+     * Drop cached tokens of a user on a device (null device = all devices)
+     */
+    public void invalidateSessions(UUID userId, String deviceFingerprint) {
+        int removed = claimsCache.invalidate(userId, deviceFingerprint);
+        logger.debug("Invalidated {} cached tokens for user {} on device {}", removed, userId, deviceFingerprint);
+    }
+    
+    /**
+     * Cached claims, or parse-and-verify once and cache
+     * @throws JwtException if the token is invalid or expired
+     */
+    private VerifiedToken resolve(String token) {
+        String digest = getTokenHash(token);
+        VerifiedToken cached = claimsCache.get(digest, System.currentTimeMillis());
+        if (cached != null) {
+            return cached;
+        }
+        
+        VerifiedToken verified = VerifiedToken.fromClaims(getAllClaimsFromToken(token));
+        claimsCache.put(digest, verified);
+        return verified;
+    }
+    
     /**
      * Generate JWT token for user
      */
@@ -89,36 +172,35 @@ public class JwtService {
      * Extract username from token
      */
     public String getUsernameFromToken(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
+        return resolve(token).getUsername();
     }
     
     /**
      * Extract user ID from token
      */
     public UUID getUserIdFromToken(String token) {
-        String userIdStr = getClaimFromToken(token, claims -> claims.get("userId", String.class));
-        return UUID.fromString(userIdStr);
+        return resolve(token).getUserId();
     }
     
     /**
      * Extract device fingerprint from token
      */
     public String getDeviceFingerprintFromToken(String token) {
-        return getClaimFromToken(token, claims -> claims.get("deviceFingerprint", String.class));
+        return resolve(token).getDeviceFingerprint();
     }
     
     /**
      * Extract token type from token
      */
     public String getTokenTypeFromToken(String token) {
-        return getClaimFromToken(token, claims -> claims.get("tokenType", String.class));
+        return resolve(token).getTokenType();
     }
     
     /**
      * Extract expiration date from token
      */
     public Date getExpirationDateFromToken(String token) {
-        return getClaimFromToken(token, Claims::getExpiration);
+        return new Date(resolve(token).getExpiresAtMillis());
     }
     
     /**
@@ -133,11 +215,7 @@ public class JwtService {
      * Get all claims from token
      */
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
     
     /**
@@ -156,25 +234,15 @@ public class JwtService {
      * Validate token
      */
     public Boolean validateToken(String token, String username) {
-        try {
-            final String tokenUsername = getUsernameFromToken(token);
-            return (username.equals(tokenUsername) && !isTokenExpired(token));
-        } catch (Exception e) {
-            logger.error("Token validation failed", e);
-            return false;
-        }
+        VerifiedToken verified = verify(token);
+        return verified != null && username.equals(verified.getUsername());
     }
     
     /**
      * Validate token without username check
      */
     public Boolean validateToken(String token) {
-        try {
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            logger.error("Token validation failed", e);
-            return false;
-        }
+        return verify(token) != null;
     }
     
     /**
@@ -217,8 +285,7 @@ public class JwtService {
      * Get signing key
      */
     private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signingKey;
     }
     
     /**
@@ -226,11 +293,7 @@ public class JwtService {
      */
     public Claims parseToken(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return getAllClaimsFromToken(token);
         } catch (Exception e) {
             logger.error("Failed to parse token", e);
             return null;
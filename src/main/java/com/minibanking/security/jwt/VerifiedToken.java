@@ -0,0 +1,78 @@
+package com.minibanking.security.jwt;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Claims of a token whose signature has been verified, resolved once so callers
+ * don't parse the token again for each claim they need
+ */
+public class VerifiedToken {
+
+    private final String tokenId;
+    private final UUID userId;
+    private final String username;
+    private final String deviceFingerprint;
+    private final String tokenType;
+    private final long expiresAtMillis;
+
+    public VerifiedToken(String tokenId, UUID userId, String username, String deviceFingerprint,
+                         String tokenType, long expiresAtMillis) {
+        this.tokenId = tokenId;
+        this.userId = userId;
+        this.username = username;
+        this.deviceFingerprint = deviceFingerprint;
+        this.tokenType = tokenType;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public static VerifiedToken fromClaims(Claims claims) {
+        String userId = claims.get("userId", String.class);
+        Date expiration = claims.getExpiration();
+        return new VerifiedToken(
+                claims.getId(),
+                userId != null ? UUID.fromString(userId) : null,
+                claims.getSubject(),
+                claims.get("deviceFingerprint", String.class),
+                claims.get("tokenType", String.class),
+                expiration != null ? expiration.getTime() : Long.MAX_VALUE);
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return expiresAtMillis <= nowMillis;
+    }
+
+    public boolean isTemporary() {
+        return "TEMPORARY".equals(tokenType);
+    }
+
+    public boolean isRefresh() {
+        return "REFRESH".equals(tokenType);
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getDeviceFingerprint() {
+        return deviceFingerprint;
+    }
+
+    public String getTokenType() {
+        return tokenType;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+}
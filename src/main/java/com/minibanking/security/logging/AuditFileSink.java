@@ -0,0 +1,226 @@
+package com.minibanking.security.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary audit files
+ *
+ * Each file starts with an 8-byte header (magic, format version) followed by
+ * records framed as [int payload length][payload][int CRC32 of payload], where the
+ * payload is [type][timestamp millis][field count]([short length][UTF-8])*. A new
+ * file is started on open, when the current one reaches the size limit and when
+ * the UTC date changes; files are never rewritten. {@link #read} verifies every
+ * frame.
+ */
+public class AuditFileSink implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditFileSink.class);
+
+    private static final int MAGIC = 0x41554454; // "AUDT"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int MAX_PAYLOAD = 64 * 1024;
+    private static final int MAX_FIELD_CHARS = 1024;
+    private static final DateTimeFormatter FILE_NAME_FORMAT =
+            DateTimeFormatter.ofPattern("'audit-'yyyyMMdd-HHmmss-SSS'.log'").withZone(ZoneOffset.UTC);
+
+    private final Path directory;
+    private final long maxFileBytes;
+    private final boolean fsync;
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+
+    private FileChannel channel;
+    private Path currentFile;
+    private LocalDate currentDate;
+    private long lastFileMillis;
+
+    public AuditFileSink(Path directory, long maxFileBytes, boolean fsync) throws IOException {
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+        this.fsync = fsync;
+        Files.createDirectories(directory);
+        rotate(System.currentTimeMillis());
+    }
+
+    /**
+     * Append records with one write (and one fsync if enabled), rotating first if needed
+     */
+    public synchronized void append(List<AuditRecord> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (channel.size() >= maxFileBytes || !LocalDate.ofInstant(Instant.ofEpochMilli(now), ZoneOffset.UTC).equals(currentDate)) {
+            rotate(now);
+        }
+        buffer.clear();
+        for (AuditRecord record : records) {
+            encodeFrame(record);
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    public synchronized Path getCurrentFile() {
+        return currentFile;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Read every record of an audit file in order
+     * @return Number of records read; a record cut short by a crash ends the file
+     * @throws IOException if the file isn't an audit file or a frame fails its checksum
+     */
+    public static long read(Path file, Consumer<AuditRecord> consumer) throws IOException {
+        try (InputStream stream = Files.newInputStream(file)) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 16));
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not an audit file: " + file);
+            }
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported audit file version " + version + ": " + file);
+            }
+
+            long offset = HEADER_SIZE;
+            long records = 0;
+            CRC32 crc = new CRC32();
+            byte[] payload = new byte[256];
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                    if (length <= 0 || length > MAX_PAYLOAD) {
+                        throw new IOException("Invalid audit frame length " + length + " at offset " + offset + ": " + file);
+                    }
+                    if (payload.length < length) {
+                        payload = new byte[length];
+                    }
+                    in.readFully(payload, 0, length);
+                    int storedCrc = in.readInt();
+                    crc.reset();
+                    crc.update(payload, 0, length);
+                    if ((int) crc.getValue() != storedCrc) {
+                        throw new IOException("Audit record checksum mismatch at offset " + offset + ": " + file);
+                    }
+                } catch (EOFException e) {
+                    return records;
+                }
+                consumer.accept(decode(ByteBuffer.wrap(payload, 0, length)));
+                offset += 4 + length + 4;
+                records++;
+            }
+        }
+    }
+
+    private void rotate(long nowMillis) throws IOException {
+        if (channel != null) {
+            channel.force(true);
+            channel.close();
+        }
+        // File names have millisecond resolution; never reuse one
+        long fileMillis = Math.max(nowMillis, lastFileMillis + 1);
+        lastFileMillis = fileMillis;
+        currentFile = directory.resolve(FILE_NAME_FORMAT.format(Instant.ofEpochMilli(fileMillis)));
+        currentDate = LocalDate.ofInstant(Instant.ofEpochMilli(nowMillis), ZoneOffset.UTC);
+        channel = FileChannel.open(currentFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        channel.force(true);
+        logger.info("Audit log file: {}", currentFile);
+    }
+
+    private void encodeFrame(AuditRecord record) {
+        int count = record.fieldCount();
+        byte[][] fields = new byte[count][];
+        int length = 1 + 8 + 1;
+        for (int i = 0; i < count; i++) {
+            String field = record.field(i);
+            if (field != null) {
+                fields[i] = (field.length() > MAX_FIELD_CHARS ? field.substring(0, MAX_FIELD_CHARS) : field)
+                        .getBytes(StandardCharsets.UTF_8);
+                length += 2 + fields[i].length;
+            } else {
+                length += 2;
+            }
+        }
+        ensureCapacity(4 + length + 4);
+
+        buffer.putInt(length);
+        int start = buffer.position();
+        buffer.put((byte) record.getType().ordinal());
+        buffer.putLong(record.getTimestampMillis());
+        buffer.put((byte) count);
+        for (byte[] field : fields) {
+            if (field != null) {
+                buffer.putShort((short) field.length).put(field);
+            } else {
+                buffer.putShort((short) -1);
+            }
+        }
+
+        ByteBuffer written = buffer.duplicate();
+        written.position(start).limit(start + length);
+        crc.reset();
+        crc.update(written);
+        buffer.putInt((int) crc.getValue());
+    }
+
+    private static AuditRecord decode(ByteBuffer in) {
+        AuditRecord.Type type = AuditRecord.Type.values()[in.get()];
+        long timestamp = in.getLong();
+        String[] fields = new String[in.get() & 0xFF];
+        for (int i = 0; i < fields.length; i++) {
+            short length = in.getShort();
+            if (length >= 0) {
+                byte[] bytes = new byte[length];
+                in.get(bytes);
+                fields[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+        }
+        return new AuditRecord(timestamp, type, fields);
+    }
+
+    private void ensureCapacity(int frameSize) {
+        if (buffer.remaining() >= frameSize) {
+            return;
+        }
+        ByteBuffer larger = ByteBuffer.allocateDirect(Math.max(buffer.capacity() * 2, buffer.position() + frameSize));
+        buffer.flip();
+        larger.put(buffer);
+        buffer = larger;
+    }
+}
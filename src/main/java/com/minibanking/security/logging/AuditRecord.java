@@ -0,0 +1,48 @@
+package com.minibanking.security.logging;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One audit log entry, with every field already masked
+ *
+ * Fields are positional per type (see SecureLoggingService), e.g. TRANSFER is
+ * status, from account, to account, amount range, description.
+ */
+public final class AuditRecord {
+
+    public enum Type {
+        TRANSFER, CUSTOMER, ACCOUNT, AUTHENTICATION, ERROR, SECURITY_EVENT
+    }
+
+    private final long timestampMillis;
+    private final Type type;
+    private final String[] fields;
+
+    public AuditRecord(long timestampMillis, Type type, String... fields) {
+        this.timestampMillis = timestampMillis;
+        this.type = type;
+        this.fields = fields;
+    }
+
+    public long getTimestampMillis() { return timestampMillis; }
+    public Type getType() { return type; }
+    public List<String> getFields() { return Arrays.asList(fields); }
+
+    String field(int index) {
+        return fields[index];
+    }
+
+    int fieldCount() {
+        return fields.length;
+    }
+
+    @Override
+    public String toString() {
+        return "AuditRecord{" +
+                "timestampMillis=" + timestampMillis +
+                ", type=" + type +
+                ", fields=" + Arrays.toString(fields) +
+                '}';
+    }
+}
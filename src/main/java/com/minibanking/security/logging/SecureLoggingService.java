@@ -1,15 +1,42 @@
 package com.minibanking.security.logging;
 
 import com.minibanking.security.masking.DataMaskingService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Secure Logging Service for sensitive data
+ *
+ * Callers only capture the raw values and enqueue them on a bounded lock-free
+ * queue; a single writer thread masks them, logs the masked line via SLF4J and
+ * appends a structured AuditRecord to the binary audit files (AuditFileSink), so
+ * postings don't pay for masking or formatting while holding account locks.
+ *
+ * Records are written in the order they were accepted. All writes happen under
+ * one lock: the writer takes a batch off the queue and writes it while holding
+ * it, and a caller that finds the queue full (or the service stopping) takes the
+ * lock, writes everything still queued and then its own record, so nothing is
+ * dropped or overtaken. Each record carries the caller's MDC, which is restored
+ * while its line is logged.
  */
 @Service
 public class SecureLoggingService {
@@ -19,77 +46,291 @@ public class SecureLoggingService {
     @Autowired
     private DataMaskingService dataMaskingService;
     
+    @Value("${banking.audit.async:true}")
+    private boolean async = true;
+    
+    @Value("${banking.audit.queue-capacity:65536}")
+    private int queueCapacity = 65536;
+    
+    @Value("${banking.audit.batch-size:512}")
+    private int batchSize = 512;
+    
+    @Value("${banking.audit.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs = 10000;
+    
+    @Value("${banking.audit.file.enabled:true}")
+    private boolean fileEnabled = true;
+    
+    @Value("${banking.audit.file.directory:data/audit}")
+    private String fileDirectory = "data/audit";
+    
+    @Value("${banking.audit.file.max-file-mb:64}")
+    private long maxFileMb = 64;
+    
+    @Value("${banking.audit.file.fsync:true}")
+    private boolean fileFsync = true;
+    
+    private final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Object writeLock = new Object();
+    private AuditFileSink fileSink;
+    private Thread writer;
+    private volatile boolean running;
+    
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong ranInline = new AtomicLong();
+    private final AtomicLong fileErrors = new AtomicLong();
+    
+    @PostConstruct
+    public void start() throws IOException {
+        if (fileEnabled) {
+            fileSink = new AuditFileSink(Paths.get(fileDirectory), maxFileMb * 1024 * 1024, fileFsync);
+        }
+        if (!async) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drain, "secure-audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+    
+    /**
+     * Stop accepting records, flush what is queued and close the audit file
+     */
+    @PreDestroy
+    public void stop() throws IOException {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join(shutdownTimeoutMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Anything still queued is written here; later submissions write inline
+        synchronized (writeLock) {
+            writeQueued();
+            if (fileSink != null) {
+                fileSink.close();
+            }
+        }
+    }
+    
     /**
      * Log transfer operation securely
      */
     public void logTransfer(String fromAccount, String toAccount, BigDecimal amount, String description, String status) {
-        String maskedFromAccount = dataMaskingService.maskAccountNumber(fromAccount);
-        String maskedToAccount = dataMaskingService.maskAccountNumber(toAccount);
-        String maskedAmount = dataMaskingService.maskAmount(amount);
-        String maskedDescription = dataMaskingService.maskDescription(description);
-        
-        logger.info("Transfer {}: {} -> {}, Amount: {}, Desc: {}", 
-                   status, maskedFromAccount, maskedToAccount, maskedAmount, maskedDescription);
+        submit(AuditRecord.Type.TRANSFER, status, fromAccount, toAccount, amount, description);
     }
     
     /**
      * Log customer operation securely
      */
     public void logCustomerOperation(String operation, String firstName, String lastName, String email, String phone) {
-        String maskedName = dataMaskingService.maskCustomerName(firstName, lastName);
-        String maskedEmail = dataMaskingService.maskEmail(email);
-        String maskedPhone = dataMaskingService.maskPhone(phone);
-        
-        logger.info("Customer {}: Name: {}, Email: {}, Phone: {}", 
-                   operation, maskedName, maskedEmail, maskedPhone);
+        submit(AuditRecord.Type.CUSTOMER, operation, firstName, lastName, email, phone);
     }
     
     /**
      * Log account operation securely
      */
     public void logAccountOperation(String operation, String accountNumber, BigDecimal balance, String accountType) {
-        String maskedAccount = dataMaskingService.maskAccountNumber(accountNumber);
-        String maskedBalance = dataMaskingService.maskAmount(balance);
-        
-        logger.info("Account {}: Number: {}, Balance: {}, Type: {}", 
-                   operation, maskedAccount, maskedBalance, accountType);
+        submit(AuditRecord.Type.ACCOUNT, operation, accountNumber, balance, accountType);
     }
     
     /**
      * Log authentication securely
      */
     public void logAuthentication(String username, String deviceFingerprint, String status, String ipAddress) {
-        String maskedUsername = maskUsername(username);
-        String maskedDevice = maskDeviceFingerprint(deviceFingerprint);
-        String maskedIp = maskIpAddress(ipAddress);
-        
-        logger.info("Authentication {}: User: {}, Device: {}, IP: {}", 
-                   status, maskedUsername, maskedDevice, maskedIp);
+        submit(AuditRecord.Type.AUTHENTICATION, status, username, deviceFingerprint, ipAddress);
     }
     
     /**
      * Log error securely
      */
     public void logError(String operation, String errorMessage, String... sensitiveData) {
-        String maskedMessage = dataMaskingService.maskLogMessage(errorMessage);
-        
-        if (sensitiveData.length > 0) {
-            String maskedSensitiveData = String.join(", ", sensitiveData);
-            maskedSensitiveData = dataMaskingService.maskLogMessage(maskedSensitiveData);
-            logger.error("Error in {}: {} - Sensitive Data: {}", operation, maskedMessage, maskedSensitiveData);
-        } else {
-            logger.error("Error in {}: {}", operation, maskedMessage);
-        }
+        submit(AuditRecord.Type.ERROR, operation, errorMessage,
+               sensitiveData.length > 0 ? String.join(", ", sensitiveData) : null);
     }
     
     /**
      * Log security event
      */
     public void logSecurityEvent(String event, String userId, String details) {
-        String maskedUserId = maskUserId(userId);
-        String maskedDetails = dataMaskingService.maskLogMessage(details);
-        
-        logger.warn("Security Event: {} - User: {}, Details: {}", event, maskedUserId, maskedDetails);
+        submit(AuditRecord.Type.SECURITY_EVENT, event, userId, details);
+    }
+    
+    public Map<String, Object> getStatistics() {
+        return Map.of(
+                "async", async,
+                "queueDepth", queued.get(),
+                "submitted", submitted.get(),
+                "written", written.get(),
+                "ranInline", ranInline.get(),
+                "fileErrors", fileErrors.get(),
+                "auditFile", fileSink != null ? String.valueOf(fileSink.getCurrentFile()) : "disabled");
+    }
+    
+    private void submit(AuditRecord.Type type, Object... values) {
+        submitted.incrementAndGet();
+        Pending pending = new Pending(System.currentTimeMillis(), type, values, MDC.getCopyOfContextMap());
+        if (running) {
+            if (queued.incrementAndGet() <= queueCapacity) {
+                queue.offer(pending);
+                if (running) {
+                    LockSupport.unpark(writer);
+                    return;
+                }
+                // Stopping: the final drain may already have run, so write the queue (ours included) here
+                synchronized (writeLock) {
+                    writeQueued();
+                }
+                return;
+            }
+            queued.decrementAndGet();
+        }
+        ranInline.incrementAndGet();
+        synchronized (writeLock) {
+            writeQueued();
+            write(List.of(pending));
+        }
+    }
+    
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            boolean wrote;
+            synchronized (writeLock) {
+                wrote = writeBatch();
+            }
+            if (!wrote) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+            }
+        }
+    }
+    
+    /**
+     * Write everything queued, in order; caller holds writeLock
+     */
+    private void writeQueued() {
+        while (writeBatch()) {
+            // next batch
+        }
+    }
+    
+    /**
+     * Write up to batchSize queued records; caller holds writeLock
+     */
+    private boolean writeBatch() {
+        List<Pending> batch = new ArrayList<>();
+        Pending pending;
+        while (batch.size() < batchSize && (pending = queue.poll()) != null) {
+            batch.add(pending);
+        }
+        if (batch.isEmpty()) {
+            return false;
+        }
+        queued.addAndGet(-batch.size());
+        write(batch);
+        return true;
+    }
+    
+    private void write(List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<String, String> callerContext = MDC.getCopyOfContextMap();
+        List<AuditRecord> records = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            try {
+                AuditRecord record = mask(pending);
+                setContext(pending.context);
+                log(record);
+                records.add(record);
+            } catch (RuntimeException e) {
+                logger.error("Failed to write {} audit record: {}", pending.type, e.getMessage());
+            }
+        }
+        setContext(callerContext);
+        written.addAndGet(records.size());
+        if (fileSink != null) {
+            try {
+                fileSink.append(records);
+            } catch (IOException e) {
+                fileErrors.incrementAndGet();
+                logger.error("Failed to append {} records to the audit file: {}", records.size(), e.getMessage());
+            }
+        }
+    }
+    
+    private static void setContext(Map<String, String> context) {
+        if (context == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(context);
+        }
+    }
+    
+    /**
+     * Masked fields of a record, per type
+     */
+    private AuditRecord mask(Pending pending) {
+        Object[] v = pending.values;
+        String[] fields = switch (pending.type) {
+            case TRANSFER -> new String[] {
+                    (String) v[0],
+                    dataMaskingService.maskAccountNumber((String) v[1]),
+                    dataMaskingService.maskAccountNumber((String) v[2]),
+                    dataMaskingService.maskAmount((BigDecimal) v[3]),
+                    dataMaskingService.maskDescription((String) v[4]) };
+            case CUSTOMER -> new String[] {
+                    (String) v[0],
+                    dataMaskingService.maskCustomerName((String) v[1], (String) v[2]),
+                    dataMaskingService.maskEmail((String) v[3]),
+                    dataMaskingService.maskPhone((String) v[4]) };
+            case ACCOUNT -> new String[] {
+                    (String) v[0],
+                    dataMaskingService.maskAccountNumber((String) v[1]),
+                    dataMaskingService.maskAmount((BigDecimal) v[2]),
+                    (String) v[3] };
+            case AUTHENTICATION -> new String[] {
+                    (String) v[0],
+                    maskUsername((String) v[1]),
+                    maskDeviceFingerprint((String) v[2]),
+                    maskIpAddress((String) v[3]) };
+            case ERROR -> new String[] {
+                    (String) v[0],
+                    dataMaskingService.maskLogMessage((String) v[1]),
+                    dataMaskingService.maskLogMessage((String) v[2]) };
+            case SECURITY_EVENT -> new String[] {
+                    (String) v[0],
+                    maskUserId((String) v[1]),
+                    dataMaskingService.maskLogMessage((String) v[2]) };
+        };
+        return new AuditRecord(pending.timestampMillis, pending.type, fields);
+    }
+    
+    private void log(AuditRecord record) {
+        switch (record.getType()) {
+            case TRANSFER -> logger.info("Transfer {}: {} -> {}, Amount: {}, Desc: {}",
+                    record.field(0), record.field(1), record.field(2), record.field(3), record.field(4));
+            case CUSTOMER -> logger.info("Customer {}: Name: {}, Email: {}, Phone: {}",
+                    record.field(0), record.field(1), record.field(2), record.field(3));
+            case ACCOUNT -> logger.info("Account {}: Number: {}, Balance: {}, Type: {}",
+                    record.field(0), record.field(1), record.field(2), record.field(3));
+            case AUTHENTICATION -> logger.info("Authentication {}: User: {}, Device: {}, IP: {}",
+                    record.field(0), record.field(1), record.field(2), record.field(3));
+            case ERROR -> {
+                if (record.field(2) != null) {
+                    logger.error("Error in {}: {} - Sensitive Data: {}", record.field(0), record.field(1), record.field(2));
+                } else {
+                    logger.error("Error in {}: {}", record.field(0), record.field(1));
+                }
+            }
+            case SECURITY_EVENT -> logger.warn("Security Event: {} - User: {}, Details: {}",
+                    record.field(0), record.field(1), record.field(2));
+        }
     }
     
     /**
@@ -135,4 +376,18 @@ public class SecureLoggingService {
         }
         return userId.substring(0, 4) + "****" + userId.substring(userId.length() - 4);
     }
+    
+    private static final class Pending {
+        private final long timestampMillis;
+        private final AuditRecord.Type type;
+        private final Object[] values; // raw, masked by the writer
+        private final Map<String, String> context; // caller's MDC, null if empty
+        
+        private Pending(long timestampMillis, AuditRecord.Type type, Object[] values, Map<String, String> context) {
+            this.timestampMillis = timestampMillis;
+            this.type = type;
+            this.values = values;
+            this.context = context;
+        }
+    }
 }
@@ -5,7 +5,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.util.regex.Pattern;
 
 /**
  * Data Masking Service for logging and error messages
@@ -15,22 +14,11 @@ public class DataMaskingService {
     
     private static final Logger logger = LoggerFactory.getLogger(DataMaskingService.class);
     
-    private static final Pattern EMAIL_PATTERN = Pattern.compile("(^.{2}).*(@.*)");
-    private static final Pattern PHONE_PATTERN = Pattern.compile("(^.{3}).*(.{3}$)");
-    
     /**
      * Mask account number
      */
     public String maskAccountNumber(String accountNumber) {
-        if (accountNumber == null || accountNumber.length() < 4) {
-            return "****";
-        }
-        
-        if (accountNumber.length() <= 8) {
-            return "****" + accountNumber.substring(accountNumber.length() - 4);
-        }
-        
-        return accountNumber.substring(0, 4) + "****" + accountNumber.substring(accountNumber.length() - 4);
+        return LogMessageMasker.maskAccountNumber(accountNumber);
     }
     
     /**
@@ -66,19 +54,7 @@ public class DataMaskingService {
      * Mask email address
      */
     public String maskEmail(String email) {
-        if (email == null || !email.contains("@")) {
-            return "****@****";
-        }
-        
-        String[] parts = email.split("@");
-        String username = parts[0];
-        String domain = parts[1];
-        
-        if (username.length() <= 2) {
-            return "**@" + domain;
-        }
-        
-        return username.charAt(0) + "*".repeat(username.length() - 2) + username.charAt(username.length() - 1) + "@" + domain;
+        return LogMessageMasker.maskEmail(email);
     }
     
     /**
@@ -131,26 +107,19 @@ public class DataMaskingService {
         return description.substring(0, 4) + "****" + description.substring(description.length() - 4);
     }
     
+    /**
+     * Mask card number (last 4 digits kept)
+     */
+    public String maskCardNumber(String cardNumber) {
+        return LogMessageMasker.maskCardNumber(cardNumber);
+    }
+    
     /**
      * Mask sensitive data in log message
+     * Emails, card numbers and 10+ digit account/phone numbers, in one pass (see LogMessageMasker)
      */
     public String maskLogMessage(String message) {
-        if (message == null) {
-            return null;
-        }
-        
-        // Mask account numbers (10+ digits)
-        message = message.replaceAll("\\b\\d{10,}\\b", this::maskAccountNumber);
-        
-        // Mask email addresses
-        message = message.replaceAll("\\b[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}\\b", 
-                                   match -> maskEmail(match.group()));
-        
-        // Mask phone numbers
-        message = message.replaceAll("\\b\\d{10,11}\\b", 
-                                   match -> maskPhone(match.group()));
-        
-        return message;
+        return LogMessageMasker.mask(message);
     }
     
     /**
@@ -0,0 +1,257 @@
+package com.minibanking.security.masking;
+
+/**
+ * Single-pass masking of sensitive data in free text
+ *
+ * A hand-rolled scanner that masks, in one traversal and without regular expressions:
+ * - emails (local@domain.tld) with maskEmail;
+ * - card-like numbers (13-19 digits passing the Luhn check, contiguous or in groups
+ *   of 4 separated by spaces or dashes), keeping only the last 4 digits;
+ * - other standalone runs of 10+ digits (account and phone numbers) with
+ *   maskAccountNumber.
+ * Text without a digit or '@' is returned as is. Already-masked tokens (containing
+ * '*') are left alone, so masking twice is harmless. Static and dependency-free so
+ * the Logback converter can use it outside the Spring context.
+ */
+public final class LogMessageMasker {
+
+    private static final int MIN_ACCOUNT_DIGITS = 10;
+    private static final int MIN_CARD_DIGITS = 13;
+    private static final int MAX_CARD_DIGITS = 19;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private LogMessageMasker() {
+    }
+
+    public static String mask(String message) {
+        if (message == null || !mayContainSensitiveData(message)) {
+            return message;
+        }
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        int length = message.length();
+        int i = 0;
+        while (i < length) {
+            char c = message.charAt(i);
+            boolean tokenStart = i == 0 || !isLocalPartChar(message.charAt(i - 1));
+            if (tokenStart && isLocalPartChar(c)) {
+                int end = matchEmail(message, i);
+                if (end > 0) {
+                    out.append(maskEmail(message.substring(i, end)));
+                    i = end;
+                    continue;
+                }
+            }
+            if (isDigit(c) && (i == 0 || !isWordChar(message.charAt(i - 1)))) {
+                i = maskNumber(message, i, out);
+                continue;
+            }
+            out.append(c);
+            i++;
+        }
+        String masked = out.toString();
+        if (out.capacity() > 16 * 1024) {
+            BUFFER.remove(); // don't pin large buffers to pooled threads
+        }
+        return masked;
+    }
+
+    /**
+     * Mask account number: first and last 4 digits kept when longer than 8
+     */
+    public static String maskAccountNumber(String accountNumber) {
+        if (accountNumber == null || accountNumber.length() < 4) {
+            return "****";
+        }
+
+        if (accountNumber.length() <= 8) {
+            return "****" + accountNumber.substring(accountNumber.length() - 4);
+        }
+
+        return accountNumber.substring(0, 4) + "****" + accountNumber.substring(accountNumber.length() - 4);
+    }
+
+    /**
+     * Mask email address: first and last character of the local part kept
+     */
+    public static String maskEmail(String email) {
+        if (email == null || !email.contains("@")) {
+            return "****@****";
+        }
+
+        int at = email.indexOf('@');
+        String username = email.substring(0, at);
+        String domain = email.substring(at + 1);
+
+        if (username.length() <= 2) {
+            return "**@" + domain;
+        }
+
+        return username.charAt(0) + "*".repeat(username.length() - 2) + username.charAt(username.length() - 1) + "@" + domain;
+    }
+
+    /**
+     * Mask card number: every digit but the last 4 replaced, separators kept
+     */
+    public static String maskCardNumber(String cardNumber) {
+        if (cardNumber == null) {
+            return "****";
+        }
+        int digits = 0;
+        for (int i = 0; i < cardNumber.length(); i++) {
+            if (isDigit(cardNumber.charAt(i))) {
+                digits++;
+            }
+        }
+        StringBuilder masked = new StringBuilder(cardNumber.length());
+        int seen = 0;
+        for (int i = 0; i < cardNumber.length(); i++) {
+            char c = cardNumber.charAt(i);
+            if (isDigit(c)) {
+                masked.append(++seen > digits - 4 ? c : '*');
+            } else {
+                masked.append(c);
+            }
+        }
+        return masked.toString();
+    }
+
+    private static boolean mayContainSensitiveData(String message) {
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (isDigit(c) || c == '@') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * End of an email starting at start (local@domain.tld, tld 2+ letters), or -1
+     */
+    private static int matchEmail(String text, int start) {
+        int length = text.length();
+        int at = start;
+        boolean masked = false;
+        while (at < length && isLocalPartChar(text.charAt(at))) {
+            masked |= text.charAt(at) == '*';
+            at++;
+        }
+        if (at == length || text.charAt(at) != '@' || at == start || masked) {
+            return -1;
+        }
+        int end = at + 1;
+        while (end < length && isDomainChar(text.charAt(end))) {
+            end++;
+        }
+        // Backtrack to the last label made of 2+ letters, e.g. "a@b.com." -> "a@b.com"
+        int tldEnd = end;
+        while (tldEnd > at + 1) {
+            int tldStart = tldEnd;
+            while (tldStart > at + 1 && isLetter(text.charAt(tldStart - 1))) {
+                tldStart--;
+            }
+            if (tldEnd - tldStart >= 2 && tldStart - 1 > at + 1 && text.charAt(tldStart - 1) == '.'
+                    && (tldEnd == length || !isWordChar(text.charAt(tldEnd)))) {
+                return tldEnd;
+            }
+            tldEnd = tldStart == tldEnd ? tldEnd - 1 : tldStart - 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Mask (or copy) the number starting at start; returns the index after it
+     */
+    private static int maskNumber(String text, int start, StringBuilder out) {
+        int length = text.length();
+        int end = start;
+        while (end < length && isDigit(text.charAt(end))) {
+            end++;
+        }
+
+        // Card in groups of 4: "4111 1111 1111 1111" / "4111-1111-1111-1111"
+        if (end - start == 4 && end < length && (text.charAt(end) == ' ' || text.charAt(end) == '-')) {
+            char separator = text.charAt(end);
+            int groupEnd = end;
+            int digits = 4;
+            while (groupEnd + 1 < length && text.charAt(groupEnd) == separator && digits < MAX_CARD_DIGITS) {
+                int next = groupEnd + 1;
+                int runEnd = next;
+                while (runEnd < length && isDigit(text.charAt(runEnd))) {
+                    runEnd++;
+                }
+                int run = runEnd - next;
+                if (run == 0 || run > 4 || digits + run > MAX_CARD_DIGITS) {
+                    break;
+                }
+                digits += run;
+                groupEnd = runEnd;
+                if (run < 4) {
+                    break;
+                }
+            }
+            if (digits >= MIN_CARD_DIGITS && (groupEnd == length || !isWordChar(text.charAt(groupEnd)))
+                    && luhnValid(text, start, groupEnd)) {
+                out.append(maskCardNumber(text.substring(start, groupEnd)));
+                return groupEnd;
+            }
+        }
+
+        int digits = end - start;
+        if (digits >= MIN_ACCOUNT_DIGITS && (end == length || !isWordChar(text.charAt(end)))) {
+            String number = text.substring(start, end);
+            if (digits >= MIN_CARD_DIGITS && digits <= MAX_CARD_DIGITS && luhnValid(text, start, end)) {
+                out.append(maskCardNumber(number));
+            } else {
+                out.append(maskAccountNumber(number));
+            }
+        } else {
+            out.append(text, start, end);
+        }
+        return end;
+    }
+
+    private static boolean luhnValid(String text, int start, int end) {
+        int sum = 0;
+        boolean doubled = false;
+        for (int i = end - 1; i >= start; i--) {
+            char c = text.charAt(i);
+            if (!isDigit(c)) {
+                continue;
+            }
+            int digit = c - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return sum % 10 == 0;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isWordChar(char c) {
+        return isLetter(c) || isDigit(c) || c == '_';
+    }
+
+    // '*' counts so that an already-masked local part isn't matched again
+    private static boolean isLocalPartChar(char c) {
+        return isLetter(c) || isDigit(c) || c == '.' || c == '_' || c == '%' || c == '+' || c == '-' || c == '*';
+    }
+
+    private static boolean isDomainChar(char c) {
+        return isLetter(c) || isDigit(c) || c == '.' || c == '-';
+    }
+}
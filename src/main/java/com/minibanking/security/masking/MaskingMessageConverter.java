@@ -0,0 +1,18 @@
+package com.minibanking.security.masking;
+
+import ch.qos.logback.classic.pattern.ClassicConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * Logback %maskedMsg conversion word: the formatted message with LogMessageMasker applied
+ *
+ * Registered in logback-spring.xml in place of %m, so every log line (application
+ * and framework) is masked when it is encoded, on the appender's thread.
+ */
+public class MaskingMessageConverter extends ClassicConverter {
+
+    @Override
+    public String convert(ILoggingEvent event) {
+        return LogMessageMasker.mask(event.getFormattedMessage());
+    }
+}
@@ -0,0 +1,18 @@
+package com.minibanking.security.masking;
+
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import org.springframework.boot.logging.logback.ExtendedWhitespaceThrowableProxyConverter;
+
+/**
+ * Logback %maskedWEx conversion word: Spring Boot's %wEx with LogMessageMasker applied
+ *
+ * Exception messages (and those of their causes) often carry account numbers or
+ * emails, so the rendered stack trace is masked like the message itself.
+ */
+public class MaskingThrowableConverter extends ExtendedWhitespaceThrowableProxyConverter {
+
+    @Override
+    protected String throwableProxyToString(IThrowableProxy tp) {
+        return LogMessageMasker.mask(super.throwableProxyToString(tp));
+    }
+}
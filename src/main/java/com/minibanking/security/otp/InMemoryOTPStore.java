@@ -0,0 +1,151 @@
+package com.minibanking.security.otp;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory OTP Store (single node only)
+ *
+ * Expiry uses a hashed timer wheel: each OTP is filed in the slot of the first tick
+ * after it expires, and every tick only that slot is inspected, so cleanup cost is
+ * proportional to the OTPs that are due rather than to the whole map. OTPs that
+ * are due in a later revolution of the wheel stay in their slot until then.
+ */
+public class InMemoryOTPStore implements OTPStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryOTPStore.class);
+
+    @Value("${otp.store.tick-ms:1000}")
+    private long tickMillis = 1000;
+
+    private static final int WHEEL_SIZE = 512;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final List<Set<String>> wheel = new ArrayList<>(WHEEL_SIZE);
+    private long lastTick = -1;
+
+    public InMemoryOTPStore() {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel.add(ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    @Override
+    public void save(OTPService.OTPData otpData, Duration ttl) {
+        long expiresAtMillis = System.currentTimeMillis() + ttl.toMillis();
+        entries.put(otpData.getOtpId(), new Entry(otpData, expiresAtMillis));
+        wheel.get(slotOf(expiresAtMillis)).add(otpData.getOtpId());
+    }
+
+    @Override
+    public VerifyOutcome verifyAndConsume(String otpId, String otp, int maxAttempts) {
+        long now = System.currentTimeMillis();
+        VerifyOutcome[] outcome = { VerifyOutcome.of(VerifyStatus.NOT_FOUND) };
+
+        // compute() runs under the entry's lock, so concurrent guesses are serialised
+        entries.computeIfPresent(otpId, (id, entry) -> {
+            OTPService.OTPData data = entry.data;
+            if (entry.expiresAtMillis <= now) {
+                return null;
+            }
+            if (data.getAttempts() >= maxAttempts) {
+                outcome[0] = VerifyOutcome.of(VerifyStatus.MAX_ATTEMPTS_EXCEEDED);
+                return null;
+            }
+            data.setAttempts(data.getAttempts() + 1);
+
+            if (!data.getOtp().equals(otp)) {
+                if (data.getAttempts() >= maxAttempts) {
+                    outcome[0] = VerifyOutcome.of(VerifyStatus.MAX_ATTEMPTS_EXCEEDED);
+                    return null;
+                }
+                outcome[0] = VerifyOutcome.of(VerifyStatus.INVALID);
+                return entry;
+            }
+
+            data.setIsUsed(true);
+            outcome[0] = new VerifyOutcome(VerifyStatus.VERIFIED, data.getUserId(), data.getPhoneNumber());
+            return null;
+        });
+
+        return outcome[0];
+    }
+
+    @Override
+    public OTPService.OTPData find(String otpId) {
+        Entry entry = entries.get(otpId);
+        if (entry == null || entry.expiresAtMillis <= System.currentTimeMillis()) {
+            return null;
+        }
+        return entry.data;
+    }
+
+    /**
+     * Advance the wheel to the current time
+     */
+    @Scheduled(fixedDelayString = "${otp.store.tick-ms:1000}")
+    public void tick() {
+        advance(System.currentTimeMillis());
+    }
+
+    /**
+     * Expire OTPs in every slot passed since the last tick
+     * @return Number of expired OTPs removed
+     */
+    synchronized int advance(long nowMillis) {
+        long currentTick = nowMillis / tickMillis;
+        long fromTick = lastTick < 0 ? currentTick : lastTick + 1;
+        // Never sweep more than one full revolution
+        fromTick = Math.max(fromTick, currentTick - WHEEL_SIZE + 1);
+
+        int expired = 0;
+        for (long t = fromTick; t <= currentTick; t++) {
+            Set<String> slot = wheel.get((int) (t % WHEEL_SIZE));
+            for (String otpId : slot) {
+                Entry entry = entries.get(otpId);
+                if (entry == null) {
+                    slot.remove(otpId); // Already consumed
+                } else if (entry.expiresAtMillis <= nowMillis) {
+                    if (entries.remove(otpId, entry)) {
+                        expired++;
+                    }
+                    slot.remove(otpId);
+                }
+            }
+        }
+        lastTick = currentTick;
+
+        if (expired > 0) {
+            logger.debug("Expired {} OTPs", expired);
+        }
+        return expired;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private int slotOf(long expiresAtMillis) {
+        // First tick that starts after the expiry, so the OTP is always due when its slot is swept
+        return (int) ((expiresAtMillis / tickMillis + 1) % WHEEL_SIZE);
+    }
+
+    private static final class Entry {
+        private final OTPService.OTPData data;
+        private final long expiresAtMillis;
+
+        private Entry(OTPService.OTPData data, long expiresAtMillis) {
+            this.data = data;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
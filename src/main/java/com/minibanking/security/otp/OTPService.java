@@ -2,14 +2,14 @@ package com.minibanking.security.otp;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * OTP Service for 2FA authentication
@@ -28,8 +28,12 @@ public class OTPService {
     @Value("${otp.max-attempts:3}")
     private int maxAttempts;
     
-    // In-memory storage for OTPs (in production, use Redis)
-    private final Map<String, OTPData> otpStorage = new ConcurrentHashMap<>();
+    // Seeding a SecureRandom is expensive; one shared instance is thread-safe
+    private static final SecureRandom RANDOM = new SecureRandom();
+    
+    // Redis or in-memory, selected by otp.store.type (see ServiceConfig)
+    @Autowired
+    private OTPStore otpStore;
     
     /**
      * Generate OTP for user
@@ -48,59 +52,37 @@ public class OTPService {
         otpData.setAttempts(0);
         otpData.setIsUsed(false);
         
-        otpStorage.put(otpId, otpData);
+        otpStore.save(otpData, Duration.ofSeconds(otpExpirationSeconds));
         
         logger.info("OTP generated for user: {} with ID: {}", userId, otpId);
         return otpId;
     }
     
     /**
-     * Verify OTP
+     * Verify OTP; the attempt is counted and the OTP consumed atomically by the store
      */
     public OTPVerificationResult verifyOTP(String otpId, String otp) {
-        OTPData otpData = otpStorage.get(otpId);
-        
-        if (otpData == null) {
-            return OTPVerificationResult.invalid("OTP not found");
-        }
-        
-        if (otpData.getIsUsed()) {
-            return OTPVerificationResult.invalid("OTP already used");
-        }
-        
-        if (otpData.getExpiresAt().isBefore(LocalDateTime.now())) {
-            otpStorage.remove(otpId);
-            return OTPVerificationResult.invalid("OTP expired");
-        }
-        
-        if (otpData.getAttempts() >= maxAttempts) {
-            otpStorage.remove(otpId);
-            return OTPVerificationResult.invalid("Maximum attempts exceeded");
-        }
-        
-        otpData.setAttempts(otpData.getAttempts() + 1);
+        OTPStore.VerifyOutcome outcome = otpStore.verifyAndConsume(otpId, otp, maxAttempts);
         
-        if (!otpData.getOtp().equals(otp)) {
-            if (otpData.getAttempts() >= maxAttempts) {
-                otpStorage.remove(otpId);
+        switch (outcome.getStatus()) {
+            case VERIFIED:
+                logger.info("OTP verified successfully for user: {}", outcome.getUserId());
+                return OTPVerificationResult.valid(outcome.getUserId(), outcome.getPhoneNumber());
+            case MAX_ATTEMPTS_EXCEEDED:
                 return OTPVerificationResult.invalid("Maximum attempts exceeded");
-            }
-            return OTPVerificationResult.invalid("Invalid OTP");
+            case INVALID:
+                return OTPVerificationResult.invalid("Invalid OTP");
+            default:
+                // Expired OTPs are dropped by the store, so they are reported as not found
+                return OTPVerificationResult.invalid("OTP not found or expired");
         }
-        
-        // OTP is valid
-        otpData.setIsUsed(true);
-        otpStorage.remove(otpId);
-        
-        logger.info("OTP verified successfully for user: {}", otpData.getUserId());
-        return OTPVerificationResult.valid(otpData.getUserId(), otpData.getPhoneNumber());
     }
     
     /**
      * Check if OTP exists and is valid
      */
     public boolean isOTPValid(String otpId) {
-        OTPData otpData = otpStorage.get(otpId);
+        OTPData otpData = otpStore.find(otpId);
         return otpData != null && 
                !otpData.getIsUsed() && 
                otpData.getExpiresAt().isAfter(LocalDateTime.now()) &&
@@ -111,30 +93,17 @@ public class OTPService {
      * Get OTP data
      */
     public OTPData getOTPData(String otpId) {
-        return otpStorage.get(otpId);
-    }
-    
-    /**
-     * Cleanup expired OTPs
-     */
-    public void cleanupExpiredOTPs() {
-        LocalDateTime now = LocalDateTime.now();
-        otpStorage.entrySet().removeIf(entry -> 
-            entry.getValue().getExpiresAt().isBefore(now) || 
-            entry.getValue().getIsUsed()
-        );
-        logger.info("Cleaned up expired OTPs");
+        return otpStore.find(otpId);
     }
     
     /**
      * Generate random OTP
      */
     private String generateRandomOTP() {
-        SecureRandom random = new SecureRandom();
-        StringBuilder otp = new StringBuilder();
+        StringBuilder otp = new StringBuilder(otpLength);
         
         for (int i = 0; i < otpLength; i++) {
-            otp.append(random.nextInt(10));
+            otp.append(RANDOM.nextInt(10));
         }
         
         return otp.toString();
@@ -0,0 +1,60 @@
+package com.minibanking.security.otp;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * OTP Store Interface
+ * Storage for issued OTPs; verification must count the attempt and consume the OTP atomically
+ */
+public interface OTPStore {
+
+    /**
+     * Store a new OTP that expires after the given TTL
+     */
+    void save(OTPService.OTPData otpData, Duration ttl);
+
+    /**
+     * Count an attempt against the OTP and consume it if the code matches.
+     * The OTP is removed once it is verified or its attempts are exhausted.
+     */
+    VerifyOutcome verifyAndConsume(String otpId, String otp, int maxAttempts);
+
+    /**
+     * Stored OTP, or null if it does not exist or has expired
+     */
+    OTPService.OTPData find(String otpId);
+
+    /**
+     * Verification status
+     */
+    enum VerifyStatus {
+        VERIFIED,
+        NOT_FOUND,
+        INVALID,
+        MAX_ATTEMPTS_EXCEEDED
+    }
+
+    /**
+     * Verification outcome; user details are only set when verified
+     */
+    class VerifyOutcome {
+        private final VerifyStatus status;
+        private final UUID userId;
+        private final String phoneNumber;
+
+        public VerifyOutcome(VerifyStatus status, UUID userId, String phoneNumber) {
+            this.status = status;
+            this.userId = userId;
+            this.phoneNumber = phoneNumber;
+        }
+
+        public static VerifyOutcome of(VerifyStatus status) {
+            return new VerifyOutcome(status, null, null);
+        }
+
+        public VerifyStatus getStatus() { return status; }
+        public UUID getUserId() { return userId; }
+        public String getPhoneNumber() { return phoneNumber; }
+    }
+}
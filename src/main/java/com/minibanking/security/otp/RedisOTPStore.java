@@ -0,0 +1,108 @@
+package com.minibanking.security.otp;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Redis OTP Store
+ *
+ * Each OTP is a hash under otp:{otpId} with a TTL equal to the OTP expiration, so
+ * expired OTPs disappear on their own. Saving and verification run as Lua scripts,
+ * which makes attempt counting and consumption atomic across nodes.
+ */
+public class RedisOTPStore implements OTPStore {
+
+    private static final String KEY_PREFIX = "otp:";
+
+    // KEYS[1] = otp key; ARGV = userId, phone, otp, createdAt, expiresAt, ttlMillis
+    private static final RedisScript<Long> SAVE_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('HSET', KEYS[1], 'userId', ARGV[1], 'phone', ARGV[2], 'otp', ARGV[3], " +
+            "'attempts', 0, 'createdAt', ARGV[4], 'expiresAt', ARGV[5]) " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[6]) " +
+            "return 1",
+            Long.class);
+
+    // KEYS[1] = otp key; ARGV = otp, maxAttempts
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> VERIFY_SCRIPT = new DefaultRedisScript<>(
+            "local stored = redis.call('HMGET', KEYS[1], 'otp', 'attempts', 'userId', 'phone') " +
+            "if not stored[1] then return {'NOT_FOUND'} end " +
+            "local maxAttempts = tonumber(ARGV[2]) " +
+            "if tonumber(stored[2]) >= maxAttempts then " +
+            "  redis.call('DEL', KEYS[1]) return {'MAX_ATTEMPTS_EXCEEDED'} end " +
+            "local attempts = redis.call('HINCRBY', KEYS[1], 'attempts', 1) " +
+            "if stored[1] ~= ARGV[1] then " +
+            "  if attempts >= maxAttempts then redis.call('DEL', KEYS[1]) return {'MAX_ATTEMPTS_EXCEEDED'} end " +
+            "  return {'INVALID'} end " +
+            "redis.call('DEL', KEYS[1]) " +
+            "return {'VERIFIED', stored[3], stored[4]}",
+            List.class);
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Override
+    public void save(OTPService.OTPData otpData, Duration ttl) {
+        redisTemplate.execute(SAVE_SCRIPT, List.of(KEY_PREFIX + otpData.getOtpId()),
+                otpData.getUserId().toString(),
+                otpData.getPhoneNumber() != null ? otpData.getPhoneNumber() : "",
+                otpData.getOtp(),
+                Long.toString(toEpochMillis(otpData.getCreatedAt())),
+                Long.toString(toEpochMillis(otpData.getExpiresAt())),
+                Long.toString(ttl.toMillis()));
+    }
+
+    @Override
+    public VerifyOutcome verifyAndConsume(String otpId, String otp, int maxAttempts) {
+        List<?> result = redisTemplate.execute(VERIFY_SCRIPT, List.of(KEY_PREFIX + otpId),
+                otp != null ? otp : "", Integer.toString(maxAttempts));
+
+        if (result == null || result.isEmpty()) {
+            return VerifyOutcome.of(VerifyStatus.NOT_FOUND);
+        }
+        VerifyStatus status = VerifyStatus.valueOf((String) result.get(0));
+        if (status != VerifyStatus.VERIFIED) {
+            return VerifyOutcome.of(status);
+        }
+        String phone = (String) result.get(2);
+        return new VerifyOutcome(status, UUID.fromString((String) result.get(1)), phone.isEmpty() ? null : phone);
+    }
+
+    @Override
+    public OTPService.OTPData find(String otpId) {
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(KEY_PREFIX + otpId);
+        if (fields.isEmpty()) {
+            return null;
+        }
+
+        String phone = (String) fields.get("phone");
+        OTPService.OTPData otpData = new OTPService.OTPData();
+        otpData.setOtpId(otpId);
+        otpData.setUserId(UUID.fromString((String) fields.get("userId")));
+        otpData.setPhoneNumber(phone == null || phone.isEmpty() ? null : phone);
+        otpData.setOtp((String) fields.get("otp"));
+        otpData.setAttempts(Integer.parseInt((String) fields.get("attempts")));
+        otpData.setCreatedAt(toLocalDateTime(Long.parseLong((String) fields.get("createdAt"))));
+        otpData.setExpiresAt(toLocalDateTime(Long.parseLong((String) fields.get("expiresAt"))));
+        otpData.setIsUsed(false); // Used OTPs are deleted
+        return otpData;
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
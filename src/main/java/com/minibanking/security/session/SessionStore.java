@@ -0,0 +1,291 @@
+package com.minibanking.security.session;
+
+import com.minibanking.security.jwt.VerifiedToken;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Distributed Session Store
+ *
+ * Keeps active sessions (token IDs per user) and the token revocation list in Redis,
+ * with TTLs equal to the remaining token lifetime. Every node holds a local copy of
+ * the revocation list (near-cache), kept current through a pub/sub channel, so the
+ * per-request revocation check is a local map lookup. The list is reloaded from Redis
+ * only when the channel is (re)subscribed - at startup and after a reconnect, which is
+ * when broadcasts may have been missed - not periodically, so its cost does not grow
+ * with login volume. The near-cache is bounded; once it overflows, misses are checked
+ * against Redis until a reload fits again.
+ *
+ * Redis layout:
+ *   auth:sessions:{userId}  hash  jti -> "deviceFingerprint|expiresAtMillis"
+ *   auth:revoked:{jti}      string expiresAtMillis (PX = remaining lifetime)
+ *   auth:revocations        pub/sub channel, message "jti|expiresAtMillis"
+ */
+@Service
+public class SessionStore implements MessageListener, SubscriptionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionStore.class);
+
+    private static final String SESSIONS_KEY_PREFIX = "auth:sessions:";
+    private static final String REVOKED_KEY_PREFIX = "auth:revoked:";
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Value("${auth.session-store.channel:auth:revocations}")
+    private String channel;
+
+    @Value("${jwt.refresh-expiration:604800}")
+    private long refreshExpirationSeconds;
+
+    @Value("${auth.session-store.fail-open:true}")
+    private boolean failOpen;
+
+    @Value("${auth.session-store.near-cache-max-size:100000}")
+    private int maxSize = 100000;
+
+    // Near-cache of revoked token IDs -> token expiry (ms)
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    // True while the near-cache holds every live revocation, so a miss is authoritative
+    private volatile boolean synced = false;
+    // Set on every (re)subscription; the next maintenance run reloads from Redis
+    private volatile boolean resyncPending = true;
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+    }
+
+    /**
+     * Register an issued token as an active session of its user
+     */
+    public void registerSession(VerifiedToken token) {
+        if (token == null || token.getTokenId() == null || token.getUserId() == null) {
+            return;
+        }
+        try {
+            String key = SESSIONS_KEY_PREFIX + token.getUserId();
+            redisTemplate.opsForHash().put(key, token.getTokenId(),
+                    token.getDeviceFingerprint() + "|" + token.getExpiresAtMillis());
+            // Longest-lived token of a user is the refresh token
+            redisTemplate.expire(key, Duration.ofSeconds(refreshExpirationSeconds));
+        } catch (Exception e) {
+            logger.warn("Failed to register session for user {}: {}", token.getUserId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Revoke every session of a user on a device (null device = all devices)
+     * @return Number of revoked tokens
+     */
+    public int revokeSessions(UUID userId, String deviceFingerprint) {
+        String key = SESSIONS_KEY_PREFIX + userId;
+        int count = 0;
+        try {
+            Map<Object, Object> sessions = redisTemplate.opsForHash().entries(key);
+            List<Object> revokedIds = new ArrayList<>();
+            for (Map.Entry<Object, Object> session : sessions.entrySet()) {
+                String value = (String) session.getValue();
+                int separator = value.lastIndexOf('|');
+                String device = value.substring(0, separator);
+                long expiresAt = Long.parseLong(value.substring(separator + 1));
+
+                if (deviceFingerprint == null || deviceFingerprint.equals(device)) {
+                    revoke((String) session.getKey(), expiresAt);
+                    revokedIds.add(session.getKey());
+                    count++;
+                }
+            }
+            if (!revokedIds.isEmpty()) {
+                redisTemplate.opsForHash().delete(key, revokedIds.toArray());
+            }
+            logger.info("Revoked {} sessions for user {} on device {}", count, userId, deviceFingerprint);
+        } catch (Exception e) {
+            logger.error("Failed to revoke sessions for user {}: {}", userId, e.getMessage());
+        }
+        return count;
+    }
+
+    /**
+     * Revoke a single token until it expires
+     */
+    public void revoke(String tokenId, long expiresAtMillis) {
+        long ttl = expiresAtMillis - System.currentTimeMillis();
+        if (ttl <= 0) {
+            return; // Already expired, nothing to enforce
+        }
+        remember(tokenId, expiresAtMillis);
+        redisTemplate.opsForValue().set(REVOKED_KEY_PREFIX + tokenId,
+                Long.toString(expiresAtMillis), Duration.ofMillis(ttl));
+        redisTemplate.convertAndSend(channel, tokenId + "|" + expiresAtMillis);
+    }
+
+    /**
+     * Whether a token has been revoked; answered from the near-cache once it is synced
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        Long expiresAt = revoked.get(tokenId);
+        if (expiresAt != null) {
+            return true;
+        }
+        if (synced) {
+            return false;
+        }
+
+        // Not synced yet (startup or Redis unavailable so far): ask Redis directly
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(REVOKED_KEY_PREFIX + tokenId));
+        } catch (Exception e) {
+            logger.warn("Revocation check unavailable: {}", e.getMessage());
+            return !failOpen;
+        }
+    }
+
+    /**
+     * Revocation published by any node (including this one)
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.lastIndexOf('|');
+        if (separator <= 0) {
+            return;
+        }
+        try {
+            remember(body.substring(0, separator), Long.parseLong(body.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring malformed revocation message: {}", body);
+        }
+    }
+
+    /**
+     * Revocation channel (re)subscribed by the listener container: broadcasts sent while
+     * unsubscribed were lost, so reload the list on the next maintenance run
+     */
+    @Override
+    public void onChannelSubscribed(byte[] channel, long count) {
+        resyncPending = true;
+    }
+
+    /**
+     * Drop expired revocations, and reload from Redis if a (re)subscription asked for it
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${auth.session-store.maintenance-interval-ms:1000}")
+    public void maintain() {
+        purgeExpired();
+        if (resyncPending) {
+            resyncPending = false;
+            resync();
+        }
+    }
+
+    /**
+     * Reload the revocation list from Redis; covers messages missed while unsubscribed
+     */
+    public void resync() {
+        try {
+            List<String> keys = redisTemplate.execute((RedisCallback<List<String>>) connection -> {
+                List<String> found = new ArrayList<>();
+                ScanOptions options = ScanOptions.scanOptions().match(REVOKED_KEY_PREFIX + "*").count(1000).build();
+                try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+                    cursor.forEachRemaining(key -> found.add(new String(key, StandardCharsets.UTF_8)));
+                }
+                return found;
+            });
+
+            Map<String, Long> loaded = new HashMap<>();
+            if (keys != null && !keys.isEmpty()) {
+                List<String> values = redisTemplate.opsForValue().multiGet(keys);
+                for (int i = 0; i < keys.size(); i++) {
+                    String value = values != null ? values.get(i) : null;
+                    if (value != null) {
+                        loaded.put(keys.get(i).substring(REVOKED_KEY_PREFIX.length()), Long.parseLong(value));
+                    }
+                }
+            }
+
+            revoked.putAll(loaded);
+            purgeExpired();
+            synced = true;
+            trimToMaxSize();
+            logger.info("Revocation near-cache reloaded: {} revoked tokens, complete: {}", revoked.size(), synced);
+
+        } catch (Exception e) {
+            resyncPending = true;
+            logger.warn("Failed to resync revocation list: {}", e.getMessage());
+        }
+    }
+
+    public int getRevokedCount() {
+        return revoked.size();
+    }
+
+    public boolean isSynced() {
+        return synced;
+    }
+
+    private void remember(String tokenId, long expiresAtMillis) {
+        revoked.put(tokenId, expiresAtMillis);
+        if (revoked.size() > maxSize) {
+            purgeExpired();
+            trimToMaxSize();
+        }
+    }
+
+    /**
+     * Evict the soonest-expiring revocations down to 90% of the bound; the near-cache is
+     * no longer complete, so misses fall back to Redis
+     */
+    private synchronized void trimToMaxSize() {
+        int excess = revoked.size() - maxSize;
+        if (excess <= 0) {
+            return;
+        }
+        excess += maxSize / 10;
+        revoked.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue(Comparator.naturalOrder()))
+                .limit(excess)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(revoked::remove);
+        if (synced) {
+            logger.warn("Revocation near-cache exceeded {} entries; checking misses against Redis", maxSize);
+        }
+        synced = false;
+    }
+
+    private void purgeExpired() {
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+    }
+}
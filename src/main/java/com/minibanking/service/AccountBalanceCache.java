@@ -0,0 +1,263 @@
+package com.minibanking.service;
+
+import com.minibanking.entity.Account;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Two-level cache of account balances (local map in front of a Redis hash)
+ *
+ * Every entry carries the account's ledger sequence as its version. Postings
+ * publish the new balance after commit; a snapshot never replaces a newer one, so a
+ * read that loaded the row before a concurrent posting can't overwrite its result.
+ * Other nodes drop older local entries when the update is broadcast. Local entries
+ * are served for at most local-ttl-ms and Redis entries expire after
+ * redis-ttl-seconds, which bounds staleness if an update is lost.
+ */
+@Component
+public class AccountBalanceCache implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountBalanceCache.class);
+
+    private static final String KEY_PREFIX = "balance:";
+
+    // KEYS[1] = balance key; ARGV = balance, availableBalance, version, ttlMillis
+    private static final RedisScript<Long> UPDATE_SCRIPT = new DefaultRedisScript<>(
+            "local current = redis.call('HGET', KEYS[1], 'version') " +
+            "if current and tonumber(current) > tonumber(ARGV[3]) then return 0 end " +
+            "redis.call('HSET', KEYS[1], 'balance', ARGV[1], 'available', ARGV[2], 'version', ARGV[3]) " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[4]) " +
+            "return 1",
+            Long.class);
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Value("${banking.balance-cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${banking.balance-cache.local-ttl-ms:1000}")
+    private long localTtlMs = 1000;
+
+    @Value("${banking.balance-cache.redis-ttl-seconds:60}")
+    private long redisTtlSeconds = 60;
+
+    @Value("${banking.balance-cache.max-size:100000}")
+    private int maxSize = 100000;
+
+    @Value("${banking.balance-cache.channel:banking:balances}")
+    private String channel = "banking:balances";
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong localHits = new AtomicLong();
+    private final AtomicLong redisHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+    }
+
+    /**
+     * Cached balance, or null if the account has to be read from the database
+     */
+    public Snapshot get(UUID accountId) {
+        if (!enabled) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(accountId);
+        if (entry != null && now - entry.cachedAtMillis < localTtlMs) {
+            localHits.incrementAndGet();
+            return entry.snapshot;
+        }
+
+        Snapshot snapshot = readRedis(accountId);
+        if (snapshot == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        redisHits.incrementAndGet();
+        putLocal(snapshot, now);
+        return snapshot;
+    }
+
+    /**
+     * Cache a snapshot read from the database
+     */
+    public void put(Snapshot snapshot) {
+        if (!enabled) {
+            return;
+        }
+        putLocal(snapshot, System.currentTimeMillis());
+        writeRedis(snapshot);
+    }
+
+    /**
+     * Publish an account's balance once the current transaction commits
+     * (immediately when there is no transaction). Call after the posting's ledger entries.
+     */
+    public void updateAfterCommit(Account account) {
+        if (!enabled) {
+            return;
+        }
+        Snapshot snapshot = Snapshot.of(account);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update(snapshot);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update(snapshot);
+            }
+        });
+    }
+
+    /**
+     * Store a committed balance here and in Redis, and tell the other nodes
+     */
+    public void update(Snapshot snapshot) {
+        if (!enabled) {
+            return;
+        }
+        putLocal(snapshot, System.currentTimeMillis());
+        writeRedis(snapshot);
+        try {
+            redisTemplate.convertAndSend(channel, snapshot.getAccountId() + ":" + snapshot.getVersion());
+        } catch (Exception e) {
+            logger.warn("Failed to broadcast balance update: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.lastIndexOf(':');
+        try {
+            UUID accountId = UUID.fromString(body.substring(0, separator));
+            long version = Long.parseLong(body.substring(separator + 1));
+            evictOlderThan(accountId, version);
+        } catch (RuntimeException e) {
+            logger.warn("Ignoring malformed balance update: {}", body);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${banking.balance-cache.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long cutoff = System.currentTimeMillis() - localTtlMs;
+        entries.values().removeIf(entry -> entry.cachedAtMillis < cutoff);
+    }
+
+    public Map<String, Object> getStatistics() {
+        return Map.of(
+                "enabled", enabled,
+                "size", entries.size(),
+                "localHits", localHits.get(),
+                "redisHits", redisHits.get(),
+                "misses", misses.get());
+    }
+
+    void evictOlderThan(UUID accountId, long version) {
+        entries.computeIfPresent(accountId, (id, entry) -> entry.snapshot.getVersion() < version ? null : entry);
+    }
+
+    void putLocal(Snapshot snapshot, long nowMillis) {
+        if (entries.size() >= maxSize && !entries.containsKey(snapshot.getAccountId())) {
+            return;
+        }
+        entries.merge(snapshot.getAccountId(), new Entry(snapshot, nowMillis),
+                (current, candidate) -> candidate.snapshot.getVersion() >= current.snapshot.getVersion() ? candidate : current);
+    }
+
+    private Snapshot readRedis(UUID accountId) {
+        try {
+            Map<Object, Object> fields = redisTemplate.opsForHash().entries(KEY_PREFIX + accountId);
+            if (fields.isEmpty()) {
+                return null;
+            }
+            return new Snapshot(accountId,
+                    new BigDecimal((String) fields.get("balance")),
+                    new BigDecimal((String) fields.get("available")),
+                    Long.parseLong((String) fields.get("version")));
+        } catch (Exception e) {
+            logger.warn("Balance cache read failed for {}: {}", accountId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRedis(Snapshot snapshot) {
+        try {
+            redisTemplate.execute(UPDATE_SCRIPT, List.of(KEY_PREFIX + snapshot.getAccountId()),
+                    snapshot.getBalance().toPlainString(),
+                    snapshot.getAvailableBalance().toPlainString(),
+                    Long.toString(snapshot.getVersion()),
+                    Long.toString(redisTtlSeconds * 1000));
+        } catch (Exception e) {
+            logger.warn("Balance cache write failed for {}: {}", snapshot.getAccountId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Balances of an account at a ledger sequence
+     */
+    public static class Snapshot {
+        private final UUID accountId;
+        private final BigDecimal balance;
+        private final BigDecimal availableBalance;
+        private final long version;
+
+        public Snapshot(UUID accountId, BigDecimal balance, BigDecimal availableBalance, long version) {
+            this.accountId = accountId;
+            this.balance = balance;
+            this.availableBalance = availableBalance;
+            this.version = version;
+        }
+
+        public static Snapshot of(Account account) {
+            return new Snapshot(account.getAccountId(), account.getBalance(), account.getAvailableBalance(),
+                    account.getLedgerSequence() != null ? account.getLedgerSequence() : 0L);
+        }
+
+        public UUID getAccountId() { return accountId; }
+        public BigDecimal getBalance() { return balance; }
+        public BigDecimal getAvailableBalance() { return availableBalance; }
+        public long getVersion() { return version; }
+    }
+
+    private static final class Entry {
+        private final Snapshot snapshot;
+        private final long cachedAtMillis;
+
+        private Entry(Snapshot snapshot, long cachedAtMillis) {
+            this.snapshot = snapshot;
+            this.cachedAtMillis = cachedAtMillis;
+        }
+    }
+}
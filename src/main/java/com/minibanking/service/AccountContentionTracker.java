@@ -0,0 +1,137 @@
+package com.minibanking.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-account conflict rate for optimistic postings
+ *
+ * Each optimistic attempt updates an exponentially weighted conflict rate for the
+ * accounts involved. An account whose rate exceeds the threshold is "hot" and is
+ * posted with pessimistic row locks until the cooldown ends, after which it is
+ * tried optimistically again with a fresh rate.
+ */
+@Component
+public class AccountContentionTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountContentionTracker.class);
+
+    @Value("${banking.locking.conflict-rate-threshold:0.3}")
+    private double conflictRateThreshold = 0.3;
+
+    @Value("${banking.locking.conflict-rate-alpha:0.2}") // weight of the latest attempt
+    private double alpha = 0.2;
+
+    @Value("${banking.locking.hot-cooldown-seconds:300}")
+    private long hotCooldownSeconds = 300;
+
+    @Value("${banking.locking.idle-seconds:3600}")
+    private long idleSeconds = 3600;
+
+    @Value("${banking.locking.max-tracked-accounts:100000}")
+    private int maxTrackedAccounts = 100000;
+
+    private final Map<UUID, Stats> accounts = new ConcurrentHashMap<>();
+    private final AtomicLong conflicts = new AtomicLong();
+    private final AtomicLong hotTransitions = new AtomicLong();
+
+    /**
+     * Whether any of the accounts should be posted with pessimistic locks
+     */
+    public boolean isHot(UUID... accountIds) {
+        long now = System.currentTimeMillis();
+        for (UUID accountId : accountIds) {
+            if (isHot(accountId, now)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Record the outcome of one optimistic attempt for the accounts it touched
+     */
+    public void recordAttempt(boolean conflict, UUID... accountIds) {
+        long now = System.currentTimeMillis();
+        if (conflict) {
+            conflicts.incrementAndGet();
+        }
+        for (UUID accountId : accountIds) {
+            recordAttempt(accountId, conflict, now);
+        }
+    }
+
+    boolean isHot(UUID accountId, long nowMillis) {
+        Stats stats = accounts.get(accountId);
+        return stats != null && stats.hotUntilMillis(nowMillis) > nowMillis;
+    }
+
+    void recordAttempt(UUID accountId, boolean conflict, long nowMillis) {
+        Stats stats = accounts.get(accountId);
+        if (stats == null) {
+            if (!conflict || accounts.size() >= maxTrackedAccounts) {
+                return; // Quiet accounts aren't tracked until they see a conflict
+            }
+            stats = accounts.computeIfAbsent(accountId, id -> new Stats());
+        }
+        if (stats.record(conflict, nowMillis, alpha, conflictRateThreshold, hotCooldownSeconds * 1000)) {
+            hotTransitions.incrementAndGet();
+            logger.info("Account {} exceeded the conflict-rate threshold, using pessimistic locking for {}s",
+                    accountId, hotCooldownSeconds);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${banking.locking.purge-interval-ms:60000}")
+    public void purgeIdle() {
+        long now = System.currentTimeMillis();
+        long cutoff = now - idleSeconds * 1000;
+        accounts.values().removeIf(stats -> stats.lastAttemptMillis < cutoff && stats.hotUntilMillis(now) <= now);
+    }
+
+    public Map<String, Object> getStatistics() {
+        long now = System.currentTimeMillis();
+        long hot = accounts.values().stream().filter(stats -> stats.hotUntilMillis(now) > now).count();
+        return Map.of(
+                "trackedAccounts", accounts.size(),
+                "hotAccounts", hot,
+                "conflicts", conflicts.get(),
+                "hotTransitions", hotTransitions.get());
+    }
+
+    private static final class Stats {
+        private double conflictRate;
+        private long hotUntilMillis;
+        private volatile long lastAttemptMillis;
+
+        private synchronized long hotUntilMillis(long nowMillis) {
+            if (hotUntilMillis != 0 && hotUntilMillis <= nowMillis) {
+                // Cooldown over: start optimistic again from a clean rate
+                hotUntilMillis = 0;
+                conflictRate = 0;
+            }
+            return hotUntilMillis;
+        }
+
+        /**
+         * @return true if this attempt made the account hot
+         */
+        private synchronized boolean record(boolean conflict, long nowMillis, double alpha,
+                                            double threshold, long cooldownMillis) {
+            lastAttemptMillis = nowMillis;
+            conflictRate = conflictRate * (1 - alpha) + (conflict ? alpha : 0);
+            if (hotUntilMillis(nowMillis) == 0 && conflictRate > threshold) {
+                hotUntilMillis = nowMillis + cooldownMillis;
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.minibanking.service;
+
+import com.minibanking.entity.Account;
+import com.minibanking.entity.AccountLedgerEntry;
+import com.minibanking.entity.Transaction;
+import com.minibanking.repository.AccountLedgerEntryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Account Ledger Service
+ *
+ * Writes one ledger entry per account per posting inside the posting transaction
+ * (the caller holds the account row lock) and serves history, statements and
+ * point-in-time balances from the ledger table instead of scanning transactions.
+ */
+@Service
+public class AccountLedgerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountLedgerService.class);
+
+    @Autowired
+    private AccountLedgerEntryRepository ledgerRepository;
+
+    @Value("${banking.ledger.max-page-size:500}")
+    private int maxPageSize;
+
+    /**
+     * Record a debit; must be called after the account balance has been updated
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public AccountLedgerEntry recordDebit(Account account, BigDecimal amount, Transaction transaction, Account counterparty) {
+        return record(account, AccountLedgerEntry.EntryType.DEBIT, amount, transaction, counterparty);
+    }
+
+    /**
+     * Record a credit; must be called after the account balance has been updated
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public AccountLedgerEntry recordCredit(Account account, BigDecimal amount, Transaction transaction, Account counterparty) {
+        return record(account, AccountLedgerEntry.EntryType.CREDIT, amount, transaction, counterparty);
+    }
+
+    /**
+     * Account history, newest first
+     * @param beforeSequence Only return entries older than this sequence (null for the latest page)
+     */
+    @Transactional(readOnly = true)
+    public List<AccountLedgerEntry> getHistory(UUID accountId, Long beforeSequence, int limit) {
+        PageRequest page = PageRequest.of(0, Math.max(1, Math.min(limit, maxPageSize)));
+        return beforeSequence == null
+                ? ledgerRepository.findLatestEntries(accountId, page)
+                : ledgerRepository.findEntriesBefore(accountId, beforeSequence, page);
+    }
+
+    /**
+     * Balance of an account at a point in time (zero before its first posting)
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal getBalanceAsOf(UUID accountId, LocalDateTime asOf) {
+        return ledgerRepository
+                .findFirstByAccountIdAndPostedAtLessThanEqualOrderByPostedAtDescEntrySequenceDesc(accountId, asOf)
+                .map(AccountLedgerEntry::getBalanceAfter)
+                .orElse(BigDecimal.ZERO);
+    }
+
+    /**
+     * Statement for [from, to): opening balance, entries and closing balance
+     */
+    @Transactional(readOnly = true)
+    public AccountStatement getStatement(UUID accountId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Statement start must be before its end");
+        }
+
+        BigDecimal openingBalance = ledgerRepository
+                .findFirstByAccountIdAndPostedAtLessThanOrderByPostedAtDescEntrySequenceDesc(accountId, from)
+                .map(AccountLedgerEntry::getBalanceAfter)
+                .orElse(BigDecimal.ZERO);
+
+        List<AccountLedgerEntry> entries = ledgerRepository.findEntriesInPeriod(accountId, from, to);
+
+        BigDecimal totalDebits = BigDecimal.ZERO;
+        BigDecimal totalCredits = BigDecimal.ZERO;
+        for (AccountLedgerEntry entry : entries) {
+            if (entry.getEntryType() == AccountLedgerEntry.EntryType.DEBIT) {
+                totalDebits = totalDebits.add(entry.getAmount());
+            } else {
+                totalCredits = totalCredits.add(entry.getAmount());
+            }
+        }
+        BigDecimal closingBalance = entries.isEmpty()
+                ? openingBalance
+                : entries.get(entries.size() - 1).getBalanceAfter();
+
+        return new AccountStatement(accountId, from, to, openingBalance, closingBalance,
+                totalDebits, totalCredits, entries);
+    }
+
+    private AccountLedgerEntry record(Account account, AccountLedgerEntry.EntryType entryType, BigDecimal amount,
+                                      Transaction transaction, Account counterparty) {
+        AccountLedgerEntry entry = new AccountLedgerEntry(account, entryType, amount, transaction);
+        if (counterparty != null) {
+            entry.setCounterpartyAccountId(counterparty.getAccountId());
+        }
+        entry = ledgerRepository.save(entry);
+
+        logger.debug("Ledger {} #{} on account {}: {} (balance {})",
+                entryType, entry.getEntrySequence(), account.getAccountId(), amount, entry.getBalanceAfter());
+        return entry;
+    }
+
+    /**
+     * Account statement for a period
+     */
+    public static class AccountStatement {
+        private final UUID accountId;
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final BigDecimal openingBalance;
+        private final BigDecimal closingBalance;
+        private final BigDecimal totalDebits;
+        private final BigDecimal totalCredits;
+        private final List<AccountLedgerEntry> entries;
+
+        public AccountStatement(UUID accountId, LocalDateTime from, LocalDateTime to,
+                                BigDecimal openingBalance, BigDecimal closingBalance,
+                                BigDecimal totalDebits, BigDecimal totalCredits,
+                                List<AccountLedgerEntry> entries) {
+            this.accountId = accountId;
+            this.from = from;
+            this.to = to;
+            this.openingBalance = openingBalance;
+            this.closingBalance = closingBalance;
+            this.totalDebits = totalDebits;
+            this.totalCredits = totalCredits;
+            this.entries = entries;
+        }
+
+        public UUID getAccountId() { return accountId; }
+        public LocalDateTime getFrom() { return from; }
+        public LocalDateTime getTo() { return to; }
+        public BigDecimal getOpeningBalance() { return openingBalance; }
+        public BigDecimal getClosingBalance() { return closingBalance; }
+        public BigDecimal getTotalDebits() { return totalDebits; }
+        public BigDecimal getTotalCredits() { return totalCredits; }
+        public List<AccountLedgerEntry> getEntries() { return entries; }
+    }
+}
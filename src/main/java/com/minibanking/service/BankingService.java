@@ -2,7 +2,9 @@ package com.minibanking.service;
 
 import com.minibanking.interfaces.IBankingService;
 import com.minibanking.entity.Account;
+import com.minibanking.entity.AccountLedgerEntry;
 import com.minibanking.entity.Customer;
+import com.minibanking.entity.Money;
 import com.minibanking.entity.Transaction;
 import com.minibanking.exception.AccountNotFoundException;
 import com.minibanking.exception.InsufficientFundsException;
@@ -15,14 +17,24 @@ import com.minibanking.security.logging.SecureLoggingService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 @Transactional
@@ -45,6 +57,39 @@ public class BankingService implements IBankingService {
     @Autowired
     private SecureLoggingService secureLoggingService;
     
+    @Autowired
+    private AccountLedgerService ledgerService;
+    
+    @Autowired
+    private AccountBalanceCache balanceCache;
+    
+    @Autowired
+    private AccountContentionTracker contentionTracker;
+    
+    @Autowired
+    private TransactionCodeGenerator transactionCodeGenerator;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${banking.ledger.history-limit:100}") // transactions returned by getTransactionHistory
+    private int historyLimit = 100;
+    
+    @Value("${banking.partitions.query-lookback-months:3}")
+    private int queryLookbackMonths;
+    
+    @Value("${banking.locking.mode:pessimistic}") // pessimistic | optimistic
+    private String lockingMode;
+    
+    @Value("${banking.locking.max-attempts:3}")
+    private int maxOptimisticAttempts;
+    
+    @Value("${banking.locking.backoff-base-ms:5}")
+    private long backoffBaseMs;
+    
+    @Value("${banking.locking.backoff-max-ms:50}")
+    private long backoffMaxMs;
+    
     // Customer Management
     public Customer createCustomer(Customer customer) {
         logger.info("Creating customer: {}", customer.getEmail());
@@ -71,7 +116,13 @@ public class BankingService implements IBankingService {
     // Account Management
     public Account createAccount(Account account) {
         logger.info("Creating account: {} for customer: {}", account.getAccountNumber(), account.getCustomer().getCustomerId());
-        return accountRepository.save(account);
+        Account created = accountRepository.save(account);
+        
+        // Opening balance becomes the first ledger entry so balance-as-of queries start from it
+        if (created.getBalance() != null && created.getBalance().signum() > 0) {
+            ledgerService.recordCredit(created, created.getBalance(), null, null);
+        }
+        return created;
     }
     
     public Optional<Account> getAccountById(UUID accountId) {
@@ -92,15 +143,69 @@ public class BankingService implements IBankingService {
     }
     
     // Transaction Processing with Pessimistic Locking (Banking Standard)
-    @Transactional(rollbackFor = Exception.class, timeout = 30)
+    // With banking.locking.mode=optimistic, quiet accounts are posted without row locks
+    // (version-checked updates, retried with jitter); hot accounts stay pessimistic.
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Transaction transferMoney(UUID fromAccountId, UUID toAccountId, BigDecimal amount, String description) {
-        logger.info("Processing transfer: {} from {} to {}", amount, fromAccountId, toAccountId);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setTimeout(30);
+        
+        // A caller's transaction can't be retried, and hot accounts would mostly conflict
+        if (!"optimistic".equalsIgnoreCase(lockingMode)
+                || TransactionSynchronizationManager.isActualTransactionActive()
+                || contentionTracker.isHot(fromAccountId, toAccountId)) {
+            return transactionTemplate.execute(status -> postTransfer(fromAccountId, toAccountId, amount, description, true));
+        }
+        
+        for (int attempt = 1; attempt <= maxOptimisticAttempts; attempt++) {
+            try {
+                Transaction transaction = transactionTemplate.execute(
+                    status -> postTransfer(fromAccountId, toAccountId, amount, description, false));
+                contentionTracker.recordAttempt(false, fromAccountId, toAccountId);
+                return transaction;
+            } catch (OptimisticLockingFailureException e) {
+                contentionTracker.recordAttempt(true, fromAccountId, toAccountId);
+                logger.debug("Optimistic transfer attempt {} conflicted: {}", attempt, e.getMessage());
+                if (attempt < maxOptimisticAttempts && !backoff(attempt)) {
+                    break;
+                }
+            }
+        }
+        
+        logger.info("Optimistic transfer retries exhausted, locking accounts {} and {}", fromAccountId, toAccountId);
+        return transactionTemplate.execute(status -> postTransfer(fromAccountId, toAccountId, amount, description, true));
+    }
+    
+    /**
+     * Full jitter: sleep a random time up to base * 2^(attempt - 1), capped at backoffMaxMs
+     * @return false if interrupted
+     */
+    private boolean backoff(int attempt) {
+        long ceiling = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    /**
+     * One transfer attempt inside the current transaction
+     * @param lockAccounts Take row locks up front; otherwise rely on the account version check
+     */
+    private Transaction postTransfer(UUID fromAccountId, UUID toAccountId, BigDecimal amount, String description,
+                                     boolean lockAccounts) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Processing transfer: {} from {} to {}", amount, fromAccountId, toAccountId);
+        }
         
         // 1. Lock accounts for update to prevent concurrent access (Banking Standard)
-        Account fromAccount = accountRepository.findByIdForUpdate(fromAccountId)
+        Account fromAccount = (lockAccounts ? accountRepository.findByIdForUpdate(fromAccountId) : accountRepository.findById(fromAccountId))
             .orElseThrow(() -> new AccountNotFoundException("From account not found"));
         
-        Account toAccount = accountRepository.findByIdForUpdate(toAccountId)
+        Account toAccount = (lockAccounts ? accountRepository.findByIdForUpdate(toAccountId) : accountRepository.findById(toAccountId))
             .orElseThrow(() -> new AccountNotFoundException("To account not found"));
         
         // 2. Validate accounts
@@ -112,8 +217,9 @@ public class BankingService implements IBankingService {
             throw new IllegalStateException("To account is not active");
         }
         
-        // 3. Check sufficient balance
-        if (!fromAccount.hasSufficientBalance(amount)) {
+        // 3. Check sufficient balance (fixed-point from here on)
+        Money posted = Money.of(amount);
+        if (!fromAccount.hasSufficientBalance(posted)) {
             throw new InsufficientFundsException("Insufficient balance in from account");
         }
         
@@ -130,22 +236,34 @@ public class BankingService implements IBankingService {
         
         try {
             // 5. Process the transfer
-            fromAccount.debit(amount);
-            toAccount.credit(amount);
+            fromAccount.debit(posted);
+            toAccount.credit(posted);
             
-            // 6. Save accounts
-            accountRepository.save(fromAccount);
-            accountRepository.save(toAccount);
+            // 6. Save accounts (unlocked: flush now so a version conflict surfaces here,
+            //    after which the updated rows stay locked until commit)
+            if (lockAccounts) {
+                accountRepository.save(fromAccount);
+                accountRepository.save(toAccount);
+            } else {
+                accountRepository.saveAndFlush(fromAccount);
+                accountRepository.saveAndFlush(toAccount);
+            }
             
             // 7. Mark transaction as completed
             transaction.markAsCompleted();
             transaction = transactionRepository.save(transaction);
             
+            // 7a. Post ledger entries for both sides
+            ledgerService.recordDebit(fromAccount, amount, transaction, toAccount);
+            ledgerService.recordCredit(toAccount, amount, transaction, fromAccount);
+            balanceCache.updateAfterCommit(fromAccount);
+            balanceCache.updateAfterCommit(toAccount);
+            
             // 8. Send transaction to blockchain stream
             try {
                 TransactionEvent transactionEvent = new TransactionEvent(transaction);
                 streamProducer.sendTransactionEvent(transactionEvent);
-                logger.info("Transaction event sent to blockchain stream: {}", transactionCode);
+                logger.debug("Transaction event sent to blockchain stream: {}", transactionCode);
             } catch (Exception e) {
                 logger.warn("Failed to send transaction to blockchain stream: {}", e.getMessage());
                 // Don't fail the transaction if blockchain fails
@@ -160,9 +278,11 @@ public class BankingService implements IBankingService {
                 "SUCCESS"
             );
             
-            logger.info("Transfer completed successfully: {}", transactionCode);
+            logger.debug("Transfer completed successfully: {}", transactionCode);
             return transaction;
             
+        } catch (OptimisticLockingFailureException e) {
+            throw e; // Retried by transferMoney; the persistence context is unusable after a failed flush
         } catch (Exception e) {
             // 8. Mark transaction as failed
             transaction.markAsFailed(e.getMessage());
@@ -181,7 +301,7 @@ public class BankingService implements IBankingService {
     
     @Transactional(rollbackFor = Exception.class, timeout = 30)
     public Transaction deposit(UUID accountId, BigDecimal amount, String description) {
-        logger.info("Processing deposit: {} to account: {}", amount, accountId);
+        logger.debug("Processing deposit: {} to account: {}", amount, accountId);
         
         // 1. Lock account for update (Banking Standard - Pessimistic Locking)
         Account account = accountRepository.findByIdForUpdate(accountId)
@@ -204,7 +324,7 @@ public class BankingService implements IBankingService {
         
         try {
             // 4. Process the deposit
-            account.credit(amount);
+            account.credit(Money.of(amount));
             
             // 5. Save account
             accountRepository.save(account);
@@ -213,17 +333,21 @@ public class BankingService implements IBankingService {
             transaction.markAsCompleted();
             transaction = transactionRepository.save(transaction);
             
+            // 6a. Post ledger entry
+            ledgerService.recordCredit(account, amount, transaction, null);
+            balanceCache.updateAfterCommit(account);
+            
             // 7. Send transaction to blockchain stream
             try {
                 TransactionEvent transactionEvent = new TransactionEvent(transaction);
                 streamProducer.sendTransactionEvent(transactionEvent);
-                logger.info("Transaction event sent to blockchain stream: {}", transactionCode);
+                logger.debug("Transaction event sent to blockchain stream: {}", transactionCode);
             } catch (Exception e) {
                 logger.warn("Failed to send transaction to blockchain stream: {}", e.getMessage());
                 // Don't fail the transaction if blockchain fails
             }
             
-            logger.info("Deposit completed successfully: {}", transactionCode);
+            logger.debug("Deposit completed successfully: {}", transactionCode);
             return transaction;
             
         } catch (Exception e) {
@@ -238,7 +362,7 @@ public class BankingService implements IBankingService {
     
     @Transactional(rollbackFor = Exception.class, timeout = 30)
     public Transaction withdraw(UUID accountId, BigDecimal amount, String description) {
-        logger.info("Processing withdrawal: {} from account: {}", amount, accountId);
+        logger.debug("Processing withdrawal: {} from account: {}", amount, accountId);
         
         // 1. Lock account for update (Banking Standard - Pessimistic Locking)
         Account account = accountRepository.findByIdForUpdate(accountId)
@@ -250,7 +374,8 @@ public class BankingService implements IBankingService {
         }
         
         // 3. Check sufficient balance
-        if (!account.hasSufficientBalance(amount)) {
+        Money posted = Money.of(amount);
+        if (!account.hasSufficientBalance(posted)) {
             throw new InsufficientFundsException("Insufficient balance");
         }
         
@@ -266,7 +391,7 @@ public class BankingService implements IBankingService {
         
         try {
             // 5. Process the withdrawal
-            account.debit(amount);
+            account.debit(posted);
             
             // 6. Save account
             accountRepository.save(account);
@@ -275,17 +400,21 @@ public class BankingService implements IBankingService {
             transaction.markAsCompleted();
             transaction = transactionRepository.save(transaction);
             
+            // 7a. Post ledger entry
+            ledgerService.recordDebit(account, amount, transaction, null);
+            balanceCache.updateAfterCommit(account);
+            
             // 8. Send transaction to blockchain stream
             try {
                 TransactionEvent transactionEvent = new TransactionEvent(transaction);
                 streamProducer.sendTransactionEvent(transactionEvent);
-                logger.info("Transaction event sent to blockchain stream: {}", transactionCode);
+                logger.debug("Transaction event sent to blockchain stream: {}", transactionCode);
             } catch (Exception e) {
                 logger.warn("Failed to send transaction to blockchain stream: {}", e.getMessage());
                 // Don't fail the transaction if blockchain fails
             }
             
-            logger.info("Withdrawal completed successfully: {}", transactionCode);
+            logger.debug("Withdrawal completed successfully: {}", transactionCode);
             return transaction;
             
         } catch (Exception e) {
@@ -299,34 +428,91 @@ public class BankingService implements IBankingService {
     }
     
     // Transaction History
+    // Served from the ledger: one range scan on (account_id, entry_sequence) for the latest
+    // postings, then a primary key lookup of their transactions in the partitions they were posted in.
     public List<Transaction> getTransactionHistory(UUID accountId) {
-        return transactionRepository.findByAccountId(accountId);
+        List<UUID> transactionIds = new ArrayList<>();
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        for (AccountLedgerEntry entry : ledgerService.getHistory(accountId, null, historyLimit)) {
+            if (entry.getTransactionId() == null) {
+                continue;
+            }
+            transactionIds.add(entry.getTransactionId());
+            from = from == null || entry.getPostedAt().isBefore(from) ? entry.getPostedAt() : from;
+            to = to == null || entry.getPostedAt().isAfter(to) ? entry.getPostedAt() : to;
+        }
+        if (transactionIds.isEmpty()) {
+            return List.of();
+        }
+        
+        // created_at is stamped in the posting transaction, within its 30s timeout of posted_at
+        Map<UUID, Transaction> byId = new HashMap<>();
+        for (Transaction transaction : transactionRepository.findByTransactionIdsWithin(
+                transactionIds, from.minusHours(1), to.plusHours(1))) {
+            byId.put(transaction.getTransactionId(), transaction);
+        }
+        List<Transaction> history = new ArrayList<>(transactionIds.size());
+        for (UUID transactionId : transactionIds) {
+            Transaction transaction = byId.get(transactionId);
+            if (transaction != null) {
+                history.add(transaction);
+            }
+        }
+        return history;
     }
     
     public Optional<Transaction> getTransactionByCode(String transactionCode) {
-        return transactionRepository.findByTransactionCode(transactionCode);
+        return transactionRepository.findByTransactionCodeWithinPartition(transactionCode);
     }
     
     public List<Transaction> getTransactionsByStatus(Transaction.TransactionStatus status) {
-        return transactionRepository.findByStatus(status);
+        // Bounded to recent partitions; status lookups are operational (pending/failed work)
+        return transactionRepository.findByStatusSince(status, LocalDateTime.now().minusMonths(queryLookbackMonths));
     }
     
     // Utility Methods
-    private String generateTransactionCode() {
-        return "TXN" + System.currentTimeMillis() + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    String generateTransactionCode() {
+        return transactionCodeGenerator.nextCode();
     }
     
     // Account Balance (Read Operations - No Lock Needed)
+    // Served from the balance cache, normally within local-ttl-ms of the last posting and never
+    // older than banking.balance-cache.redis-ttl-seconds. SUPPORTS: a cache hit opens no
+    // transaction and checks out no connection; a miss reads through the repository's own.
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public BigDecimal getAccountBalance(UUID accountId) {
-        Account account = accountRepository.findById(accountId)
-            .orElseThrow(() -> new AccountNotFoundException("Account not found"));
-        return account.getBalance();
+        return getAccountBalance(accountId, false);
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public BigDecimal getAccountBalance(UUID accountId, boolean consistentRead) {
+        return readBalance(accountId, consistentRead).getBalance();
     }
     
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public BigDecimal getAvailableBalance(UUID accountId) {
+        return getAvailableBalance(accountId, false);
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public BigDecimal getAvailableBalance(UUID accountId, boolean consistentRead) {
+        return readBalance(accountId, consistentRead).getAvailableBalance();
+    }
+    
+    private AccountBalanceCache.Snapshot readBalance(UUID accountId, boolean consistentRead) {
+        if (!consistentRead) {
+            AccountBalanceCache.Snapshot cached = balanceCache.get(accountId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        // Latest committed row; MVCC needs no lock for a plain read
         Account account = accountRepository.findById(accountId)
             .orElseThrow(() -> new AccountNotFoundException("Account not found"));
-        return account.getAvailableBalance();
+        AccountBalanceCache.Snapshot snapshot = AccountBalanceCache.Snapshot.of(account);
+        balanceCache.put(snapshot);
+        return snapshot;
     }
     
     // Read Operations with Pessimistic Read Lock (for consistency)
@@ -8,6 +8,7 @@ import com.minibanking.blockchain.TransactionEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,6 +33,9 @@ public class BlockchainService {
     @Autowired
     private IMerkleService merkleService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     private static final String GENESIS_PREVIOUS_HASH = "0";
     private static final int BLOCK_SIZE_LIMIT = 1000; // Maximum transactions per block
     private static final int MINING_DIFFICULTY = 4; // Number of leading zeros required
@@ -68,6 +72,7 @@ public class BlockchainService {
 
             // Save block to database
             Block savedBlock = blockRepository.save(block);
+            eventPublisher.publishEvent(new ValidatorStatisticsCache.BlockCreatedEvent(blockNumber));
 
             logger.info("Created block {} with hash: {}", blockNumber, savedBlock.getBlockId());
             return savedBlock;
@@ -0,0 +1,285 @@
+package com.minibanking.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.UUID;
+
+/**
+ * Explorer Stream Service
+ *
+ * Keyset-paginated block and transaction explorer queries. Rows are read from a
+ * server-side JDBC cursor and written straight to the response as JSON, so a page
+ * never exists as a list of entities in memory and every page costs one index
+ * range scan no matter how deep into the history it is.
+ *
+ * Response shape: {"items": [...], "count": n, "nextAfter": cursor-or-null}
+ */
+@Service
+public class ExplorerStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExplorerStreamService.class);
+
+    private static final String BLOCKS_AFTER_SQL =
+            "SELECT block_id, block_number, block_hash, previous_hash, merkle_root, nonce, difficulty, " +
+            "transaction_count, timestamp, size_bytes, status " +
+            "FROM blocks WHERE block_number > ? ORDER BY block_number LIMIT ?";
+
+    private static final String TRANSACTION_COLUMNS =
+            "transaction_id, transaction_code, from_account_id, to_account_id, amount, currency, " +
+            "transaction_type, description, status, created_at, processed_at, block_id, " +
+            "transaction_hash, is_confirmed";
+
+    // Newest first. Each branch is a range scan on its own (account, created_at, id) index;
+    // the OR form of findByAccountId can't use either index for ordering.
+    private static final String ACCOUNT_TRANSACTIONS_BEFORE_SQL =
+            "SELECT " + TRANSACTION_COLUMNS + " FROM (" +
+            "(SELECT " + TRANSACTION_COLUMNS + " FROM transactions " +
+            " WHERE from_account_id = ? AND (created_at, transaction_id) < (?, ?) " +
+            " ORDER BY created_at DESC, transaction_id DESC LIMIT ?) " +
+            "UNION ALL " +
+            "(SELECT " + TRANSACTION_COLUMNS + " FROM transactions " +
+            " WHERE to_account_id = ? AND from_account_id IS DISTINCT FROM ? " +
+            " AND (created_at, transaction_id) < (?, ?) " +
+            " ORDER BY created_at DESC, transaction_id DESC LIMIT ?)" +
+            ") t ORDER BY created_at DESC, transaction_id DESC LIMIT ?";
+
+    // Upper bound used when the client starts from the newest transaction
+    private static final UUID MAX_UUID = new UUID(-1L, -1L);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${explorer.stream.fetch-size:500}")
+    private int fetchSize;
+
+    @Value("${explorer.stream.default-limit:100}")
+    private int defaultLimit;
+
+    @Value("${explorer.stream.max-limit:10000}")
+    private int maxLimit;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+
+        // PostgreSQL only honours the fetch size (cursor mode) inside a transaction
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Clamp a requested page size to the configured bounds
+     */
+    public int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return defaultLimit;
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return Math.min(limit, maxLimit);
+    }
+
+    /**
+     * Stream blocks with block number greater than the cursor, oldest first
+     */
+    public void streamBlocks(long afterBlockNumber, int limit, OutputStream out) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+                json.writeStartObject();
+                json.writeArrayFieldStart("items");
+
+                long[] last = {-1L};
+                int[] count = {0};
+                jdbcTemplate.query(BLOCKS_AFTER_SQL, (RowCallbackHandler) rs -> {
+                    last[0] = rs.getLong("block_number");
+                    writeBlock(json, rs);
+                    count[0]++;
+                }, afterBlockNumber, limit);
+
+                json.writeEndArray();
+                json.writeNumberField("count", count[0]);
+                if (count[0] == limit) {
+                    json.writeStringField("nextAfter", Long.toString(last[0]));
+                } else {
+                    json.writeNullField("nextAfter");
+                }
+                json.writeEndObject();
+
+                logger.debug("Streamed {} blocks after {}", count[0], afterBlockNumber);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Stream an account's transactions older than the cursor, newest first
+     */
+    public void streamAccountTransactions(UUID accountId, TransactionCursor after, int limit, OutputStream out) {
+        Timestamp beforeCreatedAt = after != null
+                ? Timestamp.valueOf(after.getCreatedAt())
+                : Timestamp.valueOf(LocalDateTime.of(9999, 12, 31, 23, 59, 59));
+        UUID beforeId = after != null ? after.getTransactionId() : MAX_UUID;
+
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+                json.writeStartObject();
+                json.writeArrayFieldStart("items");
+
+                TransactionCursor[] last = {null};
+                int[] count = {0};
+                jdbcTemplate.query(ACCOUNT_TRANSACTIONS_BEFORE_SQL, (RowCallbackHandler) rs -> {
+                    last[0] = new TransactionCursor(
+                            rs.getTimestamp("created_at").toLocalDateTime(),
+                            rs.getObject("transaction_id", UUID.class));
+                    writeTransaction(json, rs);
+                    count[0]++;
+                }, accountId, beforeCreatedAt, beforeId, limit,
+                   accountId, accountId, beforeCreatedAt, beforeId, limit,
+                   limit);
+
+                json.writeEndArray();
+                json.writeNumberField("count", count[0]);
+                if (count[0] == limit) {
+                    json.writeStringField("nextAfter", last[0].toString());
+                } else {
+                    json.writeNullField("nextAfter");
+                }
+                json.writeEndObject();
+
+                logger.debug("Streamed {} transactions for account {}", count[0], accountId);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeBlock(JsonGenerator json, ResultSet rs) throws SQLException {
+        try {
+            json.writeStartObject();
+            json.writeStringField("blockId", rs.getString("block_id"));
+            json.writeNumberField("blockNumber", rs.getLong("block_number"));
+            json.writeStringField("blockHash", rs.getString("block_hash"));
+            json.writeStringField("previousHash", rs.getString("previous_hash"));
+            json.writeStringField("merkleRoot", rs.getString("merkle_root"));
+            json.writeNumberField("nonce", rs.getLong("nonce"));
+            json.writeNumberField("difficulty", rs.getInt("difficulty"));
+            json.writeNumberField("transactionCount", rs.getInt("transaction_count"));
+            writeTimestamp(json, "timestamp", rs.getTimestamp("timestamp"));
+            json.writeNumberField("sizeBytes", rs.getLong("size_bytes"));
+            json.writeStringField("status", rs.getString("status"));
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeTransaction(JsonGenerator json, ResultSet rs) throws SQLException {
+        try {
+            json.writeStartObject();
+            json.writeStringField("transactionId", rs.getString("transaction_id"));
+            json.writeStringField("transactionCode", rs.getString("transaction_code"));
+            json.writeStringField("fromAccountId", rs.getString("from_account_id"));
+            json.writeStringField("toAccountId", rs.getString("to_account_id"));
+            BigDecimal amount = rs.getBigDecimal("amount");
+            if (amount != null) {
+                json.writeNumberField("amount", amount);
+            } else {
+                json.writeNullField("amount");
+            }
+            json.writeStringField("currency", rs.getString("currency"));
+            json.writeStringField("transactionType", rs.getString("transaction_type"));
+            json.writeStringField("description", rs.getString("description"));
+            json.writeStringField("status", rs.getString("status"));
+            writeTimestamp(json, "createdAt", rs.getTimestamp("created_at"));
+            writeTimestamp(json, "processedAt", rs.getTimestamp("processed_at"));
+            json.writeStringField("blockId", rs.getString("block_id"));
+            json.writeStringField("transactionHash", rs.getString("transaction_hash"));
+            json.writeBooleanField("isConfirmed", rs.getBoolean("is_confirmed"));
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeTimestamp(JsonGenerator json, String field, Timestamp value) throws IOException {
+        if (value != null) {
+            json.writeStringField(field, value.toLocalDateTime().toString());
+        } else {
+            json.writeNullField(field);
+        }
+    }
+
+    /**
+     * Keyset cursor for transaction history: "createdAt,transactionId"
+     */
+    public static class TransactionCursor {
+        private final LocalDateTime createdAt;
+        private final UUID transactionId;
+
+        public TransactionCursor(LocalDateTime createdAt, UUID transactionId) {
+            this.createdAt = createdAt;
+            this.transactionId = transactionId;
+        }
+
+        public static TransactionCursor parse(String value) {
+            int separator = value.lastIndexOf(',');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Cursor must be 'createdAt,transactionId'");
+            }
+            try {
+                return new TransactionCursor(
+                        LocalDateTime.parse(value.substring(0, separator)),
+                        UUID.fromString(value.substring(separator + 1)));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor timestamp: " + value);
+            }
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        public UUID getTransactionId() {
+            return transactionId;
+        }
+
+        @Override
+        public String toString() {
+            return createdAt + "," + transactionId;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.minibanking.service;
+
+import com.minibanking.repository.DeviceRepository;
+import com.minibanking.repository.SessionRepository;
+import com.minibanking.security.device.DeviceTrustCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
+
+/**
+ * Housekeeping Service
+ *
+ * Removes expired and inactive sessions and retires inactive devices with
+ * set-based deletes in bounded LIMIT batches, so each statement holds row locks
+ * only briefly. Each job reports rows and rows/sec.
+ *
+ * Runs under a PostgreSQL advisory lock, so only one node (the current lock
+ * holder) performs housekeeping at a time.
+ */
+@Service
+public class HousekeepingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HousekeepingService.class);
+
+    private static final long HOUSEKEEPING_LOCK_KEY = 0x686F757365L; // "house"
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private DeviceTrustCache deviceTrustCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${banking.housekeeping.enabled:true}")
+    private boolean enabled;
+
+    @Value("${banking.housekeeping.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${banking.housekeeping.max-batches-per-job:1000}")
+    private int maxBatchesPerJob;
+
+    @Value("${banking.housekeeping.batch-pause-ms:20}")
+    private long batchPauseMs;
+
+    @Value("${banking.housekeeping.session-inactive-days:30}")
+    private int sessionInactiveDays;
+
+    @Value("${banking.housekeeping.device-inactive-days:90}")
+    private int deviceInactiveDays;
+
+    @Value("${banking.housekeeping.device-retention-days:365}")
+    private int deviceRetentionDays;
+
+    private final Map<String, JobResult> lastResults = new ConcurrentHashMap<>();
+
+    /**
+     * Run every housekeeping job if this node holds the housekeeping lock
+     */
+    @Scheduled(cron = "${banking.housekeeping.cron:0 15 * * * *}")
+    public void runHousekeeping() {
+        if (!enabled) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            if (!tryLock(connection)) {
+                logger.debug("Housekeeping is running on another node");
+                return null;
+            }
+            try {
+                runJobs();
+            } finally {
+                unlock(connection);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Results of the last run of each job
+     */
+    public Map<String, JobResult> getLastResults() {
+        return Map.copyOf(lastResults);
+    }
+
+    private void runJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime sessionCutoff = now.minusDays(sessionInactiveDays);
+        LocalDateTime deviceCutoff = now.minusDays(deviceInactiveDays);
+        LocalDateTime deviceRetentionCutoff = now.minusDays(deviceRetentionDays);
+
+        run("expired-sessions", () -> sessionRepository.deleteExpiredSessionsBatch(now, batchSize));
+        run("inactive-sessions", () -> sessionRepository.deleteInactiveSessionsBatch(sessionCutoff, batchSize));
+
+        JobResult deactivated = run("inactive-devices",
+                () -> deviceRepository.deactivateInactiveDevicesBatch(deviceCutoff, batchSize));
+        if (deactivated.getRows() > 0) {
+            deviceTrustCache.invalidateAll();
+        }
+        run("retired-devices", () -> deviceRepository.deleteInactiveDevicesBatch(deviceRetentionCutoff, batchSize));
+    }
+
+    private JobResult run(String job, IntSupplier batch) {
+        try {
+            JobResult result = runChunked(job, batch, batchSize, maxBatchesPerJob, batchPauseMs);
+            lastResults.put(job, result);
+            rowsCounter(job).increment(result.getRows());
+            logger.info("Housekeeping {}: {} rows in {} batches, {} ms ({} rows/sec)",
+                    job, result.getRows(), result.getBatches(), result.getElapsedMillis(),
+                    String.format("%.0f", result.getRowsPerSecond()));
+            return result;
+        } catch (Exception e) {
+            logger.error("Housekeeping {} failed: {}", job, e.getMessage());
+            return new JobResult(job, 0, 0, 0);
+        }
+    }
+
+    /**
+     * Repeat a batch until it affects fewer rows than batchSize (or maxBatches is reached)
+     */
+    static JobResult runChunked(String job, IntSupplier batch, int batchSize, int maxBatches, long pauseMs) {
+        long start = System.nanoTime();
+        long rows = 0;
+        int batches = 0;
+        while (batches < maxBatches) {
+            int affected = batch.getAsInt();
+            rows += affected;
+            batches++;
+            if (affected < batchSize) {
+                break;
+            }
+            if (pauseMs > 0) {
+                try {
+                    // Give concurrent writers a gap between batches
+                    Thread.sleep(pauseMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        return new JobResult(job, rows, batches, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private Counter rowsCounter(String job) {
+        return Counter.builder("housekeeping.rows")
+                .description("Rows removed or retired by housekeeping jobs")
+                .tag("job", job)
+                .register(meterRegistry);
+    }
+
+    private boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            statement.setLong(1, HOUSEKEEPING_LOCK_KEY);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private void unlock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            statement.setLong(1, HOUSEKEEPING_LOCK_KEY);
+            statement.execute();
+        }
+    }
+
+    /**
+     * Outcome of one housekeeping job
+     */
+    public static class JobResult {
+        private final String job;
+        private final long rows;
+        private final int batches;
+        private final long elapsedMillis;
+
+        public JobResult(String job, long rows, int batches, long elapsedMillis) {
+            this.job = job;
+            this.rows = rows;
+            this.batches = batches;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public String getJob() { return job; }
+        public long getRows() { return rows; }
+        public int getBatches() { return batches; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        public double getRowsPerSecond() {
+            return elapsedMillis > 0 ? rows * 1000.0 / elapsedMillis : rows;
+        }
+    }
+}
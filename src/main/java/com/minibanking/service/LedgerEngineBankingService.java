@@ -0,0 +1,127 @@
+package com.minibanking.service;
+
+import com.minibanking.engine.AccountState;
+import com.minibanking.engine.JournalRecord;
+import com.minibanking.engine.LedgerEngine;
+import com.minibanking.entity.Account;
+import com.minibanking.entity.Transaction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Banking Service backed by the in-memory ledger engine
+ *
+ * Used when banking.service.type=engine. Transfers, deposits, withdrawals and
+ * balance reads go through LedgerEngine and return once the posting is journaled;
+ * transaction history and ledger queries read the PostgreSQL projection, which
+ * trails the engine by the projection lag. Everything else is the standard service.
+ */
+public class LedgerEngineBankingService extends BankingService {
+
+    @Autowired
+    private LedgerEngine ledgerEngine;
+
+    @Value("${banking.engine.timeout-ms:5000}")
+    private long timeoutMs;
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Transaction transferMoney(UUID fromAccountId, UUID toAccountId, BigDecimal amount, String description) {
+        return toTransaction(await(ledgerEngine.transfer(fromAccountId, toAccountId,
+                LedgerEngine.toMinorUnits(amount), generateTransactionCode(), description)));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Transaction deposit(UUID accountId, BigDecimal amount, String description) {
+        return toTransaction(await(ledgerEngine.deposit(accountId,
+                LedgerEngine.toMinorUnits(amount), generateTransactionCode(), description)));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Transaction withdraw(UUID accountId, BigDecimal amount, String description) {
+        return toTransaction(await(ledgerEngine.withdraw(accountId,
+                LedgerEngine.toMinorUnits(amount), generateTransactionCode(), description)));
+    }
+
+    // The engine is authoritative and current, so every read is consistent
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BigDecimal getAccountBalance(UUID accountId, boolean consistentRead) {
+        return LedgerEngine.fromMinorUnits(ledgerEngine.getAccount(accountId).getBalance());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BigDecimal getAvailableBalance(UUID accountId, boolean consistentRead) {
+        return LedgerEngine.fromMinorUnits(ledgerEngine.getAccount(accountId).getAvailableBalance());
+    }
+
+    @Override
+    public Account updateAccount(Account account) {
+        Account updated = super.updateAccount(account);
+        ledgerEngine.updateStatus(updated.getAccountId(), updated.getStatus());
+        return updated;
+    }
+
+    private JournalRecord await(CompletableFuture<JournalRecord> future) {
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Ledger engine posting failed", e.getCause());
+        } catch (TimeoutException e) {
+            // Still queued or being journaled; the outcome is visible in the account ledger once projected
+            throw new RuntimeException("Ledger engine did not confirm the posting within " + timeoutMs + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the ledger engine", e);
+        }
+    }
+
+    private Transaction toTransaction(JournalRecord record) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(record.getTransactionId());
+        transaction.setTransactionCode(record.getTransactionCode());
+        transaction.setAmount(LedgerEngine.fromMinorUnits(record.getAmountMinor()));
+        transaction.setTransactionType(Transaction.TransactionType.valueOf(record.getType().name()));
+        transaction.setDescription(record.getDescription());
+        if (record.getFromAccountId() != null) {
+            transaction.setFromAccount(toAccount(ledgerEngine.getAccount(record.getFromAccountId())));
+        }
+        if (record.getToAccountId() != null) {
+            transaction.setToAccount(toAccount(ledgerEngine.getAccount(record.getToAccountId())));
+        }
+        transaction.markAsCompleted();
+        LocalDateTime postedAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(record.getTimestampMillis()), ZoneId.systemDefault());
+        transaction.setCreatedAt(postedAt);
+        transaction.setProcessedAt(postedAt);
+        return transaction;
+    }
+
+    private static Account toAccount(AccountState state) {
+        Account account = new Account();
+        account.setAccountId(state.getAccountId());
+        account.setAccountNumber(state.getAccountNumber());
+        account.setCurrency(state.getCurrency());
+        account.setStatus(state.getStatus());
+        account.setBalance(LedgerEngine.fromMinorUnits(state.getBalance()));
+        account.setAvailableBalance(LedgerEngine.fromMinorUnits(state.getAvailableBalance()));
+        return account;
+    }
+}
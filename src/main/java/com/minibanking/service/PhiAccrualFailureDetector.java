@@ -0,0 +1,129 @@
+package com.minibanking.service;
+
+/**
+ * Phi Accrual Failure Detector (Hayashibara et al.)
+ *
+ * Instead of a fixed online/offline window, it keeps a sliding window of
+ * heartbeat inter-arrival times and reports a suspicion level (phi) that grows
+ * continuously the longer a heartbeat is overdue. phi = 1 means ~10% chance the
+ * node is still alive, phi = 2 ~1%, phi = 3 ~0.1%, and so on.
+ *
+ * One instance tracks a single validator.
+ */
+public class PhiAccrualFailureDetector {
+
+    private final double threshold;
+    private final int maxSampleSize;
+    private final double minStdDeviationMs;
+    private final long acceptableHeartbeatPauseMs;
+
+    // Ring buffer of inter-arrival intervals
+    private final long[] intervals;
+    private int intervalCount = 0;
+    private int nextIndex = 0;
+    private double intervalSum = 0;
+    private double intervalSquaredSum = 0;
+
+    private long lastHeartbeatMs = -1;
+
+    public PhiAccrualFailureDetector(double threshold, int maxSampleSize, double minStdDeviationMs,
+                                     long acceptableHeartbeatPauseMs, long firstHeartbeatEstimateMs) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("Threshold must be > 0");
+        }
+        if (maxSampleSize <= 0) {
+            throw new IllegalArgumentException("Sample size must be > 0");
+        }
+        if (minStdDeviationMs <= 0) {
+            throw new IllegalArgumentException("Minimum standard deviation must be > 0");
+        }
+
+        this.threshold = threshold;
+        this.maxSampleSize = maxSampleSize;
+        this.minStdDeviationMs = minStdDeviationMs;
+        this.acceptableHeartbeatPauseMs = acceptableHeartbeatPauseMs;
+        this.intervals = new long[maxSampleSize];
+
+        // Bootstrap with a guessed interval so the first real heartbeat yields a usable estimate
+        long stdDeviation = firstHeartbeatEstimateMs / 4;
+        addInterval(firstHeartbeatEstimateMs - stdDeviation);
+        addInterval(firstHeartbeatEstimateMs + stdDeviation);
+    }
+
+    /**
+     * Record a heartbeat arrival
+     */
+    public synchronized void heartbeat(long nowMs) {
+        if (lastHeartbeatMs >= 0) {
+            long interval = nowMs - lastHeartbeatMs;
+            if (interval > 0) {
+                addInterval(interval);
+            }
+        }
+        lastHeartbeatMs = nowMs;
+    }
+
+    /**
+     * Current suspicion level; 0 until the first heartbeat has been seen
+     */
+    public synchronized double phi(long nowMs) {
+        if (lastHeartbeatMs < 0) {
+            return 0.0;
+        }
+
+        long timeDiff = nowMs - lastHeartbeatMs;
+        double mean = intervalSum / intervalCount + acceptableHeartbeatPauseMs;
+        double variance = intervalSquaredSum / intervalCount - Math.pow(intervalSum / intervalCount, 2);
+        double stdDeviation = Math.max(Math.sqrt(Math.max(variance, 0)), minStdDeviationMs);
+
+        return phi(timeDiff, mean, stdDeviation);
+    }
+
+    /**
+     * Whether the monitored node should still be considered alive
+     */
+    public boolean isAvailable(long nowMs) {
+        return phi(nowMs) < threshold;
+    }
+
+    /**
+     * Whether at least one heartbeat has been received
+     */
+    public synchronized boolean isMonitoring() {
+        return lastHeartbeatMs >= 0;
+    }
+
+    public synchronized long getLastHeartbeatMs() {
+        return lastHeartbeatMs;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Logistic approximation of the normal cumulative distribution, as used by Akka/Cassandra
+     */
+    static double phi(long timeDiff, double mean, double stdDeviation) {
+        double y = (timeDiff - mean) / stdDeviation;
+        double e = Math.exp(-y * (1.5976 + 0.070566 * y * y));
+        if (timeDiff > mean) {
+            return -Math.log10(e / (1.0 + e));
+        }
+        return -Math.log10(1.0 - 1.0 / (1.0 + e));
+    }
+
+    private void addInterval(long interval) {
+        if (intervalCount == maxSampleSize) {
+            long evicted = intervals[nextIndex];
+            intervalSum -= evicted;
+            intervalSquaredSum -= (double) evicted * evicted;
+        } else {
+            intervalCount++;
+        }
+        intervals[nextIndex] = interval;
+        intervalSum += interval;
+        intervalSquaredSum += (double) interval * interval;
+        nextIndex = (nextIndex + 1) % maxSampleSize;
+    }
+}
@@ -10,6 +10,7 @@ import com.minibanking.interfaces.IMerkleService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -43,10 +44,20 @@ public class ProofOfAuthorityService {
     @Autowired
     private IMerkleService merkleService;
 
+    @Autowired
+    private ValidatorStatisticsCache statisticsCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ValidatorFailoverService failoverService;
+
     private static final String GENESIS_PREVIOUS_HASH = "0";
 
     /**
-     * Select the authorized validator with highest priority
+     * Select the current leader among authorized validators
+     * Leadership is driven by the phi-accrual failure detector; suspected validators are skipped
      */
     public Validator selectAuthorizedValidator() {
         List<Validator> authorizedValidators = validatorRepository.findAuthorizedValidatorsOrderByPriority();
@@ -55,19 +66,13 @@ public class ProofOfAuthorityService {
             throw new RuntimeException("No authorized validators available");
         }
 
-        // Select validator with highest priority that can create blocks
-        for (Validator validator : authorizedValidators) {
-            if (validator.canCreateBlock() && validator.isOnline()) {
-                logger.info("Selected validator: {} with priority: {}",
-                        validator.getValidatorName(), validator.getPriority());
-                return validator;
-            }
+        Validator leader = failoverService.resolveLeader(authorizedValidators);
+        if (leader == null) {
+            throw new RuntimeException("No available validators: all authorized validators are suspected");
         }
 
-        // If no online validators, select the first authorized one
-        Validator fallbackValidator = authorizedValidators.get(0);
-        logger.warn("No online validators found, using fallback: {}", fallbackValidator.getValidatorName());
-        return fallbackValidator;
+        logger.debug("Selected validator: {} with priority: {}", leader.getValidatorName(), leader.getPriority());
+        return leader;
     }
 
     /**
@@ -113,6 +118,9 @@ public class ProofOfAuthorityService {
             validator.incrementBlocksCreated();
             validatorRepository.save(validator);
 
+            eventPublisher.publishEvent(new ValidatorStatisticsCache.BlockCreatedEvent(block.getBlockNumber()));
+            eventPublisher.publishEvent(new ValidatorStatisticsCache.ValidatorChangedEvent(validator));
+
             logger.info("Block created successfully: {} by validator: {}",
                     block.getBlockNumber(), validator.getValidatorName());
 
@@ -174,25 +182,30 @@ public class ProofOfAuthorityService {
 
     /**
      * Get PoA statistics
+     * Served from the in-memory statistics cache; COUNT/LIMIT queries are only a fallback
      */
+    @Transactional(readOnly = true)
     public PoAStatistics getPoAStatistics() {
         PoAStatistics stats = new PoAStatistics();
+        LocalDateTime threshold = LocalDateTime.now().minusMinutes(5);
+
+        if (statisticsCache.isInitialized()) {
+            stats.setTotalValidators(statisticsCache.getTotalValidators());
+            stats.setAuthorizedValidators(statisticsCache.getAuthorizedValidators());
+            stats.setActiveValidators(statisticsCache.getActiveValidators());
+            stats.setOnlineValidators(statisticsCache.getOnlineValidators(threshold));
+            stats.setTotalBlocks(statisticsCache.getTotalBlocks());
+            stats.setTopValidators(statisticsCache.getTopValidatorsByBlocksCreated(5));
+            return stats;
+        }
 
-        // Count validators
+        // Fallback: aggregate queries only, never full-table entity loads
         stats.setTotalValidators(validatorRepository.count());
         stats.setAuthorizedValidators(validatorRepository.countAuthorizedValidators());
-        stats.setActiveValidators(validatorRepository.findByIsActiveTrue().size());
-
-        // Count online validators
-        LocalDateTime threshold = LocalDateTime.now().minusMinutes(5);
-        stats.setOnlineValidators(validatorRepository.findOnlineValidators(threshold).size());
-
-        // Count blocks
+        stats.setActiveValidators((int) validatorRepository.countByIsActiveTrue());
+        stats.setOnlineValidators((int) validatorRepository.countOnlineValidators(threshold));
         stats.setTotalBlocks(blockRepository.countTotalBlocks());
-
-        // Get top validators by blocks created
-        List<Validator> topValidators = validatorRepository.findValidatorsByBlocksCreated();
-        stats.setTopValidators(topValidators.subList(0, Math.min(5, topValidators.size())));
+        stats.setTopValidators(validatorRepository.findTop5ByOrderByBlocksCreatedDesc());
 
         return stats;
     }
@@ -0,0 +1,275 @@
+package com.minibanking.service;
+
+import com.minibanking.blockchain.TransactionEvent;
+import com.minibanking.blockchain.TransactionStreamProducer;
+import com.minibanking.entity.Account;
+import com.minibanking.entity.AccountLedgerEntry;
+import com.minibanking.entity.Money;
+import com.minibanking.entity.Transaction;
+import com.minibanking.exception.AccountNotFoundException;
+import com.minibanking.exception.InsufficientFundsException;
+import com.minibanking.security.logging.SecureLoggingService;
+import io.r2dbc.spi.Readable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Reactive Banking Service
+ *
+ * Non-blocking transfer and balance reads over R2DBC and reactive Redis, enabled
+ * with banking.service.type=reactive. A transfer follows BankingService.transferMoney
+ * step for step: both account rows are locked with SELECT ... FOR UPDATE (from, then
+ * to, the same order as the blocking path so the two can run against one database),
+ * balances, the transaction row and both ledger entries are written in one R2DBC
+ * transaction, and the stream event is published after commit.
+ */
+public class ReactiveBankingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveBankingService.class);
+
+    private static final String LOCK_ACCOUNT_SQL =
+            "SELECT account_id, account_number, status, currency, balance, available_balance, ledger_sequence " +
+            "FROM accounts WHERE account_id = :accountId FOR UPDATE";
+
+    private static final String UPDATE_ACCOUNT_SQL =
+            "UPDATE accounts SET balance = :balance, available_balance = :availableBalance, " +
+            "last_transaction_date = :lastTransactionDate, ledger_sequence = :ledgerSequence, updated_at = :updatedAt, " +
+            "version = version + 1 " + // invalidates concurrent optimistic readers on the blocking path
+            "WHERE account_id = :accountId";
+
+    private static final String INSERT_TRANSACTION_SQL =
+            "INSERT INTO transactions (transaction_code, from_account_id, to_account_id, amount, currency, " +
+            "transaction_type, description, status, processed_at, created_at, updated_at) " +
+            "VALUES (:transactionCode, :fromAccountId, :toAccountId, :amount, :currency, " +
+            ":transactionType, :description, :status, :processedAt, :createdAt, :updatedAt) " +
+            "RETURNING transaction_id";
+
+    private static final String INSERT_LEDGER_ENTRY_SQL =
+            "INSERT INTO account_ledger_entries (account_id, entry_sequence, transaction_id, transaction_code, " +
+            "counterparty_account_id, entry_type, amount, balance_after, description, posted_at) " +
+            "VALUES (:accountId, :entrySequence, :transactionId, :transactionCode, " +
+            ":counterpartyAccountId, :entryType, :amount, :balanceAfter, :description, :postedAt)";
+
+    private static final String BALANCE_SQL =
+            "SELECT balance, available_balance FROM accounts WHERE account_id = :accountId";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    @Autowired
+    private ReactiveRedisTemplate<String, Object> reactiveRedisTemplate;
+
+    @Autowired
+    private SecureLoggingService secureLoggingService;
+
+    @Autowired
+    private AccountBalanceCache balanceCache;
+
+    @Autowired
+    private TransactionCodeGenerator transactionCodeGenerator;
+
+    /**
+     * Transfer money between accounts
+     * Errors: AccountNotFoundException, IllegalStateException (inactive account), InsufficientFundsException
+     */
+    public Mono<Transaction> transferMoney(UUID fromAccountId, UUID toAccountId, BigDecimal amount, String description) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Processing reactive transfer: {} from {} to {}", amount, fromAccountId, toAccountId);
+        }
+
+        Mono<Transaction> posting = lockAccount(fromAccountId, "From account not found")
+                .flatMap(fromAccount -> lockAccount(toAccountId, "To account not found")
+                        .flatMap(toAccount -> post(fromAccount, toAccount, amount, description)))
+                .as(transactionalOperator::transactional);
+
+        return posting
+                .doOnNext(this::updateBalanceCache)
+                .flatMap(transaction -> publishEvent(transaction).thenReturn(transaction))
+                .doOnSuccess(transaction -> {
+                    secureLoggingService.logTransfer(
+                            transaction.getFromAccount().getAccountNumber(),
+                            transaction.getToAccount().getAccountNumber(),
+                            amount,
+                            description,
+                            "SUCCESS");
+                    logger.debug("Reactive transfer completed successfully: {}", transaction.getTransactionCode());
+                })
+                .doOnError(e -> secureLoggingService.logError("Transfer", e.getMessage(),
+                        String.valueOf(fromAccountId), String.valueOf(toAccountId), String.valueOf(amount)));
+    }
+
+    public Mono<BigDecimal> getAccountBalance(UUID accountId) {
+        return readBalance(accountId, "balance");
+    }
+
+    public Mono<BigDecimal> getAvailableBalance(UUID accountId) {
+        return readBalance(accountId, "available_balance");
+    }
+
+    private Mono<Transaction> post(Account fromAccount, Account toAccount, BigDecimal amount, String description) {
+        // Validate accounts
+        if (!Account.AccountStatus.ACTIVE.equals(fromAccount.getStatus())) {
+            return Mono.error(new IllegalStateException("From account is not active"));
+        }
+        if (!Account.AccountStatus.ACTIVE.equals(toAccount.getStatus())) {
+            return Mono.error(new IllegalStateException("To account is not active"));
+        }
+        Money posted = Money.of(amount);
+        if (!fromAccount.hasSufficientBalance(posted)) {
+            return Mono.error(new InsufficientFundsException("Insufficient balance in from account"));
+        }
+
+        Transaction transaction = new Transaction();
+        transaction.setTransactionCode(transactionCodeGenerator.nextCode());
+        transaction.setFromAccount(fromAccount);
+        transaction.setToAccount(toAccount);
+        transaction.setAmount(amount);
+        transaction.setTransactionType(Transaction.TransactionType.TRANSFER);
+        transaction.setDescription(description);
+
+        fromAccount.debit(posted);
+        toAccount.credit(posted);
+        transaction.markAsCompleted();
+        transaction.setCreatedAt(transaction.getProcessedAt());
+        transaction.setUpdatedAt(transaction.getProcessedAt());
+
+        return insertTransaction(transaction).flatMap(transactionId -> {
+            transaction.setTransactionId(transactionId);
+            // Creating the entries advances each account's ledger sequence before the account rows are written
+            AccountLedgerEntry debit = ledgerEntry(fromAccount, AccountLedgerEntry.EntryType.DEBIT, amount, transaction, toAccount);
+            AccountLedgerEntry credit = ledgerEntry(toAccount, AccountLedgerEntry.EntryType.CREDIT, amount, transaction, fromAccount);
+            return updateAccount(fromAccount)
+                    .then(updateAccount(toAccount))
+                    .then(insertLedgerEntry(debit))
+                    .then(insertLedgerEntry(credit))
+                    .thenReturn(transaction);
+        });
+    }
+
+    private Mono<Account> lockAccount(UUID accountId, String notFoundMessage) {
+        return databaseClient.sql(LOCK_ACCOUNT_SQL)
+                .bind("accountId", accountId)
+                .map(ReactiveBankingService::toAccount)
+                .one()
+                .switchIfEmpty(Mono.error(() -> new AccountNotFoundException(notFoundMessage)));
+    }
+
+    private Mono<Long> updateAccount(Account account) {
+        return databaseClient.sql(UPDATE_ACCOUNT_SQL)
+                .bind("balance", account.getBalance())
+                .bind("availableBalance", account.getAvailableBalance())
+                .bind("lastTransactionDate", account.getLastTransactionDate())
+                .bind("ledgerSequence", account.getLedgerSequence())
+                .bind("updatedAt", LocalDateTime.now())
+                .bind("accountId", account.getAccountId())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private Mono<UUID> insertTransaction(Transaction transaction) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(INSERT_TRANSACTION_SQL)
+                .bind("transactionCode", transaction.getTransactionCode())
+                .bind("fromAccountId", transaction.getFromAccount().getAccountId())
+                .bind("toAccountId", transaction.getToAccount().getAccountId())
+                .bind("amount", transaction.getAmount())
+                .bind("currency", transaction.getCurrency())
+                .bind("transactionType", transaction.getTransactionType().name())
+                .bind("status", transaction.getStatus().name())
+                .bind("processedAt", transaction.getProcessedAt())
+                .bind("createdAt", transaction.getCreatedAt())
+                .bind("updatedAt", transaction.getUpdatedAt());
+        return bindNullable(spec, "description", transaction.getDescription())
+                .map(row -> row.get("transaction_id", UUID.class))
+                .one();
+    }
+
+    private static AccountLedgerEntry ledgerEntry(Account account, AccountLedgerEntry.EntryType entryType, BigDecimal amount,
+                                                  Transaction transaction, Account counterparty) {
+        AccountLedgerEntry entry = new AccountLedgerEntry(account, entryType, amount, transaction);
+        entry.setCounterpartyAccountId(counterparty.getAccountId());
+        return entry;
+    }
+
+    private Mono<Long> insertLedgerEntry(AccountLedgerEntry entry) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(INSERT_LEDGER_ENTRY_SQL)
+                .bind("accountId", entry.getAccountId())
+                .bind("entrySequence", entry.getEntrySequence())
+                .bind("transactionId", entry.getTransactionId())
+                .bind("transactionCode", entry.getTransactionCode())
+                .bind("counterpartyAccountId", entry.getCounterpartyAccountId())
+                .bind("entryType", entry.getEntryType().name())
+                .bind("amount", entry.getAmount())
+                .bind("balanceAfter", entry.getBalanceAfter())
+                .bind("postedAt", entry.getPostedAt());
+        return bindNullable(spec, "description", entry.getDescription())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec,
+                                                                  String name, String value) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, String.class);
+    }
+
+    /**
+     * Publish to the transaction stream after commit; a Redis failure doesn't fail the transfer
+     */
+    private Mono<Void> publishEvent(Transaction transaction) {
+        return reactiveRedisTemplate.opsForStream()
+                .add(TransactionStreamProducer.STREAM_NAME,
+                        TransactionStreamProducer.toStreamFields(new TransactionEvent(transaction)))
+                .doOnNext(recordId -> logger.debug("Transaction event sent to blockchain stream: {} ({})",
+                        transaction.getTransactionCode(), recordId))
+                .onErrorResume(e -> {
+                    logger.warn("Failed to send transaction to blockchain stream: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * Publish the committed balances to the balance cache off the event loop (it uses blocking Redis calls)
+     */
+    private void updateBalanceCache(Transaction transaction) {
+        AccountBalanceCache.Snapshot from = AccountBalanceCache.Snapshot.of(transaction.getFromAccount());
+        AccountBalanceCache.Snapshot to = AccountBalanceCache.Snapshot.of(transaction.getToAccount());
+        Schedulers.boundedElastic().schedule(() -> {
+            balanceCache.update(from);
+            balanceCache.update(to);
+        });
+    }
+
+    private Mono<BigDecimal> readBalance(UUID accountId, String column) {
+        return databaseClient.sql(BALANCE_SQL)
+                .bind("accountId", accountId)
+                .map(row -> row.get(column, BigDecimal.class))
+                .one()
+                .switchIfEmpty(Mono.error(() -> new AccountNotFoundException("Account not found")));
+    }
+
+    private static Account toAccount(Readable row) {
+        Account account = new Account();
+        account.setAccountId(row.get("account_id", UUID.class));
+        account.setAccountNumber(row.get("account_number", String.class));
+        account.setStatus(Account.AccountStatus.valueOf(row.get("status", String.class)));
+        account.setCurrency(row.get("currency", String.class));
+        account.setBalance(row.get("balance", BigDecimal.class));
+        account.setAvailableBalance(row.get("available_balance", BigDecimal.class));
+        Long ledgerSequence = row.get("ledger_sequence", Long.class);
+        account.setLedgerSequence(ledgerSequence != null ? ledgerSequence : 0L);
+        return account;
+    }
+}
@@ -0,0 +1,264 @@
+package com.minibanking.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered, node-aware transaction codes
+ *
+ * Snowflake layout: epoch millis, a 10-bit node id and a 12-bit per-millisecond
+ * sequence, rendered as "TXN" + 13-digit millis + 3 hex digits node + 3 hex digits
+ * sequence (22 chars). Codes sort by issue time, so inserts into the unique
+ * transaction_code index land at its right edge, and the millis prefix keeps
+ * TransactionRepository.findByTransactionCodeWithinPartition working.
+ *
+ * Generation is a single CAS on the last issued (millis, sequence) pair: no locks,
+ * no SecureRandom per call, and strictly increasing within the node even if the
+ * clock steps back. When a millisecond's 4096 sequence values are used up the
+ * next millisecond is borrowed instead of spinning, so the embedded time can run
+ * slightly ahead of the wall clock under bursts.
+ *
+ * Node ids must be unique among running instances. Either set banking.ids.node-id
+ * per instance, or leave it at -1 and the id is leased from Redis: a
+ * SET NX key per id with a long TTL, renewed every few seconds, so a Redis outage
+ * shorter than the TTL never affects postings. If the lease lapses anyway, codes
+ * are issued under banking.ids.fallback-node-id when one is configured, and
+ * otherwise under the lapsed id, which a peer can only take over after it went
+ * unrenewed for the whole TTL; Redis is never needed to post. Once Redis is
+ * back the lapsed id is claimed again, or replaced if another instance took it.
+ * If no id can be leased at startup the fallback id is used, or startup fails.
+ */
+@Component
+public class TransactionCodeGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionCodeGenerator.class);
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final String PREFIX = "TXN";
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private static final String LEASE_PREFIX = "banking:ids:node:";
+    private static final String LEASE_CURSOR = "banking:ids:node-cursor";
+
+    // KEYS[1] = lease key; ARGV = owner, ttlMillis
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end " +
+            "return 0",
+            Long.class);
+
+    // KEYS[1] = lease key; ARGV[1] = owner
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end " +
+            "return 0",
+            Long.class);
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Value("${banking.ids.node-id:-1}") // 0-1023, unique per running instance; -1 = lease from Redis
+    private volatile int nodeId = -1;
+
+    @Value("${banking.ids.lease-ttl-ms:3600000}")
+    private long leaseTtlMs = 3600000;
+
+    @Value("${banking.ids.fallback-node-id:-1}") // used when no lease can be held; -1 = keep the leased id
+    private int fallbackNodeId = -1;
+
+    private final String owner = UUID.randomUUID().toString();
+    private final AtomicLong lastIssued = new AtomicLong(); // (millis << SEQUENCE_BITS) | sequence
+
+    private volatile boolean leased;
+    private volatile long leaseValidUntil; // System.nanoTime() deadline
+    private volatile boolean lapseReported;
+
+    @PostConstruct
+    public void init() {
+        if (nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("banking.ids.node-id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        if (fallbackNodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("banking.ids.fallback-node-id must be between 0 and " + MAX_NODE_ID
+                    + ": " + fallbackNodeId);
+        }
+        if (nodeId < 0) {
+            leased = true;
+            try {
+                lease();
+            } catch (IllegalStateException e) {
+                if (fallbackNodeId < 0) {
+                    throw e;
+                }
+                useFallback(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Next transaction code for this node
+     */
+    public String nextCode() {
+        if (leased && System.nanoTime() - leaseValidUntil > 0) {
+            leaseLapsed();
+        }
+        return format(next(System.currentTimeMillis()), nodeId);
+    }
+
+    /**
+     * Keep the leased node id; lease another if it was lost
+     */
+    @Scheduled(fixedDelayString = "${banking.ids.lease-renew-ms:10000}")
+    public void renewLease() {
+        if (!leased) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            if (extend(nodeId, owner, leaseTtlMs) || claim(nodeId, owner, leaseTtlMs)) {
+                leaseValidUntil = started + TimeUnit.MILLISECONDS.toNanos(leaseTtlMs);
+                lapseReported = false;
+                return;
+            }
+            logger.error("Lease on transaction code node id {} was lost, leasing another", nodeId);
+            lease();
+            lapseReported = false;
+        } catch (RuntimeException e) {
+            logger.warn("Failed to renew transaction code node id {} lease: {}", nodeId, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void releaseLease() {
+        if (!leased) {
+            return;
+        }
+        leased = false;
+        try {
+            release(nodeId, owner);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to release transaction code node id {} lease: {}", nodeId, e.getMessage());
+        }
+    }
+
+    /**
+     * The lease could not be renewed for a whole TTL: switch to the fallback id, or keep the lapsed one
+     */
+    private synchronized void leaseLapsed() {
+        if (!leased || System.nanoTime() - leaseValidUntil <= 0) {
+            return;
+        }
+        if (fallbackNodeId >= 0) {
+            useFallback("lease on node id " + nodeId + " lapsed");
+        } else if (!lapseReported) {
+            lapseReported = true;
+            logger.error("Lease on transaction code node id {} lapsed; still issuing codes under it "
+                    + "until Redis is reachable again", nodeId);
+        }
+    }
+
+    private synchronized void useFallback(String reason) {
+        leased = false;
+        nodeId = fallbackNodeId;
+        logger.warn("Using fallback transaction code node id {}: {}", fallbackNodeId, reason);
+    }
+
+    /**
+     * Claim the first free id after a shared cursor, so restarts spread over the id space
+     */
+    private void lease() {
+        long started = System.nanoTime();
+        int start;
+        try {
+            start = (int) Math.floorMod(nextCursor(), (long) MAX_NODE_ID + 1);
+            for (int i = 0; i <= MAX_NODE_ID; i++) {
+                int candidate = (start + i) & MAX_NODE_ID;
+                if (claim(candidate, owner, leaseTtlMs)) {
+                    nodeId = candidate;
+                    leaseValidUntil = started + TimeUnit.MILLISECONDS.toNanos(leaseTtlMs);
+                    logger.info("Leased transaction code node id {}", candidate);
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Cannot lease a transaction code node id from Redis; "
+                    + "set banking.ids.node-id per instance instead", e);
+        }
+        throw new IllegalStateException("All " + (MAX_NODE_ID + 1) + " transaction code node ids are leased");
+    }
+
+    long nextCursor() {
+        Long cursor = redisTemplate.opsForValue().increment(LEASE_CURSOR);
+        return cursor != null ? cursor : 0;
+    }
+
+    boolean claim(int id, String owner, long ttlMs) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue()
+                .setIfAbsent(LEASE_PREFIX + id, owner, Duration.ofMillis(ttlMs)));
+    }
+
+    boolean extend(int id, String owner, long ttlMs) {
+        Long renewed = redisTemplate.execute(RENEW_SCRIPT, Collections.singletonList(LEASE_PREFIX + id),
+                owner, String.valueOf(ttlMs));
+        return renewed != null && renewed == 1;
+    }
+
+    void release(int id, String owner) {
+        redisTemplate.execute(RELEASE_SCRIPT, Collections.singletonList(LEASE_PREFIX + id), owner);
+    }
+
+    /**
+     * Next (millis << SEQUENCE_BITS | sequence) value, strictly greater than the previous one
+     */
+    long next(long nowMillis) {
+        long floor = nowMillis << SEQUENCE_BITS;
+        while (true) {
+            long previous = lastIssued.get();
+            long candidate = Math.max(previous + 1, floor);
+            if (lastIssued.compareAndSet(previous, candidate)) {
+                return candidate;
+            }
+        }
+    }
+
+    static String format(long issued, int nodeId) {
+        long millis = issued >>> SEQUENCE_BITS;
+        int sequence = (int) (issued & ((1 << SEQUENCE_BITS) - 1));
+        char[] code = new char[PREFIX.length() + 13 + 3 + 3];
+        PREFIX.getChars(0, PREFIX.length(), code, 0);
+        int end = PREFIX.length() + 13;
+        for (int i = end - 1; i >= PREFIX.length(); i--) {
+            code[i] = (char) ('0' + millis % 10);
+            millis /= 10;
+        }
+        writeHex(code, end, nodeId);
+        writeHex(code, end + 3, sequence);
+        return new String(code);
+    }
+
+    private static void writeHex(char[] code, int offset, int value) {
+        code[offset] = HEX[(value >>> 8) & 0xF];
+        code[offset + 1] = HEX[(value >>> 4) & 0xF];
+        code[offset + 2] = HEX[value & 0xF];
+    }
+
+    int getNodeId() {
+        return nodeId;
+    }
+}
@@ -0,0 +1,235 @@
+package com.minibanking.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Transaction Partition Service
+ *
+ * Maintains the monthly partitions of the transactions table (see V2 migration):
+ * creates partitions ahead of time so inserts never miss one, and archives
+ * partitions past the retention period by detaching them concurrently and moving
+ * them to the archive schema, optionally on a compressed tablespace.
+ *
+ * A DETACH ... CONCURRENTLY interrupted midway (connection loss, cancel, crash)
+ * leaves the partition "detach pending" (pg_inherits.inhdetachpending); such a
+ * partition can only be finalized, so every run completes pending detaches with
+ * DETACH PARTITION ... FINALIZE before archiving.
+ *
+ * Work runs on a single connection under a PostgreSQL advisory lock, so only one
+ * node performs maintenance at a time.
+ */
+@Service
+public class TransactionPartitionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionPartitionService.class);
+
+    private static final long MAINTENANCE_LOCK_KEY = 0x7472616E73L; // "trans"
+    private static final Pattern PARTITION_NAME = Pattern.compile("transactions_y(\\d{4})m(\\d{2})");
+
+    private static final String LIST_PARTITIONS_SQL =
+            "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "JOIN pg_namespace n ON n.oid = p.relnamespace " +
+            "WHERE p.relname = 'transactions' AND n.nspname = current_schema()";
+
+    private static final String LIST_PARTITIONS_WITH_STATE_SQL =
+            "SELECT c.relname, i.inhdetachpending FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "JOIN pg_namespace n ON n.oid = p.relnamespace " +
+            "WHERE p.relname = 'transactions' AND n.nspname = current_schema()";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${banking.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${banking.partitions.retention-months:24}")
+    private int retentionMonths;
+
+    @Value("${banking.partitions.archive-enabled:true}")
+    private boolean archiveEnabled;
+
+    @Value("${banking.partitions.archive-schema:archive}")
+    private String archiveSchema;
+
+    @Value("${banking.partitions.archive-tablespace:}")
+    private String archiveTablespace;
+
+    /**
+     * Make sure upcoming partitions exist before the first insert
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            maintainPartitions();
+        } catch (Exception e) {
+            logger.warn("Transaction partition maintenance failed at startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Create upcoming partitions and archive expired ones
+     */
+    @Scheduled(cron = "${banking.partitions.maintenance-cron:0 30 2 * * *}")
+    public void maintainPartitions() {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            if (!tryLock(connection)) {
+                logger.debug("Partition maintenance is running on another node");
+                return null;
+            }
+            try {
+                List<String> created = createUpcomingPartitions(connection);
+                List<String> archived = archiveEnabled
+                        ? archiveExpiredPartitions(connection, archiveCutoff(YearMonth.now(), retentionMonths))
+                        : List.of();
+                logger.info("Transaction partitions maintained: {} ensured, {} archived {}",
+                        created.size(), archived.size(), archived);
+            } finally {
+                unlock(connection);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Current partitions of the transactions table, oldest first
+     */
+    public List<YearMonth> getPartitionMonths() {
+        return jdbcTemplate.query(LIST_PARTITIONS_SQL, (rs, rowNum) -> rs.getString(1)).stream()
+                .map(TransactionPartitionService::monthOf)
+                .filter(month -> month != null)
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Month covered by a partition table name, or null if it is not a monthly partition
+     */
+    static YearMonth monthOf(String partitionName) {
+        Matcher matcher = PARTITION_NAME.matcher(partitionName);
+        if (!matcher.matches()) {
+            return null;
+        }
+        return YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+    }
+
+    /**
+     * First month kept: partitions of earlier months are archived
+     */
+    static YearMonth archiveCutoff(YearMonth current, int retentionMonths) {
+        return current.minusMonths(retentionMonths);
+    }
+
+    private List<String> createUpcomingPartitions(Connection connection) throws SQLException {
+        List<String> names = new ArrayList<>();
+        YearMonth current = YearMonth.now();
+        try (PreparedStatement statement = connection.prepareStatement("SELECT create_transactions_partition(?)")) {
+            for (int i = 0; i <= monthsAhead; i++) {
+                statement.setObject(1, current.plusMonths(i).atDay(1));
+                try (ResultSet rs = statement.executeQuery()) {
+                    if (rs.next()) {
+                        names.add(rs.getString(1));
+                    }
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Finalize interrupted detaches, then archive the monthly partitions before cutoff
+     * @return Archived partition names
+     */
+    List<String> archiveExpiredPartitions(Connection connection, YearMonth cutoff) throws SQLException {
+        List<String> expired = new ArrayList<>();
+        List<String> pending = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(LIST_PARTITIONS_WITH_STATE_SQL)) {
+            while (rs.next()) {
+                String name = rs.getString(1);
+                YearMonth month = monthOf(name);
+                if (rs.getBoolean(2)) {
+                    pending.add(name);
+                }
+                if (month != null && month.isBefore(cutoff)) {
+                    expired.add(name);
+                }
+            }
+        }
+
+        for (String name : pending) {
+            if (!expired.contains(name)) {
+                // Detached by hand and interrupted; it can't be reattached, only finalized
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("ALTER TABLE transactions DETACH PARTITION " + name + " FINALIZE");
+                    logger.warn("Finalized pending detach of transaction partition {} (not expired, left in place)", name);
+                } catch (SQLException e) {
+                    logger.error("Failed to finalize detach of transaction partition {}: {}", name, e.getMessage());
+                }
+            }
+        }
+
+        List<String> archived = new ArrayList<>();
+        for (String name : expired) {
+            try (Statement statement = connection.createStatement()) {
+                if (pending.contains(name)) {
+                    // A previous run's concurrent detach was interrupted
+                    statement.execute("ALTER TABLE transactions DETACH PARTITION " + name + " FINALIZE");
+                    logger.info("Finalized pending detach of transaction partition {}", name);
+                } else {
+                    // CONCURRENTLY only takes a SHARE UPDATE EXCLUSIVE lock on the parent,
+                    // so inserts into current partitions are not blocked (must run outside a transaction)
+                    statement.execute("ALTER TABLE transactions DETACH PARTITION " + name + " CONCURRENTLY");
+                }
+                statement.execute("ALTER TABLE " + name + " SET SCHEMA " + archiveSchema);
+                if (!archiveTablespace.isBlank()) {
+                    statement.execute("ALTER TABLE " + archiveSchema + "." + name + " SET TABLESPACE " + archiveTablespace);
+                }
+                archived.add(name);
+                logger.info("Archived transaction partition {} to {}", name, archiveSchema);
+            } catch (SQLException e) {
+                logger.error("Failed to archive transaction partition {}: {}", name, e.getMessage());
+            }
+        }
+        return archived;
+    }
+
+    private boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            statement.setLong(1, MAINTENANCE_LOCK_KEY);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private void unlock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            statement.setLong(1, MAINTENANCE_LOCK_KEY);
+            statement.execute();
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.minibanking.service;
+
+import com.minibanking.entity.Validator;
+import com.minibanking.repository.ValidatorRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Validator Failover Service
+ *
+ * Feeds validator heartbeats into per-validator phi-accrual failure detectors and
+ * resolves the block-producing leader: the highest-priority validator in the
+ * schedule that is not suspected. A scheduled check re-resolves the leader every
+ * consensus.failover.check-interval-ms, so handoff happens within one check
+ * interval of the leader being suspected; a recovered higher-priority validator
+ * takes leadership back the same way.
+ *
+ * Heartbeats are broadcast over Redis pub/sub, so every node's detectors see the
+ * same arrivals. The leader is derived from those detectors rather than agreed
+ * on: nodes resolve the same leader from the same heartbeats, and can disagree
+ * only while a validator is crossing the threshold (at most the detection time
+ * plus one check interval). The detector defaults assume the emitter's 100ms
+ * cadence and suspect a silent validator about 560ms after its last heartbeat.
+ */
+@Service
+public class ValidatorFailoverService implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ValidatorFailoverService.class);
+
+    @Autowired
+    private ValidatorRepository validatorRepository;
+
+    @Autowired
+    private ValidatorStatisticsCache statisticsCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Value("${consensus.heartbeat.channel:consensus:heartbeats}")
+    private String channel = "consensus:heartbeats";
+
+    @Value("${consensus.failure-detector.threshold:8.0}")
+    private double phiThreshold = 8.0;
+
+    @Value("${consensus.failure-detector.max-sample-size:200}")
+    private int maxSampleSize = 200;
+
+    @Value("${consensus.failure-detector.min-std-deviation-ms:50}")
+    private double minStdDeviationMs = 50;
+
+    @Value("${consensus.failure-detector.acceptable-heartbeat-pause-ms:200}")
+    private long acceptableHeartbeatPauseMs = 200;
+
+    @Value("${consensus.failure-detector.first-heartbeat-estimate-ms:100}")
+    private long firstHeartbeatEstimateMs = 100;
+
+    // Tags this node's broadcasts, so it doesn't count its own heartbeats twice
+    private final String nodeInstanceId = UUID.randomUUID().toString();
+
+    private final Map<UUID, PhiAccrualFailureDetector> detectors = new ConcurrentHashMap<>();
+    private final Map<UUID, String> validatorNames = new ConcurrentHashMap<>();
+
+    private volatile UUID currentLeaderId;
+    private Counter failoverCounter;
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+    }
+
+    /**
+     * Record a heartbeat on this node and broadcast it to the others
+     */
+    public void publishHeartbeat(Validator validator) {
+        recordHeartbeat(validator.getValidatorId(), validator.getValidatorName());
+        try {
+            redisTemplate.convertAndSend(channel,
+                    nodeInstanceId + "|" + validator.getValidatorId() + "|" + validator.getValidatorName());
+        } catch (Exception e) {
+            logger.warn("Failed to broadcast validator heartbeat: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Record a heartbeat from a validator on this node only
+     */
+    public void recordHeartbeat(Validator validator) {
+        recordHeartbeat(validator.getValidatorId(), validator.getValidatorName());
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = body.split("\\|", 3);
+        try {
+            if (parts.length == 3 && !nodeInstanceId.equals(parts[0])) {
+                recordHeartbeat(UUID.fromString(parts[1]), parts[2]);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Ignoring malformed validator heartbeat: {}", body);
+        }
+    }
+
+    private void recordHeartbeat(UUID validatorId, String validatorName) {
+        PhiAccrualFailureDetector detector = detectors.computeIfAbsent(validatorId, id -> {
+            validatorNames.put(id, validatorName);
+            PhiAccrualFailureDetector created = new PhiAccrualFailureDetector(
+                    phiThreshold, maxSampleSize, minStdDeviationMs,
+                    acceptableHeartbeatPauseMs, firstHeartbeatEstimateMs);
+            Gauge.builder("consensus.validator.phi", created, d -> d.phi(System.currentTimeMillis()))
+                    .description("Phi-accrual suspicion level of the validator")
+                    .tag("validator", validatorName)
+                    .register(meterRegistry);
+            return created;
+        });
+        detector.heartbeat(System.currentTimeMillis());
+        statisticsCache.recordHeartbeat(validatorId, LocalDateTime.now());
+    }
+
+    /**
+     * Resolve the validator that should produce the next block
+     * @param schedule Authorized validators in priority order
+     * @return Highest-priority validator that is not suspected, or null if every validator is suspected
+     */
+    public Validator resolveLeader(List<Validator> schedule) {
+        Validator leader = firstAvailable(schedule, System.currentTimeMillis());
+        if (leader != null) {
+            changeLeader(leader);
+            return leader;
+        }
+
+        // Failure detection only becomes authoritative once heartbeats are flowing
+        if (detectors.isEmpty()) {
+            for (Validator validator : schedule) {
+                if (validator.canCreateBlock()) {
+                    logger.warn("No validator heartbeats received yet, using highest priority validator: {}",
+                            validator.getValidatorName());
+                    return validator;
+                }
+            }
+        }
+
+        logger.error("No available validators: all authorized validators are suspected");
+        return null;
+    }
+
+    /**
+     * Periodically re-resolve the leader, failing over when it becomes suspected
+     */
+    @Scheduled(fixedDelayString = "${consensus.failover.check-interval-ms:200}")
+    public void checkLeader() {
+        UUID leaderId = currentLeaderId;
+        if (leaderId == null || detectors.isEmpty()) {
+            return;
+        }
+
+        List<Validator> schedule = statisticsCache.isInitialized()
+                ? statisticsCache.getSchedulableValidators()
+                : validatorRepository.findValidatorsCanCreateBlock(LocalDateTime.now());
+
+        Validator next = firstAvailable(schedule, System.currentTimeMillis());
+        if (next != null) {
+            changeLeader(next);
+        } else {
+            logger.error("Leader {} is suspected and no healthy validator is available",
+                    validatorNames.getOrDefault(leaderId, leaderId.toString()));
+        }
+    }
+
+    /**
+     * Current suspicion level of a validator (0 if it has never sent a heartbeat)
+     */
+    public double getPhi(UUID validatorId) {
+        PhiAccrualFailureDetector detector = detectors.get(validatorId);
+        return detector != null ? detector.phi(System.currentTimeMillis()) : 0.0;
+    }
+
+    /**
+     * Suspicion levels of all monitored validators, keyed by validator name
+     */
+    public Map<String, Double> getSuspicionLevels() {
+        long now = System.currentTimeMillis();
+        Map<String, Double> levels = new LinkedHashMap<>();
+        detectors.forEach((id, detector) ->
+                levels.put(validatorNames.getOrDefault(id, id.toString()), detector.phi(now)));
+        return levels;
+    }
+
+    public UUID getCurrentLeaderId() {
+        return currentLeaderId;
+    }
+
+    /**
+     * A validator is available if it is monitored and below the phi threshold
+     */
+    private boolean isAvailable(UUID validatorId, long now) {
+        PhiAccrualFailureDetector detector = detectors.get(validatorId);
+        return detector != null && detector.isAvailable(now);
+    }
+
+    /**
+     * First validator in schedule order that can create blocks and is not suspected
+     */
+    private Validator firstAvailable(List<Validator> schedule, long now) {
+        for (Validator candidate : schedule) {
+            if (candidate.canCreateBlock() && isAvailable(candidate.getValidatorId(), now)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private synchronized void changeLeader(Validator next) {
+        UUID previousLeaderId = currentLeaderId;
+        if (next.getValidatorId().equals(previousLeaderId)) {
+            return;
+        }
+        currentLeaderId = next.getValidatorId();
+
+        if (previousLeaderId != null) {
+            failovers().increment();
+            logger.warn("Leader change: {} (phi={}) -> {}",
+                    validatorNames.getOrDefault(previousLeaderId, previousLeaderId.toString()),
+                    String.format("%.2f", getPhi(previousLeaderId)), next.getValidatorName());
+        } else {
+            logger.info("Elected leader: {}", next.getValidatorName());
+        }
+    }
+
+    private Counter failovers() {
+        if (failoverCounter == null) {
+            failoverCounter = Counter.builder("consensus.leader.failovers")
+                    .description("Number of leader changes, failovers and failbacks")
+                    .register(meterRegistry);
+        }
+        return failoverCounter;
+    }
+}
@@ -0,0 +1,104 @@
+package com.minibanking.service;
+
+import com.minibanking.entity.Validator;
+import com.minibanking.repository.ValidatorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Periodic heartbeats for the validators hosted by this node
+ *
+ * Every consensus.heartbeat.interval-ms the emitter broadcasts a heartbeat for
+ * each validator named in consensus.heartbeat.validators, the validators this node
+ * runs. No validators are hosted by default: a node only vouches for validators
+ * whose liveness is its own, so a validator whose node stops is suspected by the
+ * other nodes. Heartbeats are written through to lastHeartbeat at most every
+ * consensus.heartbeat.persist-interval-ms, so the database statistics agree with
+ * the failure detector without a write per heartbeat.
+ */
+@Component
+public class ValidatorHeartbeatEmitter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ValidatorHeartbeatEmitter.class);
+
+    @Autowired
+    private ValidatorFailoverService failoverService;
+
+    @Autowired
+    private ValidatorStatisticsCache statisticsCache;
+
+    @Autowired
+    private ValidatorRepository validatorRepository;
+
+    @Value("${consensus.heartbeat.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${consensus.heartbeat.validators:}") // comma-separated names of the validators this node runs
+    private String validators = "";
+
+    @Value("${consensus.heartbeat.persist-interval-ms:1000}")
+    private long persistIntervalMs = 1000;
+
+    // When each hosted validator's lastHeartbeat was last written
+    private final Map<UUID, Long> persistedAt = new ConcurrentHashMap<>();
+
+    /**
+     * Emit one heartbeat for each hosted, schedulable validator
+     */
+    @Scheduled(fixedRateString = "${consensus.heartbeat.interval-ms:100}")
+    public void emit() {
+        Set<String> hosted = hostedValidators();
+        if (!enabled || hosted.isEmpty()) {
+            return;
+        }
+        try {
+            List<Validator> schedule = statisticsCache.isInitialized()
+                    ? statisticsCache.getSchedulableValidators()
+                    : validatorRepository.findAuthorizedValidatorsOrderByPriority();
+            long now = System.currentTimeMillis();
+            for (Validator validator : schedule) {
+                if (hosted.contains(validator.getValidatorName())) {
+                    failoverService.publishHeartbeat(validator);
+                    persist(validator.getValidatorId(), now);
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to emit validator heartbeats: {}", e.getMessage());
+        }
+    }
+
+    private void persist(UUID validatorId, long now) {
+        Long last = persistedAt.get(validatorId);
+        if (last == null || now - last >= persistIntervalMs) {
+            persistedAt.put(validatorId, now);
+            validatorRepository.updateLastHeartbeat(validatorId, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Names of the validators hosted here
+     */
+    private Set<String> hostedValidators() {
+        Set<String> names = new HashSet<>();
+        if (validators != null) {
+            for (String name : validators.split(",")) {
+                if (!name.isBlank()) {
+                    names.add(name.trim());
+                }
+            }
+        }
+        return names;
+    }
+}
@@ -5,6 +5,7 @@ import com.minibanking.repository.ValidatorRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,6 +28,15 @@ public class ValidatorManagementService {
     @Autowired
     private ValidatorRepository validatorRepository;
 
+    @Autowired
+    private ValidatorStatisticsCache statisticsCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ValidatorFailoverService failoverService;
+
     /**
      * Add a new authorized validator
      */
@@ -54,6 +64,7 @@ public class ValidatorManagementService {
         validator.setFailedAttempts(0);
 
         validator = validatorRepository.save(validator);
+        eventPublisher.publishEvent(new ValidatorStatisticsCache.ValidatorChangedEvent(validator));
 
         logger.info("Successfully added validator: {} with ID: {}", validatorName, validator.getValidatorId());
         return validator;
@@ -71,6 +82,7 @@ public class ValidatorManagementService {
         validator.setIsAuthorized(false);
         validator.setIsActive(false);
         validatorRepository.save(validator);
+        eventPublisher.publishEvent(new ValidatorStatisticsCache.ValidatorChangedEvent(validator));
 
         logger.info("Successfully revoked authority for validator: {}", validator.getValidatorName());
     }
@@ -87,6 +99,7 @@ public class ValidatorManagementService {
         validator.setIsActive(true);
         validator.resetFailedAttempts();
         validatorRepository.save(validator);
+        eventPublisher.publishEvent(new ValidatorStatisticsCache.ValidatorChangedEvent(validator));
 
         logger.info("Successfully activated validator: {}", validator.getValidatorName());
     }
@@ -102,6 +115,7 @@ public class ValidatorManagementService {
 
         validator.setIsActive(false);
         validatorRepository.save(validator);
+        eventPublisher.publishEvent(new ValidatorStatisticsCache.ValidatorChangedEvent(validator));
 
         logger.info("Successfully deactivated validator: {}", validator.getValidatorName());
     }
@@ -117,6 +131,7 @@ public class ValidatorManagementService {
 
         validator.setPriority(newPriority);
         validatorRepository.save(validator);
+        eventPublisher.publishEvent(new ValidatorStatisticsCache.ValidatorChangedEvent(validator));
 
         logger.info("Successfully updated priority for validator: {} to {}",
                 validator.getValidatorName(), newPriority);
@@ -129,9 +144,12 @@ public class ValidatorManagementService {
         Validator validator = validatorRepository.findById(validatorId)
                 .orElseThrow(() -> new IllegalArgumentException("Validator not found: " + validatorId));
 
+        failoverService.publishHeartbeat(validator);
+
         validator.updateHeartbeat();
         validator.resetFailedAttempts(); // Reset failed attempts on successful heartbeat
         validatorRepository.save(validator);
+        eventPublisher.publishEvent(new ValidatorStatisticsCache.ValidatorChangedEvent(validator));
     }
 
     /**
@@ -145,6 +163,7 @@ public class ValidatorManagementService {
 
         validator.incrementFailedAttempts();
         validatorRepository.save(validator);
+        eventPublisher.publishEvent(new ValidatorStatisticsCache.ValidatorChangedEvent(validator));
 
         if (validator.isLocked()) {
             logger.warn("Validator {} is now locked until: {}",
@@ -204,16 +223,30 @@ public class ValidatorManagementService {
 
     /**
      * Get validator statistics
+     * Served from the in-memory statistics cache; COUNT queries are only a fallback
      */
+    @Transactional(readOnly = true)
     public ValidatorStatistics getValidatorStatistics() {
         ValidatorStatistics stats = new ValidatorStatistics();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime threshold = now.minusMinutes(5);
+
+        if (statisticsCache.isInitialized()) {
+            stats.setTotalValidators(statisticsCache.getTotalValidators());
+            stats.setAuthorizedValidators(statisticsCache.getAuthorizedValidators());
+            stats.setActiveValidators(statisticsCache.getActiveValidators());
+            stats.setOnlineValidators(statisticsCache.getOnlineValidators(threshold));
+            stats.setValidatorsCanCreateBlock(statisticsCache.getValidatorsCanCreateBlock(now));
+            stats.setValidatorsWithFailedAttempts(statisticsCache.getValidatorsWithFailedAttempts());
+            return stats;
+        }
 
         stats.setTotalValidators(validatorRepository.count());
         stats.setAuthorizedValidators(validatorRepository.countAuthorizedValidators());
-        stats.setActiveValidators(validatorRepository.findByIsActiveTrue().size());
-        stats.setOnlineValidators(getOnlineValidators().size());
-        stats.setValidatorsCanCreateBlock(getValidatorsCanCreateBlock().size());
-        stats.setValidatorsWithFailedAttempts(getValidatorsWithFailedAttempts().size());
+        stats.setActiveValidators((int) validatorRepository.countByIsActiveTrue());
+        stats.setOnlineValidators((int) validatorRepository.countOnlineValidators(threshold));
+        stats.setValidatorsCanCreateBlock((int) validatorRepository.countValidatorsCanCreateBlock(now));
+        stats.setValidatorsWithFailedAttempts((int) validatorRepository.countValidatorsWithFailedAttempts());
 
         return stats;
     }
@@ -0,0 +1,257 @@
+package com.minibanking.service;
+
+import com.minibanking.entity.Validator;
+import com.minibanking.repository.BlockRepository;
+import com.minibanking.repository.ValidatorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache for validator and PoA statistics
+ *
+ * The validator set is loaded once at startup and then kept up to date from
+ * validator/block events published after commit. Those events are local, so changes
+ * committed on other nodes are picked up by a periodic reconcile that reloads the
+ * (small) validator table and the block COUNT. Statistics endpoints are served from
+ * memory; until the cache is warm, callers fall back to COUNT/LIMIT queries.
+ */
+@Component
+public class ValidatorStatisticsCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ValidatorStatisticsCache.class);
+
+    @Autowired
+    private ValidatorRepository validatorRepository;
+
+    @Autowired
+    private BlockRepository blockRepository;
+
+    // Detached snapshots of every validator, keyed by validator ID
+    private final Map<UUID, Validator> validators = new ConcurrentHashMap<>();
+    private final AtomicLong totalBlocks = new AtomicLong();
+    // Bumped on every local change; a reload that raced with one is not applied
+    private final AtomicLong generation = new AtomicLong();
+    private volatile boolean initialized = false;
+
+    /**
+     * Warm the cache once the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            for (Validator validator : validatorRepository.findAll()) {
+                validators.put(validator.getValidatorId(), snapshotOf(validator));
+            }
+            totalBlocks.set(blockRepository.countTotalBlocks());
+            initialized = true;
+
+            logger.info("Validator statistics cache warmed: {} validators, {} blocks",
+                    validators.size(), totalBlocks.get());
+
+        } catch (Exception e) {
+            logger.warn("Failed to warm validator statistics cache, falling back to queries: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Replace the cache with the committed state, including changes made on other nodes;
+     * newer heartbeats received in memory are kept (lastHeartbeat is written through lazily)
+     */
+    @Scheduled(initialDelayString = "${consensus.statistics-cache.reconcile-interval-ms:30000}",
+            fixedDelayString = "${consensus.statistics-cache.reconcile-interval-ms:30000}")
+    public void reconcile() {
+        if (!initialized) {
+            initialize();
+            return;
+        }
+        try {
+            long loadGeneration = generation.get();
+            Map<UUID, Validator> loaded = new HashMap<>();
+            for (Validator validator : validatorRepository.findAll()) {
+                loaded.put(validator.getValidatorId(), snapshotOf(validator));
+            }
+            long blocks = blockRepository.countTotalBlocks();
+            if (generation.get() != loadGeneration) {
+                logger.debug("Validator statistics changed during reconcile, retrying next run");
+                return;
+            }
+
+            loaded.forEach((id, validator) -> {
+                Validator cached = validators.get(id);
+                if (cached != null && cached.getLastHeartbeat() != null && (validator.getLastHeartbeat() == null
+                        || cached.getLastHeartbeat().isAfter(validator.getLastHeartbeat()))) {
+                    validator.setLastHeartbeat(cached.getLastHeartbeat());
+                }
+                validators.put(id, validator);
+            });
+            validators.keySet().retainAll(loaded.keySet());
+            if (totalBlocks.getAndSet(blocks) != blocks) {
+                logger.debug("Validator statistics reconciled: {} validators, {} blocks", loaded.size(), blocks);
+            }
+
+        } catch (Exception e) {
+            logger.warn("Failed to reconcile validator statistics cache: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Apply a committed validator change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onValidatorChanged(ValidatorChangedEvent event) {
+        Validator validator = event.getValidator();
+        if (validator.getValidatorId() != null) {
+            generation.incrementAndGet();
+            validators.put(validator.getValidatorId(), snapshotOf(validator));
+        }
+    }
+
+    /**
+     * Apply a committed block creation
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBlockCreated(BlockCreatedEvent event) {
+        generation.incrementAndGet();
+        totalBlocks.incrementAndGet();
+    }
+
+    /**
+     * Apply a heartbeat received by the failure detector, so the online count matches it
+     */
+    public void recordHeartbeat(UUID validatorId, LocalDateTime at) {
+        validators.computeIfPresent(validatorId, (id, cached) -> {
+            Validator updated = snapshotOf(cached);
+            updated.setLastHeartbeat(at);
+            return updated;
+        });
+    }
+
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    public long getTotalValidators() {
+        return validators.size();
+    }
+
+    public long getAuthorizedValidators() {
+        return validators.values().stream()
+                .filter(v -> v.getIsAuthorized() && v.getIsActive())
+                .count();
+    }
+
+    public int getActiveValidators() {
+        return (int) validators.values().stream()
+                .filter(Validator::getIsActive)
+                .count();
+    }
+
+    public int getOnlineValidators(LocalDateTime threshold) {
+        return (int) validators.values().stream()
+                .filter(v -> v.getLastHeartbeat() != null && v.getLastHeartbeat().isAfter(threshold))
+                .count();
+    }
+
+    public int getValidatorsCanCreateBlock(LocalDateTime now) {
+        return (int) validators.values().stream()
+                .filter(v -> v.getIsAuthorized() && v.getIsActive()
+                        && (v.getLockedUntil() == null || v.getLockedUntil().isBefore(now)))
+                .count();
+    }
+
+    public int getValidatorsWithFailedAttempts() {
+        return (int) validators.values().stream()
+                .filter(v -> v.getFailedAttempts() > 0)
+                .count();
+    }
+
+    public long getTotalBlocks() {
+        return totalBlocks.get();
+    }
+
+    public List<Validator> getTopValidatorsByBlocksCreated(int limit) {
+        return validators.values().stream()
+                .sorted(Comparator.comparing(Validator::getBlocksCreated).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Authorized, active validators in block-production order (highest priority first)
+     */
+    public List<Validator> getSchedulableValidators() {
+        return validators.values().stream()
+                .filter(v -> v.getIsAuthorized() && v.getIsActive())
+                .sorted(Comparator.comparing(Validator::getPriority).reversed())
+                .toList();
+    }
+
+    /**
+     * Copy the fields used by statistics so later mutations of the entity don't leak in
+     */
+    private Validator snapshotOf(Validator source) {
+        Validator copy = new Validator();
+        copy.setValidatorId(source.getValidatorId());
+        copy.setValidatorName(source.getValidatorName());
+        copy.setPublicKey(source.getPublicKey());
+        copy.setIsAuthorized(source.getIsAuthorized());
+        copy.setPriority(source.getPriority());
+        copy.setLastBlockTime(source.getLastBlockTime());
+        copy.setBlocksCreated(source.getBlocksCreated());
+        copy.setIsActive(source.getIsActive());
+        copy.setStakeAmount(source.getStakeAmount());
+        copy.setNodeUrl(source.getNodeUrl());
+        copy.setLastHeartbeat(source.getLastHeartbeat());
+        copy.setFailedAttempts(source.getFailedAttempts());
+        copy.setLockedUntil(source.getLockedUntil());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        return copy;
+    }
+
+    /**
+     * Published whenever a validator is created or updated
+     */
+    public static class ValidatorChangedEvent {
+        private final Validator validator;
+
+        public ValidatorChangedEvent(Validator validator) {
+            this.validator = validator;
+        }
+
+        public Validator getValidator() {
+            return validator;
+        }
+    }
+
+    /**
+     * Published whenever a block is persisted
+     */
+    public static class BlockCreatedEvent {
+        private final Long blockNumber;
+
+        public BlockCreatedEvent(Long blockNumber) {
+            this.blockNumber = blockNumber;
+        }
+
+        public Long getBlockNumber() {
+            return blockNumber;
+        }
+    }
+}
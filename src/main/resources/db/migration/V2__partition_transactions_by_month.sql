@@ -0,0 +1,120 @@
+-- V2: Range-partition transactions by created_at (one partition per month)
+--
+-- PostgreSQL requires the partition key in every primary key and unique constraint,
+-- so transaction_id, transaction_code and transaction_hash become unique together
+-- with created_at. All three are generated per transaction, so this does not weaken
+-- them in practice. Ledger entries keep transaction_id without a foreign key.
+--
+-- There is deliberately no DEFAULT partition: it would block DETACH ... CONCURRENTLY
+-- used by archival, and partitions are created ahead by TransactionPartitionService.
+
+DROP VIEW IF EXISTS transaction_summary;
+ALTER TABLE account_ledger_entries DROP CONSTRAINT IF EXISTS account_ledger_entries_transaction_id_fkey;
+
+ALTER TABLE transactions RENAME TO transactions_unpartitioned;
+DROP TRIGGER IF EXISTS update_transactions_updated_at ON transactions_unpartitioned;
+
+CREATE TABLE transactions (
+    transaction_id UUID NOT NULL DEFAULT gen_random_uuid(),
+    transaction_code VARCHAR(30) NOT NULL,
+    from_account_id UUID REFERENCES accounts(account_id),
+    to_account_id UUID REFERENCES accounts(account_id),
+    amount DECIMAL(18,2) NOT NULL,
+    currency VARCHAR(3) DEFAULT 'VND',
+    transaction_type VARCHAR(30) NOT NULL,
+    description TEXT,
+    reference_number VARCHAR(50),
+    status VARCHAR(20) DEFAULT 'PENDING',
+    failure_reason TEXT,
+    processed_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    -- Blockchain fields
+    block_id UUID REFERENCES blocks(block_id),
+    transaction_hash VARCHAR(64),
+    merkle_proof TEXT,
+    is_confirmed BOOLEAN DEFAULT FALSE,
+    confirmation_count INTEGER DEFAULT 0,
+    CONSTRAINT pk_transactions PRIMARY KEY (transaction_id, created_at),
+    CONSTRAINT uk_transactions_code UNIQUE (transaction_code, created_at),
+    CONSTRAINT uk_transactions_hash UNIQUE (transaction_hash, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Create the partition holding the given month (idempotent); returns its name
+CREATE OR REPLACE FUNCTION create_transactions_partition(p_month DATE)
+RETURNS TEXT AS $$
+DECLARE
+    month_start DATE := date_trunc('month', p_month)::DATE;
+    partition_name TEXT := 'transactions_' || to_char(month_start, '"y"YYYY"m"MM');
+BEGIN
+    EXECUTE format(
+        'CREATE TABLE IF NOT EXISTS %I PARTITION OF transactions FOR VALUES FROM (%L) TO (%L)',
+        partition_name, month_start, (month_start + INTERVAL '1 month')::DATE);
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partitions for every month with existing data, plus the next three months
+DO $$
+DECLARE
+    first_month DATE;
+    last_month DATE := date_trunc('month', CURRENT_DATE + INTERVAL '3 months')::DATE;
+    m DATE;
+BEGIN
+    SELECT date_trunc('month', COALESCE(MIN(created_at), CURRENT_TIMESTAMP))::DATE
+      INTO first_month
+      FROM transactions_unpartitioned;
+
+    m := LEAST(first_month, date_trunc('month', CURRENT_DATE)::DATE);
+    WHILE m <= last_month LOOP
+        PERFORM create_transactions_partition(m);
+        m := (m + INTERVAL '1 month')::DATE;
+    END LOOP;
+END;
+$$;
+
+INSERT INTO transactions (
+    transaction_id, transaction_code, from_account_id, to_account_id, amount, currency,
+    transaction_type, description, reference_number, status, failure_reason, processed_at,
+    created_at, updated_at, block_id, transaction_hash, merkle_proof, is_confirmed, confirmation_count)
+SELECT
+    transaction_id, transaction_code, from_account_id, to_account_id, amount, currency,
+    transaction_type, description, reference_number, status, failure_reason, processed_at,
+    COALESCE(created_at, CURRENT_TIMESTAMP), updated_at, block_id, transaction_hash, merkle_proof,
+    is_confirmed, confirmation_count
+FROM transactions_unpartitioned;
+
+DROP TABLE transactions_unpartitioned;
+
+-- Indexes are declared on the parent and created on every partition
+CREATE INDEX idx_transactions_from_account ON transactions(from_account_id);
+CREATE INDEX idx_transactions_to_account ON transactions(to_account_id);
+CREATE INDEX idx_transactions_created_at ON transactions(created_at);
+CREATE INDEX idx_transactions_status ON transactions(status);
+CREATE INDEX idx_transactions_type ON transactions(transaction_type);
+CREATE INDEX idx_transactions_block_id ON transactions(block_id);
+CREATE INDEX idx_transactions_transaction_hash ON transactions(transaction_hash);
+CREATE INDEX idx_transactions_is_confirmed ON transactions(is_confirmed);
+CREATE INDEX idx_transactions_confirmation_count ON transactions(confirmation_count);
+CREATE INDEX idx_transactions_account_date ON transactions(from_account_id, created_at);
+CREATE INDEX idx_transactions_status_date ON transactions(status, created_at);
+CREATE INDEX idx_transactions_from_keyset ON transactions(from_account_id, created_at DESC, transaction_id DESC);
+CREATE INDEX idx_transactions_to_keyset ON transactions(to_account_id, created_at DESC, transaction_id DESC);
+
+CREATE TRIGGER update_transactions_updated_at BEFORE UPDATE ON transactions
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+
+CREATE VIEW transaction_summary AS
+SELECT
+    DATE(created_at) as transaction_date,
+    transaction_type,
+    COUNT(*) as transaction_count,
+    SUM(amount) as total_amount,
+    AVG(amount) as average_amount
+FROM transactions
+WHERE status = 'COMPLETED'
+GROUP BY DATE(created_at), transaction_type
+ORDER BY transaction_date DESC;
+
+-- Detached partitions are moved here by the archival job
+CREATE SCHEMA IF NOT EXISTS archive;
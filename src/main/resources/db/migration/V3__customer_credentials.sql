@@ -0,0 +1,9 @@
+-- V3: Stored credential hashes for customers
+--
+-- Hashes are BCrypt strings (60 chars); the cost is embedded in the hash, so a
+-- customer hashed at a lower cost is rehashed on their next successful login.
+-- Customers without a stored hash keep the legacy login check. Databases created
+-- from database-setup.sql (baselined at V1) already have both columns.
+
+ALTER TABLE customers ADD COLUMN IF NOT EXISTS password_hash VARCHAR(100);
+ALTER TABLE customers ADD COLUMN IF NOT EXISTS pin_hash VARCHAR(100);
@@ -0,0 +1,7 @@
+-- V4: Indexes for housekeeping batch deletes
+--
+-- Inactive-session cleanup filters on last_activity of deactivated sessions only;
+-- a partial index keeps each LIMIT batch an index range scan.
+
+CREATE INDEX IF NOT EXISTS idx_sessions_inactive_activity ON sessions(last_activity) WHERE is_active = false;
+CREATE INDEX IF NOT EXISTS idx_devices_inactive_last_login ON devices(last_login) WHERE is_active = false;
@@ -0,0 +1,7 @@
+-- V5: Optimistic locking version for accounts
+--
+-- Optimistic transfers read accounts without a row lock and write them back with
+-- UPDATE ... WHERE version = ?; a concurrent posting makes the update miss and the
+-- transfer is retried.
+
+ALTER TABLE accounts ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
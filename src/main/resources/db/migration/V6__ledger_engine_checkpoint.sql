@@ -0,0 +1,11 @@
+-- V6: Projection checkpoint for the in-memory ledger engine
+--
+-- The engine journals postings to a local file and projects them into accounts,
+-- transactions and account_ledger_entries asynchronously. last_sequence is the last
+-- journal record applied, updated in the same transaction as each projected batch.
+
+CREATE TABLE IF NOT EXISTS ledger_engine_checkpoint (
+    engine_id VARCHAR(50) PRIMARY KEY,
+    last_sequence BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,28 @@
+-- V7: Time-ordered UUIDv7 defaults for high-insert primary keys
+--
+-- Random gen_random_uuid() keys land anywhere in the primary key B-tree, so every
+-- insert touches a random leaf page. UUIDv7 starts with the Unix time in millis,
+-- which keeps inserts at the right edge of the index. JPA assigns v7 keys itself
+-- (@UuidV7); these defaults cover rows inserted by SQL (reactive path, blocks).
+-- PostgreSQL 15 has no built-in v7 generator: take a random v4, overwrite the
+-- first 48 bits with the timestamp and set the version nibble to 7.
+
+CREATE OR REPLACE FUNCTION uuid_generate_v7()
+RETURNS UUID AS $$
+BEGIN
+    RETURN encode(
+        set_bit(
+            set_bit(
+                overlay(uuid_send(gen_random_uuid())
+                        PLACING substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::BIGINT) FROM 3)
+                        FROM 1 FOR 6),
+                52, 1),
+            53, 1),
+        'hex')::UUID;
+END;
+$$ LANGUAGE plpgsql VOLATILE;
+
+ALTER TABLE transactions ALTER COLUMN transaction_id SET DEFAULT uuid_generate_v7();
+ALTER TABLE account_ledger_entries ALTER COLUMN entry_id SET DEFAULT uuid_generate_v7();
+ALTER TABLE blocks ALTER COLUMN block_id SET DEFAULT uuid_generate_v7();
+ALTER TABLE sessions ALTER COLUMN session_id SET DEFAULT uuid_generate_v7();
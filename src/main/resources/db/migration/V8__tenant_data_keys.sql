@@ -0,0 +1,17 @@
+-- V8: Wrapped data keys for envelope encryption
+--
+-- EnvelopeEncryptionService encrypts fields with per-tenant AES data keys. Only the
+-- HSM-wrapped form of each key is stored, with the version of the tenant's
+-- key-encryption key (KEK) that wrapped it. Rotating a KEK re-wraps these rows;
+-- the encrypted data itself is not rewritten.
+
+CREATE TABLE IF NOT EXISTS tenant_data_keys (
+    data_key_id UUID PRIMARY KEY DEFAULT uuid_generate_v7(),
+    tenant_id VARCHAR(64) NOT NULL,
+    kek_version INTEGER NOT NULL,
+    wrapped_key BYTEA NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    rewrapped_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_tenant_data_keys_tenant_kek ON tenant_data_keys(tenant_id, kek_version);
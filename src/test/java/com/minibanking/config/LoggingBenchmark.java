@@ -0,0 +1,156 @@
+package com.minibanking.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.FileAppender;
+import com.minibanking.security.masking.MaskingMessageConverter;
+import com.minibanking.security.masking.MaskingThrowableConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging cost of one transfer on the request thread, default vs prod logging
+ *
+ * Emits the lines a transfer produces (application DEBUG, Spring Security DEBUG,
+ * Hibernate SQL and bind parameters, the masked audit INFO line) through the
+ * same pattern and masking converters as logback-spring.xml, to a file:
+ * "default" is the DEBUG/TRACE levels with a synchronous appender, "prod" is
+ * INFO through the AsyncAppender with discardingThreshold 0. Complements
+ * benchmark-logging.sh, which needs the full application, PostgreSQL and Redis.
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="LoggingBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class LoggingBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%t] "
+            + "%-40.40logger{39} : %maskedMsg%n%maskedWEx";
+
+    private static final String[] SQL = {
+        "select a1_0.account_id,a1_0.account_number,a1_0.balance,a1_0.version from accounts a1_0 where a1_0.account_id=? for update",
+        "select a1_0.account_id,a1_0.account_number,a1_0.balance,a1_0.version from accounts a1_0 where a1_0.account_id=? for update",
+        "insert into transactions (amount,description,from_account_id,status,to_account_id,transaction_code,transaction_id) values (?,?,?,?,?,?,?)",
+        "insert into account_ledger_entries (account_id,amount,balance_after,entry_type,sequence,transaction_id,entry_id) values (?,?,?,?,?,?,?)",
+        "insert into account_ledger_entries (account_id,amount,balance_after,entry_type,sequence,transaction_id,entry_id) values (?,?,?,?,?,?,?)",
+        "update accounts set available_balance=?,balance=?,ledger_sequence=?,version=? where account_id=? and version=?",
+        "update accounts set available_balance=?,balance=?,ledger_sequence=?,version=? where account_id=? and version=?"
+    };
+
+    @Param({"default", "prod"})
+    public String profile;
+
+    private Path file;
+    private LoggerContext context;
+    private Logger service;
+    private Logger audit;
+    private Logger security;
+    private Logger sql;
+    private Logger binder;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        file = Files.createTempFile("logging-benchmark", ".log");
+        context = new LoggerContext();
+        Map<String, String> rules = new HashMap<>();
+        rules.put("maskedMsg", MaskingMessageConverter.class.getName());
+        rules.put("maskedWEx", MaskingThrowableConverter.class.getName());
+        context.putObject(CoreConstants.PATTERN_RULE_REGISTRY, rules);
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setName("FILE");
+        fileAppender.setFile(file.toString());
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+
+        Appender<ILoggingEvent> appender = fileAppender;
+        boolean prod = "prod".equals(profile);
+        if (prod) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setName("ASYNC_CONSOLE");
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(0);
+            async.setIncludeCallerData(false);
+            async.setMaxFlushTime(2000);
+            async.addAppender(fileAppender);
+            async.start();
+            appender = async;
+        }
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(ch.qos.logback.classic.Level.INFO);
+        root.addAppender(appender);
+
+        service = context.getLogger("com.minibanking.service.BankingService");
+        audit = context.getLogger("com.minibanking.security.logging.SecureLoggingService");
+        security = context.getLogger("org.springframework.security.web.FilterChainProxy");
+        sql = context.getLogger("org.hibernate.SQL");
+        binder = context.getLogger("org.hibernate.type.descriptor.sql.BasicBinder");
+        ch.qos.logback.classic.Level debug = prod ? ch.qos.logback.classic.Level.INFO : ch.qos.logback.classic.Level.DEBUG;
+        context.getLogger("com.minibanking").setLevel(debug);
+        context.getLogger("org.springframework.security").setLevel(debug);
+        sql.setLevel(debug);
+        binder.setLevel(prod ? ch.qos.logback.classic.Level.INFO : ch.qos.logback.classic.Level.TRACE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        context.stop();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void transfer() {
+        UUID from = UUID.randomUUID();
+        UUID to = UUID.randomUUID();
+        BigDecimal amount = new BigDecimal("0.01");
+        security.debug("Securing POST /api/transfers?fromAccountId={}&toAccountId={}", from, to);
+        security.debug("Set SecurityContextHolder to JwtAuthenticationToken [Principal=customer@example.com]");
+        service.debug("Processing transfer: {} from {} to {}", amount, from, to);
+        for (String statement : SQL) {
+            sql.debug(statement);
+            for (int parameter = 1; parameter <= 6; parameter++) {
+                binder.trace("binding parameter ({}:UUID) <- [{}]", parameter, from);
+            }
+        }
+        service.debug("Transaction event sent to blockchain stream: {}", "TRF-20261018-000001");
+        audit.info("Transfer {}: {} -> {}, Amount: {}, Desc: {}", "SUCCESS", "1234567890123456",
+                "6543210987654321", amount, "benchmark");
+        service.debug("Transfer completed successfully: {}", "TRF-20261018-000001");
+        security.debug("Secured POST /api/transfers");
+    }
+}
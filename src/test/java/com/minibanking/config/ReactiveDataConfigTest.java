@@ -0,0 +1,30 @@
+package com.minibanking.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for deriving the R2DBC URL from the JDBC datasource URL
+ */
+public class ReactiveDataConfigTest {
+
+    @Test
+    public void testJdbcUrlConvertedWithParameters() {
+        // Given
+        String jdbcUrl = "jdbc:postgresql://localhost:5433/mini_banking?sslmode=disable";
+
+        // When
+        String r2dbcUrl = ReactiveDataConfig.toR2dbcUrl(jdbcUrl);
+
+        // Then
+        assertEquals("r2dbc:postgresql://localhost:5433/mini_banking?sslmode=disable", r2dbcUrl);
+    }
+
+    @Test
+    public void testNonJdbcUrlRejected() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> ReactiveDataConfig.toR2dbcUrl("postgresql://localhost/db"));
+        assertThrows(IllegalArgumentException.class, () -> ReactiveDataConfig.toR2dbcUrl(null));
+    }
+}
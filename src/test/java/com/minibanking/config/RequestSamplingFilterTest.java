@@ -0,0 +1,67 @@
+package com.minibanking.config;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for RequestSamplingFilter
+ */
+public class RequestSamplingFilterTest {
+
+    private RequestSamplingFilter filter(double sampleRate) {
+        RequestSamplingFilter filter = new RequestSamplingFilter();
+        ReflectionTestUtils.setField(filter, "sampleRate", sampleRate);
+        return filter;
+    }
+
+    private String mdcSeenByChain(RequestSamplingFilter filter) throws Exception {
+        AtomicReference<String> seen = new AtomicReference<>();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/transfers"), new MockHttpServletResponse(),
+                (request, response) -> seen.set(MDC.get(RequestSamplingFilter.MDC_KEY)));
+        return seen.get();
+    }
+
+    @Test
+    public void testSampledRequestIsMarkedOnlyWhileItRuns() throws Exception {
+        // When
+        String seen = mdcSeenByChain(filter(1.0));
+
+        // Then
+        assertEquals("true", seen);
+        assertNull(MDC.get(RequestSamplingFilter.MDC_KEY));
+    }
+
+    @Test
+    public void testSamplingDisabled() throws Exception {
+        // When
+        String seen = mdcSeenByChain(filter(0.0));
+
+        // Then
+        assertNull(seen);
+    }
+
+    @Test
+    public void testSampleRateIsApproximatelyHonoured() {
+        // Given
+        RequestSamplingFilter filter = filter(0.1);
+        int requests = 100_000;
+
+        // When
+        int sampled = 0;
+        for (int i = 0; i < requests; i++) {
+            if (filter.isSampled()) {
+                sampled++;
+            }
+        }
+
+        // Then
+        assertTrue(sampled > 9_000 && sampled < 11_000, "sampled " + sampled);
+    }
+}
@@ -0,0 +1,120 @@
+package com.minibanking.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.ReactiveRedisConnection;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for ResourceBulkheadPostProcessor connection permits
+ */
+public class ResourceBulkheadPostProcessorTest {
+
+    private static class StubDataSource extends AbstractDataSource {
+        @Override
+        public Connection getConnection() {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] { Connection.class }, (proxy, method, args) -> null);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) {
+            return getConnection();
+        }
+    }
+
+    /**
+     * Connection factory (blocking and reactive) whose connections do nothing
+     */
+    private static Object stubRedisConnectionFactory() {
+        return Proxy.newProxyInstance(ResourceBulkheadPostProcessorTest.class.getClassLoader(),
+                new Class<?>[] { RedisConnectionFactory.class, ReactiveRedisConnectionFactory.class },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getConnection" -> stub(RedisConnection.class);
+                    case "getReactiveConnection" -> stub(ReactiveRedisConnection.class);
+                    default -> null;
+                });
+    }
+
+    private static Object stub(Class<?> type) {
+        return Proxy.newProxyInstance(ResourceBulkheadPostProcessorTest.class.getClassLoader(),
+                new Class<?>[] { type }, (proxy, method, args) -> null);
+    }
+
+    @Test
+    public void testPermitReturnedOnceOnClose() throws Exception {
+        // Given
+        ResourceBulkheadPostProcessor processor = new ResourceBulkheadPostProcessor(2, 2, 10);
+        DataSource dataSource = (DataSource) processor.postProcessAfterInitialization(new StubDataSource(), "dataSource");
+
+        // When
+        Connection connection = dataSource.getConnection();
+
+        // Then
+        assertEquals(1, processor.getAvailableJdbcPermits());
+        connection.close();
+        connection.close();
+        assertEquals(2, processor.getAvailableJdbcPermits());
+    }
+
+    @Test
+    public void testExhaustedPoolFailsFast() throws Exception {
+        ResourceBulkheadPostProcessor processor = new ResourceBulkheadPostProcessor(1, 1, 10);
+        DataSource dataSource = (DataSource) processor.postProcessAfterInitialization(new StubDataSource(), "dataSource");
+
+        Connection held = dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        held.close();
+        assertNotNull(dataSource.getConnection());
+    }
+
+    @Test
+    public void testSubscriptionConnectionsReturnTheirPermit() {
+        // Given
+        ResourceBulkheadPostProcessor processor = new ResourceBulkheadPostProcessor(2, 2, 10);
+        RedisConnectionFactory factory = (RedisConnectionFactory) processor.postProcessAfterInitialization(
+                stubRedisConnectionFactory(), "redisConnectionFactory");
+
+        // When - a listener container subscribes and keeps the connection
+        RedisConnection subscriber = factory.getConnection();
+        subscriber.subscribe((message, pattern) -> { }, "channel".getBytes());
+        RedisConnection request = factory.getConnection();
+
+        // Then
+        assertEquals(1, processor.getAvailableRedisPermits());
+        subscriber.close();
+        request.close();
+        assertEquals(2, processor.getAvailableRedisPermits());
+    }
+
+    @Test
+    public void testReactiveConnectionsShareTheRedisPermitsWithoutWaiting() {
+        // Given
+        ResourceBulkheadPostProcessor processor = new ResourceBulkheadPostProcessor(1, 1, 5_000);
+        Object factory = processor.postProcessAfterInitialization(stubRedisConnectionFactory(), "redisConnectionFactory");
+        ReactiveRedisConnectionFactory reactive = (ReactiveRedisConnectionFactory) factory;
+
+        // When
+        ReactiveRedisConnection held = reactive.getReactiveConnection();
+
+        // Then - fails at once instead of waiting out the acquire timeout
+        long started = System.nanoTime();
+        assertThrows(RedisConnectionFailureException.class, reactive::getReactiveConnection);
+        assertTrue(System.nanoTime() - started < 1_000_000_000L);
+        held.closeLater();
+        assertEquals(1, processor.getAvailableRedisPermits());
+        assertNotNull(((RedisConnectionFactory) factory).getConnection());
+        assertEquals(0, processor.getAvailableRedisPermits());
+    }
+}
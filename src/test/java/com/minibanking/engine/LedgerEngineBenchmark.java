@@ -0,0 +1,104 @@
+package com.minibanking.engine;
+
+import com.minibanking.entity.Account;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Journaled transfer throughput of LedgerEngine, with the PostgreSQL projection
+ * replaced by a no-op so only partitioning, group commit and fsync are measured
+ *
+ * Each caller keeps a window of transfers in flight, like concurrent request threads.
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="LedgerEngineBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class LedgerEngineBenchmark {
+
+    private static final int WINDOW = 128;
+    private static final int ACCOUNTS = 10_000;
+
+    @Param({"true", "false"})
+    public boolean fsync;
+
+    private Path directory;
+    private LedgerEngine engine;
+    private UUID[] accounts;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("ledger-benchmark");
+        accounts = new UUID[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts[i] = UUID.randomUUID();
+        }
+        engine = new LedgerEngine();
+        ReflectionTestUtils.setField(engine, "projection", new LedgerProjection() {
+            @Override
+            public long lastProjectedSequence() {
+                return 0;
+            }
+
+            @Override
+            public AccountState loadAccount(UUID accountId) {
+                return new AccountState(accountId, accountId.toString(), "VND", Account.AccountStatus.ACTIVE,
+                        Long.MAX_VALUE / 4, Long.MAX_VALUE / 4);
+            }
+
+            @Override
+            public void project(List<JournalRecord> records) {
+            }
+        });
+        ReflectionTestUtils.setField(engine, "journalPath", directory.resolve("ledger.journal").toString());
+        ReflectionTestUtils.setField(engine, "fsync", fsync);
+        engine.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        engine.stop();
+        Files.deleteIfExists(directory.resolve("ledger.journal"));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WINDOW)
+    public long transfers() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        CompletableFuture<?>[] window = new CompletableFuture<?>[WINDOW];
+        for (int i = 0; i < WINDOW; i++) {
+            UUID from = accounts[random.nextInt(ACCOUNTS)];
+            UUID to = accounts[random.nextInt(ACCOUNTS)];
+            window[i] = engine.transfer(from, to, 1 + random.nextInt(100_000), "TRF", "benchmark");
+        }
+        CompletableFuture.allOf(window).join();
+        return engine.getAccount(accounts[0]).getBalance();
+    }
+}
@@ -0,0 +1,212 @@
+package com.minibanking.engine;
+
+import com.minibanking.entity.Account;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for LedgerEngine backpressure and journal replay
+ */
+public class LedgerEngineTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final List<LedgerEngine> engines = new ArrayList<>();
+
+    /**
+     * LedgerProjection backed by maps instead of PostgreSQL
+     */
+    static class InMemoryLedgerProjection extends LedgerProjection {
+        final Map<UUID, AccountState> rows = new ConcurrentHashMap<>();
+        final List<JournalRecord> projected = new CopyOnWriteArrayList<>();
+        volatile boolean failing;
+        volatile long checkpoint;
+
+        InMemoryLedgerProjection(Map<UUID, Long> balances) {
+            balances.forEach((id, balance) -> rows.put(id, new AccountState(id, "ACC-" + id, "VND",
+                    Account.AccountStatus.ACTIVE, balance, balance)));
+        }
+
+        @Override
+        public long lastProjectedSequence() {
+            return checkpoint;
+        }
+
+        @Override
+        public AccountState loadAccount(UUID accountId) {
+            AccountState row = rows.get(accountId);
+            return row == null ? null : new AccountState(accountId, row.getAccountNumber(), row.getCurrency(),
+                    row.getStatus(), row.getBalance(), row.getAvailableBalance());
+        }
+
+        @Override
+        public void project(List<JournalRecord> records) {
+            if (failing) {
+                throw new IllegalStateException("database unavailable");
+            }
+            for (JournalRecord record : records) {
+                if (record.getFromAccountId() != null) {
+                    rows.get(record.getFromAccountId()).debit(record.getAmountMinor());
+                }
+                if (record.getToAccountId() != null) {
+                    rows.get(record.getToAccountId()).credit(record.getAmountMinor());
+                }
+            }
+            projected.addAll(records);
+            checkpoint = records.get(records.size() - 1).getSequence();
+        }
+    }
+
+    private LedgerEngine engine(LedgerProjection projection, int partitions, int maxUnprojected) throws Exception {
+        LedgerEngine engine = new LedgerEngine();
+        ReflectionTestUtils.setField(engine, "projection", projection);
+        ReflectionTestUtils.setField(engine, "partitionCount", partitions);
+        ReflectionTestUtils.setField(engine, "journalPath", tempDir.resolve("ledger.journal").toString());
+        ReflectionTestUtils.setField(engine, "fsync", false);
+        ReflectionTestUtils.setField(engine, "projectionRetryMs", 10L);
+        ReflectionTestUtils.setField(engine, "maxUnprojected", maxUnprojected);
+        engine.start();
+        engines.add(engine);
+        return engine;
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (LedgerEngine engine : engines) {
+            engine.stop();
+        }
+    }
+
+    private static void awaitProjected(LedgerEngine engine, long sequence) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while ((long) engine.getStatistics().get("projectedSequence") < sequence) {
+            assertTrue(System.nanoTime() < deadline, "projection did not catch up");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    public void testPostingsAreRejectedWhileTheProjectionIsBehind() throws Exception {
+        // Given - the database is down, so nothing gets projected
+        UUID account = UUID.randomUUID();
+        InMemoryLedgerProjection projection = new InMemoryLedgerProjection(Map.of(account, 0L));
+        projection.failing = true;
+        LedgerEngine engine = engine(projection, 1, 10);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            engine.deposit(account, 100, "DEP" + i, null).get(5, TimeUnit.SECONDS);
+        }
+        CompletableFuture<JournalRecord> overLimit = engine.deposit(account, 100, "DEP10", null);
+
+        // Then
+        ExecutionException rejected = assertThrows(ExecutionException.class, () -> overLimit.get(5, TimeUnit.SECONDS));
+        assertEquals("Ledger projection is behind", rejected.getCause().getMessage());
+
+        // And admission resumes once the projection catches up
+        projection.failing = false;
+        awaitProjected(engine, 10);
+        JournalRecord accepted = engine.deposit(account, 100, "DEP11", null).get(5, TimeUnit.SECONDS);
+        assertEquals(11, accepted.getSequence());
+        assertEquals(1_100, engine.getAccount(account).getBalance());
+    }
+
+    @Test
+    public void testRejectedPostingsReturnTheirPermit() throws Exception {
+        // Given
+        UUID account = UUID.randomUUID();
+        InMemoryLedgerProjection projection = new InMemoryLedgerProjection(Map.of(account, 0L));
+        projection.failing = true;
+        LedgerEngine engine = engine(projection, 1, 2);
+
+        // When - insufficient funds, twice the limit
+        for (int i = 0; i < 4; i++) {
+            CompletableFuture<JournalRecord> withdrawal = engine.withdraw(account, 100, "WDR" + i, null);
+            ExecutionException e = assertThrows(ExecutionException.class, () -> withdrawal.get(5, TimeUnit.SECONDS));
+            assertEquals("Insufficient balance", e.getCause().getMessage());
+        }
+
+        // Then
+        assertEquals(1, engine.deposit(account, 100, "DEP", null).get(5, TimeUnit.SECONDS).getSequence());
+    }
+
+    @Test
+    public void testReplayRebuildsTheSameBalancesAndRows() throws Exception {
+        // Given - accounts in different partitions, so transfers cross partitions
+        UUID[] accounts = accountsInDistinctPartitions(3, 4);
+        Map<UUID, Long> opening = Map.of(accounts[0], 100_000L, accounts[1], 50_000L, accounts[2], 20_000L);
+        InMemoryLedgerProjection live = new InMemoryLedgerProjection(opening);
+        LedgerEngine first = engine(live, 4, 1_000);
+        String longDescription = "Chuyển tiền – ".repeat(200); // well over the journal's description limit
+        List<CompletableFuture<JournalRecord>> postings = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            postings.add(first.transfer(accounts[i % 3], accounts[(i + 1) % 3], 100 + i, "TRF" + i,
+                    i % 10 == 0 ? longDescription : "transfer " + i));
+            if (i % 50 == 0) {
+                postings.add(first.deposit(accounts[2], 1_000, "DEP" + i, "top-up"));
+                postings.add(first.withdraw(accounts[0], 500, "WDR" + i, null));
+            }
+        }
+        long lastSequence = 0;
+        for (CompletableFuture<JournalRecord> posting : postings) {
+            JournalRecord record = posting.handle((r, e) -> r).get(5, TimeUnit.SECONDS);
+            lastSequence = record != null ? Math.max(lastSequence, record.getSequence()) : lastSequence;
+        }
+        first.stop();
+        engines.remove(first);
+        Map<UUID, Long> balances = new ConcurrentHashMap<>();
+        for (UUID account : accounts) {
+            balances.put(account, first.getAccount(account).getBalance());
+        }
+
+        // When - the database is rebuilt from the opening state and the journal is replayed
+        InMemoryLedgerProjection rebuilt = new InMemoryLedgerProjection(opening);
+        LedgerEngine second = engine(rebuilt, 4, 1_000);
+        awaitProjected(second, lastSequence);
+
+        // Then
+        assertEquals(312, lastSequence);
+        for (UUID account : accounts) {
+            assertEquals(balances.get(account), second.getAccount(account).getBalance());
+            assertEquals(balances.get(account), live.rows.get(account).getBalance());
+            assertEquals(balances.get(account), rebuilt.rows.get(account).getBalance());
+        }
+        assertEquals(rows(live.projected), rows(rebuilt.projected));
+        assertTrue(live.projected.stream().anyMatch(r -> r.getDescription() != null && r.getDescription().length() > 300));
+    }
+
+    private static UUID[] accountsInDistinctPartitions(int count, int partitions) {
+        Map<Integer, UUID> byPartition = new ConcurrentHashMap<>();
+        while (byPartition.size() < count) {
+            UUID id = UUID.randomUUID();
+            byPartition.putIfAbsent(Math.floorMod(id.hashCode(), partitions), id);
+        }
+        return byPartition.values().toArray(new UUID[0]);
+    }
+
+    private static List<String> rows(List<JournalRecord> records) {
+        List<String> rows = new ArrayList<>(records.size());
+        for (JournalRecord r : records) {
+            rows.add(r.getSequence() + "|" + r.getType() + "|" + r.getTransactionId() + "|" + r.getTransactionCode()
+                    + "|" + r.getFromAccountId() + "|" + r.getToAccountId() + "|" + r.getAmountMinor()
+                    + "|" + r.getTimestampMillis() + "|" + r.getDescription());
+        }
+        return rows;
+    }
+}
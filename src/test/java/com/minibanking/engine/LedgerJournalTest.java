@@ -0,0 +1,91 @@
+package com.minibanking.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for LedgerJournal framing and recovery
+ */
+public class LedgerJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static JournalRecord transfer(long sequence, String description) {
+        return new JournalRecord(sequence, JournalRecord.Type.TRANSFER, UUID.randomUUID(), "TXN" + sequence,
+                UUID.randomUUID(), UUID.randomUUID(), 12_345, 1_700_000_000_000L, description);
+    }
+
+    @Test
+    public void testRecordsRoundTrip() throws IOException {
+        // Given
+        Path path = tempDir.resolve("ledger.journal");
+        JournalRecord first = transfer(1, "Rent – tháng 5");
+        JournalRecord second = new JournalRecord(2, JournalRecord.Type.DEPOSIT, UUID.randomUUID(), "TXN2",
+                null, UUID.randomUUID(), 500, 1_700_000_000_001L, null);
+        try (LedgerJournal journal = new LedgerJournal(path, true)) {
+            journal.replay(record -> { });
+            journal.append(List.of(first, second));
+        }
+
+        // When
+        List<JournalRecord> replayed = new ArrayList<>();
+        long lastSequence;
+        try (LedgerJournal journal = new LedgerJournal(path, true)) {
+            lastSequence = journal.replay(replayed::add);
+        }
+
+        // Then
+        assertEquals(2, lastSequence);
+        assertEquals(2, replayed.size());
+        assertEquals(first.getTransactionId(), replayed.get(0).getTransactionId());
+        assertEquals(first.getFromAccountId(), replayed.get(0).getFromAccountId());
+        assertEquals("Rent – tháng 5", replayed.get(0).getDescription());
+        assertNull(replayed.get(1).getFromAccountId());
+        assertNull(replayed.get(1).getDescription());
+        assertEquals(500, replayed.get(1).getAmountMinor());
+    }
+
+    @Test
+    public void testTornTailIsTruncatedAndAppendContinues() throws IOException {
+        // Given - a crash left half of the second record on disk
+        Path path = tempDir.resolve("ledger.journal");
+        long intactSize;
+        try (LedgerJournal journal = new LedgerJournal(path, true)) {
+            journal.replay(record -> { });
+            journal.append(List.of(transfer(1, "first")));
+            intactSize = journal.size();
+            journal.append(List.of(transfer(2, "second")));
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(intactSize + 10);
+        }
+
+        // When
+        long lastSequence;
+        try (LedgerJournal journal = new LedgerJournal(path, true)) {
+            lastSequence = journal.replay(record -> { });
+            assertEquals(intactSize, journal.size());
+            journal.append(List.of(transfer(2, "second again")));
+        }
+
+        // Then
+        List<JournalRecord> replayed = new ArrayList<>();
+        try (LedgerJournal journal = new LedgerJournal(path, true)) {
+            journal.replay(replayed::add);
+        }
+        assertEquals(1, lastSequence);
+        assertEquals(2, replayed.size());
+        assertEquals("second again", replayed.get(1).getDescription());
+    }
+}
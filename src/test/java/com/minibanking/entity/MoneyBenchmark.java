@@ -0,0 +1,113 @@
+package com.minibanking.entity;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Posting and stream codec cost of Money against the BigDecimal arithmetic it replaced
+ *
+ * One operation is two transfers between two accounts (there and back), each a
+ * balance check, debit and credit; the codec round trip is how TransactionEvent amounts travel through
+ * the Redis stream. The BigDecimal side mirrors Account before the change.
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="MoneyBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    /**
+     * Account balances as they were held before Money
+     */
+    public static final class BigDecimalAccount {
+        private BigDecimal balance;
+        private BigDecimal availableBalance;
+        private LocalDateTime lastTransactionDate;
+
+        BigDecimalAccount(BigDecimal balance) {
+            this.balance = balance;
+            this.availableBalance = balance;
+        }
+
+        void debit(BigDecimal amount) {
+            if (availableBalance.compareTo(amount) < 0) {
+                throw new Account.InsufficientFundsException("Insufficient balance");
+            }
+            this.balance = balance.subtract(amount);
+            this.availableBalance = availableBalance.subtract(amount);
+            this.lastTransactionDate = LocalDateTime.now();
+        }
+
+        void credit(BigDecimal amount) {
+            this.balance = balance.add(amount);
+            this.availableBalance = availableBalance.add(amount);
+            this.lastTransactionDate = LocalDateTime.now();
+        }
+    }
+
+    private static final BigDecimal OPENING = new BigDecimal("1000000000.00");
+
+    private final BigDecimal decimalAmount = new BigDecimal("125.50");
+    private final Money moneyAmount = Money.of(decimalAmount);
+
+    private BigDecimalAccount decimalFrom;
+    private BigDecimalAccount decimalTo;
+    private Account moneyFrom;
+    private Account moneyTo;
+
+    @Setup
+    public void setUp() {
+        decimalFrom = new BigDecimalAccount(OPENING);
+        decimalTo = new BigDecimalAccount(OPENING);
+        moneyFrom = new Account();
+        moneyFrom.setBalance(OPENING);
+        moneyFrom.setAvailableBalance(OPENING);
+        moneyTo = new Account();
+        moneyTo.setBalance(OPENING);
+        moneyTo.setAvailableBalance(OPENING);
+    }
+
+    @Benchmark
+    public BigDecimalAccount bigDecimalPosting() {
+        // Alternate direction so balances stay put across iterations
+        decimalFrom.debit(decimalAmount);
+        decimalTo.credit(decimalAmount);
+        decimalTo.debit(decimalAmount);
+        decimalFrom.credit(decimalAmount);
+        return decimalFrom;
+    }
+
+    @Benchmark
+    public Account moneyPosting() {
+        moneyFrom.debit(moneyAmount);
+        moneyTo.credit(moneyAmount);
+        moneyTo.debit(moneyAmount);
+        moneyFrom.credit(moneyAmount);
+        return moneyFrom;
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalCodec() {
+        return new BigDecimal(decimalAmount.toPlainString());
+    }
+
+    @Benchmark
+    public Money moneyCodec() {
+        return Money.parse(moneyAmount.toString());
+    }
+}
@@ -0,0 +1,92 @@
+package com.minibanking.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the fixed-point Money type
+ */
+public class MoneyTest {
+
+    @Test
+    public void testBigDecimalRoundTrip() {
+        // Given
+        BigDecimal amount = new BigDecimal("1234.5");
+
+        // When
+        Money money = Money.of(amount);
+
+        // Then
+        assertEquals(123450, money.getMinorUnits());
+        assertEquals(new BigDecimal("1234.50"), money.toBigDecimal());
+        assertEquals("1234.50", money.toString());
+    }
+
+    @Test
+    public void testToStringMatchesBigDecimal() {
+        for (long units : new long[] { 0, 5, -5, 99, -100, 123456789, Long.MAX_VALUE, Long.MIN_VALUE }) {
+            Money money = Money.ofMinorUnits(units);
+            assertEquals(money.toBigDecimal().toPlainString(), money.toString());
+            assertEquals(money, Money.parse(money.toString()));
+        }
+    }
+
+    @Test
+    public void testParse() {
+        assertEquals(1000, Money.parse("10").getMinorUnits());
+        assertEquals(1050, Money.parse("10.5").getMinorUnits());
+        assertEquals(-5, Money.parse("-0.05").getMinorUnits());
+        assertEquals(100000, Money.parse("1E+3").getMinorUnits()); // BigDecimal.toString() form
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("10.005"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("abc"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse(""));
+    }
+
+    @Test
+    public void testArithmeticIsOverflowChecked() {
+        // Given
+        Money max = Money.ofMinorUnits(Long.MAX_VALUE);
+
+        // Then
+        assertEquals(Money.ofMinorUnits(150), Money.ofMinorUnits(100).plus(Money.ofMinorUnits(50)));
+        assertTrue(Money.ofMinorUnits(100).minus(Money.ofMinorUnits(150)).isNegative());
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofMinorUnits(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinorUnits(Long.MIN_VALUE).minus(Money.ofMinorUnits(1)));
+    }
+
+    @Test
+    public void testRejectsAmountsThatDontFit() {
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("0.001")));
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("1E+20")));
+    }
+
+    @Test
+    public void testAccountPosting() {
+        // Given
+        Account account = new Account();
+        account.setBalance(new BigDecimal("100.00"));
+        account.setAvailableBalance(new BigDecimal("100.00"));
+
+        // When
+        account.debit(Money.of(new BigDecimal("30.25")));
+        account.credit(Money.ofMinorUnits(5));
+
+        // Then
+        assertEquals(new BigDecimal("69.80"), account.getBalance());
+        assertEquals(new BigDecimal("69.80"), account.getAvailableBalance());
+        assertFalse(account.hasSufficientBalance(new BigDecimal("69.81")));
+        assertThrows(Account.InsufficientFundsException.class, () -> account.debit(Money.ofMinorUnits(6981)));
+    }
+
+    @Test
+    public void testConverter() {
+        MoneyConverter converter = new MoneyConverter();
+        assertEquals(new BigDecimal("12.30"), converter.convertToDatabaseColumn(Money.ofMinorUnits(1230)));
+        assertEquals(Money.ofMinorUnits(1230), converter.convertToEntityAttribute(new BigDecimal("12.3")));
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+}
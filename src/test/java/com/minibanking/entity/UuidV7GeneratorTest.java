@@ -0,0 +1,44 @@
+package com.minibanking.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for UuidV7Generator
+ */
+public class UuidV7GeneratorTest {
+
+    @Test
+    public void testVersionAndTimestamp() {
+        // Given
+        long before = System.currentTimeMillis();
+
+        // When
+        UUID id = UuidV7Generator.next();
+
+        // Then - version 7, RFC variant, leading 48 bits are the creation millis
+        long after = System.currentTimeMillis();
+        long millis = id.getMostSignificantBits() >>> 16;
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertTrue(millis >= before && millis <= after);
+    }
+
+    @Test
+    public void testKeysAreTimeOrdered() {
+        // Given
+        UUID previous = UuidV7Generator.next();
+
+        // When / Then - unsigned order of the leading bits matches generation order
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = UuidV7Generator.next();
+            assertTrue(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()) > 0
+                    || (next.getMostSignificantBits() == previous.getMostSignificantBits()
+                        && Long.compareUnsigned(next.getLeastSignificantBits(), previous.getLeastSignificantBits()) > 0));
+            previous = next;
+        }
+    }
+}
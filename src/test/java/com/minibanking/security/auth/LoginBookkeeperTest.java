@@ -0,0 +1,49 @@
+package com.minibanking.security.auth;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for LoginBookkeeper
+ */
+public class LoginBookkeeperTest {
+
+    @Test
+    public void testWritesAppliedInOrder() {
+        // Given
+        LoginBookkeeper bookkeeper = new LoginBookkeeper();
+        bookkeeper.start();
+        List<Integer> applied = new CopyOnWriteArrayList<>();
+
+        // When
+        for (int i = 0; i < 500; i++) {
+            int n = i;
+            bookkeeper.submit("write " + n, () -> applied.add(n));
+        }
+        bookkeeper.stop();
+
+        // Then
+        assertEquals(500, applied.size());
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i, applied.get(i));
+        }
+    }
+
+    @Test
+    public void testFailedWriteDoesNotStopQueue() {
+        LoginBookkeeper bookkeeper = new LoginBookkeeper();
+        bookkeeper.start();
+        List<String> applied = new CopyOnWriteArrayList<>();
+
+        bookkeeper.submit("failing", () -> { throw new RuntimeException("boom"); });
+        bookkeeper.submit("ok", () -> applied.add("ok"));
+        bookkeeper.stop();
+
+        assertEquals(List.of("ok"), applied);
+        assertEquals(1L, bookkeeper.getStatistics().get("failed"));
+    }
+}
@@ -0,0 +1,41 @@
+package com.minibanking.security.auth;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for LoginRateLimiter token buckets
+ */
+public class LoginRateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    public void testUserBucketExhaustedAndRefilled() {
+        // Given
+        LoginRateLimiter limiter = new LoginRateLimiter();
+
+        // When: default user bucket holds 5 attempts, refilled at 0.1/s
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire("10.0.0." + i, "alice", 0));
+        }
+
+        // Then
+        assertFalse(limiter.tryAcquire("10.0.0.9", "ALICE", 0));
+        assertTrue(limiter.tryAcquire("10.0.0.9", "bob", 0));
+        assertTrue(limiter.tryAcquire("10.0.0.9", "alice", 10 * SECOND));
+    }
+
+    @Test
+    public void testIpBucketLimitsAcrossUsers() {
+        LoginRateLimiter limiter = new LoginRateLimiter();
+
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limiter.tryAcquire("10.0.0.1", "user" + i, 0));
+        }
+
+        assertFalse(limiter.tryAcquire("10.0.0.1", "another", 0));
+        assertTrue(limiter.tryAcquire("10.0.0.2", "another", 0));
+    }
+}
@@ -0,0 +1,53 @@
+package com.minibanking.security.device;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for DeviceTrustCache
+ */
+public class DeviceTrustCacheTest {
+
+    @Test
+    public void testCachedUntilEvicted() {
+        // Given
+        DeviceTrustCache cache = new DeviceTrustCache();
+        UUID userId = UUID.randomUUID();
+        long now = System.currentTimeMillis();
+
+        // When
+        cache.put(userId, "device-1", DeviceService.DeviceTrustLevel.TRUSTED, Long.MAX_VALUE, cache.generation());
+
+        // Then
+        assertEquals(DeviceService.DeviceTrustLevel.TRUSTED, cache.get(userId, "device-1", now));
+        cache.evict(DeviceTrustCache.key(userId, "device-1"));
+        assertNull(cache.get(userId, "device-1", now));
+    }
+
+    @Test
+    public void testLoadRacingEvictionNotCached() {
+        DeviceTrustCache cache = new DeviceTrustCache();
+        UUID userId = UUID.randomUUID();
+
+        long generation = cache.generation();
+        cache.evict(DeviceTrustCache.key(userId, "device-1")); // Device changed while loading
+        cache.put(userId, "device-1", DeviceService.DeviceTrustLevel.UNTRUSTED, Long.MAX_VALUE, generation);
+
+        assertNull(cache.get(userId, "device-1", System.currentTimeMillis()));
+    }
+
+    @Test
+    public void testLockedEntryExpiresWithLock() {
+        DeviceTrustCache cache = new DeviceTrustCache();
+        UUID userId = UUID.randomUUID();
+        long lockedUntil = System.currentTimeMillis() + 1_000;
+
+        cache.put(userId, "device-1", DeviceService.DeviceTrustLevel.LOCKED, lockedUntil, cache.generation());
+
+        assertEquals(DeviceService.DeviceTrustLevel.LOCKED, cache.get(userId, "device-1", lockedUntil - 1));
+        assertNull(cache.get(userId, "device-1", lockedUntil));
+    }
+}
@@ -0,0 +1,141 @@
+package com.minibanking.security.encryption;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for DataEncryptionService
+ */
+public class DataEncryptionServiceTest {
+
+    private static final String KEY_1 = Base64.getEncoder().encodeToString(new byte[32]);
+    private static final String KEY_2 = Base64.getEncoder().encodeToString(filled(32, (byte) 7));
+
+    private static byte[] filled(int length, byte value) {
+        byte[] bytes = new byte[length];
+        Arrays.fill(bytes, value);
+        return bytes;
+    }
+
+    private DataEncryptionService service(String keys, int keyVersion) {
+        DataEncryptionService service = new DataEncryptionService();
+        ReflectionTestUtils.setField(service, "keys", keys);
+        ReflectionTestUtils.setField(service, "keyVersion", keyVersion);
+        service.init();
+        return service;
+    }
+
+    @Test
+    public void testRoundTrip() {
+        // Given
+        DataEncryptionService service = service("", 1);
+
+        // When
+        String encrypted = service.encrypt("12 Nguyen Hue, Quận 1, HCMC");
+
+        // Then
+        assertTrue(service.isEncrypted(encrypted));
+        assertFalse(service.isEncrypted("12 Nguyen Hue"));
+        assertEquals("12 Nguyen Hue, Quận 1, HCMC", service.decrypt(encrypted));
+        assertNull(service.encrypt(null));
+        assertEquals("", service.encrypt(""));
+    }
+
+    @Test
+    public void testIvsAreUnique() {
+        // Given
+        DataEncryptionService service = service("", 1);
+        Set<String> ivs = new HashSet<>();
+
+        // When
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            values.add("same value");
+        }
+        List<String> encrypted = new ArrayList<>(service.encryptAll(values));
+        for (int i = 0; i < 1000; i++) {
+            encrypted.add(service.encrypt("same value"));
+        }
+
+        // Then
+        for (String value : encrypted) {
+            byte[] bytes = Base64.getDecoder().decode(value.substring(DataEncryptionService.PREFIX.length()));
+            ivs.add(Base64.getEncoder().encodeToString(Arrays.copyOfRange(bytes, 2, 14)));
+        }
+        assertEquals(2000, ivs.size());
+    }
+
+    @Test
+    public void testBulkRoundTripKeepsOrderAndNulls() {
+        // Given
+        DataEncryptionService service = service("", 1);
+        List<String> values = Arrays.asList("alice@bank.io", null, "", "0901234567");
+
+        // When
+        List<String> encrypted = service.encryptAll(values);
+        List<String> decrypted = service.decryptAll(encrypted);
+
+        // Then
+        assertNull(encrypted.get(1));
+        assertEquals("", encrypted.get(2));
+        assertEquals(values, decrypted);
+    }
+
+    @Test
+    public void testOlderKeyVersionsStayReadable() {
+        // Given
+        String written = service("1:" + KEY_1, 1).encrypt("secret");
+        DataEncryptionService rotated = service("1:" + KEY_1 + ",2:" + KEY_2, 2);
+
+        // When
+        String rewritten = rotated.encrypt("secret");
+
+        // Then
+        assertEquals("secret", rotated.decrypt(written));
+        assertEquals("secret", rotated.decrypt(rewritten));
+        assertEquals(2, rotated.getActiveKeyVersion());
+        assertThrows(RuntimeException.class, () -> service("1:" + KEY_1, 1).decrypt(rewritten));
+    }
+
+    @Test
+    public void testTamperedCiphertextIsRejected() {
+        // Given
+        DataEncryptionService service = service("", 1);
+        byte[] bytes = Base64.getDecoder().decode(service.encrypt("secret").substring(DataEncryptionService.PREFIX.length()));
+        bytes[bytes.length - 1] ^= 1;
+
+        // When / Then
+        assertThrows(RuntimeException.class,
+                () -> service.decrypt(DataEncryptionService.PREFIX + Base64.getEncoder().encodeToString(bytes)));
+    }
+
+    @Test
+    public void testKeyRefusesToEncryptBeyondItsIvLimit() {
+        // Given
+        DataEncryptionService service = new DataEncryptionService();
+        ReflectionTestUtils.setField(service, "maxInvocationsPerKey", 3L);
+        service.init();
+        service.encryptAll(List.of("a", "b"));
+        String encrypted = service.encrypt("c");
+
+        // When / Then
+        assertThrows(RuntimeException.class, () -> service.encrypt("d"));
+        assertThrows(IllegalStateException.class, () -> service.encryptAll(List.of("e")));
+        assertEquals("c", service.decrypt(encrypted), "decryption is not limited");
+    }
+
+    @Test
+    public void testActiveVersionMustBeConfigured() {
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> service("1:" + KEY_1, 2));
+    }
+}
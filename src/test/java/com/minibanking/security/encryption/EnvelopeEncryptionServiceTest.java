@@ -0,0 +1,202 @@
+package com.minibanking.security.encryption;
+
+import com.minibanking.security.hsm.HSMService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for EnvelopeEncryptionService with HSMService's software keystore
+ */
+public class EnvelopeEncryptionServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * DataKeyRepository backed by a map instead of tenant_data_keys
+     */
+    static class InMemoryDataKeyRepository extends DataKeyRepository {
+        final Map<UUID, DataKeyRecord> records = new ConcurrentHashMap<>();
+
+        @Override
+        public void insert(DataKeyRecord record) {
+            records.put(record.getDataKeyId(), record);
+        }
+
+        @Override
+        public DataKeyRecord find(UUID dataKeyId) {
+            return records.get(dataKeyId);
+        }
+
+        @Override
+        public List<DataKeyRecord> findWrappedBelow(String tenantId, int kekVersion, int limit) {
+            return records.values().stream()
+                    .filter(r -> r.getTenantId().equals(tenantId) && r.getKekVersion() < kekVersion)
+                    .sorted(Comparator.comparing(DataKeyRecord::getDataKeyId))
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public boolean rewrap(UUID dataKeyId, int fromVersion, int toVersion, byte[] wrappedKey) {
+            DataKeyRecord current = records.get(dataKeyId);
+            if (current == null || current.getKekVersion() != fromVersion) {
+                return false;
+            }
+            records.put(dataKeyId, new DataKeyRecord(dataKeyId, current.getTenantId(), toVersion, wrappedKey));
+            return true;
+        }
+
+        @Override
+        public void delete(UUID dataKeyId) {
+            records.remove(dataKeyId);
+        }
+    }
+
+    private HSMService hsm() {
+        HSMService hsm = new HSMService();
+        ReflectionTestUtils.setField(hsm, "keystorePath", tempDir.resolve("keystore.p12").toString());
+        hsm.init();
+        return hsm;
+    }
+
+    private EnvelopeEncryptionService service(HSMService hsm, DataKeyRepository repository, long maxUses) {
+        EnvelopeEncryptionService service = new EnvelopeEncryptionService();
+        ReflectionTestUtils.setField(service, "hsmService", hsm);
+        ReflectionTestUtils.setField(service, "dataKeyRepository", repository);
+        ReflectionTestUtils.setField(service, "maxUses", maxUses);
+        return service;
+    }
+
+    @Test
+    public void testOneHsmCallPerDataKey() {
+        // Given
+        HSMService hsm = hsm();
+        EnvelopeEncryptionService service = service(hsm, new InMemoryDataKeyRepository(), 1_000_000);
+
+        // When
+        List<String> encrypted = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            encrypted.add(service.encrypt("bank_a", "customer " + i));
+        }
+        List<String> decrypted = service.decryptAll("bank_a", encrypted);
+
+        // Then
+        assertEquals(1, hsm.getWrapCallCount());
+        assertEquals("customer 0", decrypted.get(0));
+        assertEquals("customer 999", decrypted.get(999));
+    }
+
+    @Test
+    public void testDataKeyIsReplacedAfterMaxUses() {
+        // Given
+        InMemoryDataKeyRepository repository = new InMemoryDataKeyRepository();
+        EnvelopeEncryptionService service = service(hsm(), repository, 10);
+
+        // When
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            values.add(service.encrypt("bank_a", "value " + i));
+        }
+
+        // Then
+        assertEquals(3, repository.records.size());
+        assertEquals("value 24", service.decrypt("bank_a", values.get(24)));
+    }
+
+    @Test
+    public void testTenantsAreIsolated() {
+        // Given
+        EnvelopeEncryptionService service = service(hsm(), new InMemoryDataKeyRepository(), 1_000_000);
+        String encrypted = service.encrypt("bank_a", "secret");
+
+        // When / Then
+        assertThrows(RuntimeException.class, () -> service.decrypt("bank_b", encrypted));
+        assertEquals("secret", service.decrypt("bank_a", encrypted));
+    }
+
+    @Test
+    public void testRotationRewrapsKeysWithoutTouchingData() {
+        // Given: values encrypted before rotation
+        HSMService hsm = hsm();
+        InMemoryDataKeyRepository repository = new InMemoryDataKeyRepository();
+        EnvelopeEncryptionService service = service(hsm, repository, 2);
+        List<String> encrypted = service.encryptAll("bank_a", List.of("a", "b", "c", "d", "e"));
+        encrypted = new ArrayList<>(encrypted);
+        encrypted.add(service.encrypt("bank_a", "f"));
+
+        // When
+        int rewrapped = service.rotateTenantKey("bank_a");
+
+        // Then: all keys now wrapped with version 2, readable after a restart with an empty cache
+        assertEquals(repository.records.size(), rewrapped);
+        assertTrue(repository.records.values().stream().allMatch(r -> r.getKekVersion() == 2));
+        EnvelopeEncryptionService restarted = service(hsm(), repository, 2);
+        assertEquals(List.of("a", "b", "c", "d", "e", "f"), restarted.decryptAll("bank_a", encrypted));
+    }
+
+    @Test
+    public void testTamperedValueIsRejected() {
+        // Given
+        EnvelopeEncryptionService service = service(hsm(), new InMemoryDataKeyRepository(), 1_000_000);
+        String encrypted = service.encrypt("bank_a", "secret");
+        char last = encrypted.charAt(encrypted.length() - 3);
+        String tampered = encrypted.substring(0, encrypted.length() - 3) + (last == 'A' ? 'B' : 'A')
+                + encrypted.substring(encrypted.length() - 2);
+
+        // When / Then
+        assertThrows(RuntimeException.class, () -> service.decrypt("bank_a", tampered));
+    }
+
+    @Test
+    public void testConcurrentFirstKeysDoNotBlockEachOther() throws Exception {
+        // Given - a repository that holds each insert until both threads are creating a key,
+        // which only happens if key creation runs outside the map operation
+        CyclicBarrier bothCreating = new CyclicBarrier(2);
+        InMemoryDataKeyRepository repository = new InMemoryDataKeyRepository() {
+            @Override
+            public void insert(DataKeyRecord record) {
+                try {
+                    bothCreating.await(5, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new IllegalStateException("key creation is serialized", e);
+                }
+                super.insert(record);
+            }
+        };
+        EnvelopeEncryptionService service = service(hsm(), repository, 1_000_000);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // When
+            Future<String> first = executor.submit(() -> service.encrypt("bank_a", "first"));
+            Future<String> second = executor.submit(() -> service.encrypt("bank_a", "second"));
+
+            // Then - one key won and is shared, the loser's key was deleted
+            assertEquals("first", service.decrypt("bank_a", first.get(10, TimeUnit.SECONDS)));
+            assertEquals("second", service.decrypt("bank_a", second.get(10, TimeUnit.SECONDS)));
+            assertEquals(1, repository.records.size());
+            assertEquals(1, service.getStatistics().get("activeDataKeys"));
+            assertEquals(1, service.getStatistics().get("cachedDataKeys"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
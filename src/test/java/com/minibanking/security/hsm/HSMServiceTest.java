@@ -0,0 +1,219 @@
+package com.minibanking.security.hsm;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for HSMService signing sessions, batch operations and per-key metrics
+ */
+public class HSMServiceTest {
+
+    private static final String KEY = "BANK_SIGNING_KEY";
+
+    @TempDir
+    Path tempDir;
+
+    private HSMService hsm;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    private HSMService hsm() {
+        hsm = new HSMService();
+        ReflectionTestUtils.setField(hsm, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(hsm, "keystorePath", tempDir.resolve("keystore.p12").toString());
+        ReflectionTestUtils.setField(hsm, "sessionsPerKey", 2);
+        ReflectionTestUtils.setField(hsm, "batchThreads", 3);
+        hsm.init();
+        return hsm;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (hsm != null) {
+            hsm.shutdown();
+        }
+    }
+
+    private static List<byte[]> messages(int count) {
+        List<byte[]> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            messages.add(("transaction-" + i).getBytes(StandardCharsets.UTF_8));
+        }
+        return messages;
+    }
+
+    @Test
+    void signAndVerifyRoundTrip() {
+        // Given
+        HSMService hsm = hsm();
+        byte[] data = "transfer 100.00".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        byte[] signature = hsm.sign(KEY, data);
+
+        // Then
+        assertTrue(hsm.verify(KEY, data, signature));
+        assertFalse(hsm.verify(KEY, "transfer 900.00".getBytes(StandardCharsets.UTF_8), signature));
+        assertFalse(hsm.verify(KEY, data, new byte[] {1, 2, 3}));
+        assertTrue(hsm.verify(KEY, data, hsm.sign(KEY, data)), "sessions stay usable after a malformed signature");
+    }
+
+    @Test
+    void signAllAndVerifyAllKeepInputOrder() {
+        // Given
+        HSMService hsm = hsm();
+        List<byte[]> data = messages(200);
+
+        // When
+        List<byte[]> signatures = hsm.signAll(KEY, data);
+        List<byte[]> tampered = new ArrayList<>(signatures);
+        tampered.set(57, signatures.get(58));
+        boolean[] results = hsm.verifyAll(KEY, data, tampered);
+
+        // Then
+        assertEquals(200, signatures.size());
+        for (int i = 0; i < data.size(); i++) {
+            assertTrue(hsm.verify(KEY, data.get(i), signatures.get(i)), "signature " + i);
+            assertEquals(i != 57, results[i], "result " + i);
+        }
+    }
+
+    @Test
+    void verifyAllRejectsMismatchedSizesAndUnknownKeys() {
+        // Given
+        HSMService hsm = hsm();
+        List<byte[]> data = messages(3);
+        List<byte[]> signatures = hsm.signAll(KEY, data);
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> hsm.verifyAll(KEY, data, signatures.subList(0, 2)));
+        assertArrayEquals(new boolean[3], hsm.verifyAll("NO_SUCH_KEY", data, signatures));
+        assertThrows(RuntimeException.class, () -> hsm.signAll("NO_SUCH_KEY", data));
+    }
+
+    @Test
+    void concurrentSigningBeyondThePoolSize() throws Exception {
+        // Given
+        HSMService hsm = hsm();
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < 8; t++) {
+            int caller = t;
+            results.add(callers.submit(() -> {
+                for (int i = 0; i < 25; i++) {
+                    byte[] data = ("caller-" + caller + "-" + i).getBytes(StandardCharsets.UTF_8);
+                    if (!hsm.verify(KEY, data, hsm.sign(KEY, data))) {
+                        return false;
+                    }
+                }
+                return true;
+            }));
+        }
+
+        // Then
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get());
+        }
+        callers.shutdown();
+        assertEquals(200L, hsm.getKeyStatistics().get(KEY).get("signs"));
+        assertEquals(200L, hsm.getKeyStatistics().get(KEY).get("verifies"));
+    }
+
+    @Test
+    void countsAndRatesPerKey() throws Exception {
+        // Given
+        HSMService hsm = hsm();
+        hsm.sampleRates();
+        List<byte[]> data = messages(40);
+
+        // When
+        hsm.verifyAll(KEY, data, hsm.signAll(KEY, data));
+        hsm.sign("BANK_ENCRYPTION_KEY", data.get(0));
+        Thread.sleep(5);
+        hsm.sampleRates();
+
+        // Then
+        Map<String, Object> signing = hsm.getKeyStatistics().get(KEY);
+        assertEquals(40L, signing.get("signs"));
+        assertEquals(40L, signing.get("verifies"));
+        assertTrue((Double) signing.get("signsPerSecond") > 0);
+        assertEquals(1L, hsm.getKeyStatistics().get("BANK_ENCRYPTION_KEY").get("signs"));
+        assertEquals(0L, hsm.getKeyStatistics().get("HSM_MASTER_KEY").get("signs"));
+    }
+
+    @Test
+    void customerKeysShareTheOtherMetricSeries() {
+        // Given
+        HSMService hsm = hsm();
+        hsm.generateKey("CUSTOMER_1", "RSA", 2048);
+        hsm.generateKey("CUSTOMER_2", "RSA", 2048);
+        byte[] data = "open account".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        hsm.sign("CUSTOMER_1", data);
+        hsm.sign("CUSTOMER_2", data);
+        hsm.sign(KEY, data);
+
+        // Then
+        assertEquals(2.0, meterRegistry.get("hsm.operations").tags("key", "other", "operation", "sign")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("hsm.operations").tags("key", KEY, "operation", "sign")
+                .functionCounter().count());
+        assertTrue(meterRegistry.find("hsm.operations").tag("key", "CUSTOMER_1").meters().isEmpty());
+        assertEquals(1L, hsm.getKeyStatistics().get("CUSTOMER_1").get("signs"));
+    }
+
+    @Test
+    void customerKeySessionsAreCreatedOnFirstUse() {
+        // Given
+        HSMService hsm = hsm();
+        hsm.generateKey("CUSTOMER_1", "RSA", 2048);
+        assertEquals(0, hsm.getKeyStatistics().get("CUSTOMER_1").get("idleSigningSessions"));
+        assertEquals(2, hsm.getKeyStatistics().get(KEY).get("idleSigningSessions"));
+        byte[] data = "open account".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        byte[] signature = hsm.sign("CUSTOMER_1", data);
+
+        // Then
+        assertTrue(hsm.verify("CUSTOMER_1", data, signature));
+        assertEquals(1, hsm.getKeyStatistics().get("CUSTOMER_1").get("idleSigningSessions"));
+        assertEquals(1, hsm.getKeyStatistics().get("CUSTOMER_1").get("idleVerifyingSessions"));
+    }
+
+    @Test
+    void deleteKeyDropsItsStatisticsAndMeters() {
+        // Given
+        HSMService hsm = hsm();
+        hsm.generateKey("CUSTOMER_1", "RSA", 2048);
+        hsm.sign(KEY, "data".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        hsm.deleteKey("CUSTOMER_1");
+        hsm.deleteKey(KEY);
+
+        // Then
+        assertFalse(hsm.getKeyStatistics().containsKey("CUSTOMER_1"));
+        assertFalse(hsm.getKeyStatistics().containsKey(KEY));
+        assertTrue(meterRegistry.find("hsm.operations").tag("key", KEY).meters().isEmpty());
+        assertTrue(meterRegistry.find("hsm.operations.rate").tag("key", KEY).meters().isEmpty());
+        assertFalse(meterRegistry.find("hsm.operations").tag("key", "BANK_ENCRYPTION_KEY").meters().isEmpty());
+    }
+}
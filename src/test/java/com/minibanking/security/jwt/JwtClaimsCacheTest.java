@@ -0,0 +1,106 @@
+package com.minibanking.security.jwt;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for JwtClaimsCache
+ */
+public class JwtClaimsCacheTest {
+
+    private VerifiedToken token(UUID userId, String device, long expiresAt) {
+        return new VerifiedToken(UUID.randomUUID().toString(), userId, "user", device, "ACCESS", expiresAt);
+    }
+
+    @Test
+    public void testHitUntilExpiry() {
+        // Given
+        JwtClaimsCache cache = new JwtClaimsCache();
+        VerifiedToken token = token(UUID.randomUUID(), "device-1", 10_000);
+
+        // When
+        cache.put("digest", token);
+
+        // Then
+        assertSame(token, cache.get("digest", 9_999));
+        assertNull(cache.get("digest", 10_000));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testInvalidateByUserAndDevice() {
+        JwtClaimsCache cache = new JwtClaimsCache();
+        UUID userId = UUID.randomUUID();
+        cache.put("a", token(userId, "device-1", Long.MAX_VALUE));
+        cache.put("b", token(userId, "device-2", Long.MAX_VALUE));
+        cache.put("c", token(UUID.randomUUID(), "device-1", Long.MAX_VALUE));
+
+        assertEquals(1, cache.invalidate(userId, "device-1"));
+        assertNull(cache.get("a", 0));
+        assertNotNull(cache.get("b", 0));
+        assertNotNull(cache.get("c", 0));
+
+        assertEquals(1, cache.invalidate(userId, null));
+        assertNull(cache.get("b", 0));
+    }
+
+    @Test
+    public void testBoundedSize() {
+        JwtClaimsCache cache = new JwtClaimsCache();
+        ReflectionTestUtils.setField(cache, "maxSize", 2);
+
+        cache.put("a", token(UUID.randomUUID(), "d", Long.MAX_VALUE));
+        cache.put("b", token(UUID.randomUUID(), "d", Long.MAX_VALUE));
+        cache.put("c", token(UUID.randomUUID(), "d", Long.MAX_VALUE));
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("c", 0));
+    }
+
+    @Test
+    public void testFullCacheWaitsForThePurge() {
+        // Given
+        JwtClaimsCache cache = new JwtClaimsCache();
+        ReflectionTestUtils.setField(cache, "maxSize", 2);
+        cache.put("a", token(UUID.randomUUID(), "d", 1));
+        cache.put("b", token(UUID.randomUUID(), "d", Long.MAX_VALUE));
+
+        // When - full, even though one entry has expired
+        cache.put("c", token(UUID.randomUUID(), "d", Long.MAX_VALUE));
+
+        // Then
+        assertNull(cache.get("c", 0));
+        cache.purgeExpired();
+        assertEquals(1, cache.size());
+        cache.put("c", token(UUID.randomUUID(), "d", Long.MAX_VALUE));
+        assertNotNull(cache.get("c", 0));
+    }
+
+    @Test
+    public void testUserIndexIsCleanedUp() {
+        // Given
+        JwtClaimsCache cache = new JwtClaimsCache();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        cache.put("a", token(first, "device-1", Long.MAX_VALUE));
+        cache.put("b", token(first, "device-2", 1));
+        cache.put("c", token(second, "device-1", Long.MAX_VALUE));
+        Map<?, ?> index = (Map<?, ?>) ReflectionTestUtils.getField(cache, "digestsByUser");
+        assertEquals(2, index.size());
+
+        // When
+        cache.purgeExpired();
+        cache.invalidate("c");
+        cache.invalidate(first, "device-1");
+
+        // Then
+        assertEquals(0, cache.size());
+        assertTrue(index.isEmpty());
+        assertEquals(0, cache.invalidate(first, null));
+    }
+}
@@ -0,0 +1,189 @@
+package com.minibanking.security.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.minibanking.security.masking.DataMaskingService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the asynchronous audit pipeline and its file sink
+ */
+public class SecureLoggingServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SecureLoggingService service(boolean async) throws IOException {
+        SecureLoggingService service = new SecureLoggingService();
+        ReflectionTestUtils.setField(service, "dataMaskingService", new DataMaskingService());
+        ReflectionTestUtils.setField(service, "async", async);
+        ReflectionTestUtils.setField(service, "fileFsync", false);
+        ReflectionTestUtils.setField(service, "fileDirectory", tempDir.toString());
+        service.start();
+        return service;
+    }
+
+    private List<AuditRecord> readAll() throws IOException {
+        List<AuditRecord> records = new ArrayList<>();
+        try (Stream<Path> files = Files.list(tempDir)) {
+            for (Path file : files.sorted().toList()) {
+                AuditFileSink.read(file, records::add);
+            }
+        }
+        return records;
+    }
+
+    @Test
+    public void testRecordsAreMaskedAndWrittenInOrder() throws IOException {
+        // Given
+        SecureLoggingService service = service(true);
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            service.logTransfer("1234567890", "9876543210", new BigDecimal("150000.00"), "Invoice payment " + i, "SUCCESS");
+        }
+        service.logError("Transfer", "Account 12345678901 not found", "1234567890");
+        service.stop();
+
+        // Then - nothing raw reaches the file
+        List<AuditRecord> records = readAll();
+        assertEquals(1001, records.size());
+        AuditRecord first = records.get(0);
+        assertEquals(AuditRecord.Type.TRANSFER, first.getType());
+        assertEquals(List.of("SUCCESS", "1234****7890", "9876****3210", "100K-1M", "Invo****nt 0"), first.getFields());
+        assertEquals("Invo**** 999", records.get(999).getFields().get(4));
+        AuditRecord error = records.get(1000);
+        assertEquals(AuditRecord.Type.ERROR, error.getType());
+        assertFalse(error.getFields().get(1).contains("12345678901"));
+    }
+
+    @Test
+    public void testSynchronousModeWritesOnCaller() throws IOException {
+        // Given
+        SecureLoggingService service = service(false);
+
+        // When
+        service.logSecurityEvent("LOCKOUT", "user-1234-5678", "Too many attempts");
+
+        // Then
+        List<AuditRecord> records = readAll();
+        assertEquals(1, records.size());
+        assertEquals(List.of("LOCKOUT", "user****5678", "Too many attempts"), records.get(0).getFields());
+        assertEquals(1L, service.getStatistics().get("ranInline"));
+        service.stop();
+    }
+
+    @Test
+    public void testRecordsWrittenInlineDoNotOvertakeQueuedOnes() throws IOException {
+        // Given - the writer is held off, so the small queue fills up
+        SecureLoggingService service = new SecureLoggingService();
+        ReflectionTestUtils.setField(service, "queueCapacity", 8);
+        ReflectionTestUtils.setField(service, "dataMaskingService", new DataMaskingService());
+        ReflectionTestUtils.setField(service, "fileFsync", false);
+        ReflectionTestUtils.setField(service, "fileDirectory", tempDir.toString());
+        service.start();
+
+        // When
+        synchronized (ReflectionTestUtils.getField(service, "writeLock")) {
+            for (int i = 0; i < 20; i++) {
+                service.logAccountOperation("OPEN", "1234567890", BigDecimal.TEN, "TYPE-" + i);
+            }
+        }
+        service.stop();
+
+        // Then
+        List<AuditRecord> records = readAll();
+        assertEquals(20, records.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals("TYPE-" + i, records.get(i).getFields().get(3));
+        }
+        assertTrue((Long) service.getStatistics().get("ranInline") > 0);
+    }
+
+    @Test
+    public void testWriterLogsWithTheCallersMdc() throws IOException {
+        // Given
+        Logger logger = (Logger) LoggerFactory.getLogger(SecureLoggingService.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+        SecureLoggingService service = service(true);
+
+        // When
+        try {
+            MDC.put("sampled", "true");
+            MDC.put("requestId", "req-1");
+            service.logSecurityEvent("LOCKOUT", "user-1234-5678", "Too many attempts");
+            MDC.clear();
+            service.logSecurityEvent("UNLOCK", "user-1234-5678", "Expired");
+            service.stop();
+        } finally {
+            MDC.clear();
+            logger.detachAppender(appender);
+        }
+
+        // Then
+        assertEquals(2, appender.list.size());
+        assertEquals("true", appender.list.get(0).getMDCPropertyMap().get("sampled"));
+        assertEquals("req-1", appender.list.get(0).getMDCPropertyMap().get("requestId"));
+        assertTrue(appender.list.get(1).getMDCPropertyMap().isEmpty());
+    }
+
+    @Test
+    public void testCorruptedRecordFailsChecksum() throws IOException {
+        // Given
+        AuditFileSink sink = new AuditFileSink(tempDir, 1024 * 1024, false);
+        sink.append(List.of(new AuditRecord(1L, AuditRecord.Type.ACCOUNT, "OPEN", "1234****7890", "<100K", "SAVINGS")));
+        Path file = sink.getCurrentFile();
+        sink.close();
+
+        // When - flip one payload byte
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            channel.read(one, 20);
+            one.put(0, (byte) (one.get(0) ^ 0x01)).rewind();
+            channel.write(one, 20);
+        }
+
+        // Then
+        assertThrows(IOException.class, () -> AuditFileSink.read(file, record -> { }));
+    }
+
+    @Test
+    public void testRotatesWhenFileIsFull() throws IOException {
+        // Given
+        AuditFileSink sink = new AuditFileSink(tempDir, 200, false);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            sink.append(List.of(new AuditRecord(i, AuditRecord.Type.TRANSFER, "SUCCESS", "a", "b", "<100K", "desc " + i)));
+        }
+        sink.close();
+
+        // Then
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertTrue(files.count() > 1);
+        }
+        List<AuditRecord> records = readAll();
+        assertEquals(5, records.size());
+        assertEquals(4, records.get(4).getTimestampMillis());
+    }
+}
@@ -0,0 +1,100 @@
+package com.minibanking.security.masking;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for LogMessageMasker
+ */
+public class LogMessageMaskerTest {
+
+    @Test
+    public void testMasksEmail() {
+        // When
+        String masked = LogMessageMasker.mask("Login from john.doe@example.com failed");
+
+        // Then
+        assertEquals("Login from j******e@example.com failed", masked);
+    }
+
+    @Test
+    public void testMasksAccountNumber() {
+        // When
+        String masked = LogMessageMasker.mask("Transfer from 1234567890 to 9876543210");
+
+        // Then
+        assertEquals("Transfer from 1234****7890 to 9876****3210", masked);
+    }
+
+    @Test
+    public void testMasksCardNumbers() {
+        // When
+        String grouped = LogMessageMasker.mask("Card 4111 1111 1111 1111 declined");
+        String dashed = LogMessageMasker.mask("Card 4111-1111-1111-1111 declined");
+        String contiguous = LogMessageMasker.mask("Card 4111111111111111 declined");
+
+        // Then
+        assertEquals("Card **** **** **** 1111 declined", grouped);
+        assertEquals("Card ****-****-****-1111 declined", dashed);
+        assertEquals("Card ************1111 declined", contiguous);
+    }
+
+    @Test
+    public void testLeavesNonSensitiveNumbersAlone() {
+        // When / Then
+        assertEquals("Processed 1234 5678 9012 3456 items", LogMessageMasker.mask("Processed 1234 5678 9012 3456 items"));
+        assertEquals("Retry 3 of 5 after 250ms", LogMessageMasker.mask("Retry 3 of 5 after 250ms"));
+        assertEquals("Order ID12345678901 shipped", LogMessageMasker.mask("Order ID12345678901 shipped"));
+    }
+
+    @Test
+    public void testTextWithoutDigitsIsReturnedAsIs() {
+        // Given
+        String message = "Session expired, please log in again";
+
+        // When / Then
+        assertSame(message, LogMessageMasker.mask(message));
+        assertNull(LogMessageMasker.mask(null));
+    }
+
+    @Test
+    public void testMaskingIsIdempotent() {
+        // Given
+        String message = "User jane@bank.io paid 4111111111111111 from 1234567890";
+
+        // When
+        String once = LogMessageMasker.mask(message);
+        String twice = LogMessageMasker.mask(once);
+
+        // Then
+        assertEquals("User j**e@bank.io paid ************1111 from 1234****7890", once);
+        assertEquals(once, twice);
+    }
+
+    @Test
+    public void testMasksExceptionMessagesInStackTraces() {
+        // Given
+        LoggerContext context = new LoggerContext();
+        MaskingThrowableConverter converter = new MaskingThrowableConverter();
+        converter.setContext(context);
+        converter.start();
+        RuntimeException failure = new RuntimeException("Transfer from 1234567890 failed",
+                new IllegalStateException("Account 9876543210 locked"));
+        LoggingEvent event = new LoggingEvent(getClass().getName(), context.getLogger("test"), Level.ERROR,
+                "Transfer failed", failure, null);
+
+        // When
+        String rendered = converter.convert(event);
+
+        // Then
+        assertTrue(rendered.contains("Transfer from 1234****7890 failed"));
+        assertTrue(rendered.contains("Account 9876****3210 locked"));
+        assertFalse(rendered.contains("1234567890"));
+        assertFalse(rendered.contains("9876543210"));
+        assertTrue(rendered.contains("at com.minibanking.security.masking.LogMessageMaskerTest"));
+    }
+}
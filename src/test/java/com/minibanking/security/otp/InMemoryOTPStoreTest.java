@@ -0,0 +1,66 @@
+package com.minibanking.security.otp;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for InMemoryOTPStore
+ */
+public class InMemoryOTPStoreTest {
+
+    private OTPService.OTPData otp(String code) {
+        OTPService.OTPData data = new OTPService.OTPData();
+        data.setOtpId(UUID.randomUUID().toString());
+        data.setUserId(UUID.randomUUID());
+        data.setOtp(code);
+        data.setCreatedAt(LocalDateTime.now());
+        data.setExpiresAt(LocalDateTime.now().plusMinutes(5));
+        return data;
+    }
+
+    @Test
+    public void testVerifyConsumesOtp() {
+        // Given
+        InMemoryOTPStore store = new InMemoryOTPStore();
+        OTPService.OTPData data = otp("123456");
+        store.save(data, Duration.ofMinutes(5));
+
+        // When
+        OTPStore.VerifyOutcome outcome = store.verifyAndConsume(data.getOtpId(), "123456", 3);
+
+        // Then
+        assertEquals(OTPStore.VerifyStatus.VERIFIED, outcome.getStatus());
+        assertEquals(data.getUserId(), outcome.getUserId());
+        assertEquals(OTPStore.VerifyStatus.NOT_FOUND,
+                store.verifyAndConsume(data.getOtpId(), "123456", 3).getStatus());
+    }
+
+    @Test
+    public void testAttemptsExhausted() {
+        InMemoryOTPStore store = new InMemoryOTPStore();
+        OTPService.OTPData data = otp("123456");
+        store.save(data, Duration.ofMinutes(5));
+
+        assertEquals(OTPStore.VerifyStatus.INVALID, store.verifyAndConsume(data.getOtpId(), "000000", 2).getStatus());
+        assertEquals(OTPStore.VerifyStatus.MAX_ATTEMPTS_EXCEEDED,
+                store.verifyAndConsume(data.getOtpId(), "000000", 2).getStatus());
+        assertNull(store.find(data.getOtpId()));
+    }
+
+    @Test
+    public void testTimerWheelExpiry() {
+        InMemoryOTPStore store = new InMemoryOTPStore();
+        long now = System.currentTimeMillis();
+        store.advance(now);
+        store.save(otp("123456"), Duration.ofSeconds(5));
+
+        assertEquals(0, store.advance(now + 1_000));
+        assertEquals(1, store.advance(now + 7_000));
+        assertEquals(0, store.size());
+    }
+}
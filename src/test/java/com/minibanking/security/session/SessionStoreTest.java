@@ -0,0 +1,108 @@
+package com.minibanking.security.session;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the SessionStore revocation near-cache
+ */
+public class SessionStoreTest {
+
+    private DefaultMessage message(String body) {
+        return new DefaultMessage("auth:revocations".getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testRevocationBroadcastUpdatesNearCache() {
+        // Given
+        SessionStore store = new SessionStore();
+        ReflectionTestUtils.setField(store, "synced", true);
+
+        // When
+        store.onMessage(message("token-1|" + Long.MAX_VALUE), null);
+
+        // Then
+        assertTrue(store.isRevoked("token-1"));
+        assertFalse(store.isRevoked("token-2"));
+        assertEquals(1, store.getRevokedCount());
+    }
+
+    @Test
+    public void testMalformedBroadcastIgnored() {
+        SessionStore store = new SessionStore();
+        ReflectionTestUtils.setField(store, "synced", true);
+
+        store.onMessage(message("no-separator"), null);
+        store.onMessage(message("token-1|not-a-number"), null);
+
+        assertEquals(0, store.getRevokedCount());
+        assertFalse(store.isRevoked("token-1"));
+    }
+
+    @Test
+    public void testReloadOnlyAfterSubscription() {
+        // Given
+        List<String> reloads = new ArrayList<>();
+        SessionStore store = new SessionStore() {
+            @Override
+            public void resync() {
+                reloads.add("resync");
+            }
+        };
+
+        // When - startup, then steady state
+        store.maintain();
+        store.maintain();
+        store.maintain();
+
+        // Then - one reload, no periodic rescans
+        assertEquals(1, reloads.size());
+
+        // When - the container resubscribes after a reconnect
+        store.onChannelSubscribed("auth:revocations".getBytes(StandardCharsets.UTF_8), 1);
+        store.maintain();
+        store.maintain();
+
+        // Then
+        assertEquals(2, reloads.size());
+    }
+
+    @Test
+    public void testNearCacheIsBounded() {
+        // Given
+        List<String> lookups = new ArrayList<>();
+        SessionStore store = new SessionStore();
+        ReflectionTestUtils.setField(store, "synced", true);
+        ReflectionTestUtils.setField(store, "maxSize", 10);
+        ReflectionTestUtils.setField(store, "redisTemplate", new StringRedisTemplate() {
+            @Override
+            public Boolean hasKey(String key) {
+                lookups.add(key);
+                return true;
+            }
+        });
+        long expiresAt = System.currentTimeMillis() + 60_000;
+
+        // When
+        for (int i = 0; i < 15; i++) {
+            store.onMessage(message("token-" + i + "|" + (expiresAt + i)), null);
+        }
+
+        // Then - the soonest-expiring entries were evicted, and their misses go to Redis
+        assertTrue(store.getRevokedCount() <= 10);
+        assertTrue(store.isRevoked("token-14"));
+        assertTrue(lookups.isEmpty());
+        assertTrue(store.isRevoked("token-0"));
+        assertEquals(List.of("auth:revoked:token-0"), lookups);
+        assertFalse(store.isSynced());
+    }
+}
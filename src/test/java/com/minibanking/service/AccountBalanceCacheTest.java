@@ -0,0 +1,52 @@
+package com.minibanking.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for AccountBalanceCache version stamps
+ */
+public class AccountBalanceCacheTest {
+
+    private static AccountBalanceCache.Snapshot snapshot(UUID accountId, String balance, long version) {
+        return new AccountBalanceCache.Snapshot(accountId, new BigDecimal(balance), new BigDecimal(balance), version);
+    }
+
+    @Test
+    public void testOlderSnapshotDoesNotReplaceNewer() {
+        // Given
+        AccountBalanceCache cache = new AccountBalanceCache();
+        UUID accountId = UUID.randomUUID();
+        cache.putLocal(snapshot(accountId, "150.00", 8), System.currentTimeMillis());
+
+        // When - a read that loaded the row before the posting finishes late
+        cache.putLocal(snapshot(accountId, "100.00", 7), System.currentTimeMillis());
+
+        // Then
+        AccountBalanceCache.Snapshot cached = cache.get(accountId);
+        assertEquals(8, cached.getVersion());
+        assertEquals(new BigDecimal("150.00"), cached.getBalance());
+    }
+
+    @Test
+    public void testBroadcastEvictsOnlyOlderEntries() {
+        // Given
+        AccountBalanceCache cache = new AccountBalanceCache();
+        UUID current = UUID.randomUUID();
+        UUID stale = UUID.randomUUID();
+        cache.putLocal(snapshot(current, "10.00", 5), System.currentTimeMillis());
+        cache.putLocal(snapshot(stale, "20.00", 3), System.currentTimeMillis());
+
+        // When
+        cache.evictOlderThan(current, 5);
+        cache.evictOlderThan(stale, 4);
+
+        // Then
+        assertEquals(5, cache.get(current).getVersion());
+        assertEquals(1, (int) cache.getStatistics().get("size"));
+    }
+}
@@ -0,0 +1,45 @@
+package com.minibanking.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for AccountContentionTracker conflict-rate switching
+ */
+public class AccountContentionTrackerTest {
+
+    @Test
+    public void testQuietAccountStaysOptimistic() {
+        // Given
+        AccountContentionTracker tracker = new AccountContentionTracker();
+        UUID accountId = UUID.randomUUID();
+
+        // When - a single conflict among successful attempts
+        tracker.recordAttempt(accountId, true, 1_000);
+        for (int i = 0; i < 10; i++) {
+            tracker.recordAttempt(accountId, false, 2_000 + i);
+        }
+
+        // Then
+        assertFalse(tracker.isHot(accountId, 3_000));
+    }
+
+    @Test
+    public void testRepeatedConflictsSwitchToPessimisticUntilCooldown() {
+        // Given
+        AccountContentionTracker tracker = new AccountContentionTracker();
+        UUID accountId = UUID.randomUUID();
+
+        // When
+        tracker.recordAttempt(accountId, true, 1_000);
+        tracker.recordAttempt(accountId, true, 1_001);
+
+        // Then - hot for the 300s cooldown, then optimistic again
+        assertTrue(tracker.isHot(accountId, 2_000));
+        assertTrue(tracker.isHot(accountId, 300_000));
+        assertFalse(tracker.isHot(accountId, 301_002));
+    }
+}
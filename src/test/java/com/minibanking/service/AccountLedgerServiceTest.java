@@ -0,0 +1,228 @@
+package com.minibanking.service;
+
+import com.minibanking.entity.Account;
+import com.minibanking.entity.AccountLedgerEntry;
+import com.minibanking.entity.Transaction;
+import com.minibanking.repository.AccountLedgerEntryRepository;
+import com.minibanking.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for AccountLedgerService running balances, statements and ledger-backed history
+ */
+public class AccountLedgerServiceTest {
+
+    private static final LocalDateTime MARCH_1 = LocalDateTime.of(2026, 3, 1, 0, 0);
+
+    private final List<AccountLedgerEntry> entries = new ArrayList<>();
+    private final List<Object[]> transactionQueries = new ArrayList<>();
+
+    private static final Comparator<AccountLedgerEntry> POSTING_ORDER =
+            Comparator.comparing(AccountLedgerEntry::getPostedAt).thenComparing(AccountLedgerEntry::getEntrySequence);
+
+    /**
+     * AccountLedgerEntryRepository over a list, with the derived queries' semantics
+     */
+    private AccountLedgerEntryRepository ledgerRepository() {
+        return (AccountLedgerEntryRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { AccountLedgerEntryRepository.class }, (proxy, method, args) -> {
+                    UUID accountId = args[0] instanceof UUID id ? id : null;
+                    Predicate<AccountLedgerEntry> ofAccount = e -> e.getAccountId().equals(accountId);
+                    switch (method.getName()) {
+                        case "save" -> {
+                            AccountLedgerEntry entry = (AccountLedgerEntry) args[0];
+                            entry.setEntryId(UUID.randomUUID());
+                            entries.add(entry);
+                            return entry;
+                        }
+                        case "findLatestEntries" -> {
+                            return entries.stream().filter(ofAccount)
+                                    .sorted(Comparator.comparing(AccountLedgerEntry::getEntrySequence).reversed())
+                                    .limit(((Pageable) args[1]).getPageSize()).toList();
+                        }
+                        case "findEntriesBefore" -> {
+                            return entries.stream().filter(ofAccount)
+                                    .filter(e -> e.getEntrySequence() < (Long) args[1])
+                                    .sorted(Comparator.comparing(AccountLedgerEntry::getEntrySequence).reversed())
+                                    .limit(((Pageable) args[2]).getPageSize()).toList();
+                        }
+                        case "findEntriesInPeriod" -> {
+                            LocalDateTime from = (LocalDateTime) args[1];
+                            LocalDateTime to = (LocalDateTime) args[2];
+                            return entries.stream().filter(ofAccount)
+                                    .filter(e -> !e.getPostedAt().isBefore(from) && e.getPostedAt().isBefore(to))
+                                    .sorted(POSTING_ORDER).toList();
+                        }
+                        case "findFirstByAccountIdAndPostedAtLessThanEqualOrderByPostedAtDescEntrySequenceDesc" -> {
+                            LocalDateTime asOf = (LocalDateTime) args[1];
+                            return entries.stream().filter(ofAccount).filter(e -> !e.getPostedAt().isAfter(asOf))
+                                    .max(POSTING_ORDER);
+                        }
+                        case "findFirstByAccountIdAndPostedAtLessThanOrderByPostedAtDescEntrySequenceDesc" -> {
+                            LocalDateTime before = (LocalDateTime) args[1];
+                            return entries.stream().filter(ofAccount).filter(e -> e.getPostedAt().isBefore(before))
+                                    .max(POSTING_ORDER);
+                        }
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private AccountLedgerService ledgerService() {
+        AccountLedgerService service = new AccountLedgerService();
+        ReflectionTestUtils.setField(service, "ledgerRepository", ledgerRepository());
+        ReflectionTestUtils.setField(service, "maxPageSize", 500);
+        return service;
+    }
+
+    private static Account account(String balance) {
+        Account account = new Account();
+        account.setAccountId(UUID.randomUUID());
+        account.setBalance(new BigDecimal(balance));
+        account.setAvailableBalance(new BigDecimal(balance));
+        return account;
+    }
+
+    private static Transaction transaction(String code) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(UUID.randomUUID());
+        transaction.setTransactionCode(code);
+        return transaction;
+    }
+
+    private static void post(AccountLedgerService ledger, Account account, String amount, LocalDateTime at,
+                             Transaction transaction) {
+        BigDecimal value = new BigDecimal(amount);
+        if (value.signum() < 0) {
+            account.debit(value.negate());
+            account.setLastTransactionDate(at);
+            ledger.recordDebit(account, value.negate(), transaction, null);
+        } else {
+            account.credit(value);
+            account.setLastTransactionDate(at);
+            ledger.recordCredit(account, value, transaction, null);
+        }
+    }
+
+    @Test
+    public void testEntriesCarryTheRunningBalance() {
+        // Given
+        AccountLedgerService ledger = ledgerService();
+        Account account = account("100.00");
+
+        // When
+        post(ledger, account, "50.00", MARCH_1, transaction("TRF1"));
+        post(ledger, account, "-30.00", MARCH_1.plusHours(1), transaction("TRF2"));
+        post(ledger, account, "5.25", MARCH_1.plusHours(2), transaction("TRF3"));
+
+        // Then
+        List<AccountLedgerEntry> history = ledger.getHistory(account.getAccountId(), null, 10);
+        assertEquals(List.of(3L, 2L, 1L), history.stream().map(AccountLedgerEntry::getEntrySequence).toList());
+        assertEquals(0, new BigDecimal("125.25").compareTo(history.get(0).getBalanceAfter()));
+        assertEquals(0, new BigDecimal("120.00").compareTo(history.get(1).getBalanceAfter()));
+        assertEquals(AccountLedgerEntry.EntryType.DEBIT, history.get(1).getEntryType());
+        assertEquals(0, new BigDecimal("150.00").compareTo(history.get(2).getBalanceAfter()));
+        assertEquals("TRF1", history.get(2).getTransactionCode());
+        assertEquals(List.of(1L), ledger.getHistory(account.getAccountId(), 2L, 10).stream()
+                .map(AccountLedgerEntry::getEntrySequence).toList());
+    }
+
+    @Test
+    public void testStatementOpeningAndClosingBalances() {
+        // Given - one posting before the period, two inside, one after
+        AccountLedgerService ledger = ledgerService();
+        Account account = account("0.00");
+        post(ledger, account, "200.00", MARCH_1.minusDays(1), transaction("DEP1"));
+        post(ledger, account, "-20.00", MARCH_1, transaction("WDR1"));
+        post(ledger, account, "70.00", MARCH_1.plusDays(10), transaction("DEP2"));
+        post(ledger, account, "-100.00", MARCH_1.plusMonths(1), transaction("WDR2"));
+
+        // When
+        AccountLedgerService.AccountStatement march =
+                ledger.getStatement(account.getAccountId(), MARCH_1, MARCH_1.plusMonths(1));
+        AccountLedgerService.AccountStatement quiet =
+                ledger.getStatement(account.getAccountId(), MARCH_1.plusDays(20), MARCH_1.plusDays(25));
+
+        // Then - the period is [from, to)
+        assertEquals(0, new BigDecimal("200.00").compareTo(march.getOpeningBalance()));
+        assertEquals(0, new BigDecimal("250.00").compareTo(march.getClosingBalance()));
+        assertEquals(0, new BigDecimal("20.00").compareTo(march.getTotalDebits()));
+        assertEquals(0, new BigDecimal("70.00").compareTo(march.getTotalCredits()));
+        assertEquals(2, march.getEntries().size());
+        assertEquals(0, new BigDecimal("250.00").compareTo(quiet.getOpeningBalance()));
+        assertEquals(0, new BigDecimal("250.00").compareTo(quiet.getClosingBalance()));
+        assertTrue(quiet.getEntries().isEmpty());
+        assertThrows(IllegalArgumentException.class,
+                () -> ledger.getStatement(account.getAccountId(), MARCH_1, MARCH_1));
+    }
+
+    @Test
+    public void testBalanceAsOf() {
+        // Given
+        AccountLedgerService ledger = ledgerService();
+        Account account = account("0.00");
+        post(ledger, account, "80.00", MARCH_1, transaction("DEP1"));
+        post(ledger, account, "-30.00", MARCH_1.plusDays(1), transaction("WDR1"));
+
+        // When / Then
+        assertEquals(0, BigDecimal.ZERO.compareTo(ledger.getBalanceAsOf(account.getAccountId(), MARCH_1.minusSeconds(1))));
+        assertEquals(0, new BigDecimal("80.00").compareTo(ledger.getBalanceAsOf(account.getAccountId(), MARCH_1)));
+        assertEquals(0, new BigDecimal("80.00").compareTo(
+                ledger.getBalanceAsOf(account.getAccountId(), MARCH_1.plusHours(23))));
+        assertEquals(0, new BigDecimal("50.00").compareTo(
+                ledger.getBalanceAsOf(account.getAccountId(), MARCH_1.plusDays(30))));
+    }
+
+    @Test
+    public void testTransactionHistoryIsServedFromTheLedger() {
+        // Given
+        AccountLedgerService ledger = ledgerService();
+        Account account = account("0.00");
+        List<Transaction> posted = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Transaction transaction = transaction("DEP" + i);
+            posted.add(transaction);
+            post(ledger, account, "10.00", MARCH_1.plusDays(i), transaction);
+        }
+        post(ledger, account("0.00"), "10.00", MARCH_1, transaction("OTHER"));
+        BankingService bankingService = new BankingService();
+        ReflectionTestUtils.setField(bankingService, "ledgerService", ledger);
+        ReflectionTestUtils.setField(bankingService, "historyLimit", 3);
+        ReflectionTestUtils.setField(bankingService, "transactionRepository", (TransactionRepository) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[] { TransactionRepository.class }, (proxy, method, args) -> {
+                    if (!"findByTransactionIdsWithin".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    transactionQueries.add(args);
+                    @SuppressWarnings("unchecked")
+                    List<UUID> ids = (List<UUID>) args[0];
+                    return posted.stream().filter(t -> ids.contains(t.getTransactionId())).toList();
+                }));
+
+        // When
+        List<Transaction> history = bankingService.getTransactionHistory(account.getAccountId());
+
+        // Then - the latest postings, newest first, looked up within their posting times
+        assertEquals(List.of("DEP4", "DEP3", "DEP2"), history.stream().map(Transaction::getTransactionCode).toList());
+        assertEquals(1, transactionQueries.size());
+        assertEquals(MARCH_1.plusDays(2).minusHours(1), transactionQueries.get(0)[1]);
+        assertEquals(MARCH_1.plusDays(4).plusHours(1), transactionQueries.get(0)[2]);
+
+        // And an account without postings doesn't touch transactions at all
+        assertTrue(bankingService.getTransactionHistory(UUID.randomUUID()).isEmpty());
+        assertEquals(1, transactionQueries.size());
+    }
+}
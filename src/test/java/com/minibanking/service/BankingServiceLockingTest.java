@@ -0,0 +1,285 @@
+package com.minibanking.service;
+
+import com.minibanking.blockchain.TransactionEvent;
+import com.minibanking.blockchain.TransactionStreamProducer;
+import com.minibanking.entity.Account;
+import com.minibanking.entity.AccountLedgerEntry;
+import com.minibanking.entity.Transaction;
+import com.minibanking.repository.AccountRepository;
+import com.minibanking.repository.TransactionRepository;
+import com.minibanking.security.logging.SecureLoggingService;
+import com.minibanking.security.masking.DataMaskingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for BankingService optimistic transfers: retries, and the fall back to row locks
+ */
+public class BankingServiceLockingTest {
+
+    /**
+     * Account rows kept in memory; each read returns a fresh copy, like a new persistence context
+     */
+    static final class InMemoryAccounts {
+        final Map<UUID, BigDecimal> balances = new HashMap<>();
+        final List<String> reads = new ArrayList<>();
+        int conflicts;
+        int commits;
+        int rollbacks;
+
+        UUID account(String balance) {
+            UUID id = UUID.randomUUID();
+            balances.put(id, new BigDecimal(balance));
+            return id;
+        }
+
+        private Optional<Account> load(Object id) {
+            BigDecimal balance = balances.get(id);
+            if (balance == null) {
+                return Optional.empty();
+            }
+            Account account = new Account();
+            account.setAccountId((UUID) id);
+            account.setAccountNumber("ACC-" + id);
+            account.setBalance(balance);
+            account.setAvailableBalance(balance);
+            return Optional.of(account);
+        }
+
+        private Account store(Account account, boolean flush) {
+            if (flush && conflicts > 0) {
+                conflicts--;
+                throw new OptimisticLockingFailureException("Row was updated by another transaction");
+            }
+            balances.put(account.getAccountId(), account.getBalance());
+            return account;
+        }
+
+        AccountRepository accountRepository() {
+            return proxy(AccountRepository.class, (method, args) -> switch (method) {
+                case "findById" -> {
+                    reads.add("read");
+                    yield load(args[0]);
+                }
+                case "findByIdForUpdate" -> {
+                    reads.add("lock");
+                    yield load(args[0]);
+                }
+                case "save" -> store((Account) args[0], false);
+                case "saveAndFlush" -> store((Account) args[0], true);
+                default -> throw new UnsupportedOperationException(method);
+            });
+        }
+
+        TransactionRepository transactionRepository() {
+            return proxy(TransactionRepository.class, (method, args) -> {
+                if (!"save".equals(method)) {
+                    throw new UnsupportedOperationException(method);
+                }
+                return args[0];
+            });
+        }
+
+        PlatformTransactionManager transactionManager() {
+            return new PlatformTransactionManager() {
+                private Map<UUID, BigDecimal> before;
+
+                @Override
+                public TransactionStatus getTransaction(TransactionDefinition definition) {
+                    before = new HashMap<>(balances);
+                    return new SimpleTransactionStatus();
+                }
+
+                @Override
+                public void commit(TransactionStatus status) {
+                    commits++;
+                }
+
+                @Override
+                public void rollback(TransactionStatus status) {
+                    balances.clear();
+                    balances.putAll(before);
+                    rollbacks++;
+                }
+            };
+        }
+    }
+
+    @FunctionalInterface
+    interface Handler {
+        Object handle(String method, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(BankingServiceLockingTest.class.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> method.getDeclaringClass() == Object.class
+                        ? ("toString".equals(method.getName()) ? type.getSimpleName() : method.invoke(handler, args))
+                        : handler.handle(method.getName(), args));
+    }
+
+    private final InMemoryAccounts accounts = new InMemoryAccounts();
+    private final AccountContentionTracker contentionTracker = new AccountContentionTracker();
+    private final List<AccountLedgerEntry.EntryType> ledger = new ArrayList<>();
+
+    private BankingService service(String lockingMode) {
+        BankingService service = new BankingService() {
+            @Override
+            String generateTransactionCode() {
+                return "TRF-" + UUID.randomUUID();
+            }
+        };
+        SecureLoggingService logging = new SecureLoggingService();
+        ReflectionTestUtils.setField(logging, "dataMaskingService", new DataMaskingService());
+        ReflectionTestUtils.setField(logging, "async", false);
+        ReflectionTestUtils.setField(logging, "fileEnabled", false);
+        ReflectionTestUtils.setField(service, "accountRepository", accounts.accountRepository());
+        ReflectionTestUtils.setField(service, "transactionRepository", accounts.transactionRepository());
+        ReflectionTestUtils.setField(service, "transactionManager", accounts.transactionManager());
+        ReflectionTestUtils.setField(service, "secureLoggingService", logging);
+        ReflectionTestUtils.setField(service, "contentionTracker", contentionTracker);
+        ReflectionTestUtils.setField(service, "balanceCache", new AccountBalanceCache() {
+            @Override
+            public void updateAfterCommit(Account account) {
+            }
+        });
+        ReflectionTestUtils.setField(service, "ledgerService", new AccountLedgerService() {
+            @Override
+            public AccountLedgerEntry recordDebit(Account account, BigDecimal amount, Transaction transaction, Account counterparty) {
+                ledger.add(AccountLedgerEntry.EntryType.DEBIT);
+                return null;
+            }
+
+            @Override
+            public AccountLedgerEntry recordCredit(Account account, BigDecimal amount, Transaction transaction, Account counterparty) {
+                ledger.add(AccountLedgerEntry.EntryType.CREDIT);
+                return null;
+            }
+        });
+        ReflectionTestUtils.setField(service, "streamProducer", new TransactionStreamProducer() {
+            @Override
+            public void sendTransactionEvent(TransactionEvent transactionEvent) {
+            }
+        });
+        ReflectionTestUtils.setField(service, "lockingMode", lockingMode);
+        ReflectionTestUtils.setField(service, "maxOptimisticAttempts", 3);
+        ReflectionTestUtils.setField(service, "backoffBaseMs", 1L);
+        ReflectionTestUtils.setField(service, "backoffMaxMs", 2L);
+        return service;
+    }
+
+    @Test
+    public void testConflictIsRetriedWithoutLocks() {
+        // Given
+        UUID from = accounts.account("100.00");
+        UUID to = accounts.account("0.00");
+        accounts.conflicts = 1;
+        BankingService service = service("optimistic");
+
+        // When
+        Transaction transaction = service.transferMoney(from, to, new BigDecimal("30.00"), "rent");
+
+        // Then - the conflicting attempt rolled back, the retry posted once
+        assertEquals(Transaction.TransactionStatus.COMPLETED, transaction.getStatus());
+        assertEquals(List.of("read", "read", "read", "read"), accounts.reads);
+        assertEquals(1, accounts.rollbacks);
+        assertEquals(1, accounts.commits);
+        assertEquals(0, new BigDecimal("70.00").compareTo(accounts.balances.get(from)));
+        assertEquals(0, new BigDecimal("30.00").compareTo(accounts.balances.get(to)));
+        assertEquals(List.of(AccountLedgerEntry.EntryType.DEBIT, AccountLedgerEntry.EntryType.CREDIT), ledger);
+    }
+
+    @Test
+    public void testExhaustedRetriesFallBackToRowLocks() {
+        // Given - every optimistic attempt conflicts
+        UUID from = accounts.account("100.00");
+        UUID to = accounts.account("0.00");
+        accounts.conflicts = 3;
+        BankingService service = service("optimistic");
+
+        // When
+        Transaction transaction = service.transferMoney(from, to, new BigDecimal("30.00"), null);
+
+        // Then
+        assertEquals(Transaction.TransactionStatus.COMPLETED, transaction.getStatus());
+        assertEquals(List.of("read", "read", "read", "read", "read", "read", "lock", "lock"), accounts.reads);
+        assertEquals(3, accounts.rollbacks);
+        assertEquals(1, accounts.commits);
+        assertEquals(0, new BigDecimal("70.00").compareTo(accounts.balances.get(from)));
+        assertEquals(2, ledger.size());
+
+        // And the conflicts mark both accounts hot
+        assertTrue(contentionTracker.isHot(from));
+        assertTrue(contentionTracker.isHot(to));
+    }
+
+    @Test
+    public void testHotAccountIsLockedUpFront() {
+        // Given
+        UUID from = accounts.account("100.00");
+        UUID to = accounts.account("0.00");
+        contentionTracker.recordAttempt(true, to);
+        contentionTracker.recordAttempt(true, to);
+        BankingService service = service("optimistic");
+
+        // When
+        service.transferMoney(from, to, new BigDecimal("30.00"), null);
+
+        // Then
+        assertEquals(List.of("lock", "lock"), accounts.reads);
+        assertEquals(0, accounts.rollbacks);
+    }
+
+    @Test
+    public void testOuterTransactionIsNotRetried() {
+        // Given - a conflict inside a caller's transaction must propagate, not be retried
+        UUID from = accounts.account("100.00");
+        UUID to = accounts.account("0.00");
+        accounts.conflicts = 1;
+        BankingService service = service("optimistic");
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            // When
+            service.transferMoney(from, to, new BigDecimal("30.00"), null);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        // Then - locked, so the version-checked flush was never used
+        assertEquals(List.of("lock", "lock"), accounts.reads);
+        assertEquals(1, accounts.conflicts);
+        assertEquals(0, new BigDecimal("70.00").compareTo(accounts.balances.get(from)));
+    }
+
+    @Test
+    public void testPessimisticModeAlwaysLocks() {
+        // Given
+        UUID from = accounts.account("100.00");
+        UUID to = accounts.account("0.00");
+        BankingService service = service("pessimistic");
+
+        // When
+        service.transferMoney(from, to, new BigDecimal("30.00"), null);
+
+        // Then
+        assertEquals(List.of("lock", "lock"), accounts.reads);
+        assertEquals(1, accounts.commits);
+    }
+}
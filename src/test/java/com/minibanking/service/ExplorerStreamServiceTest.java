@@ -0,0 +1,52 @@
+package com.minibanking.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for ExplorerStreamService keyset cursors
+ */
+public class ExplorerStreamServiceTest {
+
+    @Test
+    public void testTransactionCursorRoundTrip() {
+        // Given
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 10, 15, 30, 123456000);
+        UUID transactionId = UUID.randomUUID();
+        ExplorerStreamService.TransactionCursor cursor =
+                new ExplorerStreamService.TransactionCursor(createdAt, transactionId);
+
+        // When
+        ExplorerStreamService.TransactionCursor parsed =
+                ExplorerStreamService.TransactionCursor.parse(cursor.toString());
+
+        // Then
+        assertEquals(createdAt, parsed.getCreatedAt());
+        assertEquals(transactionId, parsed.getTransactionId());
+    }
+
+    @Test
+    public void testTransactionCursorWithoutFractionalSeconds() {
+        UUID transactionId = UUID.randomUUID();
+
+        ExplorerStreamService.TransactionCursor parsed =
+                ExplorerStreamService.TransactionCursor.parse("2024-05-01T10:15," + transactionId);
+
+        assertEquals(LocalDateTime.of(2024, 5, 1, 10, 15), parsed.getCreatedAt());
+        assertEquals(transactionId, parsed.getTransactionId());
+    }
+
+    @Test
+    public void testInvalidTransactionCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ExplorerStreamService.TransactionCursor.parse("not-a-cursor"));
+        assertThrows(IllegalArgumentException.class,
+                () -> ExplorerStreamService.TransactionCursor.parse("yesterday," + UUID.randomUUID()));
+        assertThrows(IllegalArgumentException.class,
+                () -> ExplorerStreamService.TransactionCursor.parse("2024-05-01T10:15,not-a-uuid"));
+    }
+}
@@ -0,0 +1,39 @@
+package com.minibanking.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for HousekeepingService batch loop
+ */
+public class HousekeepingServiceTest {
+
+    @Test
+    public void testRunsUntilPartialBatch() {
+        // Given: 2500 rows to delete in batches of 1000
+        AtomicInteger remaining = new AtomicInteger(2500);
+
+        // When
+        HousekeepingService.JobResult result = HousekeepingService.runChunked("job", () -> {
+            int deleted = Math.min(1000, remaining.get());
+            remaining.addAndGet(-deleted);
+            return deleted;
+        }, 1000, 100, 0);
+
+        // Then
+        assertEquals(2500, result.getRows());
+        assertEquals(3, result.getBatches());
+        assertEquals(0, remaining.get());
+    }
+
+    @Test
+    public void testStopsAtMaxBatches() {
+        HousekeepingService.JobResult result = HousekeepingService.runChunked("job", () -> 10, 10, 5, 0);
+
+        assertEquals(50, result.getRows());
+        assertEquals(5, result.getBatches());
+    }
+}
@@ -0,0 +1,92 @@
+package com.minibanking.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for PhiAccrualFailureDetector
+ */
+public class PhiAccrualFailureDetectorTest {
+
+    private PhiAccrualFailureDetector newDetector() {
+        return new PhiAccrualFailureDetector(8.0, 100, 10.0, 0, 100);
+    }
+
+    @Test
+    public void testPhiIsZeroBeforeFirstHeartbeat() {
+        PhiAccrualFailureDetector detector = newDetector();
+
+        assertFalse(detector.isMonitoring());
+        assertEquals(0.0, detector.phi(10_000));
+        assertTrue(detector.isAvailable(10_000));
+    }
+
+    @Test
+    public void testAvailableWithRegularHeartbeats() {
+        PhiAccrualFailureDetector detector = newDetector();
+        long now = 0;
+        for (int i = 0; i < 20; i++) {
+            detector.heartbeat(now);
+            now += 100;
+        }
+
+        // Next heartbeat is just due
+        assertTrue(detector.isAvailable(now));
+        assertTrue(detector.phi(now) < 1.0);
+    }
+
+    @Test
+    public void testSuspectedAfterMissedHeartbeats() {
+        PhiAccrualFailureDetector detector = newDetector();
+        long now = 0;
+        for (int i = 0; i < 20; i++) {
+            detector.heartbeat(now);
+            now += 100;
+        }
+        long lastHeartbeat = now - 100;
+
+        // Several intervals without a heartbeat must cross the threshold well under a second
+        assertFalse(detector.isAvailable(lastHeartbeat + 500));
+    }
+
+    @Test
+    public void testPhiIncreasesMonotonically() {
+        PhiAccrualFailureDetector detector = newDetector();
+        long now = 0;
+        for (int i = 0; i < 20; i++) {
+            detector.heartbeat(now);
+            now += 100;
+        }
+
+        double previous = detector.phi(now);
+        for (long t = now + 10; t < now + 400; t += 10) {
+            double current = detector.phi(t);
+            assertTrue(current >= previous, "phi should never decrease as time passes");
+            previous = current;
+        }
+    }
+
+    @Test
+    public void testRecoversAfterHeartbeatResumes() {
+        PhiAccrualFailureDetector detector = newDetector();
+        long now = 0;
+        for (int i = 0; i < 20; i++) {
+            detector.heartbeat(now);
+            now += 100;
+        }
+
+        long late = now + 1_000;
+        assertFalse(detector.isAvailable(late));
+
+        detector.heartbeat(late);
+        assertTrue(detector.isAvailable(late + 50));
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new PhiAccrualFailureDetector(0, 100, 10, 0, 100));
+        assertThrows(IllegalArgumentException.class, () -> new PhiAccrualFailureDetector(8, 0, 10, 0, 100));
+        assertThrows(IllegalArgumentException.class, () -> new PhiAccrualFailureDetector(8, 100, 0, 0, 100));
+    }
+}
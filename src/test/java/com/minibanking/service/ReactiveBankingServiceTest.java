@@ -0,0 +1,355 @@
+package com.minibanking.service;
+
+import com.minibanking.entity.Transaction;
+import com.minibanking.exception.AccountNotFoundException;
+import com.minibanking.exception.InsufficientFundsException;
+import com.minibanking.security.logging.SecureLoggingService;
+import com.minibanking.security.masking.DataMaskingService;
+import io.r2dbc.spi.Readable;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStreamOperations;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.reactive.TransactionCallback;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for ReactiveBankingService transfers against an in-memory DatabaseClient
+ */
+public class ReactiveBankingServiceTest {
+
+    /**
+     * Statement executed through the fake DatabaseClient
+     */
+    static final class Statement {
+        final String sql;
+        final Map<String, Object> bindings = new HashMap<>();
+
+        Statement(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    /**
+     * Account rows, statements and posted events kept in memory; transactions roll back on error
+     */
+    static final class InMemoryDatabase {
+        final Map<UUID, Map<String, Object>> accounts = new HashMap<>();
+        final List<Statement> statements = new CopyOnWriteArrayList<>();
+        final List<Map<?, ?>> events = new CopyOnWriteArrayList<>();
+
+        UUID account(String number, String balance) {
+            UUID id = UUID.randomUUID();
+            Map<String, Object> row = new HashMap<>();
+            row.put("account_id", id);
+            row.put("account_number", number);
+            row.put("status", "ACTIVE");
+            row.put("currency", "VND");
+            row.put("balance", new BigDecimal(balance));
+            row.put("available_balance", new BigDecimal(balance));
+            row.put("ledger_sequence", 0L);
+            row.put("version", 0L);
+            accounts.put(id, row);
+            return id;
+        }
+
+        List<Object> locked() {
+            List<Object> locked = new ArrayList<>();
+            for (Statement statement : statements) {
+                if (statement.sql.contains("FOR UPDATE")) {
+                    locked.add(statement.bindings.get("accountId"));
+                }
+            }
+            return locked;
+        }
+
+        List<Statement> writes() {
+            return statements.stream().filter(s -> !s.sql.startsWith("SELECT")).toList();
+        }
+
+        Object execute(Statement statement) {
+            String sql = statement.sql;
+            Map<String, Object> row = accounts.get(statement.bindings.get("accountId"));
+            if (sql.startsWith("SELECT")) {
+                return row == null ? null : new HashMap<>(row);
+            }
+            if (sql.startsWith("UPDATE accounts")) {
+                row.put("balance", statement.bindings.get("balance"));
+                row.put("available_balance", statement.bindings.get("availableBalance"));
+                row.put("ledger_sequence", statement.bindings.get("ledgerSequence"));
+                row.put("version", (Long) row.get("version") + 1);
+                return 1L;
+            }
+            if (sql.startsWith("INSERT INTO transactions")) {
+                return Map.of("transaction_id", UUID.randomUUID());
+            }
+            return 1L;
+        }
+
+        Map<UUID, Map<String, Object>> snapshot() {
+            Map<UUID, Map<String, Object>> copy = new HashMap<>();
+            accounts.forEach((id, row) -> copy.put(id, new HashMap<>(row)));
+            return copy;
+        }
+
+        DatabaseClient client() {
+            return proxy(DatabaseClient.class, (method, args) -> {
+                if (!"sql".equals(method)) {
+                    throw new UnsupportedOperationException(method);
+                }
+                return spec(new Statement((String) args[0]));
+            });
+        }
+
+        private Object spec(Statement statement) {
+            return proxy(DatabaseClient.GenericExecuteSpec.class, (method, args) -> switch (method) {
+                case "bind" -> {
+                    statement.bindings.put((String) args[0], args[1]);
+                    yield spec(statement);
+                }
+                case "bindNull" -> {
+                    statement.bindings.put((String) args[0], null);
+                    yield spec(statement);
+                }
+                case "map" -> rows(statement, (Function<?, ?>) args[0]);
+                case "fetch" -> proxy(org.springframework.r2dbc.core.FetchSpec.class, (fetchMethod, none) -> {
+                    if (!"rowsUpdated".equals(fetchMethod)) {
+                        throw new UnsupportedOperationException(fetchMethod);
+                    }
+                    return Mono.fromCallable(() -> {
+                        statements.add(statement);
+                        return (Long) execute(statement);
+                    });
+                });
+                default -> throw new UnsupportedOperationException(method);
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object rows(Statement statement, Function<?, ?> mapper) {
+            Function<Readable, Object> rowMapper = (Function<Readable, Object>) mapper;
+            return proxy(org.springframework.r2dbc.core.RowsFetchSpec.class, (method, none) -> {
+                if (!"one".equals(method)) {
+                    throw new UnsupportedOperationException(method);
+                }
+                return Mono.defer(() -> {
+                    statements.add(statement);
+                    Map<String, Object> row = (Map<String, Object>) execute(statement);
+                    return row == null ? Mono.empty() : Mono.justOrEmpty(rowMapper.apply(readable(row)));
+                });
+            });
+        }
+
+        private static Readable readable(Map<String, Object> row) {
+            return proxy(Readable.class, (method, args) -> {
+                if (!"get".equals(method) || !(args[0] instanceof String column)) {
+                    throw new UnsupportedOperationException(method);
+                }
+                return ((Class<?>) args[1]).cast(row.get(column));
+            });
+        }
+
+        TransactionalOperator transactionalOperator() {
+            return new TransactionalOperator() {
+                @Override
+                public <T> Mono<T> transactional(Mono<T> mono) {
+                    return Mono.defer(() -> {
+                        Map<UUID, Map<String, Object>> before = snapshot();
+                        return mono.doOnError(e -> {
+                            accounts.clear();
+                            accounts.putAll(before);
+                        });
+                    });
+                }
+
+                @Override
+                public <T> Flux<T> execute(TransactionCallback<T> action) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @SuppressWarnings("unchecked")
+        ReactiveRedisTemplate<String, Object> redisTemplate() {
+            ReactiveRedisConnectionFactory factory = proxy(ReactiveRedisConnectionFactory.class, (method, args) -> null);
+            return new ReactiveRedisTemplate<String, Object>(factory,
+                    (RedisSerializationContext<String, Object>) (RedisSerializationContext<?, ?>) RedisSerializationContext.string()) {
+                @Override
+                public <HK, HV> ReactiveStreamOperations<String, HK, HV> opsForStream() {
+                    return proxy(ReactiveStreamOperations.class, (method, args) -> {
+                        if (!"add".equals(method)) {
+                            throw new UnsupportedOperationException(method);
+                        }
+                        events.add((Map<?, ?>) args[1]);
+                        return Mono.just(RecordId.autoGenerate());
+                    });
+                }
+            };
+        }
+    }
+
+    /**
+     * Balance cache that records the snapshots it is given instead of writing Redis
+     */
+    static final class RecordingBalanceCache extends AccountBalanceCache {
+        final List<Snapshot> updates = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void update(Snapshot snapshot) {
+            updates.add(snapshot);
+        }
+    }
+
+    @FunctionalInterface
+    interface Handler {
+        Object handle(String method, Object[] args) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<?> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(ReactiveBankingServiceTest.class.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return "toString".equals(method.getName()) ? type.getSimpleName() : method.invoke(handler, args);
+                    }
+                    return handler.handle(method.getName(), args);
+                });
+    }
+
+    private final InMemoryDatabase database = new InMemoryDatabase();
+    private final RecordingBalanceCache balanceCache = new RecordingBalanceCache();
+
+    private ReactiveBankingService service() {
+        ReactiveBankingService service = new ReactiveBankingService();
+        SecureLoggingService logging = new SecureLoggingService();
+        ReflectionTestUtils.setField(logging, "dataMaskingService", new DataMaskingService());
+        ReflectionTestUtils.setField(logging, "async", false);
+        ReflectionTestUtils.setField(logging, "fileEnabled", false);
+        TransactionCodeGenerator codes = new TransactionCodeGenerator();
+        ReflectionTestUtils.setField(codes, "nodeId", 1);
+        codes.init();
+        ReflectionTestUtils.setField(service, "databaseClient", database.client());
+        ReflectionTestUtils.setField(service, "transactionalOperator", database.transactionalOperator());
+        ReflectionTestUtils.setField(service, "reactiveRedisTemplate", database.redisTemplate());
+        ReflectionTestUtils.setField(service, "secureLoggingService", logging);
+        ReflectionTestUtils.setField(service, "balanceCache", balanceCache);
+        ReflectionTestUtils.setField(service, "transactionCodeGenerator", codes);
+        return service;
+    }
+
+    private void awaitCacheUpdates(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (balanceCache.updates.size() < count) {
+            assertTrue(System.nanoTime() < deadline, "balance cache was not updated");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    public void testTransferPostsBalancesLedgerAndVersions() throws InterruptedException {
+        // Given
+        UUID from = database.account("1000000001", "500.00");
+        UUID to = database.account("1000000002", "20.00");
+        ReactiveBankingService service = service();
+
+        // When
+        Transaction transaction = service.transferMoney(from, to, new BigDecimal("120.50"), "rent")
+                .block(Duration.ofSeconds(5));
+
+        // Then - rows locked from, then to, and written in one transaction
+        assertNotNull(transaction);
+        assertEquals(Transaction.TransactionStatus.COMPLETED, transaction.getStatus());
+        assertEquals(List.of(from, to), database.locked());
+        assertEquals(new BigDecimal("379.50"), database.accounts.get(from).get("balance"));
+        assertEquals(new BigDecimal("140.50"), database.accounts.get(to).get("available_balance"));
+        assertEquals(1L, database.accounts.get(from).get("version"));
+        assertEquals(1L, database.accounts.get(to).get("version"));
+        assertEquals(1L, database.accounts.get(from).get("ledger_sequence"));
+
+        List<Statement> ledger = database.writes().stream()
+                .filter(s -> s.sql.startsWith("INSERT INTO account_ledger_entries")).toList();
+        assertEquals(2, ledger.size());
+        assertEquals("DEBIT", ledger.get(0).bindings.get("entryType"));
+        assertEquals(new BigDecimal("379.50"), ledger.get(0).bindings.get("balanceAfter"));
+        assertEquals(to, ledger.get(0).bindings.get("counterpartyAccountId"));
+        assertEquals("CREDIT", ledger.get(1).bindings.get("entryType"));
+        assertEquals(transaction.getTransactionId(), ledger.get(1).bindings.get("transactionId"));
+
+        // And the committed balances reach the cache and the stream
+        awaitCacheUpdates(2);
+        assertEquals(from, balanceCache.updates.get(0).getAccountId());
+        assertEquals(new BigDecimal("379.50"), balanceCache.updates.get(0).getBalance());
+        assertEquals(1L, balanceCache.updates.get(0).getVersion());
+        assertEquals(new BigDecimal("140.50"), balanceCache.updates.get(1).getAvailableBalance());
+        assertEquals(1, database.events.size());
+    }
+
+    @Test
+    public void testReverseTransferLocksInRequestOrder() {
+        // Given
+        UUID first = database.account("1000000001", "500.00");
+        UUID second = database.account("1000000002", "500.00");
+        ReactiveBankingService service = service();
+
+        // When
+        service.transferMoney(second, first, new BigDecimal("10.00"), null).block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(List.of(second, first), database.locked());
+        assertEquals(new BigDecimal("510.00"), database.accounts.get(first).get("balance"));
+    }
+
+    @Test
+    public void testInsufficientFundsWritesNothing() throws InterruptedException {
+        // Given
+        UUID from = database.account("1000000001", "100.00");
+        UUID to = database.account("1000000002", "0.00");
+        ReactiveBankingService service = service();
+
+        // When
+        Mono<Transaction> transfer = service.transferMoney(from, to, new BigDecimal("100.01"), "too much");
+
+        // Then
+        assertThrows(InsufficientFundsException.class, () -> transfer.block(Duration.ofSeconds(5)));
+        assertEquals(List.of(from, to), database.locked());
+        assertTrue(database.writes().isEmpty());
+        assertEquals(new BigDecimal("100.00"), database.accounts.get(from).get("balance"));
+        assertEquals(0L, database.accounts.get(from).get("version"));
+        Thread.sleep(50);
+        assertTrue(balanceCache.updates.isEmpty());
+        assertTrue(database.events.isEmpty());
+    }
+
+    @Test
+    public void testMissingAccountIsReported() {
+        // Given
+        UUID from = database.account("1000000001", "100.00");
+        ReactiveBankingService service = service();
+
+        // When / Then
+        AccountNotFoundException missing = assertThrows(AccountNotFoundException.class,
+                () -> service.transferMoney(from, UUID.randomUUID(), BigDecimal.ONE, null).block(Duration.ofSeconds(5)));
+        assertEquals("To account not found", missing.getMessage());
+        assertTrue(database.writes().isEmpty());
+    }
+}
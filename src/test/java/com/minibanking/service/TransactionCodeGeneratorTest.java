@@ -0,0 +1,270 @@
+package com.minibanking.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for TransactionCodeGenerator
+ */
+public class TransactionCodeGeneratorTest {
+
+    /**
+     * Node id leases kept in a map instead of Redis; expiry is driven by the test
+     */
+    static class InMemoryLeases {
+        final Map<Integer, String> owners = new ConcurrentHashMap<>();
+        final AtomicLong cursor = new AtomicLong();
+        volatile boolean down;
+
+        LeasingGenerator generator() {
+            LeasingGenerator generator = new LeasingGenerator(this);
+            generator.init();
+            return generator;
+        }
+    }
+
+    static class LeasingGenerator extends TransactionCodeGenerator {
+        private final InMemoryLeases leases;
+
+        LeasingGenerator(InMemoryLeases leases) {
+            this.leases = leases;
+        }
+
+        @Override
+        long nextCursor() {
+            checkUp();
+            return leases.cursor.incrementAndGet();
+        }
+
+        @Override
+        boolean claim(int id, String owner, long ttlMs) {
+            checkUp();
+            return leases.owners.putIfAbsent(id, owner) == null;
+        }
+
+        @Override
+        boolean extend(int id, String owner, long ttlMs) {
+            checkUp();
+            return owner.equals(leases.owners.get(id));
+        }
+
+        @Override
+        void release(int id, String owner) {
+            leases.owners.remove(id, owner);
+        }
+
+        private void checkUp() {
+            if (leases.down) {
+                throw new IllegalStateException("Redis unavailable");
+            }
+        }
+    }
+
+    private TransactionCodeGenerator generator(int nodeId) {
+        TransactionCodeGenerator generator = new TransactionCodeGenerator();
+        ReflectionTestUtils.setField(generator, "nodeId", nodeId);
+        generator.init();
+        return generator;
+    }
+
+    @Test
+    public void testCodeLayout() {
+        // Given
+        long millis = 1_700_000_000_123L;
+
+        // When
+        String code = TransactionCodeGenerator.format((millis << TransactionCodeGenerator.SEQUENCE_BITS) | 5, 0x2A);
+
+        // Then - millis stays parseable where the partition lookup expects it
+        assertEquals("TXN170000000012302A005", code);
+        assertEquals(millis, Long.parseLong(code.substring(3, 16)));
+        assertTrue(code.length() <= 30);
+    }
+
+    @Test
+    public void testMonotonicWhenClockStepsBack() {
+        // Given
+        TransactionCodeGenerator generator = generator(1);
+        long first = generator.next(1_000_000);
+
+        // When
+        long second = generator.next(999_000);
+
+        // Then
+        assertTrue(second > first);
+    }
+
+    @Test
+    public void testSequenceExhaustionBorrowsNextMillisecond() {
+        // Given
+        TransactionCodeGenerator generator = generator(1);
+        long now = 1_700_000_000_000L;
+        long last = 0;
+
+        // When
+        for (int i = 0; i <= 1 << TransactionCodeGenerator.SEQUENCE_BITS; i++) {
+            last = generator.next(now);
+        }
+
+        // Then
+        assertEquals(now + 1, last >>> TransactionCodeGenerator.SEQUENCE_BITS);
+        assertEquals(0, last & ((1 << TransactionCodeGenerator.SEQUENCE_BITS) - 1));
+    }
+
+    @Test
+    public void testConcurrentCodesAreUniqueAndOrderedPerThread() throws InterruptedException {
+        // Given
+        TransactionCodeGenerator generator = generator(7);
+        Set<String> codes = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(8);
+        List<Throwable> errors = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    String previous = "";
+                    for (int i = 0; i < 20_000; i++) {
+                        String code = generator.nextCode();
+                        assertTrue(code.compareTo(previous) > 0);
+                        codes.add(code);
+                        previous = code;
+                    }
+                } catch (Throwable e) {
+                    synchronized (errors) {
+                        errors.add(e);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+            thread.start();
+        }
+        done.await();
+
+        // Then
+        assertTrue(errors.isEmpty());
+        assertEquals(8 * 20_000, codes.size());
+    }
+
+    @Test
+    public void testNodeIdValidation() {
+        assertEquals(1023, generator(1023).getNodeId());
+        assertThrows(IllegalArgumentException.class, () -> generator(1024));
+    }
+
+    @Test
+    public void testUnsetNodeIdsAreLeasedUniquely() {
+        // Given
+        InMemoryLeases leases = new InMemoryLeases();
+        leases.cursor.set(1020);
+
+        // When - the cursor wraps past the top of the id space
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 8; i++) {
+            ids.add(leases.generator().getNodeId());
+        }
+
+        // Then
+        assertEquals(8, ids.size());
+        assertEquals(ids, leases.owners.keySet());
+        assertTrue(ids.contains(0) && ids.contains(1023));
+    }
+
+    @Test
+    public void testStartupFailsWithoutALease() {
+        // Given
+        InMemoryLeases leases = new InMemoryLeases();
+        for (int id = 0; id <= TransactionCodeGenerator.MAX_NODE_ID; id++) {
+            leases.owners.put(id, "other");
+        }
+
+        // When / Then
+        IllegalStateException exhausted = assertThrows(IllegalStateException.class, leases::generator);
+        assertTrue(exhausted.getMessage().contains("are leased"));
+        leases.owners.clear();
+        leases.down = true;
+        IllegalStateException unavailable = assertThrows(IllegalStateException.class, leases::generator);
+        assertTrue(unavailable.getMessage().contains("banking.ids.node-id"));
+    }
+
+    @Test
+    public void testLostLeaseIsReplacedAndReleasedOnShutdown() {
+        // Given
+        InMemoryLeases leases = new InMemoryLeases();
+        LeasingGenerator generator = leases.generator();
+        int first = generator.getNodeId();
+
+        // When - the lease expired and another instance took the id
+        leases.owners.put(first, "other");
+        generator.renewLease();
+
+        // Then
+        int second = generator.getNodeId();
+        assertNotEquals(first, second);
+        assertEquals("other", leases.owners.get(first));
+        assertNotNull(generator.nextCode());
+        generator.releaseLease();
+        assertFalse(leases.owners.containsKey(second));
+    }
+
+    @Test
+    public void testCodesKeepFlowingWhenTheLeaseLapses() {
+        // Given
+        InMemoryLeases leases = new InMemoryLeases();
+        LeasingGenerator generator = leases.generator();
+        int leasedId = generator.getNodeId();
+        assertNotNull(generator.nextCode());
+
+        // When - Redis is unreachable past the lease TTL, and the key expires
+        leases.down = true;
+        generator.renewLease();
+        ReflectionTestUtils.setField(generator, "leaseValidUntil", System.nanoTime() - 1);
+        leases.owners.clear();
+
+        // Then - postings don't depend on Redis
+        String code = generator.nextCode();
+        assertEquals(leasedId, Integer.parseInt(code.substring(16, 19), 16));
+
+        // And the lapsed id is claimed again once Redis is back
+        leases.down = false;
+        generator.renewLease();
+        assertEquals(leasedId, generator.getNodeId());
+        assertEquals(Map.of(leasedId, leases.owners.get(leasedId)), leases.owners);
+        assertNotNull(generator.nextCode());
+    }
+
+    @Test
+    public void testFallbackNodeIdWhenNoLeaseCanBeHeld() {
+        // Given
+        InMemoryLeases leases = new InMemoryLeases();
+        LeasingGenerator generator = new LeasingGenerator(leases);
+        ReflectionTestUtils.setField(generator, "fallbackNodeId", 1000);
+        generator.init();
+        assertNotEquals(1000, generator.getNodeId());
+
+        // When - the lease lapses
+        leases.down = true;
+        ReflectionTestUtils.setField(generator, "leaseValidUntil", System.nanoTime() - 1);
+
+        // Then
+        assertEquals("3E8", generator.nextCode().substring(16, 19));
+        assertEquals(1000, generator.getNodeId());
+
+        // And startup without Redis uses the fallback instead of failing
+        LeasingGenerator unleased = new LeasingGenerator(leases);
+        ReflectionTestUtils.setField(unleased, "fallbackNodeId", 1000);
+        unleased.init();
+        assertEquals(1000, unleased.getNodeId());
+    }
+}
@@ -0,0 +1,158 @@
+package com.minibanking.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for TransactionPartitionService partition naming, cutoff and archiving
+ */
+public class TransactionPartitionServiceTest {
+
+    private final List<String> executed = new ArrayList<>();
+
+    /**
+     * Connection listing the given (name, detach pending) partitions and recording DDL;
+     * DDL mentioning failingPartition throws
+     */
+    private Connection connection(List<Object[]> partitions, String failingPartition) {
+        return proxy(Connection.class, (method, args) -> switch (method) {
+            case "createStatement" -> proxy(Statement.class, (statementMethod, statementArgs) -> switch (statementMethod) {
+                case "executeQuery" -> resultSet(partitions.iterator());
+                case "execute" -> {
+                    String sql = (String) statementArgs[0];
+                    if (failingPartition != null && sql.contains(failingPartition)) {
+                        throw new SQLException("lock timeout");
+                    }
+                    executed.add(sql);
+                    yield true;
+                }
+                case "close" -> null;
+                default -> throw new UnsupportedOperationException(statementMethod);
+            });
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private static ResultSet resultSet(Iterator<Object[]> rows) {
+        Object[][] current = new Object[1][];
+        return proxy(ResultSet.class, (method, args) -> switch (method) {
+            case "next" -> {
+                current[0] = rows.hasNext() ? rows.next() : null;
+                yield current[0] != null;
+            }
+            case "getString" -> current[0][(Integer) args[0] - 1];
+            case "getBoolean" -> current[0][(Integer) args[0] - 1];
+            case "close" -> null;
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    @FunctionalInterface
+    interface Handler {
+        Object handle(String method, Object[] args) throws Exception;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(TransactionPartitionServiceTest.class.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> handler.handle(method.getName(), args));
+    }
+
+    private static TransactionPartitionService service() {
+        TransactionPartitionService service = new TransactionPartitionService();
+        ReflectionTestUtils.setField(service, "archiveSchema", "archive");
+        ReflectionTestUtils.setField(service, "archiveTablespace", "");
+        return service;
+    }
+
+    @Test
+    public void testMonthOfMonthlyPartition() {
+        assertEquals(YearMonth.of(2024, 1), TransactionPartitionService.monthOf("transactions_y2024m01"));
+        assertEquals(YearMonth.of(2025, 12), TransactionPartitionService.monthOf("transactions_y2025m12"));
+    }
+
+    @Test
+    public void testMonthOfOtherTables() {
+        assertNull(TransactionPartitionService.monthOf("transactions"));
+        assertNull(TransactionPartitionService.monthOf("transactions_default"));
+        assertNull(TransactionPartitionService.monthOf("transactions_y2024m1"));
+    }
+
+    @Test
+    public void testArchiveCutoff() {
+        assertEquals(YearMonth.of(2024, 10), TransactionPartitionService.archiveCutoff(YearMonth.of(2026, 10), 24));
+        assertEquals(YearMonth.of(2025, 12), TransactionPartitionService.archiveCutoff(YearMonth.of(2026, 1), 1));
+    }
+
+    @Test
+    public void testOnlyPartitionsBeforeCutoffAreArchived() throws SQLException {
+        // Given
+        List<Object[]> partitions = List.of(
+                new Object[] { "transactions_y2024m08", false },
+                new Object[] { "transactions_y2024m09", false },
+                new Object[] { "transactions_y2024m10", false },
+                new Object[] { "transactions_default", false });
+
+        // When
+        List<String> archived = service().archiveExpiredPartitions(connection(partitions, null), YearMonth.of(2024, 10));
+
+        // Then - the cutoff month and non-monthly partitions stay
+        assertEquals(List.of("transactions_y2024m08", "transactions_y2024m09"), archived);
+        assertEquals(List.of(
+                "ALTER TABLE transactions DETACH PARTITION transactions_y2024m08 CONCURRENTLY",
+                "ALTER TABLE transactions_y2024m08 SET SCHEMA archive",
+                "ALTER TABLE transactions DETACH PARTITION transactions_y2024m09 CONCURRENTLY",
+                "ALTER TABLE transactions_y2024m09 SET SCHEMA archive"), executed);
+    }
+
+    @Test
+    public void testPendingDetachesAreFinalized() throws SQLException {
+        // Given - an interrupted archive run, and an interrupted manual detach of a kept partition
+        List<Object[]> partitions = List.of(
+                new Object[] { "transactions_y2024m08", true },
+                new Object[] { "transactions_y2025m03", true },
+                new Object[] { "transactions_y2025m04", false });
+
+        // When
+        List<String> archived = service().archiveExpiredPartitions(connection(partitions, null), YearMonth.of(2024, 10));
+
+        // Then
+        assertEquals(List.of("transactions_y2024m08"), archived);
+        assertEquals(List.of(
+                "ALTER TABLE transactions DETACH PARTITION transactions_y2025m03 FINALIZE",
+                "ALTER TABLE transactions DETACH PARTITION transactions_y2024m08 FINALIZE",
+                "ALTER TABLE transactions_y2024m08 SET SCHEMA archive"), executed);
+    }
+
+    @Test
+    public void testFailedPartitionDoesNotStopTheOthers() throws SQLException {
+        // Given
+        List<Object[]> partitions = List.of(
+                new Object[] { "transactions_y2024m01", false },
+                new Object[] { "transactions_y2024m02", false });
+        TransactionPartitionService service = service();
+        ReflectionTestUtils.setField(service, "archiveTablespace", "compressed");
+
+        // When
+        List<String> archived = service.archiveExpiredPartitions(connection(partitions, "y2024m01"), YearMonth.of(2024, 10));
+
+        // Then
+        assertEquals(List.of("transactions_y2024m02"), archived);
+        assertEquals(List.of(
+                "ALTER TABLE transactions DETACH PARTITION transactions_y2024m02 CONCURRENTLY",
+                "ALTER TABLE transactions_y2024m02 SET SCHEMA archive",
+                "ALTER TABLE archive.transactions_y2024m02 SET TABLESPACE compressed"), executed);
+    }
+}
@@ -0,0 +1,287 @@
+package com.minibanking.service;
+
+import com.minibanking.entity.Validator;
+import com.minibanking.repository.ValidatorRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for ValidatorFailoverService leader selection and ValidatorHeartbeatEmitter
+ */
+public class ValidatorFailoverServiceTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    /**
+     * Heartbeat broadcasts, delivered to the subscribed nodes like the Redis channel
+     */
+    static final class HeartbeatChannel extends StringRedisTemplate {
+        final List<String> messages = new CopyOnWriteArrayList<>();
+        final List<ValidatorFailoverService> subscribers = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Long convertAndSend(String channel, Object message) {
+            messages.add((String) message);
+            for (ValidatorFailoverService subscriber : subscribers) {
+                subscriber.onMessage(new DefaultMessage(channel.getBytes(StandardCharsets.UTF_8),
+                        ((String) message).getBytes(StandardCharsets.UTF_8)), null);
+            }
+            return (long) subscribers.size();
+        }
+    }
+
+    private final HeartbeatChannel channel = new HeartbeatChannel();
+    private final List<UUID> persistedHeartbeats = new CopyOnWriteArrayList<>();
+
+    /**
+     * Detector tuned for 10ms heartbeats so suspicion builds up within a test
+     */
+    private ValidatorFailoverService failoverService() {
+        ValidatorFailoverService service = defaultFailoverService(new ValidatorStatisticsCache());
+        ReflectionTestUtils.setField(service, "minStdDeviationMs", 1.0);
+        ReflectionTestUtils.setField(service, "acceptableHeartbeatPauseMs", 0L);
+        ReflectionTestUtils.setField(service, "firstHeartbeatEstimateMs", 10L);
+        return service;
+    }
+
+    private ValidatorFailoverService defaultFailoverService(ValidatorStatisticsCache cache) {
+        ValidatorFailoverService service = new ValidatorFailoverService();
+        ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(service, "statisticsCache", cache);
+        ReflectionTestUtils.setField(service, "redisTemplate", channel);
+        channel.subscribers.add(service);
+        return service;
+    }
+
+    private ValidatorHeartbeatEmitter emitter(ValidatorFailoverService service, ValidatorStatisticsCache cache,
+                                              String hosted) {
+        ValidatorRepository repository = (ValidatorRepository) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[] { ValidatorRepository.class },
+                (proxy, method, args) -> {
+                    if (!"updateLastHeartbeat".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    persistedHeartbeats.add((UUID) args[0]);
+                    return 1;
+                });
+        ValidatorHeartbeatEmitter emitter = new ValidatorHeartbeatEmitter();
+        ReflectionTestUtils.setField(emitter, "failoverService", service);
+        ReflectionTestUtils.setField(emitter, "statisticsCache", cache);
+        ReflectionTestUtils.setField(emitter, "validatorRepository", repository);
+        if (hosted != null) {
+            ReflectionTestUtils.setField(emitter, "validators", hosted);
+        }
+        return emitter;
+    }
+
+    private static ValidatorStatisticsCache cacheOf(Validator... validators) {
+        ValidatorStatisticsCache cache = new ValidatorStatisticsCache();
+        for (Validator validator : validators) {
+            cache.onValidatorChanged(new ValidatorStatisticsCache.ValidatorChangedEvent(validator));
+        }
+        ReflectionTestUtils.setField(cache, "initialized", true);
+        return cache;
+    }
+
+    private static Validator validator(String name, int priority) {
+        Validator validator = new Validator();
+        validator.setValidatorId(UUID.randomUUID());
+        validator.setValidatorName(name);
+        validator.setIsAuthorized(true);
+        validator.setIsActive(true);
+        validator.setPriority(priority);
+        return validator;
+    }
+
+    @Test
+    public void testHighestPriorityLeadsBeforeHeartbeats() {
+        // Given
+        ValidatorFailoverService service = failoverService();
+        Validator first = validator("validator-1", 10);
+        Validator second = validator("validator-2", 5);
+
+        // When
+        Validator leader = service.resolveLeader(List.of(first, second));
+
+        // Then
+        assertSame(first, leader);
+    }
+
+    @Test
+    public void testSuspectedLeaderIsSkipped() throws InterruptedException {
+        // Given
+        ValidatorFailoverService service = failoverService();
+        Validator first = validator("validator-1", 10);
+        Validator second = validator("validator-2", 5);
+        List<Validator> schedule = List.of(first, second);
+        service.recordHeartbeat(first);
+        service.recordHeartbeat(second);
+        assertSame(first, service.resolveLeader(schedule));
+
+        // When - the leader goes silent while the other validator keeps beating
+        for (int i = 0; i < 15; i++) {
+            Thread.sleep(10);
+            service.recordHeartbeat(second);
+        }
+
+        // Then
+        assertSame(second, service.resolveLeader(schedule));
+        assertEquals(second.getValidatorId(), service.getCurrentLeaderId());
+        assertEquals(1.0, meterRegistry.get("consensus.leader.failovers").counter().count());
+        assertTrue(service.getPhi(first.getValidatorId()) > 8.0);
+    }
+
+    @Test
+    public void testNoLeaderWhenEveryValidatorIsSuspected() throws InterruptedException {
+        // Given
+        ValidatorFailoverService service = failoverService();
+        Validator first = validator("validator-1", 10);
+        Validator second = validator("validator-2", 5);
+        service.recordHeartbeat(first);
+        service.recordHeartbeat(second);
+        assertSame(first, service.resolveLeader(List.of(first, second)));
+
+        // When
+        Thread.sleep(200);
+
+        // Then
+        assertNull(service.resolveLeader(List.of(first, second)));
+    }
+
+    @Test
+    public void testEmitterKeepsHostedValidatorsAvailable() throws InterruptedException {
+        // Given
+        Validator first = validator("validator-1", 10);
+        Validator second = validator("validator-2", 5);
+        ValidatorStatisticsCache cache = cacheOf(first, second);
+        ValidatorFailoverService service = failoverService();
+        ValidatorHeartbeatEmitter emitter = emitter(service, cache, " validator-2 ");
+
+        // When - only validator-2 is hosted here
+        for (int i = 0; i < 15; i++) {
+            emitter.emit();
+            Thread.sleep(10);
+        }
+
+        // Then
+        assertEquals(0.0, service.getPhi(first.getValidatorId()));
+        Validator leader = service.resolveLeader(List.of(first, second));
+        assertEquals(second.getValidatorId(), leader.getValidatorId());
+    }
+
+    @Test
+    public void testSilentValidatorIsSuspectedWhileEmittersRun() throws InterruptedException {
+        // Given - validator-1 reported in, and the emitters are running on this node
+        Validator first = validator("validator-1", 10);
+        Validator second = validator("validator-2", 5);
+        ValidatorStatisticsCache cache = cacheOf(first, second);
+        ValidatorFailoverService service = failoverService();
+        ValidatorHeartbeatEmitter unconfigured = emitter(service, cache, null);
+        ValidatorHeartbeatEmitter hosting = emitter(service, cache, "validator-2");
+        for (int i = 0; i < 5; i++) {
+            service.publishHeartbeat(first);
+            hosting.emit();
+            Thread.sleep(10);
+        }
+        assertSame(first, service.resolveLeader(List.of(first, second)));
+        int broadcasts = channel.messages.size();
+
+        // When - validator-1 goes silent
+        for (int i = 0; i < 15; i++) {
+            unconfigured.emit();
+            hosting.emit();
+            Thread.sleep(10);
+        }
+
+        // Then - no emitter vouches for it, so it is suspected and leadership moves
+        assertTrue(service.getPhi(first.getValidatorId()) > 8.0);
+        assertSame(second, service.resolveLeader(List.of(first, second)));
+        List<String> emitted = channel.messages.subList(broadcasts, channel.messages.size());
+        assertEquals(15, emitted.size());
+        assertTrue(emitted.stream().allMatch(m -> m.contains("|" + second.getValidatorId() + "|")));
+    }
+
+    @Test
+    public void testHeartbeatsReachEveryNode() throws InterruptedException {
+        // Given - validator-1 runs on node A, node B only hears its broadcasts
+        Validator first = validator("validator-1", 10);
+        Validator second = validator("validator-2", 5);
+        ValidatorStatisticsCache cacheA = cacheOf(first, second);
+        ValidatorStatisticsCache cacheB = cacheOf(first, second);
+        ValidatorFailoverService nodeA = failoverService();
+        ValidatorFailoverService nodeB = failoverService();
+        ReflectionTestUtils.setField(nodeB, "statisticsCache", cacheB);
+        ValidatorHeartbeatEmitter emitter = emitter(nodeA, cacheA, "validator-1");
+
+        // When
+        for (int i = 0; i < 15; i++) {
+            emitter.emit();
+            Thread.sleep(10);
+        }
+
+        // Then - both nodes resolve the same leader, and B's statistics see it online
+        assertSame(first, nodeA.resolveLeader(List.of(first, second)));
+        assertSame(first, nodeB.resolveLeader(List.of(first, second)));
+        assertEquals(first.getValidatorId(), nodeB.getCurrentLeaderId());
+        assertTrue(nodeA.getPhi(first.getValidatorId()) < 8.0);
+        assertEquals(1, cacheB.getOnlineValidators(LocalDateTime.now().minusSeconds(5)));
+    }
+
+    @Test
+    public void testHeartbeatsAreWrittenThroughAtTheConfiguredInterval() throws InterruptedException {
+        // Given
+        Validator validator = validator("validator-1", 10);
+        ValidatorStatisticsCache cache = cacheOf(validator);
+        ValidatorFailoverService service = failoverService();
+        ReflectionTestUtils.setField(service, "statisticsCache", cache);
+        ValidatorHeartbeatEmitter emitter = emitter(service, cache, "validator-1");
+        ReflectionTestUtils.setField(emitter, "persistIntervalMs", 1000L);
+        assertEquals(0, cache.getOnlineValidators(LocalDateTime.now().minusSeconds(5)));
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            emitter.emit();
+            Thread.sleep(10);
+        }
+
+        // Then
+        assertEquals(List.of(validator.getValidatorId()), persistedHeartbeats);
+        assertEquals(1, cache.getOnlineValidators(LocalDateTime.now().minusSeconds(5)));
+    }
+
+    @Test
+    public void testDefaultDetectorSuspectsWithinASecond() throws InterruptedException {
+        // Given - the default settings with the emitter's 100ms cadence
+        ValidatorFailoverService service = defaultFailoverService(new ValidatorStatisticsCache());
+        Validator validator = validator("validator-1", 10);
+        for (int i = 0; i < 10; i++) {
+            service.recordHeartbeat(validator);
+            Thread.sleep(100);
+        }
+        service.recordHeartbeat(validator);
+        long lastHeartbeat = System.currentTimeMillis();
+
+        // When
+        while (service.getPhi(validator.getValidatorId()) < 8.0) {
+            Thread.sleep(5);
+        }
+        long detection = System.currentTimeMillis() - lastHeartbeat;
+
+        // Then - plus one 200ms check interval, handoff stays under a second
+        assertTrue(detection >= 300, "suspected after " + detection + "ms");
+        assertTrue(detection + 200 < 1000, "suspected after " + detection + "ms");
+    }
+}
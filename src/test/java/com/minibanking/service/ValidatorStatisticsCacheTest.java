@@ -0,0 +1,207 @@
+package com.minibanking.service;
+
+import com.minibanking.entity.Validator;
+import com.minibanking.repository.BlockRepository;
+import com.minibanking.repository.ValidatorRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for ValidatorStatisticsCache warm-up, event-driven refresh and reconcile
+ */
+public class ValidatorStatisticsCacheTest {
+
+    private static Validator validator(String name, int priority, int blocksCreated) {
+        Validator validator = new Validator(name, "key-" + name, priority);
+        validator.setValidatorId(UUID.randomUUID());
+        validator.setBlocksCreated(blocksCreated);
+        return validator;
+    }
+
+    /**
+     * Cache whose repositories answer findAll/countTotalBlocks from the given data, or fail when validators is null
+     */
+    private static ValidatorStatisticsCache cache(List<Validator> validators, long blocks) {
+        return cache(validators, new AtomicLong(blocks));
+    }
+
+    private static ValidatorStatisticsCache cache(List<Validator> validators, AtomicLong blocks) {
+        ValidatorStatisticsCache cache = new ValidatorStatisticsCache();
+        ValidatorRepository validatorRepository = (ValidatorRepository) Proxy.newProxyInstance(
+                ValidatorStatisticsCacheTest.class.getClassLoader(), new Class<?>[] { ValidatorRepository.class },
+                (proxy, method, args) -> {
+                    if (!"findAll".equals(method.getName()) || args != null) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    if (validators == null) {
+                        throw new IllegalStateException("database unavailable");
+                    }
+                    return validators;
+                });
+        BlockRepository blockRepository = (BlockRepository) Proxy.newProxyInstance(
+                ValidatorStatisticsCacheTest.class.getClassLoader(), new Class<?>[] { BlockRepository.class },
+                (proxy, method, args) -> {
+                    if (!"countTotalBlocks".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    return blocks.get();
+                });
+        ReflectionTestUtils.setField(cache, "validatorRepository", validatorRepository);
+        ReflectionTestUtils.setField(cache, "blockRepository", blockRepository);
+        return cache;
+    }
+
+    @Test
+    public void testInitializeWarmsFromRepositories() {
+        // Given
+        Validator leader = validator("validator-1", 10, 40);
+        Validator backup = validator("validator-2", 5, 60);
+        Validator retired = validator("validator-3", 1, 5);
+        retired.setIsAuthorized(false);
+        retired.setIsActive(false);
+        retired.setFailedAttempts(2);
+        leader.setLastHeartbeat(LocalDateTime.now());
+        ValidatorStatisticsCache cache = cache(List.of(leader, backup, retired), 105);
+
+        // When
+        cache.initialize();
+
+        // Then
+        assertTrue(cache.isInitialized());
+        assertEquals(3, cache.getTotalValidators());
+        assertEquals(2, cache.getAuthorizedValidators());
+        assertEquals(2, cache.getActiveValidators());
+        assertEquals(1, cache.getOnlineValidators(LocalDateTime.now().minusMinutes(1)));
+        assertEquals(1, cache.getValidatorsWithFailedAttempts());
+        assertEquals(105, cache.getTotalBlocks());
+        assertEquals(backup.getValidatorId(), cache.getTopValidatorsByBlocksCreated(1).get(0).getValidatorId());
+        assertEquals(List.of(leader.getValidatorId(), backup.getValidatorId()),
+                cache.getSchedulableValidators().stream().map(Validator::getValidatorId).toList());
+    }
+
+    @Test
+    public void testCommittedChangesReplaceTheSnapshot() {
+        // Given
+        Validator leader = validator("validator-1", 10, 40);
+        Validator backup = validator("validator-2", 5, 60);
+        ValidatorStatisticsCache cache = cache(List.of(leader, backup), 100);
+        cache.initialize();
+
+        // When - the entity is mutated, but nothing is committed yet
+        leader.setIsAuthorized(false);
+        leader.setLockedUntil(LocalDateTime.now().plusMinutes(5));
+
+        // Then - the cache still serves the committed state
+        assertEquals(2, cache.getAuthorizedValidators());
+        assertEquals(2, cache.getValidatorsCanCreateBlock(LocalDateTime.now()));
+
+        // When - the change and a new validator are committed, and blocks are created
+        cache.onValidatorChanged(new ValidatorStatisticsCache.ValidatorChangedEvent(leader));
+        cache.onValidatorChanged(new ValidatorStatisticsCache.ValidatorChangedEvent(validator("validator-4", 7, 0)));
+        cache.onBlockCreated(new ValidatorStatisticsCache.BlockCreatedEvent(101L));
+        cache.onBlockCreated(new ValidatorStatisticsCache.BlockCreatedEvent(102L));
+
+        // Then
+        assertEquals(3, cache.getTotalValidators());
+        assertEquals(2, cache.getAuthorizedValidators());
+        assertEquals(2, cache.getValidatorsCanCreateBlock(LocalDateTime.now()));
+        assertEquals(102, cache.getTotalBlocks());
+        assertEquals(List.of("validator-4", "validator-2"),
+                cache.getSchedulableValidators().stream().map(Validator::getValidatorName).toList());
+    }
+
+    @Test
+    public void testUnsavedValidatorIsIgnored() {
+        // Given
+        ValidatorStatisticsCache cache = cache(List.of(), 0);
+        cache.initialize();
+
+        // When
+        cache.onValidatorChanged(new ValidatorStatisticsCache.ValidatorChangedEvent(new Validator("pending", "key", 1)));
+
+        // Then
+        assertEquals(0, cache.getTotalValidators());
+    }
+
+    @Test
+    public void testFailedWarmUpLeavesCallersOnQueries() {
+        // Given
+        ValidatorStatisticsCache cache = cache(null, 0);
+
+        // When
+        cache.initialize();
+
+        // Then
+        assertFalse(cache.isInitialized());
+    }
+
+    @Test
+    public void testReconcilePicksUpChangesFromOtherNodes() {
+        // Given
+        Validator leader = validator("validator-1", 10, 40);
+        Validator backup = validator("validator-2", 5, 60);
+        List<Validator> table = new ArrayList<>(List.of(leader, backup));
+        AtomicLong blocks = new AtomicLong(100);
+        ValidatorStatisticsCache cache = cache(table, blocks);
+        cache.initialize();
+        LocalDateTime heartbeat = LocalDateTime.now();
+        cache.recordHeartbeat(backup.getValidatorId(), heartbeat);
+
+        // When - another node deauthorizes the leader, adds a validator and creates blocks;
+        // none of it arrives here as a local event
+        Validator deauthorized = validator("validator-1", 10, 40);
+        deauthorized.setValidatorId(leader.getValidatorId());
+        deauthorized.setIsAuthorized(false);
+        table.set(0, deauthorized);
+        table.add(validator("validator-3", 7, 0));
+        blocks.set(103);
+
+        // Then - not visible until the reconcile
+        assertEquals(2, cache.getAuthorizedValidators());
+        cache.reconcile();
+        assertEquals(3, cache.getTotalValidators());
+        assertEquals(2, cache.getAuthorizedValidators());
+        assertEquals(103, cache.getTotalBlocks());
+        assertEquals(List.of("validator-3", "validator-2"),
+                cache.getSchedulableValidators().stream().map(Validator::getValidatorName).toList());
+
+        // And the in-memory heartbeat, newer than the stored one, is kept
+        assertEquals(1, cache.getOnlineValidators(heartbeat.minusSeconds(1)));
+
+        // When - a validator is deleted elsewhere
+        table.remove(2);
+        cache.reconcile();
+
+        // Then
+        assertEquals(2, cache.getTotalValidators());
+    }
+
+    @Test
+    public void testReconcileRetriesAFailedWarmUp() {
+        // Given - the database was down at startup
+        List<Validator> table = new ArrayList<>();
+        ValidatorStatisticsCache failing = cache(null, 0);
+        failing.initialize();
+        ValidatorStatisticsCache cache = cache(table, 7);
+        table.add(validator("validator-1", 10, 7));
+
+        // When
+        failing.reconcile();
+        cache.reconcile();
+
+        // Then
+        assertFalse(failing.isInitialized());
+        assertTrue(cache.isInitialized());
+        assertEquals(1, cache.getTotalValidators());
+        assertEquals(7, cache.getTotalBlocks());
+    }
+}